@@ -0,0 +1,123 @@
+package com.emprovise.nlp.wordnet;
+
+import edu.mit.jwi.DataSourceDictionary;
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.data.FileProvider;
+import edu.mit.jwi.item.IIndexWord;
+import edu.mit.jwi.item.ISynset;
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.POS;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the throughput of uncached JWI lookups (index word and synset) as the number of
+ * concurrent threads grows. The dictionary is used without a cache so that every call goes
+ * to the underlying wordnet files.
+ *
+ * Usage: WordNetLookupBenchmark &lt;wordnet dict dir&gt; [max threads] [seconds per run]
+ */
+public class WordNetLookupBenchmark {
+
+	private final IDictionary dictionary;
+	private final List<IIndexWord> indexWords = new ArrayList<IIndexWord>();
+	private final List<ISynsetID> synsetIds = new ArrayList<ISynsetID>();
+
+	public WordNetLookupBenchmark(File wordnetDir) throws Exception {
+		dictionary = new DataSourceDictionary(new FileProvider(wordnetDir));
+		dictionary.open();
+
+		for(POS pos : POS.values()) {
+			for(Iterator<IIndexWord> i = dictionary.getIndexWordIterator(pos); i.hasNext(); ) {
+				indexWords.add(i.next());
+			}
+			for(Iterator<ISynset> i = dictionary.getSynsetIterator(pos); i.hasNext(); ) {
+				synsetIds.add(i.next().getID());
+			}
+		}
+	}
+
+	/**
+	 * Runs the lookup mix on the specified number of threads for the specified time and
+	 * returns the number of lookups completed per second.
+	 */
+	public double run(int threads, long millis) throws InterruptedException {
+
+		final AtomicLong operations = new AtomicLong();
+		final CountDownLatch start = new CountDownLatch(1);
+		final long deadline = System.currentTimeMillis() + millis;
+
+		List<Thread> workers = new ArrayList<Thread>(threads);
+		for(int t = 0; t < threads; t++) {
+			final int seed = t;
+			Thread worker = new Thread(new Runnable() {
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					long count = 0;
+					int i = seed * 7919;
+					while(System.currentTimeMillis() < deadline) {
+						for(int j = 0; j < 64; j++, i++) {
+							IIndexWord word = indexWords.get((i & Integer.MAX_VALUE) % indexWords.size());
+							dictionary.getIndexWord(word.getID());
+							dictionary.getSynset(synsetIds.get((i & Integer.MAX_VALUE) % synsetIds.size()));
+							count += 2;
+						}
+					}
+					operations.addAndGet(count);
+				}
+			});
+			worker.setDaemon(true);
+			workers.add(worker);
+			worker.start();
+		}
+
+		long begin = System.nanoTime();
+		start.countDown();
+		for(Thread worker : workers) {
+			worker.join();
+		}
+		long elapsed = System.nanoTime() - begin;
+		return operations.get() * 1e9 / elapsed;
+	}
+
+	public void close() {
+		dictionary.close();
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		if(args.length < 1) {
+			System.err.println("Usage: WordNetLookupBenchmark <wordnet dict dir> [max threads] [seconds per run]");
+			return;
+		}
+
+		int maxThreads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		long millis = (args.length > 2) ? Long.parseLong(args[2]) * 1000 : 5000;
+
+		WordNetLookupBenchmark benchmark = new WordNetLookupBenchmark(new File(args[0]));
+
+		// warm up the lookup path before measuring
+		benchmark.run(1, millis);
+
+		double baseline = 0;
+		System.out.println("threads\tlookups/sec\tspeedup");
+		for(int threads = 1; threads <= maxThreads; threads *= 2) {
+			double throughput = benchmark.run(threads, millis);
+			if(threads == 1) {
+				baseline = throughput;
+			}
+			System.out.println(String.format("%d\t%.0f\t%.2f", threads, throughput, throughput / baseline));
+		}
+
+		benchmark.close();
+	}
+}
@@ -0,0 +1,299 @@
+package com.emprovise.nlp.wordnet.similarity;
+
+import edu.mit.jwi.CachingDictionary;
+import edu.mit.jwi.CompiledDictionary;
+import edu.mit.jwi.DictionaryCompiler;
+import edu.mit.jwi.IDataSourceDictionary;
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.RAMDictionary;
+import edu.mit.jwi.data.FileProvider;
+import edu.mit.jwi.data.IDataProvider;
+import edu.mit.jwi.graph.HypernymClosure;
+import edu.mit.jwi.graph.SynsetGraph;
+import edu.mit.jwi.item.ISenseEntry;
+import edu.mit.jwi.item.IVersion;
+import edu.mit.jwi.item.POS;
+import edu.mit.jwi.item.Pointer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * The information content of each synset of a {@link SynsetGraph}, computed from the tag counts of the
+ * sense index of the dictionary, for the Resnik, Lin and Jiang-Conrath measures of a
+ * {@link SimilarityEngine}.
+ *
+ * The frequency of a synset is the sum of the tag counts of its senses, plus a smoothing constant, and
+ * the frequency of each synset is added once to each of its hypernyms, direct or not. The information
+ * content of a synset is then -log(f / N), where f is its frequency and N the total frequency of its
+ * part of speech. Synsets with a frequency of 0 (which happens only without smoothing) are given an
+ * information content of NaN, which the measures take as unknown; a value of 0 is the real information
+ * content of a synset, such as a root, under which every occurrence of its part of speech falls.
+ *
+ * The values are kept in an array indexed by graph node, which is what the engine reads, and may be
+ * written to a file kept beside the dictionary with {@link #save(File)}, so that they need not be
+ * recomputed each time it is opened. The file records the version of the dictionary, a fingerprint of
+ * the Wordnet files it was read from (see {@link DictionaryCompiler#fingerprint(File)}) and a checksum
+ * of the synsets and hypernyms of the graph, and is not used once any of them change. Checking these
+ * does not read the sense entries again, so loading is much cheaper than computing. A dictionary whose
+ * Wordnet files are not in a local directory has no fingerprint, and its values are always computed.
+ */
+public class InformationContent {
+
+	// the file header
+	private static final int MAGIC = 0x4A574943;
+	private static final int FORMAT_VERSION = 4;
+
+	private final SynsetGraph graph;
+	private final double smoothing;
+	private final double[] values;
+
+	// the Wordnet files and dictionary version the values were computed from, the fingerprint being 0
+	// if the files are not known
+	private final long sourceFingerprint;
+	private final String version;
+
+	private InformationContent(SynsetGraph graph, double smoothing, double[] values, long sourceFingerprint, String version) {
+		this.graph = graph;
+		this.smoothing = smoothing;
+		this.values = values;
+		this.sourceFingerprint = sourceFingerprint;
+		this.version = version;
+	}
+
+	/**
+	 * Computes the information content of the synsets of the graph of the specified closure from the
+	 * sense entries of the specified open dictionary, adding the specified smoothing constant (such as 1,
+	 * or 0 for none) to the tag count of each synset.
+	 */
+	public static InformationContent compute(IDictionary dictionary, HypernymClosure closure, double smoothing) {
+		if(dictionary == null || closure == null) {
+			throw new NullPointerException();
+		}
+		if(smoothing < 0 || Double.isNaN(smoothing) || Double.isInfinite(smoothing)) {
+			throw new IllegalArgumentException("Smoothing must be a non-negative number: " + smoothing);
+		}
+		SynsetGraph graph = closure.getGraph();
+		int count = graph.getNodeCount();
+		long[] own = getTagCounts(dictionary, graph);
+		int node;
+
+		// add each synset's count to itself and each of its hypernyms
+		double[] frequencies = new double[count];
+		double[] totals = new double[POS.values().length + 1];
+		double frequency;
+		for(node = 0; node < count; node++) {
+			frequency = own[node] + smoothing;
+			if(frequency == 0) {
+				continue;
+			}
+			frequencies[node] += frequency;
+			for(int ancestor : closure.getAncestors(node)) {
+				frequencies[ancestor] += frequency;
+			}
+			totals[graph.getPOS(node).getNumber()] += frequency;
+		}
+
+		double[] values = new double[count];
+		for(node = 0; node < count; node++) {
+			values[node] = (frequencies[node] > 0) ? Math.log(totals[graph.getPOS(node).getNumber()] / frequencies[node]) : Double.NaN;
+		}
+		return new InformationContent(graph, smoothing, values, getSourceFingerprint(dictionary), getVersion(dictionary));
+	}
+
+	/**
+	 * Reads the information content written by {@link #save(File)} from the specified file, if it was
+	 * computed from the same Wordnet files, synsets and hypernyms with the same smoothing, or else
+	 * computes it and writes it to the file.
+	 */
+	public static InformationContent loadOrCompute(File file, IDictionary dictionary, HypernymClosure closure, double smoothing) throws IOException {
+		if(file.exists()) {
+			try {
+				InformationContent loaded = load(file, dictionary, closure);
+				if(Double.compare(loaded.getSmoothing(), smoothing) == 0) {
+					return loaded;
+				}
+			} catch (IOException e) {
+				// stale or damaged; computed again below
+			}
+		}
+		InformationContent computed = compute(dictionary, closure, smoothing);
+		computed.save(file);
+		return computed;
+	}
+
+	/**
+	 * Reads information content written by {@link #save(File)}, checking that it was computed from the
+	 * synsets and hypernyms of the graph of the specified closure and from the same version and Wordnet
+	 * files as the specified open dictionary. The sense entries of the dictionary are not read.
+	 *
+	 * @throws IOException if the file cannot be read, was computed from different data, or the Wordnet
+	 *             files of the dictionary are not known
+	 */
+	public static InformationContent load(File file, IDictionary dictionary, HypernymClosure closure) throws IOException {
+		if(dictionary == null || closure == null) {
+			throw new NullPointerException();
+		}
+		SynsetGraph graph = closure.getGraph();
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+		try {
+			if(in.readInt() != MAGIC) {
+				throw new IOException("Not an information content file");
+			}
+			int format = in.readInt();
+			if(format != FORMAT_VERSION) {
+				throw new IOException("Unsupported information content format: " + format);
+			}
+			if(in.readInt() != graph.getNodeCount()) {
+				throw new IOException("Information content file was written for a different graph");
+			}
+			long sourceFingerprint = getSourceFingerprint(dictionary);
+			if(sourceFingerprint == 0) {
+				throw new IOException("The Wordnet files of the dictionary are not known");
+			}
+			if(in.readLong() != sourceFingerprint) {
+				throw new IOException("Information content file was computed from different Wordnet files");
+			}
+			String version = getVersion(dictionary);
+			if(!in.readUTF().equals(version)) {
+				throw new IOException("Information content file was computed from a different dictionary version");
+			}
+			if(in.readLong() != fingerprint(graph)) {
+				throw new IOException("Information content file was computed from different synsets or hypernyms");
+			}
+			double smoothing = in.readDouble();
+			double[] values = new double[graph.getNodeCount()];
+			for(int i = 0; i < values.length; i++) {
+				values[i] = in.readDouble();
+			}
+			return new InformationContent(graph, smoothing, values, sourceFingerprint, version);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Writes these values to the specified file, replacing it, from which they may be read back with
+	 * {@link #load(File, IDictionary, HypernymClosure)}. Values computed from a dictionary whose Wordnet
+	 * files are not known are written too, but will not be read back.
+	 */
+	public void save(File file) throws IOException {
+		File tmp = new File(file.getPath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(graph.getNodeCount());
+			out.writeLong(sourceFingerprint);
+			out.writeUTF(version);
+			out.writeLong(fingerprint(graph));
+			out.writeDouble(smoothing);
+			for(double value : values) {
+				out.writeDouble(value);
+			}
+		} finally {
+			out.close();
+		}
+		if(!tmp.renameTo(file)) {
+			file.delete();
+			if(!tmp.renameTo(file)) {
+				tmp.delete();
+				throw new IOException("Unable to write " + file);
+			}
+		}
+	}
+
+	public SynsetGraph getGraph() {
+		return graph;
+	}
+
+	public double getSmoothing() {
+		return smoothing;
+	}
+
+	/**
+	 * Returns the information content of the synset of the specified graph node, or NaN if it is unknown.
+	 */
+	public double get(int node) {
+		return values[node];
+	}
+
+	/**
+	 * Returns the array of the information content of each graph node, as taken by
+	 * {@link SimilarityEngine#SimilarityEngine(HypernymClosure, double[])}. The array is not copied and
+	 * should not be modified.
+	 */
+	public double[] getValues() {
+		return values;
+	}
+
+	// returns the sum of the tag counts of the senses of each synset, by node
+	private static long[] getTagCounts(IDictionary dictionary, SynsetGraph graph) {
+		long[] counts = new long[graph.getNodeCount()];
+		int node;
+		for(Iterator<ISenseEntry> i = dictionary.getSenseEntryIterator(); i.hasNext(); ) {
+			ISenseEntry entry = i.next();
+			node = graph.getNode(entry.getPOS(), entry.getOffset());
+			if(node >= 0) {
+				counts[node] += entry.getTagCount();
+			}
+		}
+		return counts;
+	}
+
+	// returns the fingerprint of the Wordnet files the dictionary reads, or 0 if they are not in a
+	// local directory
+	private static long getSourceFingerprint(IDictionary dictionary) {
+		if(dictionary instanceof CachingDictionary) {
+			return getSourceFingerprint(((CachingDictionary)dictionary).getBackingDictionary());
+		}
+		if(dictionary instanceof RAMDictionary) {
+			return getSourceFingerprint(((RAMDictionary)dictionary).getBackingDictionary());
+		}
+		if(dictionary instanceof CompiledDictionary) {
+			return ((CompiledDictionary)dictionary).getSourceFingerprint();
+		}
+		if(!(dictionary instanceof IDataSourceDictionary)) {
+			return 0;
+		}
+		IDataProvider provider = ((IDataSourceDictionary)dictionary).getDataProvider();
+		if(!(provider instanceof FileProvider)) {
+			return 0;
+		}
+		try {
+			File dir = FileProvider.toFile(provider.getSource());
+			return dir.isDirectory() ? DictionaryCompiler.fingerprint(dir) : 0;
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	// returns the version of the dictionary as a string, empty if it has none
+	private static String getVersion(IDictionary dictionary) {
+		IVersion version = dictionary.getVersion();
+		return (version == null) ? "" : version.toString();
+	}
+
+	// returns a checksum of the synsets of the graph and their hypernyms
+	private static long fingerprint(SynsetGraph graph) {
+		int mask = graph.getMask(Pointer.HYPERNYM, Pointer.HYPERNYM_INSTANCE);
+		long hash = 0;
+		for(int node = 0; node < graph.getNodeCount(); node++) {
+			hash = 31 * hash + graph.getPOS(node).getNumber();
+			hash = 31 * hash + graph.getOffset(node);
+			for(int e = graph.getOutStart(node); e < graph.getOutEnd(node); e++) {
+				if((mask & (1 << graph.getOutType(e))) != 0) {
+					hash = 31 * hash + graph.getOutTarget(e);
+				}
+			}
+		}
+		return hash;
+	}
+}
@@ -0,0 +1,362 @@
+package com.emprovise.nlp.wordnet.similarity;
+
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.graph.GraphTraversal;
+import edu.mit.jwi.graph.HypernymClosure;
+import edu.mit.jwi.graph.SynsetGraph;
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.POS;
+import edu.mit.jwi.item.Pointer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes the semantic similarity of pairs of synsets by the measures of {@link SimilarityMeasure}.
+ *
+ * Everything a measure needs is precomputed when the engine is made: for each synset, the sorted list
+ * of its hypernyms (direct or not, and itself) with the distance to each, and the depth of each synset
+ * in the hierarchy. The common hypernyms of two synsets are then found by merging their two lists, which
+ * gives the shortest path, the deepest common hypernym and the most informative one in a single pass,
+ * without touching the dictionary. Hypernymy in WordNet is a graph with several parents per synset rather
+ * than a tree, so the lowest common ancestor cannot be read off a single Euler tour of the hierarchy; the
+ * lists are short (a dozen or so entries for nouns), which keeps the merge cheap.
+ *
+ * The information content based measures need a value for each node of the graph, such as the values of
+ * an {@link InformationContent}, where NaN marks a synset whose information content is unknown; a pair
+ * involving such a synset has a similarity of 0. A value of 0 is a real information content, that of a
+ * synset (such as a root) which every occurrence of its part of speech falls under. The engine is immutable and may be shared between threads;
+ * {@link #similarityMatrix(List, List, SimilarityMeasure)} splits its work over a fork/join pool.
+ */
+public class SimilarityEngine {
+
+	// the number of pairs below which a matrix is not split further
+	private static final int SEQUENTIAL_THRESHOLD = 1 << 12;
+
+	private final HypernymClosure closure;
+	private final SynsetGraph graph;
+	private final double[] informationContent;
+	private final ForkJoinPool pool;
+
+	// the hypernyms of each node, sorted, with the shortest distance to each
+	private final int[] hypernymRows;
+	private final int[] hypernyms;
+	private final short[] distances;
+
+	// the greatest depth of each part of speech, counting the root as 1, by POS number
+	private final int[] maxDepths;
+
+	/**
+	 * Creates an engine over the synsets of the specified open dictionary, without information content.
+	 */
+	public SimilarityEngine(IDictionary dictionary) {
+		this(new HypernymClosure(dictionary), null);
+	}
+
+	/**
+	 * Creates an engine over the graph of the specified closure, with the specified information content,
+	 * indexed by node, NaN where it is unknown, or null if the information content based measures will not
+	 * be used.
+	 */
+	public SimilarityEngine(HypernymClosure closure, double[] informationContent) {
+		this(closure, informationContent, null);
+	}
+
+	/**
+	 * Creates an engine over the graph of the specified closure, with the specified information content,
+	 * indexed by node, or null, computing matrices on the specified pool, or on a shared pool if null.
+	 */
+	public SimilarityEngine(HypernymClosure closure, double[] informationContent, ForkJoinPool pool) {
+		if(closure == null) {
+			throw new NullPointerException();
+		}
+		this.closure = closure;
+		this.graph = closure.getGraph();
+		int count = graph.getNodeCount();
+		if(informationContent != null && informationContent.length != count) {
+			throw new IllegalArgumentException("Expected information content for " + count + " synsets, got " + informationContent.length);
+		}
+		this.informationContent = informationContent;
+		this.pool = pool;
+
+		// walk up from each node, keeping the hypernyms the closure keeps
+		GraphTraversal traversal = new GraphTraversal(graph);
+		int mask = graph.getMask(Pointer.HYPERNYM, Pointer.HYPERNYM_INSTANCE);
+		int[] rows = new int[count + 1];
+		int total = 0;
+		for(int node = 0; node < count; node++) {
+			total += closure.getAncestorCount(node) + 1;
+			rows[node + 1] = total;
+		}
+		int[] nodes = new int[total];
+		short[] dists = new short[total];
+		long[] entries = new long[64];
+		int reached, size, ancestor;
+		for(int node = 0; node < count; node++) {
+			reached = traversal.breadthFirst(node, mask, -1, false, null);
+			if(entries.length < reached) {
+				entries = new long[reached];
+			}
+			size = 0;
+			for(int i = 0; i < reached; i++) {
+				ancestor = traversal.getReached(i);
+				if(closure.isA(node, ancestor)) {
+					entries[size++] = ((long) ancestor << 32) | traversal.getDepth(ancestor);
+				}
+			}
+			Arrays.sort(entries, 0, size);
+			for(int i = 0; i < size; i++) {
+				nodes[rows[node] + i] = (int) (entries[i] >>> 32);
+				dists[rows[node] + i] = (short) entries[i];
+			}
+		}
+		this.hypernymRows = rows;
+		this.hypernyms = nodes;
+		this.distances = dists;
+
+		this.maxDepths = new int[POS.values().length + 1];
+		for(POS pos : POS.values()) {
+			for(int node = graph.getFirstNode(pos); node < graph.getLastNode(pos); node++) {
+				maxDepths[pos.getNumber()] = Math.max(maxDepths[pos.getNumber()], closure.getMaxDepth(node) + 1);
+			}
+		}
+	}
+
+	public HypernymClosure getClosure() {
+		return closure;
+	}
+
+	/**
+	 * Returns true if this engine has the information content needed by the Resnik, Lin and Jiang-Conrath
+	 * measures.
+	 */
+	public boolean hasInformationContent() {
+		return informationContent != null;
+	}
+
+	/**
+	 * Returns the similarity of the two synsets by the specified measure, or 0 if either is not in the
+	 * graph.
+	 */
+	public double similarity(ISynsetID first, ISynsetID second, SimilarityMeasure measure) {
+		checkMeasure(measure);
+		int a = graph.getNode(first);
+		int b = graph.getNode(second);
+		return (a < 0 || b < 0) ? 0 : compute(a, b, measure);
+	}
+
+	/**
+	 * Returns the similarity of the synsets of the two graph nodes by the specified measure.
+	 */
+	public double similarity(int first, int second, SimilarityMeasure measure) {
+		checkMeasure(measure);
+		if(first < 0 || first >= graph.getNodeCount() || second < 0 || second >= graph.getNodeCount()) {
+			throw new IndexOutOfBoundsException();
+		}
+		return compute(first, second, measure);
+	}
+
+	/**
+	 * Returns the graph node of the lowest common hypernym of the two nodes for the specified measure:
+	 * the one on the shortest path for {@link SimilarityMeasure#PATH} and
+	 * {@link SimilarityMeasure#LEACOCK_CHODOROW}, the deepest for {@link SimilarityMeasure#WU_PALMER}, and
+	 * the most informative for the others; or -1 if they have no common hypernym.
+	 */
+	public int getLowestCommonHypernym(int first, int second, SimilarityMeasure measure) {
+		checkMeasure(measure);
+		if(first < 0 || first >= graph.getNodeCount() || second < 0 || second >= graph.getNodeCount()) {
+			throw new IndexOutOfBoundsException();
+		}
+		long lcs = findLowestCommonHypernym(first, second, measure);
+		return (lcs < 0) ? -1 : (int) (lcs >>> 32);
+	}
+
+	/**
+	 * Returns the matrix of the similarities of each synset of the rows to each synset of the columns
+	 * by the specified measure, computed in parallel. Synsets not in the graph have a similarity of 0.
+	 */
+	public double[][] similarityMatrix(List<ISynsetID> rows, List<ISynsetID> columns, SimilarityMeasure measure) {
+		checkMeasure(measure);
+		int[] rowNodes = toNodes(rows);
+		int[] columnNodes = toNodes(columns);
+		double[][] matrix = new double[rowNodes.length][columnNodes.length];
+		if(rowNodes.length == 0 || columnNodes.length == 0) {
+			return matrix;
+		}
+		MatrixTask task = new MatrixTask(rowNodes, columnNodes, measure, matrix, 0, rowNodes.length);
+		if((long) rowNodes.length * columnNodes.length <= SEQUENTIAL_THRESHOLD) {
+			task.compute();
+		} else {
+			getPool().invoke(task);
+		}
+		return matrix;
+	}
+
+	// computes the similarity of two nodes in one pass over their hypernyms
+	private double compute(int first, int second, SimilarityMeasure measure) {
+		if(graph.getPOS(first) != graph.getPOS(second)) {
+			return 0;
+		}
+		long found = findLowestCommonHypernym(first, second, measure);
+		if(found < 0) {
+			return 0;
+		}
+		int lcs = (int) (found >>> 32);
+		int pathLength = (int) found;
+		switch(measure) {
+			case PATH:
+				return 1.0 / (pathLength + 1);
+			case WU_PALMER:
+				int depth = closure.getMaxDepth(lcs) + 1;
+				return 2.0 * depth / (pathLength + 2 * depth);
+			case LEACOCK_CHODOROW:
+				return -Math.log((pathLength + 1) / (2.0 * maxDepths[graph.getPOS(first).getNumber()]));
+			case RESNIK:
+				return isKnown(lcs) ? informationContent[lcs] : 0;
+			case LIN:
+				if(!isKnown(first) || !isKnown(second) || !isKnown(lcs)) {
+					return 0;
+				}
+				// a sum of 0 is only possible for a root compared with itself
+				double sum = informationContent[first] + informationContent[second];
+				return (sum == 0) ? 1 : 2 * informationContent[lcs] / sum;
+			case JIANG_CONRATH:
+				if(!isKnown(first) || !isKnown(second) || !isKnown(lcs)) {
+					return 0;
+				}
+				double distance = informationContent[first] + informationContent[second] - 2 * informationContent[lcs];
+				return (distance <= 0) ? Double.POSITIVE_INFINITY : 1 / distance;
+			default:
+				throw new IllegalArgumentException("Unknown measure: " + measure);
+		}
+	}
+
+	// merges the hypernyms of the two nodes, returning the best common one for the measure in the high
+	// word and the length of the path through it in the low word, or -1 if there is none
+	private long findLowestCommonHypernym(int first, int second, SimilarityMeasure measure) {
+		int i = hypernymRows[first], iEnd = hypernymRows[first + 1];
+		int j = hypernymRows[second], jEnd = hypernymRows[second + 1];
+		int best = -1, bestDist = 0, a, b, dist;
+		while(i < iEnd && j < jEnd) {
+			a = hypernyms[i];
+			b = hypernyms[j];
+			if(a < b) {
+				i++;
+			} else if(b < a) {
+				j++;
+			} else {
+				dist = distances[i] + distances[j];
+				if(best < 0 || isBetter(a, dist, best, bestDist, measure)) {
+					best = a;
+					bestDist = dist;
+				}
+				i++;
+				j++;
+			}
+		}
+		return (best < 0) ? -1 : ((long) best << 32) | bestDist;
+	}
+
+	// returns whether the candidate is a better common hypernym for the measure than the best so far
+	private boolean isBetter(int candidate, int dist, int best, int bestDist, SimilarityMeasure measure) {
+		switch(measure) {
+			case PATH:
+			case LEACOCK_CHODOROW:
+				return dist < bestDist;
+			case WU_PALMER:
+				int depth = closure.getMaxDepth(candidate), bestDepth = closure.getMaxDepth(best);
+				return depth > bestDepth || (depth == bestDepth && dist < bestDist);
+			default:
+				if(!isKnown(candidate)) {
+					return false;
+				}
+				if(!isKnown(best)) {
+					return true;
+				}
+				double ic = informationContent[candidate], bestIc = informationContent[best];
+				return ic > bestIc || (ic == bestIc && dist < bestDist);
+		}
+	}
+
+	// returns whether the information content of the node is known
+	private boolean isKnown(int node) {
+		return !Double.isNaN(informationContent[node]);
+	}
+
+	private void checkMeasure(SimilarityMeasure measure) {
+		if(measure == null) {
+			throw new NullPointerException();
+		}
+		if(measure.isInformationContentBased() && informationContent == null) {
+			throw new IllegalStateException("The " + measure + " measure needs information content");
+		}
+	}
+
+	private int[] toNodes(List<ISynsetID> ids) {
+		int[] nodes = new int[ids.size()];
+		int i = 0;
+		for(ISynsetID id : ids) {
+			nodes[i++] = graph.getNode(id);
+		}
+		return nodes;
+	}
+
+	private ForkJoinPool getPool() {
+		return (pool != null) ? pool : SharedPool.POOL;
+	}
+
+	/**
+	 * Fills a band of rows of a similarity matrix, splitting it in two while it is large.
+	 */
+	private class MatrixTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int[] rowNodes;
+		private final int[] columnNodes;
+		private final SimilarityMeasure measure;
+		private final double[][] matrix;
+		private final int from;
+		private final int to;
+
+		MatrixTask(int[] rowNodes, int[] columnNodes, SimilarityMeasure measure, double[][] matrix, int from, int to) {
+			this.rowNodes = rowNodes;
+			this.columnNodes = columnNodes;
+			this.measure = measure;
+			this.matrix = matrix;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from > 1 && (long) (to - from) * columnNodes.length > SEQUENTIAL_THRESHOLD) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new MatrixTask(rowNodes, columnNodes, measure, matrix, from, middle),
+						new MatrixTask(rowNodes, columnNodes, measure, matrix, middle, to));
+				return;
+			}
+			for(int r = from; r < to; r++) {
+				double[] row = matrix[r];
+				int a = rowNodes[r];
+				if(a < 0) {
+					continue;
+				}
+				for(int c = 0; c < columnNodes.length; c++) {
+					if(columnNodes[c] >= 0) {
+						row[c] = SimilarityEngine.this.compute(a, columnNodes[c], measure);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Holds the pool used by engines made without one, created on first use.
+	 */
+	private static class SharedPool {
+		static final ForkJoinPool POOL = new ForkJoinPool();
+	}
+}
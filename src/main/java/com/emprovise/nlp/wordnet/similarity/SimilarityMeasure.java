@@ -0,0 +1,43 @@
+package com.emprovise.nlp.wordnet.similarity;
+
+/**
+ * The measures of semantic similarity between two synsets computed by a {@link SimilarityEngine}.
+ * All of them are taken over the hypernym and instance hypernym hierarchy, so synsets of different
+ * parts of speech, or with no common hypernym, have a similarity of 0.
+ */
+public enum SimilarityMeasure {
+
+	/** 1 / (p + 1), where p is the length of the shortest path between the synsets through a common hypernym. */
+	PATH(false),
+
+	/**
+	 * Wu and Palmer: 2d / (p1 + p2 + 2d), where d is the depth of the deepest common hypernym, counting
+	 * the root as 1, and p1 and p2 are the distances from each synset to it.
+	 */
+	WU_PALMER(false),
+
+	/** Leacock and Chodorow: -log((p + 1) / 2D), where D is the depth of the hierarchy of the part of speech. */
+	LEACOCK_CHODOROW(false),
+
+	/** Resnik: the information content of the most informative common hypernym. */
+	RESNIK(true),
+
+	/** Lin: 2 IC(lcs) / (IC(s1) + IC(s2)). */
+	LIN(true),
+
+	/** Jiang and Conrath: 1 / (IC(s1) + IC(s2) - 2 IC(lcs)); infinite for synsets at a distance of 0. */
+	JIANG_CONRATH(true);
+
+	private final boolean informationContentBased;
+
+	private SimilarityMeasure(boolean informationContentBased) {
+		this.informationContentBased = informationContentBased;
+	}
+
+	/**
+	 * Returns true if this measure needs the information content of the synsets.
+	 */
+	public boolean isInformationContentBased() {
+		return informationContentBased;
+	}
+}
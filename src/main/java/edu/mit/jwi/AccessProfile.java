@@ -0,0 +1,425 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.mit.jwi.data.parse.SenseKeyParser;
+import edu.mit.jwi.item.IIndexWordID;
+import edu.mit.jwi.item.ISenseKey;
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.IndexWordID;
+import edu.mit.jwi.item.SynsetID;
+
+/**
+ * A record of the synset ids, index word ids and sense keys most often
+ * looked up in a dictionary. Lookups are sampled, so that recording costs
+ * little more than a random number draw on most calls, and the profile is
+ * kept to a bounded number of keys. The profile can be saved to and loaded
+ * from a small text file, so that a {@link CachingDictionary} can warm its
+ * cache with the hottest keys of a previous run when it is opened.
+ * <p>
+ * Each line of the file holds a key type (<code>S</code>, <code>I</code> or
+ * <code>K</code>), the sampled access count, and the key, in order of
+ * descending count. Counts are halved when a profile is loaded, so that keys
+ * that are no longer used age out of the profile over successive runs.
+ * <p>
+ * This class is safe for concurrent use.
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class AccessProfile {
+
+	/**
+	 * The default number of lookups per sampled lookup.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int DEFAULT_SAMPLE_INTERVAL = 16;
+
+	/**
+	 * The default number of keys kept in the profile.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int DEFAULT_MAXIMUM_KEYS = 10000;
+
+	/**
+	 * The default period between saves of the profile, in milliseconds.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final long DEFAULT_SAVE_PERIOD = 5 * 60 * 1000;
+
+	/**
+	 * The character set of profile files.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final Charset CHARSET = Charset.forName("UTF-8");
+
+	// key types in the profile file
+	private static final char SYNSET = 'S';
+	private static final char INDEX_WORD = 'I';
+	private static final char SENSE_KEY = 'K';
+
+	// instance fields
+	private final File file;
+	private final int sampleInterval;
+	private final int maxKeys;
+	private final long savePeriod;
+	private final ConcurrentHashMap<Object, AtomicInteger> counts = new ConcurrentHashMap<Object, AtomicInteger>();
+
+	/**
+	 * Constructs a new, empty profile that is saved to the specified file,
+	 * with the default sample interval, maximum number of keys and save
+	 * period.
+	 * 
+	 * @param file
+	 *            the file in which the profile is kept; may not be
+	 *            <code>null</code>
+	 * @throws NullPointerException
+	 *             if the specified file is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public AccessProfile(File file) {
+		this(file, DEFAULT_SAMPLE_INTERVAL, DEFAULT_MAXIMUM_KEYS, DEFAULT_SAVE_PERIOD);
+	}
+
+	/**
+	 * Constructs a new, empty profile that is saved to the specified file.
+	 * 
+	 * @param file
+	 *            the file in which the profile is kept; may not be
+	 *            <code>null</code>
+	 * @param sampleInterval
+	 *            the average number of lookups per recorded lookup; values
+	 *            less than 2 record every lookup
+	 * @param maxKeys
+	 *            the largest number of keys kept in the profile
+	 * @param savePeriod
+	 *            the period between saves of the profile while the dictionary
+	 *            is open, in milliseconds; values less than 1 mean that the
+	 *            profile is saved only when the dictionary is closed
+	 * @throws NullPointerException
+	 *             if the specified file is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the maximum number of keys is less than 1
+	 * @since JWI 2.4.0
+	 */
+	public AccessProfile(File file, int sampleInterval, int maxKeys, long savePeriod) {
+		if(file == null)
+			throw new NullPointerException();
+		if(maxKeys < 1)
+			throw new IllegalArgumentException();
+		this.file = file;
+		this.sampleInterval = Math.max(1, sampleInterval);
+		this.maxKeys = maxKeys;
+		this.savePeriod = savePeriod;
+	}
+
+	/**
+	 * Returns the file in which this profile is kept.
+	 * 
+	 * @return the file in which this profile is kept
+	 * @since JWI 2.4.0
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Returns the average number of lookups per recorded lookup.
+	 * 
+	 * @return the sample interval of this profile
+	 * @since JWI 2.4.0
+	 */
+	public int getSampleInterval() {
+		return sampleInterval;
+	}
+
+	/**
+	 * Returns the largest number of keys kept in this profile.
+	 * 
+	 * @return the largest number of keys kept in this profile
+	 * @since JWI 2.4.0
+	 */
+	public int getMaximumKeys() {
+		return maxKeys;
+	}
+
+	/**
+	 * Returns the period between saves of this profile while the dictionary
+	 * is open, in milliseconds.
+	 * 
+	 * @return the save period, in milliseconds; less than 1 if the profile is
+	 *         saved only when the dictionary is closed
+	 * @since JWI 2.4.0
+	 */
+	public long getSavePeriod() {
+		return savePeriod;
+	}
+
+	/**
+	 * Records, if sampled, a lookup of the specified synset.
+	 * 
+	 * @param id
+	 *            the id of the synset; ignored if <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public void record(ISynsetID id) {
+		sample(id);
+	}
+
+	/**
+	 * Records, if sampled, a lookup of the specified index word.
+	 * 
+	 * @param id
+	 *            the id of the index word; ignored if <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public void record(IIndexWordID id) {
+		sample(id);
+	}
+
+	/**
+	 * Records, if sampled, a lookup by the specified sense key.
+	 * 
+	 * @param key
+	 *            the sense key; ignored if <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public void record(ISenseKey key) {
+		sample(key);
+	}
+
+	// counts the key, if this lookup is sampled
+	private void sample(Object key) {
+		if(key == null)
+			return;
+		if(sampleInterval > 1 && ThreadLocalRandom.current().nextInt(sampleInterval) != 0)
+			return;
+		increment(key, 1);
+		if(counts.size() > 2 * maxKeys)
+			prune();
+	}
+
+	// adds to the count of the key
+	private void increment(Object key, int delta) {
+		AtomicInteger count = counts.get(key);
+		if(count == null){
+			count = new AtomicInteger();
+			AtomicInteger existing = counts.putIfAbsent(key, count);
+			if(existing != null)
+				count = existing;
+		}
+		count.addAndGet(delta);
+	}
+
+	// drops all but the hottest keys
+	private synchronized void prune() {
+		if(counts.size() <= 2 * maxKeys)
+			return;
+		List<Entry<Object, Integer>> hot = getEntries();
+		for(int i = maxKeys; i < hot.size(); i++)
+			counts.remove(hot.get(i).getKey());
+	}
+
+	/**
+	 * Returns the keys of this profile, hottest first, up to the maximum number
+	 * of keys. Each key is an {@link ISynsetID}, an {@link IIndexWordID} or an
+	 * {@link ISenseKey}.
+	 * 
+	 * @return the keys of this profile, hottest first
+	 * @since JWI 2.4.0
+	 */
+	public List<Object> getHotKeys() {
+		List<Entry<Object, Integer>> entries = getEntries();
+		int size = Math.min(maxKeys, entries.size());
+		List<Object> result = new ArrayList<Object>(size);
+		for(int i = 0; i < size; i++)
+			result.add(entries.get(i).getKey());
+		return result;
+	}
+
+	// returns a snapshot of the counts, in descending order
+	private List<Entry<Object, Integer>> getEntries() {
+		List<Entry<Object, Integer>> result = new ArrayList<Entry<Object, Integer>>(counts.size());
+		for(Entry<Object, AtomicInteger> e : counts.entrySet())
+			result.add(new Snapshot(e.getKey(), e.getValue().get()));
+		Collections.sort(result, countComparator);
+		return result;
+	}
+
+	// orders entries by descending count
+	private static final Comparator<Entry<Object, Integer>> countComparator = new Comparator<Entry<Object, Integer>>() {
+		public int compare(Entry<Object, Integer> e1, Entry<Object, Integer> e2) {
+			return e2.getValue().compareTo(e1.getValue());
+		}
+	};
+
+	// an immutable key and count
+	private static class Snapshot implements Entry<Object, Integer> {
+		private final Object key;
+		private final Integer value;
+		Snapshot(Object key, int value) {
+			this.key = key;
+			this.value = value;
+		}
+		public Object getKey() {
+			return key;
+		}
+		public Integer getValue() {
+			return value;
+		}
+		public Integer setValue(Integer value) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * Removes all keys from this profile. The file is not changed.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public void clear() {
+		counts.clear();
+	}
+
+	/**
+	 * Writes the hottest keys of this profile to its file. The profile is
+	 * first written to a temporary file in the same directory, which is then
+	 * renamed, so that a reader never sees a partial profile.
+	 * 
+	 * @throws IOException
+	 *             if there is a problem writing the file
+	 * @since JWI 2.4.0
+	 */
+	public synchronized void save() throws IOException {
+		List<Entry<Object, Integer>> entries = getEntries();
+		int size = Math.min(maxKeys, entries.size());
+		File tmp = new File(file.getPath() + ".tmp");
+		Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), CHARSET));
+		try {
+			Entry<Object, Integer> e;
+			char type;
+			String key;
+			for(int i = 0; i < size; i++){
+				e = entries.get(i);
+				if(e.getKey() instanceof ISynsetID){
+					type = SYNSET;
+				} else if(e.getKey() instanceof IIndexWordID){
+					type = INDEX_WORD;
+				} else {
+					type = SENSE_KEY;
+				}
+				try {
+					key = e.getKey().toString();
+				} catch(IllegalArgumentException ex){
+					// adjective satellite sense key without its head
+					continue;
+				}
+				out.write(type);
+				out.write(' ');
+				out.write(Integer.toString(e.getValue()));
+				out.write(' ');
+				out.write(key);
+				out.write('\n');
+			}
+		} finally {
+			out.close();
+		}
+		if(!tmp.renameTo(file)){
+			file.delete();
+			if(!tmp.renameTo(file)){
+				tmp.delete();
+				throw new IOException("Unable to write " + file);
+			}
+		}
+	}
+
+	/**
+	 * Reads the keys of this profile's file, if it exists, and adds them to
+	 * this profile with half their saved counts. Lines that cannot be parsed
+	 * are skipped.
+	 * 
+	 * @return the keys read from the file, in the order in which they
+	 *         appear, hottest first; empty if there is no file
+	 * @throws IOException
+	 *             if there is a problem reading the file
+	 * @since JWI 2.4.0
+	 */
+	public synchronized List<Object> load() throws IOException {
+		List<Object> result = new ArrayList<Object>();
+		if(!file.exists())
+			return result;
+		BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), CHARSET));
+		try {
+			String line;
+			Object key;
+			int first, second, count;
+			while((line = in.readLine()) != null && result.size() < maxKeys){
+				first = line.indexOf(' ');
+				second = (first < 0) ? -1 : line.indexOf(' ', first + 1);
+				if(first != 1 || second < 0)
+					continue;
+				try {
+					count = Integer.parseInt(line.substring(first + 1, second));
+					key = parseKey(line.charAt(0), line.substring(second + 1));
+				} catch(RuntimeException e){
+					// malformed line
+					continue;
+				}
+				if(key == null)
+					continue;
+				result.add(key);
+				increment(key, Math.max(1, count / 2));
+			}
+		} finally {
+			in.close();
+		}
+		return result;
+	}
+
+	// parses a key of the specified type, or returns null for unknown types
+	private static Object parseKey(char type, String key) {
+		switch(type){
+		case SYNSET:
+			return SynsetID.parseSynsetID(key);
+		case INDEX_WORD:
+			return IndexWordID.parseIndexWordID(key);
+		case SENSE_KEY:
+			return SenseKeyParser.getInstance().parseLine(key);
+		default:
+			return null;
+		}
+	}
+
+}
@@ -11,9 +11,22 @@
 package edu.mit.jwi;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -33,6 +46,11 @@ import edu.mit.jwi.item.IWord;
 import edu.mit.jwi.item.IWordID;
 import edu.mit.jwi.item.IndexWordID;
 import edu.mit.jwi.item.POS;
+import edu.mit.jwi.metrics.CacheKind;
+import edu.mit.jwi.metrics.IMetered;
+import edu.mit.jwi.metrics.IMetricsListener;
+import edu.mit.jwi.metrics.Lookup;
+import edu.mit.jwi.metrics.MetricsAdapter;
 
 
 /** 
@@ -42,11 +60,35 @@ import edu.mit.jwi.item.POS;
  * @version 2.3.3
  * @since JWI 2.2.0
  */
-public class CachingDictionary implements ICachingDictionary {
+public class CachingDictionary implements ICachingDictionary, IMetered {
 	
 	// final instance fields 
 	private final IDictionary backing;
 	private final IItemCache cache;
+	
+	// the backing dictionary, if it can rule out absent items
+	private final ILookupFiltered filter;
+	
+	// the listener that receives lookup timings, if any
+	private volatile IMetricsListener listener;
+	
+	// the access profile, and the threads that prefetch and save it
+	private volatile AccessProfile profile;
+	private volatile boolean prefetchCancelled;
+	private ExecutorService prefetcher;
+	private ScheduledExecutorService profileSaver;
+	
+	// the loads from the backing dictionary in progress, by key, so that
+	// concurrent misses for the same key share one load
+	private final ConcurrentMap<IItemID<?>, FutureTask<IItem<?>>> itemLoads = new ConcurrentHashMap<IItemID<?>, FutureTask<IItem<?>>>();
+	private final ConcurrentMap<ISenseKey, FutureTask<IWord>> wordLoads = new ConcurrentHashMap<ISenseKey, FutureTask<IWord>>();
+	private final ConcurrentMap<ISenseKey, FutureTask<ISenseEntry>> senseLoads = new ConcurrentHashMap<ISenseKey, FutureTask<ISenseEntry>>();
+	
+	// the off-heap cache consulted on item cache misses, if any
+	private volatile OffHeapSynsetCache secondLevel;
+	
+	// the longest time close waits for prefetch threads to stop, in milliseconds
+	private static final long PREFETCH_STOP_TIMEOUT = 10000;
 
 	/**
 	 * Constructs a new caching dictionary that caches the results of the
@@ -61,6 +103,7 @@ public class CachingDictionary implements ICachingDictionary {
 			throw new NullPointerException();
 		this.cache = createCache();
 		this.backing = backing;
+		this.filter = (backing instanceof ILookupFiltered) ? (ILookupFiltered)backing : null;
 	}
 	
 	/**
@@ -78,13 +121,15 @@ public class CachingDictionary implements ICachingDictionary {
 	 * This operation creates the cache that is used by the dictionary. It is
 	 * set inside it's own method for ease of subclassing. It is called only
 	 * when an instance of this class is created. It is marked protected for
-	 * ease of subclassing.
+	 * ease of subclassing. As of JWI 2.4.0, this returns a thread-safe
+	 * {@link ConcurrentItemCache}; subclasses that need the previous
+	 * behavior may return an {@link ItemCache} instead.
 	 * 
 	 * @return the item cache to be used by this dictionary
 	 * @since JWI 2.2.0
 	 */
 	protected IItemCache createCache(){
-		return new ItemCache();
+		return new ConcurrentItemCache();
 	}
 	
 	/**
@@ -121,6 +166,33 @@ public class CachingDictionary implements ICachingDictionary {
 		return cache;
 	}
 
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.metrics.IMetered#getMetricsListener()
+	 */
+	public IMetricsListener getMetricsListener() {
+		return listener;
+	}
+
+	/**
+	 * Sets the listener that receives the metrics of this dictionary. Lookups
+	 * are timed by this dictionary; the listener is also given to the cache,
+	 * if it is metered, and, for parse events only, to the backing
+	 * dictionary, if it is metered.
+	 * 
+	 * @param listener
+	 *            the listener, or <code>null</code> to stop recording
+	 * @since JWI 2.4.0
+	 */
+	public void setMetricsListener(IMetricsListener listener) {
+		this.listener = listener;
+		if(cache instanceof IMetered)
+			((IMetered)cache).setMetricsListener(listener);
+		if(backing instanceof IMetered)
+			((IMetered)backing).setMetricsListener(MetricsAdapter.parseEventsOnly(listener));
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -130,7 +202,10 @@ public class CachingDictionary implements ICachingDictionary {
 		if(isOpen())
 			return true;
 		cache.open();
-		return backing.open();
+		boolean result = backing.open();
+		if(result)
+			startProfile();
+		return result;
 	}
 
 	/* 
@@ -150,10 +225,217 @@ public class CachingDictionary implements ICachingDictionary {
 	public void close() {
 		if(!isOpen())
 			return;
+		stopProfile();
 		getCache().close();
+		OffHeapSynsetCache l2 = secondLevel;
+		if(l2 != null)
+			l2.clear();
 		backing.close();
 	}
 
+	/**
+	 * Returns the second-level cache of this dictionary, or <code>null</code>
+	 * if there is none.
+	 * 
+	 * @return the second-level cache of this dictionary, or <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public OffHeapSynsetCache getSecondLevelCache() {
+		return secondLevel;
+	}
+
+	/**
+	 * Sets the second-level cache of this dictionary. Synsets loaded from the
+	 * backing dictionary are stored in the second-level cache, and a synset
+	 * that is not in the item cache is decoded from the second-level cache,
+	 * if it is there, rather than loaded from the backing dictionary. The
+	 * second-level cache is cleared when the dictionary is closed.
+	 * 
+	 * @param cache
+	 *            the second-level cache, or <code>null</code> for none
+	 * @since JWI 2.4.0
+	 */
+	public void setSecondLevelCache(OffHeapSynsetCache cache) {
+		this.secondLevel = cache;
+	}
+
+	/**
+	 * Returns the profile in which this dictionary records the keys that are
+	 * looked up, or <code>null</code> if there is none.
+	 * 
+	 * @return the access profile of this dictionary, or <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public AccessProfile getAccessProfile() {
+		return profile;
+	}
+
+	/**
+	 * Sets the profile in which this dictionary records the keys of synset,
+	 * index word and sense key lookups. When the dictionary is opened, the
+	 * keys saved in the profile's file are loaded into the cache in the
+	 * background, hottest first, if the cache is safe for concurrent use (see
+	 * {@link #prefetch(List)}); the profile is then saved periodically
+	 * and when the dictionary is closed. A profile file that cannot be read
+	 * is ignored, and the profile starts empty. The profile should be set
+	 * before the dictionary is opened; recording starts at once.
+	 * 
+	 * @param profile
+	 *            the access profile, or <code>null</code> for none
+	 * @since JWI 2.4.0
+	 */
+	public void setAccessProfile(AccessProfile profile) {
+		this.profile = profile;
+	}
+
+	/**
+	 * Waits for the prefetch of the access profile's keys, started when this
+	 * dictionary was opened, to finish. Returns immediately if there is no
+	 * prefetch in progress.
+	 * 
+	 * @param timeout
+	 *            the longest time to wait
+	 * @param unit
+	 *            the unit of the timeout; may not be <code>null</code>
+	 * @return <code>true</code> if the prefetch has finished;
+	 *         <code>false</code> if the timeout elapsed first
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting
+	 * @since JWI 2.4.0
+	 */
+	public boolean awaitPrefetch(long timeout, TimeUnit unit) throws InterruptedException {
+		ExecutorService executor;
+		synchronized(this){
+			executor = prefetcher;
+		}
+		return executor == null || executor.awaitTermination(timeout, unit);
+	}
+
+	// loads the access profile, starts prefetching its keys and schedules its saves
+	private synchronized void startProfile() {
+		final AccessProfile p = profile;
+		if(p == null)
+			return;
+		List<Object> keys;
+		try {
+			keys = p.load();
+		} catch(IOException e) {
+			// the profile only speeds up opening, so start again without it
+			p.clear();
+			keys = Collections.emptyList();
+		}
+		if(!keys.isEmpty()){
+			prefetchCancelled = false;
+			prefetcher = prefetch(keys);
+		}
+		if(p.getSavePeriod() > 0){
+			profileSaver = Executors.newSingleThreadScheduledExecutor(daemonThreads("JWI profile saver"));
+			profileSaver.scheduleWithFixedDelay(new Runnable() {
+				public void run() {
+					try {
+						p.save();
+					} catch(IOException e) {
+						// the previous profile is kept; try again next time
+					}
+				}
+			}, p.getSavePeriod(), p.getSavePeriod(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	// stops prefetching and periodic saves, and saves the access profile
+	private synchronized void stopProfile() {
+		if(prefetcher != null){
+			prefetchCancelled = true;
+			try {
+				prefetcher.awaitTermination(PREFETCH_STOP_TIMEOUT, TimeUnit.MILLISECONDS);
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			prefetcher = null;
+		}
+		if(profileSaver != null){
+			profileSaver.shutdown();
+			profileSaver = null;
+		}
+		AccessProfile p = profile;
+		if(p == null)
+			return;
+		try {
+			p.save();
+		} catch(IOException e) {
+			// the profile only speeds up the next open, so losing it is harmless
+		}
+	}
+
+	/**
+	 * Loads the specified keys of the access profile into the cache. If the
+	 * cache is a {@link ConcurrentItemCache}, the keys are split among a pool
+	 * of daemon threads, one per processor, each of which takes every
+	 * <i>n</i>th key so that the hottest keys are loaded first; the returned
+	 * executor has been shut down, and terminates when the prefetch is done.
+	 * Other caches may not be safe for concurrent use, and loading the keys
+	 * in the calling thread would hold up opening, so they are not warmed up
+	 * and <code>null</code> is returned. This method is called when the
+	 * dictionary is opened; lookups made by it are not recorded in the
+	 * profile.
+	 * 
+	 * @param keys
+	 *            the keys to be loaded, hottest first; may not be
+	 *            <code>null</code>
+	 * @return the executor running the prefetch, or <code>null</code> if
+	 *         there is none
+	 * @since JWI 2.4.0
+	 */
+	protected ExecutorService prefetch(final List<Object> keys) {
+		if(!(cache instanceof ConcurrentItemCache))
+			return null;
+		final int threads = Math.min(Runtime.getRuntime().availableProcessors(), keys.size());
+		ExecutorService executor = Executors.newFixedThreadPool(threads, daemonThreads("JWI prefetch"));
+		for(int i = 0; i < threads; i++){
+			final int first = i;
+			executor.execute(new Runnable() {
+				public void run() {
+					for(int j = first; j < keys.size() && !prefetchCancelled; j += threads)
+						if(!prefetch(keys.get(j)))
+							return;
+				}
+			});
+		}
+		executor.shutdown();
+		return executor;
+	}
+
+	// loads the item with the key into the cache; returns false if the dictionary is closed
+	private boolean prefetch(Object key) {
+		try {
+			if(key instanceof ISynsetID){
+				findSynset((ISynsetID)key);
+			} else if(key instanceof IIndexWordID){
+				findIndexWord((IIndexWordID)key);
+			} else if(key instanceof ISenseKey){
+				findSenseEntry((ISenseKey)key);
+				findWord((ISenseKey)key);
+			}
+		} catch(ObjectClosedException e) {
+			return false;
+		} catch(RuntimeException e) {
+			// a key that is no longer valid for this dictionary
+		}
+		return true;
+	}
+
+	// creates daemon threads with the specified name prefix
+	private static ThreadFactory daemonThreads(final String name) {
+		return new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			}
+		};
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -170,14 +452,7 @@ public class CachingDictionary implements ICachingDictionary {
 	 */
 	public IIndexWord getIndexWord(String lemma, POS pos) {
 		checkOpen();
-		IIndexWordID id = new IndexWordID(lemma, pos);
-		IIndexWord item = getCache().retrieveItem(id);
-		if(item == null){
-			item = backing.getIndexWord(id);
-			if(item != null)
-				getCache().cacheItem(item);
-		}
-		return item;
+		return getIndexWord(new IndexWordID(lemma, pos));
 	}
 
 	/* 
@@ -187,15 +462,36 @@ public class CachingDictionary implements ICachingDictionary {
 	 */
 	public IIndexWord getIndexWord(IIndexWordID id) {
 		checkOpen();
-		IIndexWord item = getCache().retrieveItem(id);
-		if(item == null){
-			item = backing.getIndexWord(id);
-			if(item != null)
-				getCache().cacheItem(item);
-		}
+		AccessProfile p = profile;
+		if(p != null)
+			p.record(id);
+		IMetricsListener l = listener;
+		if(l == null)
+			return findIndexWord(id);
+		long start = System.nanoTime();
+		IIndexWord item = findIndexWord(id);
+		l.lookupCompleted(Lookup.INDEX_WORD, System.nanoTime() - start, item != null);
 		return item;
 	}
 
+	// looks up the index word in the cache, then, unless the filter rules
+	// it out, in the backing dictionary
+	private IIndexWord findIndexWord(final IIndexWordID id) {
+		IIndexWord item = getCache().retrieveItem(id);
+		if(item != null)
+			return item;
+		if(filter != null && !filter.mightContainIndexWord(id))
+			return null;
+		return (IIndexWord)load(itemLoads, id, new Callable<IItem<?>>() {
+			public IItem<?> call() {
+				IIndexWord item = backing.getIndexWord(id);
+				if(item != null)
+					getCache().cacheItem(item);
+				return item;
+			}
+		});
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -205,6 +501,33 @@ public class CachingDictionary implements ICachingDictionary {
 		return backing.getIndexWordIterator(pos);
 	}
 
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.IDictionary#getIndexWordIterator(edu.mit.jwi.item.POS, java.lang.String, int)
+	 */
+	public Iterator<IIndexWord> getIndexWordIterator(POS pos, String prefix, int limit) {
+		return backing.getIndexWordIterator(pos, prefix, limit);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.IDictionary#getIndexWordIterator(edu.mit.jwi.item.POS, java.lang.String, java.lang.String, int)
+	 */
+	public Iterator<IIndexWord> getIndexWordIterator(POS pos, String fromLemma, String toLemma, int limit) {
+		return backing.getIndexWordIterator(pos, fromLemma, toLemma, limit);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.IDictionary#getIndexWords(java.lang.String, int)
+	 */
+	public List<IIndexWord> getIndexWords(String prefix, int limit) {
+		return backing.getIndexWords(prefix, limit);
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -212,11 +535,14 @@ public class CachingDictionary implements ICachingDictionary {
 	 */
 	public IWord getWord(IWordID id) {
 		checkOpen();
+		AccessProfile p = profile;
+		if(p != null)
+			p.record(id.getSynsetID());
 		IWord item = getCache().retrieveItem(id);
 		if(item == null){
 			item = backing.getWord(id);
 			if(item != null)
-				cacheSynset(item.getSynset());
+				cacheLoadedSynset(item.getSynset());
 		}
 		return item;
 	}
@@ -228,13 +554,25 @@ public class CachingDictionary implements ICachingDictionary {
 	 */
 	public IWord getWord(ISenseKey key) {
 		checkOpen();
+		AccessProfile p = profile;
+		if(p != null)
+			p.record(key);
+		return findWord(key);
+	}
+
+	// looks up the word in the cache, then in the backing dictionary
+	private IWord findWord(final ISenseKey key) {
 		IWord item = getCache().retrieveWord(key);
-		if(item == null){
-			item = backing.getWord(key);
-			if(item != null)
-				cacheSynset(item.getSynset());
-		}
-		return item;
+		if(item != null)
+			return item;
+		return load(wordLoads, key, new Callable<IWord>() {
+			public IWord call() {
+				IWord item = backing.getWord(key);
+				if(item != null)
+					cacheLoadedSynset(item.getSynset());
+				return item;
+			}
+		});
 	}
 	
 	/* 
@@ -244,13 +582,105 @@ public class CachingDictionary implements ICachingDictionary {
 	 */
 	public ISynset getSynset(ISynsetID id) {
 		checkOpen();
+		AccessProfile p = profile;
+		if(p != null)
+			p.record(id);
+		IMetricsListener l = listener;
+		if(l == null)
+			return findSynset(id);
+		long start = System.nanoTime();
+		ISynset item = findSynset(id);
+		l.lookupCompleted(Lookup.SYNSET, System.nanoTime() - start, item != null);
+		return item;
+	}
+
+	// looks up the synset in the cache, then in the second-level cache, then
+	// in the backing dictionary
+	private ISynset findSynset(final ISynsetID id) {
 		ISynset item = getCache().retrieveItem(id);
-		if(item == null){
-			item = backing.getSynset(id);
-			if(item != null)
-				cacheSynset(item);
+		if(item != null)
+			return item;
+		return (ISynset)load(itemLoads, id, new Callable<IItem<?>>() {
+			public IItem<?> call() {
+				OffHeapSynsetCache l2 = secondLevel;
+				ISynset item = (l2 == null) ? null : l2.get(id);
+				if(item != null){
+					cacheSynset(item);
+					return item;
+				}
+				item = backing.getSynset(id);
+				if(item != null)
+					cacheLoadedSynset(item);
+				return item;
+			}
+		});
+	}
+
+	/**
+	 * Runs the specified load, unless a load for the same key is already in
+	 * progress in another thread, in which case this method waits for that
+	 * load and returns its result. This keeps concurrent cache misses for a
+	 * hot key from each searching and parsing the same line. This method is
+	 * marked protected for ease of subclassing.
+	 * 
+	 * @param <K>
+	 *            the type of key
+	 * @param <V>
+	 *            the type of item loaded
+	 * @param loads
+	 *            the loads in progress, by key; may not be <code>null</code>
+	 * @param key
+	 *            the key of the item to be loaded; may not be
+	 *            <code>null</code>
+	 * @param loader
+	 *            loads the item from the backing dictionary and caches it;
+	 *            may not be <code>null</code>
+	 * @return the loaded item, or <code>null</code> if there is none
+	 * @throws NullPointerException
+	 *             if any argument is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	protected <K, V> V load(ConcurrentMap<K, FutureTask<V>> loads, K key, Callable<V> loader) {
+		FutureTask<V> task = new FutureTask<V>(loader);
+		FutureTask<V> flight = loads.putIfAbsent(key, task);
+		if(flight == null){
+			flight = task;
+			try {
+				task.run();
+			} finally {
+				loads.remove(key, task);
+			}
 		}
-		return item;
+		boolean interrupted = false;
+		try {
+			while(true){
+				try {
+					return flight.get();
+				} catch (InterruptedException e) {
+					// finish waiting; the load is bounded by the backing dictionary
+					interrupted = true;
+				}
+			}
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException)
+				throw (RuntimeException)cause;
+			if(cause instanceof Error)
+				throw (Error)cause;
+			throw new IllegalStateException(cause);
+		} finally {
+			if(interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	// caches a synset loaded from the backing dictionary, including in the
+	// second-level cache
+	private void cacheLoadedSynset(ISynset synset) {
+		OffHeapSynsetCache l2 = secondLevel;
+		if(l2 != null)
+			l2.put(synset);
+		cacheSynset(synset);
 	}
 
 	/**
@@ -287,15 +717,33 @@ public class CachingDictionary implements ICachingDictionary {
 	 */
 	public ISenseEntry getSenseEntry(ISenseKey key) {
 		checkOpen();
-		ISenseEntry entry = getCache().retrieveSenseEntry(key);
-		if(entry == null){
-			entry = backing.getSenseEntry(key);
-			if(entry != null)
-				getCache().cacheSenseEntry(entry);
-		}
+		AccessProfile p = profile;
+		if(p != null)
+			p.record(key);
+		IMetricsListener l = listener;
+		if(l == null)
+			return findSenseEntry(key);
+		long start = System.nanoTime();
+		ISenseEntry entry = findSenseEntry(key);
+		l.lookupCompleted(Lookup.SENSE_ENTRY, System.nanoTime() - start, entry != null);
 		return entry;
 	}
 
+	// looks up the sense entry in the cache, then in the backing dictionary
+	private ISenseEntry findSenseEntry(final ISenseKey key) {
+		ISenseEntry entry = getCache().retrieveSenseEntry(key);
+		if(entry != null)
+			return entry;
+		return load(senseLoads, key, new Callable<ISenseEntry>() {
+			public ISenseEntry call() {
+				ISenseEntry entry = backing.getSenseEntry(key);
+				if(entry != null)
+					getCache().cacheSenseEntry(entry);
+				return entry;
+			}
+		});
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -305,6 +753,15 @@ public class CachingDictionary implements ICachingDictionary {
 		return backing.getSenseEntryIterator();
 	}
 
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.IDictionary#getSenseEntryIterator(java.lang.String)
+	 */
+	public Iterator<ISenseEntry> getSenseEntryIterator(String prefix) {
+		return backing.getSenseEntryIterator(prefix);
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -312,14 +769,7 @@ public class CachingDictionary implements ICachingDictionary {
 	 */
 	public IExceptionEntry getExceptionEntry(String surfaceForm, POS pos) {
 		checkOpen();
-		IExceptionEntryID id = new ExceptionEntryID(surfaceForm, pos);
-		IExceptionEntry item = getCache().retrieveItem(id);
-		if(item == null){
-			item = backing.getExceptionEntry(id);
-			if(item != null)
-				getCache().cacheItem(item);
-		}
-		return item;
+		return getExceptionEntry(new ExceptionEntryID(surfaceForm, pos));
 	}
 
 	/* 
@@ -329,8 +779,22 @@ public class CachingDictionary implements ICachingDictionary {
 	 */
 	public IExceptionEntry getExceptionEntry(IExceptionEntryID id) {
 		checkOpen();
+		IMetricsListener l = listener;
+		if(l == null)
+			return findExceptionEntry(id);
+		long start = System.nanoTime();
+		IExceptionEntry item = findExceptionEntry(id);
+		l.lookupCompleted(Lookup.EXCEPTION_ENTRY, System.nanoTime() - start, item != null);
+		return item;
+	}
+
+	// looks up the exception entry in the cache, then, unless the filter
+	// rules it out, in the backing dictionary
+	private IExceptionEntry findExceptionEntry(IExceptionEntryID id) {
 		IExceptionEntry item = getCache().retrieveItem(id);
 		if(item == null){
+			if(filter != null && !filter.mightContainExceptionEntry(id))
+				return null;
 			item = backing.getExceptionEntry(id);
 			if(item != null) getCache().cacheItem(item);
 		}
@@ -347,13 +811,14 @@ public class CachingDictionary implements ICachingDictionary {
 	}
 	
 	/**
-	 * An LRU cache for objects in JWI.
+	 * An LRU cache for objects in JWI. This cache is not safe for concurrent
+	 * use; see {@link ConcurrentItemCache}.
 	 * 
 	 * @author Mark A. Finlayson
 	 * @version 2.3.3
 	 * @since JWI 2.2.0
 	 */
-	public static class ItemCache implements IItemCache {
+	public static class ItemCache implements IItemCache, IMetered {
 		
 		// default configuration
 		public static final int DEFAULT_INITIAL_CAPACITY = 16;
@@ -379,11 +844,24 @@ public class CachingDictionary implements ICachingDictionary {
 		 * the cache size is unlimited.
 		 */
 		private int maximumCapacity;
+
+		/**
+		 * Memory budget of the caches, in estimated bytes. If this is set to
+		 * less than one, the caches are bounded by the maximum capacity.
+		 */
+		private long memoryBudget;
+		private IWeigher<Object> weigher = ItemWeigher.getInstance();
+		
+		// estimated weights of the three caches, kept while there is a budget
+		private final long[] weights = new long[3];
 		
 		// The caches themselves
 		protected Map<IItemID<?>, IItem<?>> itemCache;
 		protected Map<ISenseKey, IWord> keyCache;
 		protected Map<ISenseKey, ISenseEntry> senseCache;
+		
+		// the listener that receives hits, misses and evictions, if any
+		private volatile IMetricsListener listener;
 
 		/**
 		 * Default constructor that initializes the dictionary with caching enabled.
@@ -457,6 +935,24 @@ public class CachingDictionary implements ICachingDictionary {
 		public boolean isOpen() {
 			return senseCache != null;
 		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see edu.mit.jwi.metrics.IMetered#getMetricsListener()
+		 */
+		public IMetricsListener getMetricsListener() {
+			return listener;
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see edu.mit.jwi.metrics.IMetered#setMetricsListener(edu.mit.jwi.metrics.IMetricsListener)
+		 */
+		public void setMetricsListener(IMetricsListener listener) {
+			this.listener = listener;
+		}
 		
 		/**
 		 * An internal method for assuring compliance with the dictionary
@@ -486,6 +982,7 @@ public class CachingDictionary implements ICachingDictionary {
 				itemCache = null;
 				keyCache = null;
 				senseCache = null;
+				weights[0] = weights[1] = weights[2] = 0;
 			} finally {
 				lifecycleLock.unlock();
 			}
@@ -503,6 +1000,7 @@ public class CachingDictionary implements ICachingDictionary {
 				keyCache.clear();
 			if(senseCache != null)
 				senseCache.clear();
+			weights[0] = weights[1] = weights[2] = 0;
 		}
 		
 		/* 
@@ -570,6 +1068,100 @@ public class CachingDictionary implements ICachingDictionary {
 			reduceCacheSize(senseCache);
 		}
 
+		/**
+		 * Returns the memory budget of this cache: the largest number of
+		 * bytes, as estimated by the weigher, that its entries may retain.
+		 * 
+		 * @return the memory budget, in bytes, or 0 if the caches are bounded
+		 *         by the maximum capacity
+		 * @since JWI 2.4.0
+		 */
+		public long getMemoryBudget() {
+			return memoryBudget;
+		}
+
+		/**
+		 * Sets the memory budget of this cache. If the budget is positive, the
+		 * caches are bounded by the estimated bytes retained by their entries,
+		 * shared among them as in {@link ConcurrentItemCache}, and the maximum
+		 * capacity is ignored; otherwise they are bounded by the maximum
+		 * capacity. If the cache holds more than the budget, the excess is
+		 * evicted.
+		 * 
+		 * @param budget
+		 *            the memory budget, in bytes; less than one to bound the
+		 *            caches by the maximum capacity
+		 * @since JWI 2.4.0
+		 */
+		public void setMemoryBudget(long budget) {
+			memoryBudget = Math.max(0, budget);
+			if(!isOpen() || memoryBudget == 0)
+				return;
+			weights[0] = weighAll(itemCache);
+			weights[1] = weighAll(keyCache);
+			weights[2] = weighAll(senseCache);
+			reduceCacheSize(itemCache);
+			reduceCacheSize(keyCache);
+			reduceCacheSize(senseCache);
+		}
+
+		/**
+		 * Returns the weigher used to estimate the bytes retained by cached
+		 * entries when a memory budget is set.
+		 * 
+		 * @return the weigher of this cache
+		 * @since JWI 2.4.0
+		 */
+		public IWeigher<Object> getWeigher() {
+			return weigher;
+		}
+
+		/**
+		 * Sets the weigher used to estimate the bytes retained by cached
+		 * entries when a memory budget is set. It should be set before the
+		 * budget.
+		 * 
+		 * @param weigher
+		 *            the weigher; may not be <code>null</code>
+		 * @throws NullPointerException
+		 *             if the specified weigher is <code>null</code>
+		 * @since JWI 2.4.0
+		 */
+		public void setWeigher(IWeigher<Object> weigher) {
+			if(weigher == null)
+				throw new NullPointerException();
+			this.weigher = weigher;
+		}
+
+		// returns the total weight of the values in the map
+		private long weighAll(Map<?,?> cache){
+			long weight = 0;
+			for(Object value : cache.values())
+				weight += weigher.weigh(value);
+			return weight;
+		}
+
+		// returns the index of the weight of the map
+		private int slot(Map<?,?> cache){
+			return (cache == itemCache) ? 0 : (cache == keyCache) ? 1 : 2;
+		}
+
+		// returns the share of the memory budget of the map
+		private long budget(Map<?,?> cache){
+			long share = memoryBudget*(100 - ConcurrentItemCache.ITEM_BUDGET_PERCENT)/200;
+			return (cache == itemCache) ? memoryBudget - 2*share : share;
+		}
+
+		// records a value added to the map, and the value it replaced
+		private void added(Map<?,?> cache, Object value, Object old){
+			if(memoryBudget < 1)
+				return;
+			long delta = weigher.weigh(value);
+			if(old != null)
+				delta -= weigher.weigh(old);
+			weights[slot(cache)] += delta;
+		}
+
 		/* 
 		 * (non-Javadoc) 
 		 *
@@ -589,7 +1181,7 @@ public class CachingDictionary implements ICachingDictionary {
 			checkOpen();
 			if(!isEnabled())
 				return;
-			itemCache.put(item.getID(), item);
+			added(itemCache, item, itemCache.put(item.getID(), item));
 			reduceCacheSize(itemCache);
 		}
 		
@@ -602,7 +1194,7 @@ public class CachingDictionary implements ICachingDictionary {
 			checkOpen();
 			if(!isEnabled())
 				return;
-			keyCache.put(word.getSenseKey(), word);
+			added(keyCache, word, keyCache.put(word.getSenseKey(), word));
 			reduceCacheSize(keyCache);
 		}
 		
@@ -615,32 +1207,61 @@ public class CachingDictionary implements ICachingDictionary {
 			checkOpen();
 			if(!isEnabled())
 				return;
-			senseCache.put(entry.getSenseKey(), entry);
+			added(senseCache, entry, senseCache.put(entry.getSenseKey(), entry));
 			reduceCacheSize(senseCache);
 		}
 
 		/**
 		 * Brings the map size into line with the specified maximum capacity of
-		 * this cache.
+		 * this cache or, if a memory budget is set, brings the estimated weight
+		 * of the map into line with its share of the budget.
 		 * 
 		 * @param cache
 		 *            the map to be trimmed
 		 * @since JWI 2.2.0
 		 */
 		protected void reduceCacheSize(Map<?,?> cache){
+			if(isOpen() && memoryBudget > 0){
+				reduceCacheWeight(cache);
+				return;
+			}
 			if(!isOpen() || maximumCapacity < 1 || cache.size() < maximumCapacity)
 				return;
 			synchronized(cache){
+				IMetricsListener l = listener;
 				int remove = cache.size() - maximumCapacity;
 				Iterator<?> itr = cache.keySet().iterator();
+				Object key;
 				for(int i = 0; i <= remove; i++)
 					if(itr.hasNext()){
-						itr.next();
+						key = itr.next();
 						itr.remove();
+						if(l != null)
+							l.cacheEviction(getKind(cache, key));
 					}
 			}
 		}
 
+		// evicts the eldest entries of the map until it is within its budget
+		private void reduceCacheWeight(Map<?,?> cache){
+			int slot = slot(cache);
+			long budget = budget(cache);
+			if(weights[slot] <= budget)
+				return;
+			synchronized(cache){
+				IMetricsListener l = listener;
+				Iterator<? extends Map.Entry<?,?>> itr = cache.entrySet().iterator();
+				Map.Entry<?,?> entry;
+				while(weights[slot] > budget && itr.hasNext()){
+					entry = itr.next();
+					weights[slot] -= weigher.weigh(entry.getValue());
+					itr.remove();
+					if(l != null)
+						l.cacheEviction(getKind(cache, entry.getKey()));
+				}
+			}
+		}
+
 		/* 
 		 * (non-Javadoc) 
 		 *
@@ -649,7 +1270,11 @@ public class CachingDictionary implements ICachingDictionary {
 		@SuppressWarnings("unchecked")
 		public <T extends IItem<D>, D extends IItemID<T>> T retrieveItem(D id){
 			checkOpen();
-			return (T)itemCache.get(id);
+			T result = (T)itemCache.get(id);
+			IMetricsListener l = listener;
+			if(l != null)
+				record(l, CacheKind.forID(id), result != null);
+			return result;
 		}
 		
 		/* 
@@ -659,7 +1284,11 @@ public class CachingDictionary implements ICachingDictionary {
 		 */
 		public IWord retrieveWord(ISenseKey key){
 			checkOpen();
-			return keyCache.get(key);
+			IWord result = keyCache.get(key);
+			IMetricsListener l = listener;
+			if(l != null)
+				record(l, CacheKind.WORD_BY_SENSE_KEY, result != null);
+			return result;
 		}
 		
 		/* 
@@ -669,7 +1298,28 @@ public class CachingDictionary implements ICachingDictionary {
 		 */
 		public ISenseEntry retrieveSenseEntry(ISenseKey key){
 			checkOpen();
-			return senseCache.get(key);
+			ISenseEntry result = senseCache.get(key);
+			IMetricsListener l = listener;
+			if(l != null)
+				record(l, CacheKind.SENSE_ENTRY, result != null);
+			return result;
+		}
+
+		// returns the kind of entry held under the key in the specified map
+		private CacheKind getKind(Map<?,?> cache, Object key){
+			if(cache == keyCache)
+				return CacheKind.WORD_BY_SENSE_KEY;
+			if(cache == senseCache)
+				return CacheKind.SENSE_ENTRY;
+			return CacheKind.forID((IItemID<?>)key);
+		}
+
+		// reports a cache hit or miss
+		private static void record(IMetricsListener listener, CacheKind kind, boolean hit){
+			if(hit)
+				listener.cacheHit(kind);
+			else
+				listener.cacheMiss(kind);
 		}
 	}
 
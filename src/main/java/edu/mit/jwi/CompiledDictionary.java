@@ -0,0 +1,1067 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import edu.mit.jwi.data.parse.SenseKeyParser;
+import edu.mit.jwi.item.AdjMarker;
+import edu.mit.jwi.item.ExceptionEntry;
+import edu.mit.jwi.item.ExceptionEntryID;
+import edu.mit.jwi.item.IExceptionEntry;
+import edu.mit.jwi.item.IExceptionEntryID;
+import edu.mit.jwi.item.IIndexWord;
+import edu.mit.jwi.item.IIndexWordID;
+import edu.mit.jwi.item.ILexFile;
+import edu.mit.jwi.item.IPointer;
+import edu.mit.jwi.item.ISenseEntry;
+import edu.mit.jwi.item.ISenseKey;
+import edu.mit.jwi.item.ISynset;
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.IVersion;
+import edu.mit.jwi.item.IWord;
+import edu.mit.jwi.item.IWordID;
+import edu.mit.jwi.item.IndexWord;
+import edu.mit.jwi.item.IndexWordID;
+import edu.mit.jwi.item.LexFile;
+import edu.mit.jwi.item.POS;
+import edu.mit.jwi.item.Pointer;
+import edu.mit.jwi.item.SenseEntry;
+import edu.mit.jwi.item.Synset;
+import edu.mit.jwi.item.Synset.IWordBuilder;
+import edu.mit.jwi.item.SynsetID;
+import edu.mit.jwi.item.UnknownLexFile;
+import edu.mit.jwi.item.VerbFrame;
+import edu.mit.jwi.item.Version;
+import edu.mit.jwi.item.WordID;
+
+/**
+ * <p>
+ * A dictionary that reads its data from a single compiled file, as written by
+ * {@link DictionaryCompiler}. The file is memory-mapped when the dictionary is
+ * opened, and only a handful of section counts are read at that time, so
+ * opening takes a few milliseconds regardless of the size of the dictionary.
+ * Items are decoded directly from the mapped file each time they are
+ * requested; there is no parsing of text lines and no cache.
+ * </p>
+ * <p>
+ * The compiled file contains fixed-width records for synsets, words, index
+ * words, exception entries and sense keys, a pool of packed integers holding
+ * pointer targets and other variable-length data, and a pool of strings.
+ * Records for each kind of item are sorted on their key, so that each lookup
+ * is a binary search over the mapped records. The items returned by this
+ * dictionary are equal to those returned by a {@link DataSourceDictionary}
+ * over the Wordnet files from which the compiled file was made.
+ * </p>
+ * <p>
+ * This class is thread-safe: the mapped file is only ever read with absolute
+ * accessors, so any number of threads may look up items at once.
+ * </p>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class CompiledDictionary implements IDictionary {
+
+	/**
+	 * The magic number that begins every compiled dictionary file.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int MAGIC = 0x4A57434D; // 'JWCM'
+
+	/**
+	 * The version of the compiled format read and written by this class. Files
+	 * with a different version are rejected.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int FORMAT_VERSION = 1;
+
+	/**
+	 * The character set in which strings are stored in the compiled file.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final Charset CHARSET = Charset.forName("UTF-8");
+
+	// record widths, in ints
+	static final int SYNSET_INTS = 7;
+	static final int WORD_INTS = 9;
+	static final int INDEX_INTS = 6;
+	static final int EXCEPTION_INTS = 3;
+	static final int KEY_INTS = 6;
+	static final int POINTER_INTS = 3;
+
+	// synset record fields
+	static final int SYNSET_OFFSET = 0;
+	static final int SYNSET_FLAGS = 1;
+	static final int SYNSET_GLOSS = 2;
+	static final int SYNSET_WORD_START = 3;
+	static final int SYNSET_WORD_COUNT = 4;
+	static final int SYNSET_PTR_START = 5;
+	static final int SYNSET_PTR_COUNT = 6;
+
+	// synset flags
+	static final int FLAG_ADJ_SAT = 1;
+	static final int FLAG_ADJ_HEAD = 2;
+
+	// word record fields
+	static final int WORD_LEMMA = 0;
+	static final int WORD_LEX_ID = 1;
+	static final int WORD_MARKER = 2;
+	static final int WORD_FRAME_START = 3;
+	static final int WORD_FRAME_COUNT = 4;
+	static final int WORD_PTR_START = 5;
+	static final int WORD_PTR_COUNT = 6;
+	static final int WORD_HEAD_LEMMA = 7;
+	static final int WORD_HEAD_ID = 8;
+
+	// index word record fields
+	static final int INDEX_LEMMA = 0;
+	static final int INDEX_TAG_COUNT = 1;
+	static final int INDEX_PTR_START = 2;
+	static final int INDEX_PTR_COUNT = 3;
+	static final int INDEX_WORD_START = 4;
+	static final int INDEX_WORD_COUNT = 5;
+
+	// exception record fields
+	static final int EXCEPTION_SURFACE = 0;
+	static final int EXCEPTION_ROOT_START = 1;
+	static final int EXCEPTION_ROOT_COUNT = 2;
+
+	// sense key record fields
+	static final int KEY_STRING = 0;
+	static final int KEY_FLAGS = 1;
+	static final int KEY_OFFSET = 2;
+	static final int KEY_WORD_NUM = 3;
+	static final int KEY_SENSE_NUM = 4;
+	static final int KEY_TAG_COUNT = 5;
+
+	// sense key flags; the part of speech number is in the low byte
+	static final int FLAG_HAS_ENTRY = 0x100;
+
+	// immutable fields
+	protected final File file;
+	protected final Lock lifecycleLock = new ReentrantLock();
+
+	// instance fields
+	protected volatile Data data;
+
+	/**
+	 * Constructs a new dictionary that reads the specified compiled file.
+	 * 
+	 * @param file
+	 *            the compiled dictionary file; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if the specified file is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public CompiledDictionary(File file) {
+		if(file == null)
+			throw new NullPointerException();
+		this.file = file;
+	}
+
+	/**
+	 * Returns the compiled file read by this dictionary.
+	 * 
+	 * @return the compiled file read by this dictionary
+	 * @since JWI 2.4.0
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Returns the fingerprint of the Wordnet files from which the open
+	 * dictionary was compiled, or 0 if none was recorded.
+	 * 
+	 * @return the fingerprint of the source files
+	 * @throws ObjectClosedException
+	 *             if the dictionary is not open
+	 * @see DictionaryCompiler#fingerprint(File)
+	 * @since JWI 2.4.0
+	 */
+	public long getSourceFingerprint() {
+		return checkOpen().fingerprint;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.data.IHasLifecycle#open()
+	 */
+	public boolean open() throws IOException {
+		try {
+			lifecycleLock.lock();
+			if(isOpen())
+				return true;
+			RandomAccessFile raFile = new RandomAccessFile(file, "r");
+			try {
+				FileChannel channel = raFile.getChannel();
+				data = new Data(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+			} finally {
+				raFile.close();
+			}
+			return true;
+		} finally {
+			lifecycleLock.unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.data.IHasLifecycle#isOpen()
+	 */
+	public boolean isOpen() {
+		return data != null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.data.IClosable#close()
+	 */
+	public void close() {
+		try {
+			lifecycleLock.lock();
+			data = null;
+		} finally {
+			lifecycleLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the open data of this dictionary.
+	 * 
+	 * @return the open data of this dictionary
+	 * @throws ObjectClosedException
+	 *             if the dictionary is closed.
+	 * @since JWI 2.4.0
+	 */
+	protected Data checkOpen() {
+		Data result = data;
+		if(result == null)
+			throw new ObjectClosedException();
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.item.IHasVersion#getVersion()
+	 */
+	public IVersion getVersion() {
+		return checkOpen().version;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.IDictionary#getIndexWord(java.lang.String, edu.mit.jwi.item.POS)
+	 */
+	public IIndexWord getIndexWord(String lemma, POS pos) {
+		return getIndexWord(new IndexWordID(lemma, pos));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.IDictionary#getIndexWord(edu.mit.jwi.item.IIndexWordID)
+	 */
+	public IIndexWord getIndexWord(IIndexWordID id) {
+		Data d = checkOpen();
+		POS pos = id.getPOS();
+		int index = d.findString(d.indexPos[pos.ordinal()], d.indexCount[pos.ordinal()], INDEX_INTS, id.getLemma());
+		return (index < 0) ? null : d.getIndexWord(pos, index);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.IDictionary#getIndexWordIterator(edu.mit.jwi.item.POS)
+	 */
+	public Iterator<IIndexWord> getIndexWordIterator(final POS pos) {
+		final Data d = checkOpen();
+		return new RecordIterator<IIndexWord>(d.indexCount[pos.ordinal()]) {
+			@Override
+			protected IIndexWord get(int index) {
+				return d.getIndexWord(pos, index);
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.IDictionary#getIndexWordIterator(edu.mit.jwi.item.POS, java.lang.String, int)
+	 */
+	public Iterator<IIndexWord> getIndexWordIterator(POS pos, String prefix, int limit) {
+		String key = PrefixSearch.normalize(prefix);
+		return PrefixSearch.boundIndexWords(getIndexWordIterator(pos, key), key, null, key, limit);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.IDictionary#getIndexWordIterator(edu.mit.jwi.item.POS, java.lang.String, java.lang.String, int)
+	 */
+	public Iterator<IIndexWord> getIndexWordIterator(POS pos, String fromLemma, String toLemma, int limit) {
+		String from = (fromLemma == null) ? "" : PrefixSearch.normalize(fromLemma);
+		String to = (toLemma == null) ? null : PrefixSearch.normalize(toLemma);
+		return PrefixSearch.boundIndexWords(getIndexWordIterator(pos, from), from, to, null, limit);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.IDictionary#getIndexWords(java.lang.String, int)
+	 */
+	public List<IIndexWord> getIndexWords(String prefix, int limit) {
+		Data d = checkOpen();
+		PrefixSearch.RankTable table;
+		synchronized(d){
+			// built on the first search, and dropped with the data on close
+			if(d.rankTable == null)
+				d.rankTable = PrefixSearch.RankTable.build(this);
+			table = d.rankTable;
+		}
+		return table.rank(this, prefix, limit);
+	}
+
+	// iterates over the index words from the first not less than the lemma
+	private Iterator<IIndexWord> getIndexWordIterator(final POS pos, String from) {
+		final Data d = checkOpen();
+		int p = pos.ordinal();
+		int start = d.findLowerBound(d.indexPos[p], d.indexCount[p], INDEX_INTS, from);
+		return new RecordIterator<IIndexWord>(start, d.indexCount[p]) {
+			@Override
+			protected IIndexWord get(int index) {
+				return d.getIndexWord(pos, index);
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.IDictionary#getWord(edu.mit.jwi.item.IWordID)
+	 */
+	public IWord getWord(IWordID id) {
+		ISynset synset = getSynset(id.getSynsetID());
+		if(synset == null)
+			return null;
+
+		// One or the other of the WordID number or lemma may not exist,
+		// depending on whence the word id came
+		if(id.getWordNumber() > 0) {
+			return synset.getWord(id.getWordNumber());
+		} else if(id.getLemma() != null) {
+			for(IWord word : synset.getWords()) {
+				if(word.getLemma().equalsIgnoreCase(id.getLemma()))
+					return word;
+			}
+			return null;
+		} else {
+			throw new IllegalArgumentException("Not enough information in IWordID instance to retrieve word.");
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.IDictionary#getWord(edu.mit.jwi.item.ISenseKey)
+	 */
+	public IWord getWord(ISenseKey key) {
+		Data d = checkOpen();
+		int base = d.findString(d.keyPos, d.keyCount, KEY_INTS, key.toString());
+		if(base < 0)
+			return null;
+		base = d.keyPos + 4*KEY_INTS*base;
+		int wordNum = d.buf.getInt(base + 4*KEY_WORD_NUM);
+		if(wordNum < 1)
+			return null;
+		POS pos = POS.getPartOfSpeech(d.buf.getInt(base + 4*KEY_FLAGS) & 0xFF);
+		int synset = d.findSynset(pos, d.buf.getInt(base + 4*KEY_OFFSET));
+		return (synset < 0) ? null : d.getSynset(pos, synset).getWord(wordNum);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.IDictionary#getSynset(edu.mit.jwi.item.ISynsetID)
+	 */
+	public ISynset getSynset(ISynsetID id) {
+		Data d = checkOpen();
+		int index = d.findSynset(id.getPOS(), id.getOffset());
+		return (index < 0) ? null : d.getSynset(id.getPOS(), index);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.IDictionary#getSynsetIterator(edu.mit.jwi.item.POS)
+	 */
+	public Iterator<ISynset> getSynsetIterator(final POS pos) {
+		final Data d = checkOpen();
+		return new RecordIterator<ISynset>(d.synsetCount[pos.ordinal()]) {
+			@Override
+			protected ISynset get(int index) {
+				return d.getSynset(pos, index);
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.IDictionary#getSenseEntry(edu.mit.jwi.item.ISenseKey)
+	 */
+	public ISenseEntry getSenseEntry(ISenseKey key) {
+		Data d = checkOpen();
+		int index = d.findString(d.keyPos, d.keyCount, KEY_INTS, key.toString());
+		return (index < 0) ? null : d.getSenseEntry(index);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.IDictionary#getSenseEntryIterator()
+	 */
+	public Iterator<ISenseEntry> getSenseEntryIterator() {
+		final Data d = checkOpen();
+		return new RecordIterator<ISenseEntry>(d.keyCount) {
+			@Override
+			protected ISenseEntry get(int index) {
+				return d.getSenseEntry(index);
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.IDictionary#getSenseEntryIterator(java.lang.String)
+	 */
+	public Iterator<ISenseEntry> getSenseEntryIterator(String prefix) {
+		final Data d = checkOpen();
+		int start = d.findLowerBound(d.keyPos, d.keyCount, KEY_INTS, prefix);
+		Iterator<ISenseEntry> itr = new RecordIterator<ISenseEntry>(start, d.keyCount) {
+			@Override
+			protected ISenseEntry get(int index) {
+				return d.getSenseEntry(index);
+			}
+		};
+		return PrefixSearch.boundSenseEntries(itr, prefix);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.IDictionary#getExceptionEntry(java.lang.String, edu.mit.jwi.item.POS)
+	 */
+	public IExceptionEntry getExceptionEntry(String surfaceForm, POS pos) {
+		return getExceptionEntry(new ExceptionEntryID(surfaceForm, pos));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.IDictionary#getExceptionEntry(edu.mit.jwi.item.IExceptionEntryID)
+	 */
+	public IExceptionEntry getExceptionEntry(IExceptionEntryID id) {
+		Data d = checkOpen();
+		POS pos = id.getPOS();
+		int index = d.findString(d.exceptionPos[pos.ordinal()], d.exceptionCount[pos.ordinal()], EXCEPTION_INTS, id.getSurfaceForm());
+		return (index < 0) ? null : d.getExceptionEntry(pos, index);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.IDictionary#getExceptionEntryIterator(edu.mit.jwi.item.POS)
+	 */
+	public Iterator<IExceptionEntry> getExceptionEntryIterator(final POS pos) {
+		final Data d = checkOpen();
+		return new RecordIterator<IExceptionEntry>(d.exceptionCount[pos.ordinal()]) {
+			@Override
+			protected IExceptionEntry get(int index) {
+				return d.getExceptionEntry(pos, index);
+			}
+		};
+	}
+
+	/**
+	 * Compares two encoded strings byte by byte, treating bytes as unsigned.
+	 * This is the order in which the records of a compiled file are sorted.
+	 * 
+	 * @param a
+	 *            the first encoded string; may not be <code>null</code>
+	 * @param b
+	 *            the second encoded string; may not be <code>null</code>
+	 * @return a negative number, zero, or a positive number as the first string
+	 *         is less than, equal to, or greater than the second
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static int compareEncoded(byte[] a, byte[] b) {
+		int len = Math.min(a.length, b.length);
+		int cmp;
+		for(int i = 0; i < len; i++){
+			cmp = (a[i] & 0xFF) - (b[i] & 0xFF);
+			if(cmp != 0)
+				return cmp;
+		}
+		return a.length - b.length;
+	}
+
+	/**
+	 * An iterator over the records of one section of the compiled file, which
+	 * decodes each item as it is returned. Records that decode to
+	 * <code>null</code> are skipped.
+	 * 
+	 * @param <E>
+	 *            the element type of the iterator
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	protected abstract static class RecordIterator<E> implements Iterator<E> {
+
+		// instance fields
+		private final int count;
+		private int index;
+		private E next;
+
+		/**
+		 * Constructs a new iterator over the specified number of records.
+		 * 
+		 * @param count
+		 *            the number of records in the section
+		 * @since JWI 2.4.0
+		 */
+		public RecordIterator(int count) {
+			this(0, count);
+		}
+
+		/**
+		 * Constructs a new iterator over the records of a section, starting
+		 * at the record with the specified index.
+		 * 
+		 * @param start
+		 *            the index of the first record to be read
+		 * @param count
+		 *            the number of records in the section
+		 * @since JWI 2.4.0
+		 */
+		public RecordIterator(int start, int count) {
+			this.index = start;
+			this.count = count;
+			advance();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.Iterator#hasNext()
+		 */
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.Iterator#next()
+		 */
+		public E next() {
+			if(next == null)
+				throw new NoSuchElementException();
+			E result = next;
+			advance();
+			return result;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.Iterator#remove()
+		 */
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		// moves to the next record that decodes to an item
+		private void advance() {
+			next = null;
+			while(next == null && index < count)
+				next = get(index++);
+		}
+
+		/**
+		 * Decodes the item in the record with the specified index.
+		 * 
+		 * @param index
+		 *            the index of the record in the section
+		 * @return the decoded item, or <code>null</code> if the record should
+		 *         be skipped
+		 * @since JWI 2.4.0
+		 */
+		protected abstract E get(int index);
+	}
+
+	/**
+	 * The contents of an open compiled file: the mapped buffer, together with
+	 * the positions and sizes of its sections.
+	 * 
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	protected static class Data {
+
+		// the mapped file
+		protected final ByteBuffer buf;
+
+		// header
+		protected final long fingerprint;
+		protected final IVersion version;
+
+		// string pool
+		protected final int stringCount;
+		protected final int stringOffsetPos;
+		protected final int stringDataPos;
+
+		// pointer types
+		protected final IPointer[] pointers;
+
+		// per part of speech sections
+		protected final int[] synsetPos = new int[POS.values().length];
+		protected final int[] synsetCount = new int[POS.values().length];
+		protected final int[] indexPos = new int[POS.values().length];
+		protected final int[] indexCount = new int[POS.values().length];
+		protected final int[] exceptionPos = new int[POS.values().length];
+		protected final int[] exceptionCount = new int[POS.values().length];
+
+		// shared sections
+		protected final int wordPos;
+		protected final int wordCount;
+		protected final int keyPos;
+		protected final int keyCount;
+		protected final int poolPos;
+		protected final int poolCount;
+
+		// the table for ranked prefix searches, built when first needed
+		private PrefixSearch.RankTable rankTable;
+
+		/**
+		 * Reads the section table of the specified compiled file.
+		 * 
+		 * @param buf
+		 *            the buffer holding the compiled file; may not be
+		 *            <code>null</code>
+		 * @throws IOException
+		 *             if the buffer does not hold a compiled file of the
+		 *             current format
+		 * @throws NullPointerException
+		 *             if the buffer is <code>null</code>
+		 * @since JWI 2.4.0
+		 */
+		public Data(ByteBuffer buf) throws IOException {
+			this.buf = buf;
+			try {
+				int pos = 0;
+				if(buf.getInt(pos) != MAGIC)
+					throw new IOException("Not a compiled dictionary file");
+				if(buf.getInt(pos + 4) != FORMAT_VERSION)
+					throw new IOException("Unsupported compiled dictionary format: " + buf.getInt(pos + 4));
+				fingerprint = buf.getLong(pos + 8);
+				pos += 16;
+
+				// string pool
+				stringCount = buf.getInt(pos);
+				int stringBytes = buf.getInt(pos + 4);
+				stringOffsetPos = pos + 8;
+				stringDataPos = stringOffsetPos + 4*(stringCount + 1);
+				pos = stringDataPos + ((stringBytes + 3) & ~3);
+
+				// version
+				boolean hasVersion = buf.getInt(pos) != 0;
+				int major = buf.getInt(pos + 4);
+				int minor = buf.getInt(pos + 8);
+				int bugfix = buf.getInt(pos + 12);
+				int qualifier = buf.getInt(pos + 16);
+				version = hasVersion ? Version.getVersion(major, minor, bugfix, (qualifier < 0) ? null : getString(qualifier)) : null;
+				pos += 20;
+
+				// pointer types
+				int count = buf.getInt(pos);
+				pos += 4;
+				pointers = new IPointer[count];
+				for(int i = 0; i < count; i++, pos += 8)
+					pointers[i] = resolvePointer(getString(buf.getInt(pos)), getString(buf.getInt(pos + 4)));
+
+				// per part of speech sections
+				int p;
+				for(POS partOfSpeech : POS.values()){
+					p = partOfSpeech.ordinal();
+					synsetCount[p] = buf.getInt(pos);
+					synsetPos[p] = pos + 4;
+					pos = synsetPos[p] + 4*SYNSET_INTS*synsetCount[p];
+					indexCount[p] = buf.getInt(pos);
+					indexPos[p] = pos + 4;
+					pos = indexPos[p] + 4*INDEX_INTS*indexCount[p];
+					exceptionCount[p] = buf.getInt(pos);
+					exceptionPos[p] = pos + 4;
+					pos = exceptionPos[p] + 4*EXCEPTION_INTS*exceptionCount[p];
+				}
+
+				// shared sections
+				wordCount = buf.getInt(pos);
+				wordPos = pos + 4;
+				pos = wordPos + 4*WORD_INTS*wordCount;
+				keyCount = buf.getInt(pos);
+				keyPos = pos + 4;
+				pos = keyPos + 4*KEY_INTS*keyCount;
+				poolCount = buf.getInt(pos);
+				poolPos = pos + 4;
+				if(poolPos + 4L*poolCount != buf.limit())
+					throw new IOException("Compiled dictionary file is damaged");
+			} catch(IndexOutOfBoundsException e) {
+				throw new IOException("Compiled dictionary file is damaged");
+			}
+		}
+
+		/**
+		 * Returns the pointer with the specified symbol and name.
+		 * 
+		 * @param symbol
+		 *            the pointer symbol
+		 * @param name
+		 *            the pointer name
+		 * @return the pointer with the specified symbol and name
+		 * @throws IOException
+		 *             if there is no such pointer
+		 * @since JWI 2.4.0
+		 */
+		protected IPointer resolvePointer(String symbol, String name) throws IOException {
+			for(Pointer ptr : Pointer.values())
+				if(ptr.getSymbol().equals(symbol) && ptr.getName().equals(name))
+					return ptr;
+			throw new IOException("Unknown pointer in compiled dictionary file: " + symbol);
+		}
+
+		/**
+		 * Returns the lexical file with the specified number.
+		 * 
+		 * @param num
+		 *            the lexical file number
+		 * @return the lexical file with the specified number
+		 * @since JWI 2.4.0
+		 */
+		protected ILexFile resolveLexicalFile(int num) {
+			ILexFile lexFile = LexFile.getLexicalFile(num);
+			if(lexFile == null)
+				lexFile = UnknownLexFile.getUnknownLexicalFile(num);
+			return lexFile;
+		}
+
+		/**
+		 * Returns the string with the specified index in the string pool.
+		 * 
+		 * @param index
+		 *            the index of the string
+		 * @return the string with the specified index
+		 * @since JWI 2.4.0
+		 */
+		public String getString(int index) {
+			int start = buf.getInt(stringOffsetPos + 4*index);
+			int end = buf.getInt(stringOffsetPos + 4*index + 4);
+			byte[] bytes = new byte[end - start];
+			for(int i = 0; i < bytes.length; i++)
+				bytes[i] = buf.get(stringDataPos + start + i);
+			return new String(bytes, CHARSET);
+		}
+
+		/**
+		 * Compares the string with the specified index in the string pool with
+		 * the specified encoded string, in the manner of
+		 * {@link CompiledDictionary#compareEncoded(byte[], byte[])}.
+		 * 
+		 * @param index
+		 *            the index of the string in the pool
+		 * @param key
+		 *            the encoded string
+		 * @return the result of the comparison
+		 * @since JWI 2.4.0
+		 */
+		public int compareString(int index, byte[] key) {
+			int start = stringDataPos + buf.getInt(stringOffsetPos + 4*index);
+			int len = stringDataPos + buf.getInt(stringOffsetPos + 4*index + 4) - start;
+			int min = Math.min(len, key.length);
+			int cmp;
+			for(int i = 0; i < min; i++){
+				cmp = (buf.get(start + i) & 0xFF) - (key[i] & 0xFF);
+				if(cmp != 0)
+					return cmp;
+			}
+			return len - key.length;
+		}
+
+		/**
+		 * Returns the integer with the specified index in the integer pool.
+		 * 
+		 * @param index
+		 *            the index of the integer
+		 * @return the integer with the specified index
+		 * @since JWI 2.4.0
+		 */
+		public int getPoolInt(int index) {
+			return buf.getInt(poolPos + 4*index);
+		}
+
+		/**
+		 * Binary searches a section whose records begin with a string index,
+		 * and are sorted on that string.
+		 * 
+		 * @param sectionPos
+		 *            the position of the first record of the section
+		 * @param count
+		 *            the number of records in the section
+		 * @param width
+		 *            the width of each record, in ints
+		 * @param key
+		 *            the string to be found
+		 * @return the index of the matching record, or -1 if there is none
+		 * @since JWI 2.4.0
+		 */
+		public int findString(int sectionPos, int count, int width, String key) {
+			byte[] encoded = key.getBytes(CHARSET);
+			int lo = 0, hi = count - 1, mid, cmp;
+			while(lo <= hi){
+				mid = (lo + hi) >>> 1;
+				cmp = compareString(buf.getInt(sectionPos + 4*width*mid), encoded);
+				if(cmp < 0){
+					lo = mid + 1;
+				} else if(cmp > 0){
+					hi = mid - 1;
+				} else {
+					return mid;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Binary searches a section whose records begin with a string index,
+		 * and are sorted on that string, for the first record whose string is
+		 * not less than the specified key.
+		 * 
+		 * @param sectionPos
+		 *            the position of the first record of the section
+		 * @param count
+		 *            the number of records in the section
+		 * @param width
+		 *            the width of each record, in ints
+		 * @param key
+		 *            the lower bound
+		 * @return the index of the first record not less than the key, or the
+		 *         number of records if there is none
+		 * @since JWI 2.4.0
+		 */
+		public int findLowerBound(int sectionPos, int count, int width, String key) {
+			byte[] encoded = key.getBytes(CHARSET);
+			int lo = 0, hi = count, mid;
+			while(lo < hi){
+				mid = (lo + hi) >>> 1;
+				if(compareString(buf.getInt(sectionPos + 4*width*mid), encoded) < 0)
+					lo = mid + 1;
+				else
+					hi = mid;
+			}
+			return lo;
+		}
+
+		/**
+		 * Binary searches the synsets of the specified part of speech for the
+		 * specified offset.
+		 * 
+		 * @param pos
+		 *            the part of speech of the synset
+		 * @param offset
+		 *            the offset of the synset
+		 * @return the index of the synset record, or -1 if there is none
+		 * @since JWI 2.4.0
+		 */
+		public int findSynset(POS pos, int offset) {
+			int sectionPos = synsetPos[pos.ordinal()];
+			int lo = 0, hi = synsetCount[pos.ordinal()] - 1, mid, value;
+			while(lo <= hi){
+				mid = (lo + hi) >>> 1;
+				value = buf.getInt(sectionPos + 4*(SYNSET_INTS*mid + SYNSET_OFFSET));
+				if(value < offset){
+					lo = mid + 1;
+				} else if(value > offset){
+					hi = mid - 1;
+				} else {
+					return mid;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Decodes the synset with the specified record index.
+		 * 
+		 * @param pos
+		 *            the part of speech of the synset
+		 * @param index
+		 *            the index of the synset record
+		 * @return the decoded synset
+		 * @since JWI 2.4.0
+		 */
+		public ISynset getSynset(POS pos, int index) {
+			int base = synsetPos[pos.ordinal()] + 4*SYNSET_INTS*index;
+			int offset = buf.getInt(base + 4*SYNSET_OFFSET);
+			int flags = buf.getInt(base + 4*SYNSET_FLAGS);
+			String gloss = getString(buf.getInt(base + 4*SYNSET_GLOSS));
+			int wordStart = buf.getInt(base + 4*SYNSET_WORD_START);
+			int wordCount = buf.getInt(base + 4*SYNSET_WORD_COUNT);
+			int ptrStart = buf.getInt(base + 4*SYNSET_PTR_START);
+			int ptrCount = buf.getInt(base + 4*SYNSET_PTR_COUNT);
+
+			// words
+			List<IWordBuilder> builders = new ArrayList<IWordBuilder>(wordCount);
+			int wordBase, marker, start, count;
+			Synset.WordBuilder builder;
+			for(int i = 0; i < wordCount; i++){
+				wordBase = wordPos + 4*WORD_INTS*(wordStart + i);
+				marker = buf.getInt(wordBase + 4*WORD_MARKER);
+				builder = new Synset.WordBuilder(i + 1, getString(buf.getInt(wordBase + 4*WORD_LEMMA)), buf.getInt(wordBase + 4*WORD_LEX_ID), (marker == 0) ? null : AdjMarker.values()[marker - 1]);
+				start = buf.getInt(wordBase + 4*WORD_FRAME_START);
+				count = buf.getInt(wordBase + 4*WORD_FRAME_COUNT);
+				for(int j = 0; j < count; j++)
+					builder.addVerbFrame(VerbFrame.getFrame(getPoolInt(start + j)));
+				start = buf.getInt(wordBase + 4*WORD_PTR_START);
+				count = buf.getInt(wordBase + 4*WORD_PTR_COUNT);
+				for(int j = start; j < start + POINTER_INTS*count; j += POINTER_INTS)
+					builder.addRelatedWord(pointers[getPoolInt(j)], new WordID(getPoolInt(j + 2), POS.getPartOfSpeech(getPoolInt(j + 1) & 0xFF), getPoolInt(j + 1) >>> 8));
+				builders.add(builder);
+			}
+
+			// synset pointers
+			Map<IPointer, List<ISynsetID>> related = new HashMap<IPointer, List<ISynsetID>>();
+			IPointer ptr;
+			List<ISynsetID> targets;
+			for(int j = ptrStart; j < ptrStart + POINTER_INTS*ptrCount; j += POINTER_INTS){
+				ptr = pointers[getPoolInt(j)];
+				targets = related.get(ptr);
+				if(targets == null){
+					targets = new ArrayList<ISynsetID>();
+					related.put(ptr, targets);
+				}
+				targets.add(new SynsetID(getPoolInt(j + 2), POS.getPartOfSpeech(getPoolInt(j + 1) & 0xFF)));
+			}
+
+			ISynset synset = new Synset(new SynsetID(offset, pos), resolveLexicalFile(flags >>> 8), (flags & FLAG_ADJ_SAT) != 0, (flags & FLAG_ADJ_HEAD) != 0, gloss, builders, related);
+
+			// head words of adjective satellites
+			if(synset.isAdjectiveSatellite()){
+				int headLemma;
+				for(IWord word : synset.getWords()){
+					wordBase = wordPos + 4*WORD_INTS*(wordStart + word.getID().getWordNumber() - 1);
+					headLemma = buf.getInt(wordBase + 4*WORD_HEAD_LEMMA);
+					if(headLemma >= 0 && word.getSenseKey().needsHeadSet())
+						word.getSenseKey().setHead(getString(headLemma), buf.getInt(wordBase + 4*WORD_HEAD_ID));
+				}
+			}
+			return synset;
+		}
+
+		/**
+		 * Decodes the index word with the specified record index.
+		 * 
+		 * @param pos
+		 *            the part of speech of the index word
+		 * @param index
+		 *            the index of the index word record
+		 * @return the decoded index word
+		 * @since JWI 2.4.0
+		 */
+		public IIndexWord getIndexWord(POS pos, int index) {
+			int base = indexPos[pos.ordinal()] + 4*INDEX_INTS*index;
+			String lemma = getString(buf.getInt(base + 4*INDEX_LEMMA));
+			int start = buf.getInt(base + 4*INDEX_PTR_START);
+			IPointer[] ptrs = new IPointer[buf.getInt(base + 4*INDEX_PTR_COUNT)];
+			for(int i = 0; i < ptrs.length; i++)
+				ptrs[i] = pointers[getPoolInt(start + i)];
+			start = buf.getInt(base + 4*INDEX_WORD_START);
+			IWordID[] words = new IWordID[buf.getInt(base + 4*INDEX_WORD_COUNT)];
+			for(int i = 0; i < words.length; i++)
+				words[i] = new WordID(new SynsetID(getPoolInt(start + i), pos), lemma);
+			return new IndexWord(lemma, pos, buf.getInt(base + 4*INDEX_TAG_COUNT), ptrs, words);
+		}
+
+		/**
+		 * Decodes the exception entry with the specified record index.
+		 * 
+		 * @param pos
+		 *            the part of speech of the exception entry
+		 * @param index
+		 *            the index of the exception entry record
+		 * @return the decoded exception entry
+		 * @since JWI 2.4.0
+		 */
+		public IExceptionEntry getExceptionEntry(POS pos, int index) {
+			int base = exceptionPos[pos.ordinal()] + 4*EXCEPTION_INTS*index;
+			int start = buf.getInt(base + 4*EXCEPTION_ROOT_START);
+			String[] roots = new String[buf.getInt(base + 4*EXCEPTION_ROOT_COUNT)];
+			for(int i = 0; i < roots.length; i++)
+				roots[i] = getString(getPoolInt(start + i));
+			return new ExceptionEntry(getString(buf.getInt(base + 4*EXCEPTION_SURFACE)), pos, roots);
+		}
+
+		/**
+		 * Decodes the sense entry with the specified record index.
+		 * 
+		 * @param index
+		 *            the index of the sense key record
+		 * @return the decoded sense entry, or <code>null</code> if the sense
+		 *         key has no sense entry
+		 * @since JWI 2.4.0
+		 */
+		public ISenseEntry getSenseEntry(int index) {
+			int base = keyPos + 4*KEY_INTS*index;
+			if((buf.getInt(base + 4*KEY_FLAGS) & FLAG_HAS_ENTRY) == 0)
+				return null;
+			ISenseKey key = SenseKeyParser.getInstance().parseLine(getString(buf.getInt(base + 4*KEY_STRING)));
+			return new SenseEntry(key, buf.getInt(base + 4*KEY_OFFSET), buf.getInt(base + 4*KEY_SENSE_NUM), buf.getInt(base + 4*KEY_TAG_COUNT));
+		}
+	}
+
+}
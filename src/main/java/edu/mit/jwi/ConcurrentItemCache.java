@@ -0,0 +1,1321 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import edu.mit.jwi.ICachingDictionary.IItemCache;
+import edu.mit.jwi.item.IItem;
+import edu.mit.jwi.item.IItemID;
+import edu.mit.jwi.item.ISenseEntry;
+import edu.mit.jwi.item.ISenseKey;
+import edu.mit.jwi.item.IWord;
+import edu.mit.jwi.metrics.CacheKind;
+import edu.mit.jwi.metrics.IMetered;
+import edu.mit.jwi.metrics.IMetricsListener;
+
+/**
+ * <p>
+ * A thread-safe item cache that uses the W-TinyLFU policy to decide which
+ * entries to keep. Each of the three caches (items, words by sense key, and
+ * sense entries) has its own capacity, and is split into independently locked
+ * segments so that concurrent lookups of different keys rarely contend.
+ * </p>
+ * <p>
+ * Within a segment, new entries enter a small LRU admission window. An entry
+ * leaving the window is admitted to the main segmented LRU only if it has been
+ * requested more often than the entry it would evict, as estimated by a
+ * count-min sketch of recent request frequencies. Entries in the main area
+ * that are requested again are promoted from its probationary to its
+ * protected part. All operations, including eviction, take constant time.
+ * </p>
+ * <p>
+ * By default each cache is bounded by a number of entries. If a memory
+ * budget is set, the caches are instead bounded by the estimated bytes
+ * retained by their entries, as given by the cache's weigher, and the budget
+ * is shared among them in fixed proportions.
+ * </p>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class ConcurrentItemCache implements IItemCache, IMetered {
+
+	// default configuration
+	public static final int DEFAULT_MAXIMUM_CAPACITY = 512;
+	public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+	/**
+	 * The smallest number of entries a segment is made to hold; caches with
+	 * small capacities are given fewer segments so that the admission policy
+	 * has enough entries to work with.
+	 */
+	public static final int MIN_SEGMENT_CAPACITY = 64;
+
+	/**
+	 * The smallest number of bytes a segment of a cache bounded by a memory
+	 * budget is made to hold.
+	 */
+	public static final int MIN_SEGMENT_WEIGHT = 64*1024;
+
+	/**
+	 * The percentage of the memory budget given to the item cache; the rest
+	 * is shared equally by the sense key and sense entry caches.
+	 */
+	public static final int ITEM_BUDGET_PERCENT = 80;
+
+	protected final Lock lifecycleLock = new ReentrantLock();
+
+	// configuration
+	private final int concurrencyLevel;
+	private volatile boolean isEnabled = true;
+	private volatile int itemCapacity;
+	private volatile int keyCapacity;
+	private volatile int senseCapacity;
+	private volatile long memoryBudget;
+	private volatile IWeigher<Object> weigher = ItemWeigher.getInstance();
+	private volatile IMetricsListener listener;
+
+	// the caches themselves
+	protected volatile TinyLfuMap<IItemID<?>, IItem<?>> itemCache;
+	protected volatile TinyLfuMap<ISenseKey, IWord> keyCache;
+	protected volatile TinyLfuMap<ISenseKey, ISenseEntry> senseCache;
+
+	/**
+	 * Constructs a new enabled cache, with the default capacity for each of
+	 * its caches, and the default concurrency level.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public ConcurrentItemCache() {
+		this(DEFAULT_MAXIMUM_CAPACITY, DEFAULT_MAXIMUM_CAPACITY, DEFAULT_MAXIMUM_CAPACITY, DEFAULT_CONCURRENCY_LEVEL, true);
+	}
+
+	/**
+	 * Constructs a new cache with the specified capacities and concurrency
+	 * level. A capacity less than one means that the corresponding cache is
+	 * unbounded.
+	 * 
+	 * @param itemCapacity
+	 *            the maximum number of items to cache by id
+	 * @param keyCapacity
+	 *            the maximum number of words to cache by sense key
+	 * @param senseCapacity
+	 *            the maximum number of sense entries to cache
+	 * @param concurrencyLevel
+	 *            the largest number of segments into which each cache is
+	 *            split; rounded down to a power of two
+	 * @param enabled
+	 *            whether the cache starts out enabled
+	 * @throws IllegalArgumentException
+	 *             if the concurrency level is less than one
+	 * @since JWI 2.4.0
+	 */
+	public ConcurrentItemCache(int itemCapacity, int keyCapacity, int senseCapacity, int concurrencyLevel, boolean enabled) {
+		if(concurrencyLevel < 1)
+			throw new IllegalArgumentException();
+		this.concurrencyLevel = Integer.highestOneBit(concurrencyLevel);
+		this.itemCapacity = itemCapacity;
+		this.keyCapacity = keyCapacity;
+		this.senseCapacity = senseCapacity;
+		this.isEnabled = enabled;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.data.IHasLifecycle#open()
+	 */
+	public boolean open() throws IOException {
+		if(isOpen())
+			return true;
+		try {
+			lifecycleLock.lock();
+			if(isOpen())
+				return true;
+			createCaches();
+		} finally {
+			lifecycleLock.unlock();
+		}
+		return true;
+	}
+
+	// creates the three caches, bounded by entries or by the memory budget
+	private void createCaches() {
+		long budget = memoryBudget;
+		if(budget > 0){
+			IWeigher<Object> w = weigher;
+			long share = budget*(100 - ITEM_BUDGET_PERCENT)/200;
+			itemCache = this.<IItemID<?>, IItem<?>>makeCache(budget - 2*share, w, null);
+			keyCache = this.<ISenseKey, IWord>makeCache(share, w, CacheKind.WORD_BY_SENSE_KEY);
+			senseCache = this.<ISenseKey, ISenseEntry>makeCache(share, w, CacheKind.SENSE_ENTRY);
+		} else {
+			itemCache = this.<IItemID<?>, IItem<?>>makeCache(itemCapacity, null, null);
+			keyCache = this.<ISenseKey, IWord>makeCache(keyCapacity, null, CacheKind.WORD_BY_SENSE_KEY);
+			senseCache = this.<ISenseKey, ISenseEntry>makeCache(senseCapacity, null, CacheKind.SENSE_ENTRY);
+		}
+	}
+
+	/**
+	 * Creates one of the caches. The number of segments is the concurrency
+	 * level, reduced if necessary so that each segment can hold at least
+	 * {@link #MIN_SEGMENT_CAPACITY} entries, or, if the cache is weighted,
+	 * {@link #MIN_SEGMENT_WEIGHT} bytes. Evictions from the cache are
+	 * reported to this cache's metrics listener, if it has one.
+	 * 
+	 * @param <K>
+	 *            the key type
+	 * @param <V>
+	 *            the value type
+	 * @param capacity
+	 *            the capacity of the cache, in entries or, if there is a
+	 *            weigher, in bytes; less than one for unbounded
+	 * @param weigher
+	 *            the weigher of the values, or <code>null</code> to bound
+	 *            the cache by entries
+	 * @param kind
+	 *            the kind of entry held by the cache, or <code>null</code> if
+	 *            the keys are item ids, whose kinds vary
+	 * @return the new cache
+	 * @since JWI 2.4.0
+	 */
+	protected <K, V> TinyLfuMap<K, V> makeCache(long capacity, IWeigher<? super V> weigher, final CacheKind kind) {
+		int segments = concurrencyLevel;
+		long minimum = (weigher == null) ? MIN_SEGMENT_CAPACITY : MIN_SEGMENT_WEIGHT;
+		if(capacity > 0)
+			segments = (int)Math.min(segments, Long.highestOneBit(Math.max(1, capacity / minimum)));
+		return new TinyLfuMap<K, V>(capacity, segments, weigher) {
+			@Override
+			protected void onEviction(K key, V value) {
+				IMetricsListener l = listener;
+				if(l != null)
+					l.cacheEviction((kind == null) ? CacheKind.forID((IItemID<?>)key) : kind);
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IMetered#getMetricsListener()
+	 */
+	public IMetricsListener getMetricsListener() {
+		return listener;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IMetered#setMetricsListener(edu.mit.jwi.metrics.IMetricsListener)
+	 */
+	public void setMetricsListener(IMetricsListener listener) {
+		this.listener = listener;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.data.IHasLifecycle#isOpen()
+	 */
+	public boolean isOpen() {
+		return senseCache != null;
+	}
+
+	/**
+	 * An internal method for assuring compliance with the dictionary
+	 * interface that says that methods will throw
+	 * {@code ObjectClosedException}s if the dictionary has not yet been
+	 * opened.
+	 * 
+	 * @throws ObjectClosedException
+	 *             if the cache is closed.
+	 * @since JWI 2.4.0
+	 */
+	protected void checkOpen() {
+		if(!isOpen())
+			throw new ObjectClosedException();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.data.IClosable#close()
+	 */
+	public void close() {
+		if(!isOpen())
+			return;
+		try {
+			lifecycleLock.lock();
+			senseCache = null;
+			keyCache = null;
+			itemCache = null;
+		} finally {
+			lifecycleLock.unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.ICachingDictionary.IItemCache#clear()
+	 */
+	public void clear() {
+		TinyLfuMap<?, ?> cache;
+		if((cache = itemCache) != null)
+			cache.clear();
+		if((cache = keyCache) != null)
+			cache.clear();
+		if((cache = senseCache) != null)
+			cache.clear();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.ICachingDictionary.IItemCache#isEnabled()
+	 */
+	public boolean isEnabled() {
+		return isEnabled;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.ICachingDictionary.IItemCache#setEnabled(boolean)
+	 */
+	public void setEnabled(boolean isEnabled) {
+		this.isEnabled = isEnabled;
+	}
+
+	/**
+	 * Returns the concurrency level of this cache: the largest number of
+	 * segments into which each of its caches is split.
+	 * 
+	 * @return the concurrency level of this cache
+	 * @since JWI 2.4.0
+	 */
+	public int getConcurrencyLevel() {
+		return concurrencyLevel;
+	}
+
+	/**
+	 * Returns the capacity of the item cache. This is the value that was
+	 * last set by {@link #setMaximumCapacity(int)} or
+	 * {@link #setItemCapacity(int)}.
+	 * 
+	 * @see edu.mit.jwi.ICachingDictionary.IItemCache#getMaximumCapacity()
+	 */
+	public int getMaximumCapacity() {
+		return itemCapacity;
+	}
+
+	/**
+	 * Sets the capacity of each of the three caches to the specified value.
+	 * 
+	 * @see edu.mit.jwi.ICachingDictionary.IItemCache#setMaximumCapacity(int)
+	 */
+	public void setMaximumCapacity(int capacity) {
+		setItemCapacity(capacity);
+		setKeyCapacity(capacity);
+		setSenseCapacity(capacity);
+	}
+
+	/**
+	 * Returns the maximum number of items cached by id.
+	 * 
+	 * @return the capacity of the item cache; less than one if unbounded
+	 * @since JWI 2.4.0
+	 */
+	public int getItemCapacity() {
+		return itemCapacity;
+	}
+
+	/**
+	 * Sets the maximum number of items cached by id. If the cache is open and
+	 * holds more items, the excess is evicted. The capacity is ignored while
+	 * a memory budget is set.
+	 * 
+	 * @param capacity
+	 *            the capacity of the item cache; less than one for unbounded
+	 * @since JWI 2.4.0
+	 */
+	public void setItemCapacity(int capacity) {
+		itemCapacity = capacity;
+		TinyLfuMap<?, ?> cache = itemCache;
+		if(cache != null && !cache.isWeighted())
+			cache.setCapacity(capacity);
+	}
+
+	/**
+	 * Returns the maximum number of words cached by sense key.
+	 * 
+	 * @return the capacity of the sense key cache; less than one if unbounded
+	 * @since JWI 2.4.0
+	 */
+	public int getKeyCapacity() {
+		return keyCapacity;
+	}
+
+	/**
+	 * Sets the maximum number of words cached by sense key. If the cache is
+	 * open and holds more words, the excess is evicted. The capacity is
+	 * ignored while a memory budget is set.
+	 * 
+	 * @param capacity
+	 *            the capacity of the sense key cache; less than one for
+	 *            unbounded
+	 * @since JWI 2.4.0
+	 */
+	public void setKeyCapacity(int capacity) {
+		keyCapacity = capacity;
+		TinyLfuMap<?, ?> cache = keyCache;
+		if(cache != null && !cache.isWeighted())
+			cache.setCapacity(capacity);
+	}
+
+	/**
+	 * Returns the maximum number of sense entries cached.
+	 * 
+	 * @return the capacity of the sense entry cache; less than one if
+	 *         unbounded
+	 * @since JWI 2.4.0
+	 */
+	public int getSenseCapacity() {
+		return senseCapacity;
+	}
+
+	/**
+	 * Sets the maximum number of sense entries cached. If the cache is open
+	 * and holds more entries, the excess is evicted. The capacity is ignored
+	 * while a memory budget is set.
+	 * 
+	 * @param capacity
+	 *            the capacity of the sense entry cache; less than one for
+	 *            unbounded
+	 * @since JWI 2.4.0
+	 */
+	public void setSenseCapacity(int capacity) {
+		senseCapacity = capacity;
+		TinyLfuMap<?, ?> cache = senseCache;
+		if(cache != null && !cache.isWeighted())
+			cache.setCapacity(capacity);
+	}
+
+	/**
+	 * Returns the memory budget of this cache: the largest number of bytes,
+	 * as estimated by the weigher, that its entries may retain.
+	 * 
+	 * @return the memory budget, in bytes, or 0 if the caches are bounded by
+	 *         entries
+	 * @since JWI 2.4.0
+	 */
+	public long getMemoryBudget() {
+		return memoryBudget;
+	}
+
+	/**
+	 * Sets the memory budget of this cache. If the budget is positive, the
+	 * caches are bounded by the estimated bytes retained by their entries,
+	 * with {@link #ITEM_BUDGET_PERCENT} percent of the budget given to the
+	 * item cache; otherwise they are bounded by their entry capacities. If
+	 * the cache is open and the budget is reduced, the excess is evicted; if
+	 * it changes between bounding by entries and by bytes, the cache is
+	 * emptied.
+	 * 
+	 * @param budget
+	 *            the memory budget, in bytes; less than one to bound the
+	 *            caches by entries
+	 * @since JWI 2.4.0
+	 */
+	public void setMemoryBudget(long budget) {
+		try {
+			lifecycleLock.lock();
+			boolean wasWeighted = memoryBudget > 0;
+			memoryBudget = Math.max(0, budget);
+			if(!isOpen())
+				return;
+			if(wasWeighted != (memoryBudget > 0)){
+				createCaches();
+			} else if(wasWeighted){
+				long share = memoryBudget*(100 - ITEM_BUDGET_PERCENT)/200;
+				itemCache.setCapacity(memoryBudget - 2*share);
+				keyCache.setCapacity(share);
+				senseCache.setCapacity(share);
+			}
+		} finally {
+			lifecycleLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the weigher used to estimate the bytes retained by cached
+	 * entries when a memory budget is set.
+	 * 
+	 * @return the weigher of this cache
+	 * @since JWI 2.4.0
+	 */
+	public IWeigher<Object> getWeigher() {
+		return weigher;
+	}
+
+	/**
+	 * Sets the weigher used to estimate the bytes retained by cached entries
+	 * when a memory budget is set. The weigher is used by caches created after
+	 * this call, when this cache is next opened, or when a memory budget is
+	 * first set.
+	 * 
+	 * @param weigher
+	 *            the weigher; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if the specified weigher is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public void setWeigher(IWeigher<Object> weigher) {
+		if(weigher == null)
+			throw new NullPointerException();
+		this.weigher = weigher;
+	}
+
+	/**
+	 * Returns the total weight of the cached entries: their estimated
+	 * retained bytes if a memory budget is set, or else their number.
+	 * 
+	 * @return the total weight of the cached entries
+	 * @throws ObjectClosedException
+	 *             if the cache is closed
+	 * @since JWI 2.4.0
+	 */
+	public long getWeightedSize() {
+		TinyLfuMap<?, ?> items = itemCache, keys = keyCache, senses = senseCache;
+		if(items == null || keys == null || senses == null)
+			throw new ObjectClosedException();
+		return items.weightedSize() + keys.weightedSize() + senses.weightedSize();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.ICachingDictionary.IItemCache#size()
+	 */
+	public int size() {
+		TinyLfuMap<?, ?> items = itemCache, keys = keyCache, senses = senseCache;
+		if(items == null || keys == null || senses == null)
+			throw new ObjectClosedException();
+		return items.size() + keys.size() + senses.size();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.ICachingDictionary.IItemCache#cacheItem(edu.mit.jwi.item.IItem)
+	 */
+	public void cacheItem(IItem<?> item) {
+		TinyLfuMap<IItemID<?>, IItem<?>> cache = itemCache;
+		if(cache == null)
+			throw new ObjectClosedException();
+		if(isEnabled)
+			cache.put(item.getID(), item);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.ICachingDictionary.IItemCache#cacheWordByKey(edu.mit.jwi.item.IWord)
+	 */
+	public void cacheWordByKey(IWord word) {
+		TinyLfuMap<ISenseKey, IWord> cache = keyCache;
+		if(cache == null)
+			throw new ObjectClosedException();
+		if(isEnabled)
+			cache.put(word.getSenseKey(), word);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.ICachingDictionary.IItemCache#cacheSenseEntry(edu.mit.jwi.item.ISenseEntry)
+	 */
+	public void cacheSenseEntry(ISenseEntry entry) {
+		TinyLfuMap<ISenseKey, ISenseEntry> cache = senseCache;
+		if(cache == null)
+			throw new ObjectClosedException();
+		if(isEnabled)
+			cache.put(entry.getSenseKey(), entry);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.ICachingDictionary.IItemCache#retrieveItem(edu.mit.jwi.item.IItemID)
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends IItem<D>, D extends IItemID<T>> T retrieveItem(D id) {
+		TinyLfuMap<IItemID<?>, IItem<?>> cache = itemCache;
+		if(cache == null)
+			throw new ObjectClosedException();
+		T result = (T)cache.get(id);
+		IMetricsListener l = listener;
+		if(l != null)
+			record(l, CacheKind.forID(id), result != null);
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.ICachingDictionary.IItemCache#retrieveWord(edu.mit.jwi.item.ISenseKey)
+	 */
+	public IWord retrieveWord(ISenseKey key) {
+		TinyLfuMap<ISenseKey, IWord> cache = keyCache;
+		if(cache == null)
+			throw new ObjectClosedException();
+		IWord result = cache.get(key);
+		IMetricsListener l = listener;
+		if(l != null)
+			record(l, CacheKind.WORD_BY_SENSE_KEY, result != null);
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.ICachingDictionary.IItemCache#retrieveSenseEntry(edu.mit.jwi.item.ISenseKey)
+	 */
+	public ISenseEntry retrieveSenseEntry(ISenseKey key) {
+		TinyLfuMap<ISenseKey, ISenseEntry> cache = senseCache;
+		if(cache == null)
+			throw new ObjectClosedException();
+		ISenseEntry result = cache.get(key);
+		IMetricsListener l = listener;
+		if(l != null)
+			record(l, CacheKind.SENSE_ENTRY, result != null);
+		return result;
+	}
+
+	// reports a cache hit or miss
+	private static void record(IMetricsListener listener, CacheKind kind, boolean hit) {
+		if(hit)
+			listener.cacheHit(kind);
+		else
+			listener.cacheMiss(kind);
+	}
+
+	/**
+	 * A bounded, thread-safe map that evicts entries according to the
+	 * W-TinyLFU policy. The map is split into segments by key hash, each with
+	 * its own lock, share of the capacity, and frequency sketch. The capacity
+	 * is a number of entries, or, if the map has a weigher, a total weight.
+	 * 
+	 * @param <K>
+	 *            the key type
+	 * @param <V>
+	 *            the value type
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	public static class TinyLfuMap<K, V> {
+
+		// instance fields
+		private final Segment<K, V>[] segments;
+		private final int segmentShift;
+		private final IWeigher<? super V> weigher;
+
+		/**
+		 * Constructs a new empty map with the specified capacity and number of
+		 * segments.
+		 * 
+		 * @param capacity
+		 *            the capacity of the map; less than one for unbounded
+		 * @param segmentCount
+		 *            the number of segments; must be a power of two
+		 * @throws IllegalArgumentException
+		 *             if the number of segments is not a positive power of two
+		 * @since JWI 2.4.0
+		 */
+		public TinyLfuMap(int capacity, int segmentCount) {
+			this(capacity, segmentCount, null);
+		}
+
+		/**
+		 * Constructs a new empty map with the specified capacity, number of
+		 * segments and weigher. If the weigher is not <code>null</code>, the
+		 * capacity bounds the total weight of the values in the map, rather
+		 * than the number of entries.
+		 * 
+		 * @param capacity
+		 *            the capacity of the map; less than one for unbounded
+		 * @param segmentCount
+		 *            the number of segments; must be a power of two
+		 * @param weigher
+		 *            the weigher of the values, or <code>null</code> to count
+		 *            entries
+		 * @throws IllegalArgumentException
+		 *             if the number of segments is not a positive power of two
+		 * @since JWI 2.4.0
+		 */
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		public TinyLfuMap(long capacity, int segmentCount, IWeigher<? super V> weigher) {
+			if(segmentCount < 1 || Integer.bitCount(segmentCount) != 1)
+				throw new IllegalArgumentException();
+			this.weigher = weigher;
+			this.segments = new Segment[segmentCount];
+			this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+			for(int i = 0; i < segmentCount; i++)
+				segments[i] = new Segment<K, V>(this, segmentCapacity(capacity, segmentCount, i));
+		}
+
+		/**
+		 * Called, while the segment's lock is held, when an entry is evicted
+		 * to keep the map within its capacity. Entries removed by
+		 * {@link #remove(Object)} or {@link #clear()} are not reported. This
+		 * implementation does nothing.
+		 * 
+		 * @param key
+		 *            the key of the evicted entry
+		 * @param value
+		 *            the value of the evicted entry
+		 * @since JWI 2.4.0
+		 */
+		protected void onEviction(K key, V value) {}
+
+		/**
+		 * Returns the weight of the specified entry. This implementation
+		 * returns the weight given by the map's weigher, or 1 if it has none.
+		 * 
+		 * @param key
+		 *            the key of the entry
+		 * @param value
+		 *            the value of the entry
+		 * @return the weight of the entry; at least 1
+		 * @since JWI 2.4.0
+		 */
+		protected int weigh(K key, V value) {
+			return (weigher == null) ? 1 : Math.max(1, weigher.weigh(value));
+		}
+
+		/**
+		 * Returns whether the capacity of this map bounds the weight of its
+		 * values, rather than the number of its entries.
+		 * 
+		 * @return <code>true</code> if this map has a weigher;
+		 *         <code>false</code> otherwise
+		 * @since JWI 2.4.0
+		 */
+		public boolean isWeighted() {
+			return weigher != null;
+		}
+
+		/**
+		 * Returns the value to which the specified key is mapped, or
+		 * <code>null</code> if there is none. The request is recorded in the
+		 * frequency sketch whether or not the key is present.
+		 * 
+		 * @param key
+		 *            the key; may not be <code>null</code>
+		 * @return the value for the key, or <code>null</code>
+		 * @throws NullPointerException
+		 *             if the key is <code>null</code>
+		 * @since JWI 2.4.0
+		 */
+		public V get(Object key) {
+			int hash = hash(key);
+			return segmentFor(hash).get(key, hash);
+		}
+
+		/**
+		 * Maps the specified key to the specified value, evicting an entry if
+		 * the segment is full.
+		 * 
+		 * @param key
+		 *            the key; may not be <code>null</code>
+		 * @param value
+		 *            the value; may not be <code>null</code>
+		 * @throws NullPointerException
+		 *             if either argument is <code>null</code>
+		 * @since JWI 2.4.0
+		 */
+		public void put(K key, V value) {
+			if(value == null)
+				throw new NullPointerException();
+			int hash = hash(key);
+			segmentFor(hash).put(key, value, hash);
+		}
+
+		/**
+		 * Removes the mapping for the specified key, if there is one.
+		 * 
+		 * @param key
+		 *            the key; may not be <code>null</code>
+		 * @return the value that was removed, or <code>null</code>
+		 * @throws NullPointerException
+		 *             if the key is <code>null</code>
+		 * @since JWI 2.4.0
+		 */
+		public V remove(Object key) {
+			int hash = hash(key);
+			return segmentFor(hash).remove(key);
+		}
+
+		/**
+		 * Returns the number of entries in the map.
+		 * 
+		 * @return the number of entries in the map
+		 * @since JWI 2.4.0
+		 */
+		public int size() {
+			int size = 0;
+			for(Segment<K, V> segment : segments)
+				size += segment.size();
+			return size;
+		}
+
+		/**
+		 * Returns the total weight of the entries in the map. If the map has
+		 * no weigher, this is the number of entries.
+		 * 
+		 * @return the total weight of the entries in the map
+		 * @since JWI 2.4.0
+		 */
+		public long weightedSize() {
+			long weight = 0;
+			for(Segment<K, V> segment : segments)
+				weight += segment.weightedSize();
+			return weight;
+		}
+
+		/**
+		 * Removes all entries from the map.
+		 * 
+		 * @since JWI 2.4.0
+		 */
+		public void clear() {
+			for(Segment<K, V> segment : segments)
+				segment.clear();
+		}
+
+		/**
+		 * Changes the capacity of the map, evicting entries as needed.
+		 * 
+		 * @param capacity
+		 *            the new capacity; less than one for unbounded
+		 * @since JWI 2.4.0
+		 */
+		public void setCapacity(long capacity) {
+			for(int i = 0; i < segments.length; i++)
+				segments[i].setCapacity(segmentCapacity(capacity, segments.length, i));
+		}
+
+		// divides the capacity among the segments, as evenly as possible;
+		// every segment of a bounded map holds at least one entry
+		private static long segmentCapacity(long capacity, int segmentCount, int index) {
+			if(capacity < 1)
+				return 0;
+			long share = capacity / segmentCount;
+			return Math.max(1, (index < capacity % segmentCount) ? share + 1 : share);
+		}
+
+		// selects a segment using the high bits of the hash
+		private Segment<K, V> segmentFor(int hash) {
+			return (segmentShift == 32) ? segments[0] : segments[hash >>> segmentShift];
+		}
+
+		// spreads the bits of the key's hash code
+		private static int hash(Object key) {
+			int h = key.hashCode() * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+	}
+
+	/**
+	 * One segment of a {@link TinyLfuMap}, guarded by its own lock. Entries
+	 * are kept in three access-ordered queues: the admission window, and the
+	 * probationary and protected parts of the main area. Capacities and queue
+	 * sizes are measured in entry weights, which are all 1 unless the map
+	 * has a weigher.
+	 * 
+	 * @param <K>
+	 *            the key type
+	 * @param <V>
+	 *            the value type
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	protected static class Segment<K, V> {
+
+		/**
+		 * The percentage of the capacity given to the admission window.
+		 */
+		public static final int WINDOW_PERCENT = 1;
+
+		/**
+		 * The percentage of the main area given to its protected part.
+		 */
+		public static final int PROTECTED_PERCENT = 80;
+
+		/**
+		 * The number of entries for which the frequency sketch of a weighted
+		 * segment is first sized; the sketch grows with the segment.
+		 */
+		public static final int INITIAL_SKETCH_CAPACITY = 64;
+
+		// queue identifiers
+		private static final int WINDOW = 0;
+		private static final int PROBATION = 1;
+		private static final int PROTECTED = 2;
+
+		// instance fields
+		private final TinyLfuMap<K, V> owner;
+		private final Map<Object, Node<K, V>> map = new HashMap<Object, Node<K, V>>();
+		private final Node<K, V> window = new Node<K, V>();
+		private final Node<K, V> probation = new Node<K, V>();
+		private final Node<K, V> protect = new Node<K, V>();
+		private final long[] weights = new long[3];
+		private final boolean weighted;
+		private FrequencySketch sketch;
+		private long capacity;
+		private long windowCapacity;
+		private long mainCapacity;
+		private long protectedCapacity;
+
+		/**
+		 * Constructs a new empty segment of the specified map, with the
+		 * specified capacity.
+		 * 
+		 * @param owner
+		 *            the map to which evictions are reported, or
+		 *            <code>null</code> for none
+		 * @param capacity
+		 *            the capacity; zero or less for unbounded
+		 * @since JWI 2.4.0
+		 */
+		public Segment(TinyLfuMap<K, V> owner, long capacity) {
+			this.owner = owner;
+			this.weighted = owner != null && owner.isWeighted();
+			setCapacity(capacity);
+		}
+
+		/**
+		 * Returns the value for the specified key, recording the request.
+		 * 
+		 * @param key
+		 *            the key
+		 * @param hash
+		 *            the spread hash of the key
+		 * @return the value, or <code>null</code> if not present
+		 * @since JWI 2.4.0
+		 */
+		public synchronized V get(Object key, int hash) {
+			if(sketch != null)
+				sketch.increment(hash);
+			Node<K, V> node = map.get(key);
+			if(node == null)
+				return null;
+			onAccess(node);
+			return node.value;
+		}
+
+		/**
+		 * Maps the specified key to the specified value, evicting as needed.
+		 * 
+		 * @param key
+		 *            the key
+		 * @param value
+		 *            the value
+		 * @param hash
+		 *            the spread hash of the key
+		 * @since JWI 2.4.0
+		 */
+		public synchronized void put(K key, V value, int hash) {
+			int weight = (owner == null) ? 1 : owner.weigh(key, value);
+			Node<K, V> node = map.get(key);
+			if(node != null){
+				node.value = value;
+				weights[node.queue] += weight - node.weight;
+				node.weight = weight;
+				onAccess(node);
+			} else {
+				node = new Node<K, V>(key, value, hash, weight);
+				map.put(key, node);
+				link(window, node, WINDOW);
+			}
+			if(capacity > 0){
+				evict();
+				trim();
+				if(weighted && map.size() > sketch.getCapacity())
+					growSketch(2*map.size());
+			}
+		}
+
+		/**
+		 * Removes the entry for the specified key.
+		 * 
+		 * @param key
+		 *            the key
+		 * @return the removed value, or <code>null</code> if not present
+		 * @since JWI 2.4.0
+		 */
+		public synchronized V remove(Object key) {
+			Node<K, V> node = map.remove(key);
+			if(node == null)
+				return null;
+			unlink(node);
+			return node.value;
+		}
+
+		/**
+		 * Returns the number of entries in this segment.
+		 * 
+		 * @return the number of entries in this segment
+		 * @since JWI 2.4.0
+		 */
+		public synchronized int size() {
+			return map.size();
+		}
+
+		/**
+		 * Returns the total weight of the entries in this segment.
+		 * 
+		 * @return the total weight of the entries in this segment
+		 * @since JWI 2.4.0
+		 */
+		public synchronized long weightedSize() {
+			return weights[WINDOW] + weights[PROBATION] + weights[PROTECTED];
+		}
+
+		/**
+		 * Removes all entries from this segment. The frequency sketch is kept.
+		 * 
+		 * @since JWI 2.4.0
+		 */
+		public synchronized void clear() {
+			map.clear();
+			window.prev = window.next = window;
+			probation.prev = probation.next = probation;
+			protect.prev = protect.next = protect;
+			weights[WINDOW] = weights[PROBATION] = weights[PROTECTED] = 0;
+		}
+
+		/**
+		 * Changes the capacity of this segment, evicting entries as needed.
+		 * 
+		 * @param capacity
+		 *            the new capacity; zero or less for unbounded
+		 * @since JWI 2.4.0
+		 */
+		public synchronized void setCapacity(long capacity) {
+			this.capacity = Math.max(capacity, 0);
+			if(this.capacity == 0){
+				sketch = null;
+				windowCapacity = mainCapacity = protectedCapacity = Long.MAX_VALUE;
+				return;
+			}
+			windowCapacity = Math.max(1, this.capacity*WINDOW_PERCENT/100);
+			mainCapacity = Math.max(0, this.capacity - windowCapacity);
+			protectedCapacity = mainCapacity*PROTECTED_PERCENT/100;
+			int entries = weighted ? 
+					Math.max(INITIAL_SKETCH_CAPACITY, map.size()) : 
+						(int)Math.min(this.capacity, Integer.MAX_VALUE);
+			if(sketch == null)
+				sketch = new FrequencySketch(entries);
+			else if(sketch.getCapacity() < entries)
+				growSketch(entries);
+
+			// shrink the protected part, then evict down to the new capacity
+			while(weights[PROTECTED] > protectedCapacity)
+				move(protect.next, probation, PROBATION);
+			evict();
+			trim();
+		}
+
+		// replaces the sketch with a larger one, carrying over the frequencies
+		// of the entries in the segment so that admission does not start cold
+		private void growSketch(int entries) {
+			FrequencySketch larger = new FrequencySketch(entries);
+			for(Node<K, V> node : map.values())
+				larger.carry(sketch, node.hash);
+			sketch = larger;
+		}
+
+		// evicts entries until the segment is within its capacity
+		private void trim() {
+			while(weights[WINDOW] + weights[PROBATION] + weights[PROTECTED] > capacity)
+				evictNode(weights[PROBATION] > 0 ? probation.next : (weights[PROTECTED] > 0 ? protect.next : window.next));
+		}
+
+		// moves the node to the back of its queue, promoting it if on probation
+		private void onAccess(Node<K, V> node) {
+			switch(node.queue){
+			case WINDOW:
+				unlink(node);
+				link(window, node, WINDOW);
+				break;
+			case PROBATION:
+				unlink(node);
+				link(protect, node, PROTECTED);
+				while(weights[PROTECTED] > protectedCapacity)
+					move(protect.next, probation, PROBATION);
+				break;
+			default:
+				unlink(node);
+				link(protect, node, PROTECTED);
+			}
+		}
+
+		// moves entries out of a full window, admitting them to the main area
+		// only if they are more frequently used than the entries they displace
+		private void evict() {
+			Node<K, V> candidate, victim;
+			while(weights[WINDOW] > windowCapacity){
+				candidate = window.next;
+				if(candidate.weight > mainCapacity){
+					evictNode(candidate);
+					continue;
+				}
+				while(weights[PROBATION] + weights[PROTECTED] + candidate.weight > mainCapacity){
+					victim = (weights[PROBATION] > 0) ? probation.next : protect.next;
+					if(sketch.frequency(candidate.hash) <= sketch.frequency(victim.hash))
+						break;
+					evictNode(victim);
+				}
+				if(weights[PROBATION] + weights[PROTECTED] + candidate.weight > mainCapacity){
+					evictNode(candidate);
+				} else {
+					move(candidate, probation, PROBATION);
+				}
+			}
+		}
+
+		// removes the node from the segment, and reports the eviction
+		private void evictNode(Node<K, V> node) {
+			unlink(node);
+			map.remove(node.key);
+			if(owner != null)
+				owner.onEviction(node.key, node.value);
+		}
+
+		// moves the node to the back of the specified queue
+		private void move(Node<K, V> node, Node<K, V> head, int queue) {
+			unlink(node);
+			link(head, node, queue);
+		}
+
+		// adds the node to the back of the specified queue
+		private void link(Node<K, V> head, Node<K, V> node, int queue) {
+			node.queue = queue;
+			node.prev = head.prev;
+			node.next = head;
+			head.prev.next = node;
+			head.prev = node;
+			weights[queue] += node.weight;
+		}
+
+		// removes the node from its queue
+		private void unlink(Node<K, V> node) {
+			node.prev.next = node.next;
+			node.next.prev = node.prev;
+			node.prev = node.next = null;
+			weights[node.queue] -= node.weight;
+		}
+	}
+
+	/**
+	 * A node in one of the access-ordered queues of a segment. A node with
+	 * no key serves as the head of a circular queue.
+	 * 
+	 * @param <K>
+	 *            the key type
+	 * @param <V>
+	 *            the value type
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	protected static final class Node<K, V> {
+
+		final K key;
+		final int hash;
+		V value;
+		int weight;
+		int queue;
+		Node<K, V> prev;
+		Node<K, V> next;
+
+		// constructs a queue head
+		Node() {
+			this(null, null, 0, 0);
+			prev = next = this;
+		}
+
+		// constructs an entry node
+		Node(K key, V value, int hash, int weight) {
+			this.key = key;
+			this.value = value;
+			this.hash = hash;
+			this.weight = weight;
+		}
+	}
+
+	/**
+	 * A count-min sketch of four-bit counters that estimates how often each
+	 * key has been requested recently. When the number of recorded requests
+	 * reaches ten times the capacity, all counters are halved, so that the
+	 * estimates favour recent requests. This class is not thread-safe.
+	 * 
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	public static class FrequencySketch {
+
+		// seeds for the four hash functions
+		private static final int[] SEEDS = {0x97CB3127, 0xB492B66F, 0x9AE16A3B, 0x2F90404F};
+
+		// instance fields
+		private final long[] table;
+		private final int mask;
+		private final int capacity;
+		private final int sampleSize;
+		private int additions;
+
+		/**
+		 * Constructs a new sketch sized for the specified number of entries.
+		 * 
+		 * @param capacity
+		 *            the number of entries for which frequencies are tracked;
+		 *            must be positive
+		 * @throws IllegalArgumentException
+		 *             if the capacity is not positive
+		 * @since JWI 2.4.0
+		 */
+		public FrequencySketch(int capacity) {
+			if(capacity < 1)
+				throw new IllegalArgumentException();
+			int length = (capacity > (1 << 29)) ? (1 << 30) : Integer.highestOneBit(capacity - 1) << 1;
+			this.table = new long[Math.max(length, 8)];
+			this.mask = table.length - 1;
+			this.capacity = capacity;
+			this.sampleSize = (capacity > Integer.MAX_VALUE/10) ? Integer.MAX_VALUE : 10*capacity;
+		}
+
+		/**
+		 * Returns the number of entries for which this sketch was sized.
+		 * 
+		 * @return the capacity of this sketch
+		 * @since JWI 2.4.0
+		 */
+		public int getCapacity() {
+			return capacity;
+		}
+
+		/**
+		 * Returns the estimated number of recent requests for the key with the
+		 * specified hash, from 0 to 15.
+		 * 
+		 * @param hash
+		 *            the spread hash of the key
+		 * @return the estimated frequency
+		 * @since JWI 2.4.0
+		 */
+		public int frequency(int hash) {
+			int min = 15;
+			for(int i = 0; i < SEEDS.length; i++)
+				min = Math.min(min, counter(hash, i));
+			return min;
+		}
+
+		/**
+		 * Records a request for the key with the specified hash.
+		 * 
+		 * @param hash
+		 *            the spread hash of the key
+		 * @since JWI 2.4.0
+		 */
+		public void increment(int hash) {
+			boolean added = false;
+			int index, shift;
+			for(int i = 0; i < SEEDS.length; i++){
+				index = index(hash, i);
+				shift = shift(hash, i);
+				if(((table[index] >>> shift) & 0xFL) < 15){
+					table[index] += 1L << shift;
+					added = true;
+				}
+			}
+			if(added && ++additions >= sampleSize)
+				reset();
+		}
+
+		/**
+		 * Raises the counters of the key with the specified hash to its
+		 * estimated frequency in the specified sketch, so that a larger sketch
+		 * may replace a smaller one without losing the history of the keys
+		 * carried over.
+		 * 
+		 * @param from
+		 *            the sketch from which to carry the frequency; may not be
+		 *            <code>null</code>
+		 * @param hash
+		 *            the spread hash of the key
+		 * @throws NullPointerException
+		 *             if the specified sketch is <code>null</code>
+		 * @since JWI 2.4.0
+		 */
+		public void carry(FrequencySketch from, int hash) {
+			int frequency = from.frequency(hash);
+			int raised = 0;
+			int index, shift, count;
+			for(int i = 0; i < SEEDS.length; i++){
+				index = index(hash, i);
+				shift = shift(hash, i);
+				count = (int)((table[index] >>> shift) & 0xFL);
+				if(count < frequency){
+					table[index] += (long)(frequency - count) << shift;
+					raised = Math.max(raised, frequency - count);
+				}
+			}
+			additions += raised;
+			if(additions >= sampleSize)
+				reset();
+		}
+
+		// halves every counter
+		private void reset() {
+			for(int i = 0; i < table.length; i++)
+				table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+			additions /= 2;
+		}
+
+		// returns the value of the counter for the specified hash function
+		private int counter(int hash, int i) {
+			return (int)((table[index(hash, i)] >>> shift(hash, i)) & 0xFL);
+		}
+
+		// the table index for the specified hash function
+		private int index(int hash, int i) {
+			int h = (hash + SEEDS[i]) * SEEDS[i];
+			return (h ^ (h >>> 17)) & mask;
+		}
+
+		// the bit offset within the table entry for the specified hash function
+		private int shift(int hash, int i) {
+			int h = hash * SEEDS[(i + 1) & 3];
+			return ((h >>> 28) & 0xF) << 2;
+		}
+	}
+
+}
@@ -11,13 +11,19 @@
 package edu.mit.jwi;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 
+import edu.mit.jwi.data.BinarySearchWordnetFile;
+import edu.mit.jwi.data.BloomFilter;
 import edu.mit.jwi.data.ContentType;
 import edu.mit.jwi.data.IContentType;
 import edu.mit.jwi.data.IDataProvider;
 import edu.mit.jwi.data.IDataSource;
+import edu.mit.jwi.data.WordnetFile;
+import edu.mit.jwi.data.parse.ICharSequenceLineParser;
 import edu.mit.jwi.data.parse.ILineParser;
 import edu.mit.jwi.item.ExceptionEntry;
 import edu.mit.jwi.item.ExceptionEntryID;
@@ -39,6 +45,9 @@ import edu.mit.jwi.item.POS;
 import edu.mit.jwi.item.Pointer;
 import edu.mit.jwi.item.Synset;
 import edu.mit.jwi.item.SynsetID;
+import edu.mit.jwi.metrics.IMetered;
+import edu.mit.jwi.metrics.IMetricsListener;
+import edu.mit.jwi.metrics.Lookup;
 
 /**
  * Basic implementation of the {@code IDictionary} interface. A path to the
@@ -49,9 +58,26 @@ import edu.mit.jwi.item.SynsetID;
  * @version 2.3.3
  * @since JWI 2.2.0
  */
-public class DataSourceDictionary implements IDataSourceDictionary {
+public class DataSourceDictionary implements IDataSourceDictionary, ILookupFiltered, IMetered {
 	
 	private final IDataProvider provider;
+	
+	// lookup filters, indexed by part of speech ordinal; built in the
+	// background after open
+	private volatile boolean useLookupFilters = false;
+	private volatile BloomFilter[] indexFilters;
+	private volatile BloomFilter[] exceptionFilters;
+
+	// identifies the filter build whose result may be installed
+	private final Object filterLock = new Object();
+	private Object filterBuild;
+	
+	// the table for ranked prefix searches, built when first needed
+	private volatile PrefixSearch.RankTable rankTable;
+	private final Object rankLock = new Object();
+
+	// the listener that receives lookup timings and parse events, if any
+	private volatile IMetricsListener listener;
 
 	/**
 	 * Constructs a dictionary with a caller-specified {@code IDataProvider}.
@@ -83,13 +109,41 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 		return provider.getVersion();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see edu.mit.jwi.metrics.IMetered#getMetricsListener()
+	 */
+	public IMetricsListener getMetricsListener() {
+		return listener;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see edu.mit.jwi.metrics.IMetered#setMetricsListener(edu.mit.jwi.metrics.IMetricsListener)
+	 */
+	public void setMetricsListener(IMetricsListener listener) {
+		this.listener = listener;
+	}
+
+	// reports a line that is about to be parsed
+	private void lineParsed(CharSequence line) {
+		IMetricsListener l = listener;
+		if(l != null)
+			l.lineParsed(line.length());
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
 	 * @see edu.mit.jwi.IDictionary#open()
 	 */
 	public boolean open() throws IOException {
-		return provider.open();
+		boolean result = provider.open();
+		if(result && useLookupFilters && indexFilters == null)
+			startLookupFilters();
+		return result;
 	}
 
 	/*
@@ -99,6 +153,154 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 	 */
 	public void close() {
 		provider.close();
+		dropLookupFilters();
+		rankTable = null;
+	}
+
+	/**
+	 * Returns whether this dictionary builds Bloom filters over the lemmas of
+	 * the index files and the surface forms of the exception files when it
+	 * is opened, so that lookups of absent index words and exception entries
+	 * return without searching the files. The filters are built on a
+	 * background thread, so that opening does not wait for the files to be
+	 * scanned; until they are ready, every lookup goes to the files. The
+	 * default is <code>false</code>, since building the filters scans every
+	 * index and exception file, which is wasted work when the dictionary is
+	 * only read through once, as when it backs a {@code RAMDictionary}
+	 * load.
+	 * 
+	 * @return <code>true</code> if lookup filters are used;
+	 *         <code>false</code> otherwise
+	 * @since JWI 2.4.0
+	 */
+	public boolean isUseLookupFilters() {
+		return useLookupFilters;
+	}
+
+	/**
+	 * Sets whether this dictionary builds lookup filters when it is opened.
+	 * If filters are disabled, any existing filters are dropped; if they are
+	 * enabled while the dictionary is open, they are built in the background
+	 * now.
+	 * 
+	 * @param useLookupFilters
+	 *            <code>true</code> if lookup filters should be used;
+	 *            <code>false</code> otherwise
+	 * @since JWI 2.4.0
+	 */
+	public void setUseLookupFilters(boolean useLookupFilters) {
+		this.useLookupFilters = useLookupFilters;
+		if(!useLookupFilters){
+			dropLookupFilters();
+		} else if(isOpen() && indexFilters == null){
+			startLookupFilters();
+		}
+	}
+
+	/**
+	 * Returns whether the lookup filters have been built and are in use.
+	 * 
+	 * @return <code>true</code> if lookups are checked against the filters;
+	 *         <code>false</code> if they are not in use or not yet built
+	 * @since JWI 2.4.0
+	 */
+	public boolean hasLookupFilters() {
+		return indexFilters != null;
+	}
+
+	// starts building the lookup filters on a background thread
+	private void startLookupFilters() {
+		final Object build = new Object();
+		synchronized(filterLock){
+			if(filterBuild != null)
+				return;
+			filterBuild = build;
+		}
+		Thread builder = new Thread(new Runnable() {
+			public void run() {
+				try {
+					buildLookupFilters(build);
+				} catch(RuntimeException e) {
+					// the dictionary was closed during the build, or a file
+					// could not be read; lookups go to the files
+					synchronized(filterLock){
+						if(filterBuild == build)
+							filterBuild = null;
+					}
+				}
+			}
+		}, "JWI lookup filters");
+		builder.setDaemon(true);
+		builder.start();
+	}
+
+	// drops the filters, and any filters still being built
+	private void dropLookupFilters() {
+		synchronized(filterLock){
+			filterBuild = null;
+			indexFilters = null;
+			exceptionFilters = null;
+		}
+	}
+
+	/**
+	 * Builds a Bloom filter over the keys of each index and exception file,
+	 * and puts the filters in use unless they have been dropped in the
+	 * meantime. A part of speech whose file is not available is given no
+	 * filter, so that every lookup for it goes to the file. This method is
+	 * called on a background thread after {@link #open()}, and is marked
+	 * protected for ease of subclassing.
+	 * 
+	 * @param build
+	 *            identifies the build, so that one started before the
+	 *            dictionary was closed does not install its filters
+	 * @since JWI 2.4.0
+	 */
+	protected void buildLookupFilters(Object build) {
+		POS[] values = POS.values();
+		BloomFilter[] index = new BloomFilter[values.length];
+		BloomFilter[] exception = new BloomFilter[values.length];
+		IDataSource<?> source;
+		for(POS pos : values){
+			source = provider.getSource(resolveIndexContentType(pos));
+			if(source != null)
+				index[pos.ordinal()] = BloomFilter.build(source);
+			source = provider.getSource(resolveExceptionContentType(pos));
+			if(source != null)
+				exception[pos.ordinal()] = BloomFilter.build(source);
+		}
+		synchronized(filterLock){
+			if(filterBuild != build)
+				return;
+			indexFilters = index;
+			exceptionFilters = exception;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see edu.mit.jwi.ILookupFiltered#mightContainIndexWord(edu.mit.jwi.item.IIndexWordID)
+	 */
+	public boolean mightContainIndexWord(IIndexWordID id) {
+		BloomFilter[] filters = indexFilters;
+		if(filters == null)
+			return true;
+		BloomFilter filter = filters[id.getPOS().ordinal()];
+		return filter == null || filter.mightContain(id.getLemma());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see edu.mit.jwi.ILookupFiltered#mightContainExceptionEntry(edu.mit.jwi.item.IExceptionEntryID)
+	 */
+	public boolean mightContainExceptionEntry(IExceptionEntryID id) {
+		BloomFilter[] filters = exceptionFilters;
+		if(filters == null)
+			return true;
+		BloomFilter filter = filters[id.getPOS().ordinal()];
+		return filter == null || filter.mightContain(id.getSurfaceForm());
 	}
 
 	/*
@@ -140,11 +342,25 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 	 */
 	public IIndexWord getIndexWord(IIndexWordID id) {
 		checkOpen();
+		IMetricsListener l = listener;
+		if(l == null)
+			return findIndexWord(id);
+		long start = System.nanoTime();
+		IIndexWord result = findIndexWord(id);
+		l.lookupCompleted(Lookup.INDEX_WORD, System.nanoTime() - start, result != null);
+		return result;
+	}
+
+	// finds and parses the line of the index word
+	private IIndexWord findIndexWord(IIndexWordID id) {
+		if(!mightContainIndexWord(id))
+			return null;
 		IContentType<IIndexWord> content = resolveIndexContentType(id.getPOS());
 		IDataSource<?> file = provider.getSource(content);
 		String line = file.getLine(id.getLemma());
 		if (line == null)
 			return null;
+		lineParsed(line);
 		return content.getDataType().getParser().parseLine(line);
 	}
 
@@ -228,10 +444,22 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 	 */
 	public ISenseEntry getSenseEntry(ISenseKey key) {
 		checkOpen();
+		IMetricsListener l = listener;
+		if(l == null)
+			return findSenseEntry(key);
+		long start = System.nanoTime();
+		ISenseEntry result = findSenseEntry(key);
+		l.lookupCompleted(Lookup.SENSE_ENTRY, System.nanoTime() - start, result != null);
+		return result;
+	}
+
+	// finds and parses the line of the sense entry
+	private ISenseEntry findSenseEntry(ISenseKey key) {
 		IContentType<ISenseEntry> content = resolveSenseContentType();
 		IDataSource<ISenseEntry> file = provider.getSource(content);
 		String line = file.getLine(key.toString());
 		if (line == null) return null;
+		lineParsed(line);
 		return content.getDataType().getParser().parseLine(line);
 	}
 
@@ -242,12 +470,24 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 	 */
 	public ISynset getSynset(ISynsetID id) {
 		checkOpen();
+		IMetricsListener l = listener;
+		if(l == null)
+			return findSynset(id);
+		long start = System.nanoTime();
+		ISynset result = findSynset(id);
+		l.lookupCompleted(Lookup.SYNSET, System.nanoTime() - start, result != null);
+		return result;
+	}
+
+	// finds and parses the line of the synset, and sets its head word
+	private ISynset findSynset(ISynsetID id) {
 		IContentType<ISynset> content = resolveDataContentType(id.getPOS());
 		IDataSource<ISynset> file = provider.getSource(content);
 		String zeroFilledOffset = Synset.zeroFillOffset(id.getOffset());
 		String line = file.getLine(zeroFilledOffset);
 		if(line == null) 
 			return null;
+		lineParsed(line);
 		ISynset result = content.getDataType().getParser().parseLine(line);
 		if(result != null) 
 			setHeadWord(result);
@@ -310,6 +550,19 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 	 */
 	public IExceptionEntry getExceptionEntry(IExceptionEntryID id) {
 		checkOpen();
+		IMetricsListener l = listener;
+		if(l == null)
+			return findExceptionEntry(id);
+		long start = System.nanoTime();
+		IExceptionEntry result = findExceptionEntry(id);
+		l.lookupCompleted(Lookup.EXCEPTION_ENTRY, System.nanoTime() - start, result != null);
+		return result;
+	}
+
+	// finds and parses the line of the exception entry
+	private IExceptionEntry findExceptionEntry(IExceptionEntryID id) {
+		if(!mightContainExceptionEntry(id))
+			return null;
 		IContentType<IExceptionEntryProxy> content = resolveExceptionContentType(id.getPOS());
 		IDataSource<IExceptionEntryProxy> file = provider.getSource(content);
 		// fix for bug 010
@@ -318,6 +571,7 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 		String line = file.getLine(id.getSurfaceForm());
 		if (line == null) 
 			return null;
+		lineParsed(line);
 		IExceptionEntryProxy proxy = content.getDataType().getParser().parseLine(line);
 		if(proxy == null)
 			return null;
@@ -366,6 +620,78 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 		return new IndexFileIterator(pos);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see edu.mit.jwi.IDictionary#getIndexWordIterator(edu.mit.jwi.item.POS, java.lang.String, int)
+	 */
+	public Iterator<IIndexWord> getIndexWordIterator(POS pos, String prefix, int limit) {
+		checkOpen();
+		String key = PrefixSearch.normalize(prefix);
+		return PrefixSearch.boundIndexWords(new IndexFileIterator(pos, key), key, null, key, limit);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see edu.mit.jwi.IDictionary#getIndexWordIterator(edu.mit.jwi.item.POS, java.lang.String, java.lang.String, int)
+	 */
+	public Iterator<IIndexWord> getIndexWordIterator(POS pos, String fromLemma, String toLemma, int limit) {
+		checkOpen();
+		if(pos == null)
+			throw new NullPointerException();
+		String from = (fromLemma == null) ? "" : PrefixSearch.normalize(fromLemma);
+		String to = (toLemma == null) ? null : PrefixSearch.normalize(toLemma);
+		
+		// sorted files are positioned at the first line not below the lower
+		// bound; the bounding iterator skips any lines below it in others
+		Iterator<IIndexWord> itr;
+		IDataSource<?> file = provider.getSource(resolveIndexContentType(pos));
+		if(from.length() > 0 && file instanceof BinarySearchWordnetFile){
+			BinarySearchWordnetFile<?> sorted = (BinarySearchWordnetFile<?>)file;
+			itr = new IndexFileIterator(pos, sorted.findLineAtOrAfter(from), sorted.getBuffer().limit());
+		} else {
+			itr = new IndexFileIterator(pos);
+		}
+		return PrefixSearch.boundIndexWords(itr, from, to, null, limit);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see edu.mit.jwi.IDictionary#getIndexWords(java.lang.String, int)
+	 */
+	public List<IIndexWord> getIndexWords(String prefix, int limit) {
+		checkOpen();
+		return getRankTable().rank(this, prefix, limit);
+	}
+
+	/**
+	 * Returns the table from which ranked prefix searches are answered,
+	 * building it if this is the first search since the dictionary was
+	 * opened. Building the table reads every index word and sense entry.
+	 * 
+	 * @return the rank table of this dictionary
+	 * @throws ObjectClosedException
+	 *             if the dictionary is not open
+	 * @since JWI 2.4.0
+	 */
+	protected PrefixSearch.RankTable getRankTable() {
+		PrefixSearch.RankTable table = rankTable;
+		if(table != null)
+			return table;
+		synchronized(rankLock){
+			if(rankTable == null){
+				table = PrefixSearch.RankTable.build(this);
+				// a table built while the dictionary was closed is not kept
+				if(isOpen())
+					rankTable = table;
+				return table;
+			}
+			return rankTable;
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -396,8 +722,116 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 		return new SenseEntryFileIterator();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see edu.mit.jwi.IDictionary#getSenseEntryIterator(java.lang.String)
+	 */
+	public Iterator<ISenseEntry> getSenseEntryIterator(String prefix) {
+		checkOpen();
+		return PrefixSearch.boundSenseEntries(new SenseEntryFileIterator(prefix), prefix);
+	}
+
 	/**
-	 * Abstract class used for iterating over line-based files.
+	 * Returns iterators over the index words of the specified part of
+	 * speech, each over a separate range of lines of the index file, which
+	 * together cover the file exactly once. The iterators may be used in
+	 * separate threads to parse the file in parallel. If the file cannot be
+	 * split, a single iterator is returned.
+	 * 
+	 * @param pos
+	 *            the part of speech; may not be <code>null</code>
+	 * @param count
+	 *            the largest number of iterators; must be positive
+	 * @return iterators that together return every index word of the part
+	 *         of speech
+	 * @throws IllegalArgumentException
+	 *             if the count is not positive
+	 * @throws ObjectClosedException
+	 *             if the dictionary is not open
+	 * @since JWI 2.4.0
+	 */
+	public List<Iterator<IIndexWord>> getIndexWordIterators(POS pos, int count) {
+		int[] bounds = split(resolveIndexContentType(pos), count);
+		if(bounds == null)
+			return Collections.singletonList(getIndexWordIterator(pos));
+		List<Iterator<IIndexWord>> result = new ArrayList<Iterator<IIndexWord>>(bounds.length - 1);
+		for(int i = 0; i < bounds.length - 1; i++)
+			result.add(new IndexFileIterator(pos, bounds[i], bounds[i+1]));
+		return result;
+	}
+
+	/**
+	 * Returns iterators over the synsets of the specified part of speech,
+	 * each over a separate range of lines of the data file, which together
+	 * cover the file exactly once. The iterators may be used in separate
+	 * threads to parse the file in parallel. If the file cannot be split, a
+	 * single iterator is returned.
+	 * 
+	 * @param pos
+	 *            the part of speech; may not be <code>null</code>
+	 * @param count
+	 *            the largest number of iterators; must be positive
+	 * @return iterators that together return every synset of the part of
+	 *         speech
+	 * @throws IllegalArgumentException
+	 *             if the count is not positive
+	 * @throws ObjectClosedException
+	 *             if the dictionary is not open
+	 * @since JWI 2.4.0
+	 */
+	public List<Iterator<ISynset>> getSynsetIterators(POS pos, int count) {
+		int[] bounds = split(resolveDataContentType(pos), count);
+		if(bounds == null)
+			return Collections.singletonList(getSynsetIterator(pos));
+		List<Iterator<ISynset>> result = new ArrayList<Iterator<ISynset>>(bounds.length - 1);
+		for(int i = 0; i < bounds.length - 1; i++)
+			result.add(new DataFileIterator(pos, bounds[i], bounds[i+1]));
+		return result;
+	}
+
+	/**
+	 * Returns iterators over the sense entries, each over a separate range
+	 * of lines of the sense file, which together cover the file exactly
+	 * once. The iterators may be used in separate threads to parse the file
+	 * in parallel. If the file cannot be split, a single iterator is
+	 * returned.
+	 * 
+	 * @param count
+	 *            the largest number of iterators; must be positive
+	 * @return iterators that together return every sense entry
+	 * @throws IllegalArgumentException
+	 *             if the count is not positive
+	 * @throws ObjectClosedException
+	 *             if the dictionary is not open
+	 * @since JWI 2.4.0
+	 */
+	public List<Iterator<ISenseEntry>> getSenseEntryIterators(int count) {
+		int[] bounds = split(resolveSenseContentType(), count);
+		if(bounds == null)
+			return Collections.singletonList(getSenseEntryIterator());
+		List<Iterator<ISenseEntry>> result = new ArrayList<Iterator<ISenseEntry>>(bounds.length - 1);
+		for(int i = 0; i < bounds.length - 1; i++)
+			result.add(new SenseEntryFileIterator(bounds[i], bounds[i+1]));
+		return result;
+	}
+
+	// returns the boundaries of the ranges into which the file of the
+	// content type is split, or null if it cannot be split
+	private int[] split(IContentType<?> content, int count) {
+		checkOpen();
+		if(count < 1)
+			throw new IllegalArgumentException();
+		IDataSource<?> file = provider.getSource(content);
+		return (file instanceof WordnetFile) ? ((WordnetFile<?>)file).split(count) : null;
+	}
+
+	/**
+	 * Abstract class used for iterating over line-based files. An iterator
+	 * constructed in view mode over a whole {@link WordnetFile}, whose parser
+	 * is an {@link ICharSequenceLineParser}, passes each line to
+	 * {@link #parseLine(CharSequence)} as a view onto the file's buffer,
+	 * rather than copying it into a string.
 	 */
 	public abstract class FileIterator<T, N> implements Iterator<N>, IHasPOS {
 
@@ -405,22 +839,65 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 		protected final Iterator<String> iterator;
 		protected final ILineParser<T> fParser;
 		protected String currentLine;
+		
+		// set only in view mode
+		protected final Iterator<? extends CharSequence> viewIterator;
+		protected final ICharSequenceLineParser<T> fViewParser;
+		protected CharSequence currentView;
 
 		public FileIterator(IContentType<T> content) {
 			this(content, null);
 		}
 		
 		public FileIterator(IContentType<T> content, String startKey) {
+			this(content, startKey, false);
+		}
+		
+		/** 
+		 * Constructs a new file iterator with the specified content type and
+		 * start key, which iterates over line views if the
+		 * <code>useViews</code> flag is set and the file and parser support
+		 * it. View mode is only used when there is no start key.
+		 *
+		 * @since JWI 2.4.0
+		 */
+		public FileIterator(IContentType<T> content, String startKey, boolean useViews) {
 			this.fFile = provider.getSource(content);
 			this.fParser = content.getDataType().getParser();
-			if(fFile == null){
-				// Fix for Bug018
+			
+			boolean noKey = (startKey == null || startKey.trim().length() == 0);
+			if(useViews && noKey && fFile instanceof WordnetFile && fParser instanceof ICharSequenceLineParser){
 				this.iterator = Collections.<String>emptySet().iterator();
+				this.viewIterator = ((WordnetFile<T>)fFile).viewIterator();
+				this.fViewParser = (ICharSequenceLineParser<T>)fParser;
 			} else {
-				this.iterator = fFile.iterator(startKey);
+				this.viewIterator = null;
+				this.fViewParser = null;
+				if(fFile == null){
+					// Fix for Bug018
+					this.iterator = Collections.<String>emptySet().iterator();
+				} else {
+					this.iterator = fFile.iterator(startKey);
+				}
 			}
 		}
 		
+		/** 
+		 * Constructs a new file iterator, in view mode, over the lines of
+		 * the file with the specified content type that start within the
+		 * specified range of the file's buffer. The file must be a
+		 * {@link WordnetFile}.
+		 *
+		 * @since JWI 2.4.0
+		 */
+		public FileIterator(IContentType<T> content, int start, int end) {
+			this.fFile = provider.getSource(content);
+			this.fParser = content.getDataType().getParser();
+			this.iterator = Collections.<String>emptySet().iterator();
+			this.viewIterator = ((WordnetFile<T>)fFile).viewIterator(start, end);
+			this.fViewParser = (fParser instanceof ICharSequenceLineParser) ? (ICharSequenceLineParser<T>)fParser : null;
+		}
+		
 		/** 
 		 * Returns the current line.
 		 *
@@ -428,6 +905,8 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 		 * @since JWI 2.2.0
 		 */
 		public String getCurrentLine(){
+			if(currentLine == null && currentView != null)
+				currentLine = currentView.toString();
 			return currentLine;
 		}
 
@@ -446,7 +925,7 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 		 * @see java.util.Iterator#hasNext()
 		 */
 		public boolean hasNext() {
-			return iterator.hasNext();
+			return (viewIterator == null) ? iterator.hasNext() : viewIterator.hasNext();
 		}
 
 		/*
@@ -455,7 +934,14 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 		 * @see java.util.Iterator#next()
 		 */
 		public N next() {
+			if(viewIterator != null){
+				currentLine = null;
+				currentView = viewIterator.next();
+				lineParsed(currentView);
+				return parseLine(currentView);
+			}
 			currentLine = iterator.next();
+			lineParsed(currentLine);
 			return parseLine(currentLine);
 		}
 
@@ -470,6 +956,18 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 
 		/** Parses the line using a parser provided at construction time */
 		public abstract N parseLine(String line);
+
+		/** 
+		 * Parses a line presented as a view, in view mode. The default
+		 * implementation copies the line and defers to
+		 * {@link #parseLine(String)}; subclasses that construct themselves in
+		 * view mode should override it to parse the view in place.
+		 *
+		 * @since JWI 2.4.0
+		 */
+		public N parseLine(CharSequence line) {
+			return parseLine(line.toString());
+		}
 	}
 	
 	/** 
@@ -499,6 +997,26 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 			super(content, startKey);
 		}
 		
+		/** 
+		 * Constructs a new file iterator with the specified content type and
+		 * start key, in view mode if so specified.
+		 *
+		 * @since JWI 2.4.0
+		 */
+		public FileIterator2(IContentType<T> content, String startKey, boolean useViews) {
+			super(content, startKey, useViews);
+		}
+		
+		/** 
+		 * Constructs a new file iterator, in view mode, over the lines that
+		 * start within the specified range of the file.
+		 *
+		 * @since JWI 2.4.0
+		 */
+		public FileIterator2(IContentType<T> content, int start, int end) {
+			super(content, start, end);
+		}
+		
 	}
 
 	/**
@@ -511,7 +1029,17 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 		}
 
 		public IndexFileIterator(POS pos, String pattern) {
-			super(resolveIndexContentType(pos), pattern);
+			super(resolveIndexContentType(pos), pattern, true);
+		}
+
+		/** 
+		 * Constructs a new iterator over the lines of the index file that
+		 * start within the specified range of the file.
+		 *
+		 * @since JWI 2.4.0
+		 */
+		public IndexFileIterator(POS pos, int start, int end) {
+			super(resolveIndexContentType(pos), start, end);
 		}
 
 		/*
@@ -523,6 +1051,15 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 			return fParser.parseLine(line);
 		}
 
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see edu.mit.jwi.DataSourceDictionary.FileIterator#parseLine(java.lang.CharSequence)
+		 */
+		public IIndexWord parseLine(CharSequence line) {
+			return fViewParser.parseLine(line);
+		}
+
 	}
 
 	/**
@@ -534,6 +1071,26 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 			super(resolveSenseContentType());
 		}
 
+		/** 
+		 * Constructs a new iterator over the sense file, starting at the
+		 * first line that begins with the specified key.
+		 *
+		 * @since JWI 2.4.0
+		 */
+		public SenseEntryFileIterator(String pattern) {
+			super(resolveSenseContentType(), pattern);
+		}
+
+		/** 
+		 * Constructs a new iterator over the lines of the sense file that
+		 * start within the specified range of the file.
+		 *
+		 * @since JWI 2.4.0
+		 */
+		public SenseEntryFileIterator(int start, int end) {
+			super(resolveSenseContentType(), start, end);
+		}
+
 		/*
 		 * (non-Javadoc)
 		 * 
@@ -551,7 +1108,17 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 	public class DataFileIterator extends FileIterator2<ISynset> {
 
 		public DataFileIterator(POS pos) {
-			super(resolveDataContentType(pos));
+			super(resolveDataContentType(pos), null, true);
+		}
+
+		/** 
+		 * Constructs a new iterator over the lines of the data file that
+		 * start within the specified range of the file.
+		 *
+		 * @since JWI 2.4.0
+		 */
+		public DataFileIterator(POS pos, int start, int end) {
+			super(resolveDataContentType(pos), start, end);
 		}
 
 		/*
@@ -569,6 +1136,18 @@ public class DataSourceDictionary implements IDataSourceDictionary {
 			}
 		}
 
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see edu.mit.jwi.DataSourceDictionary.FileIterator#parseLine(java.lang.CharSequence)
+		 */
+		public ISynset parseLine(CharSequence line) {
+			ISynset synset = fViewParser.parseLine(line);
+			if(getPOS() == POS.ADJECTIVE)
+				setHeadWord(synset);
+			return synset;
+		}
+
 	}
 
 	/**
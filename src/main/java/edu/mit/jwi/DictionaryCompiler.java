@@ -0,0 +1,675 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import edu.mit.jwi.data.FileProvider;
+import edu.mit.jwi.item.IExceptionEntry;
+import edu.mit.jwi.item.IIndexWord;
+import edu.mit.jwi.item.IPointer;
+import edu.mit.jwi.item.ISenseEntry;
+import edu.mit.jwi.item.ISenseKey;
+import edu.mit.jwi.item.ISynset;
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.IVerbFrame;
+import edu.mit.jwi.item.IVersion;
+import edu.mit.jwi.item.IWord;
+import edu.mit.jwi.item.IWordID;
+import edu.mit.jwi.item.POS;
+
+/**
+ * <p>
+ * Writes the contents of a dictionary to a single compiled file that can be
+ * read by a {@link CompiledDictionary}. Every synset, word, index word,
+ * exception entry and sense entry of the source dictionary is written, so that
+ * the compiled dictionary returns the same items as the source, which
+ * {@link #verify(File, File)} checks.
+ * </p>
+ * <p>
+ * Compiling reads the whole of the source dictionary, and is typically done
+ * once, ahead of time; the compiled file may then be opened any number of
+ * times without reading the original Wordnet files. This class is not
+ * thread-safe; each instance may be used to write only one file.
+ * </p>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class DictionaryCompiler {
+
+	// immutable fields
+	protected final IDictionary source;
+	protected final long fingerprint;
+
+	// string pool
+	private final Map<String, Integer> stringIndex = new HashMap<String, Integer>();
+	private final List<byte[]> strings = new ArrayList<byte[]>();
+
+	// pointer types
+	private final Map<IPointer, Integer> pointerIndex = new LinkedHashMap<IPointer, Integer>();
+
+	// sections
+	private final IntArray[] synsets = new IntArray[POS.values().length];
+	private final IntArray[] indexWords = new IntArray[POS.values().length];
+	private final IntArray[] exceptions = new IntArray[POS.values().length];
+	private final IntArray words = new IntArray();
+	private final IntArray pool = new IntArray();
+	private final Map<byte[], int[]> keys = new TreeMap<byte[], int[]>(encodedComparator);
+
+	/**
+	 * Constructs a new compiler that writes the contents of the specified
+	 * dictionary. The dictionary must be open when {@link #compile(File)} is
+	 * called.
+	 * 
+	 * @param source
+	 *            the dictionary to be compiled; may not be <code>null</code>
+	 * @param fingerprint
+	 *            the fingerprint of the Wordnet files that back the source
+	 *            dictionary, or 0 if it is unknown
+	 * @throws NullPointerException
+	 *             if the specified dictionary is <code>null</code>
+	 * @see #fingerprint(File)
+	 * @since JWI 2.4.0
+	 */
+	public DictionaryCompiler(IDictionary source, long fingerprint) {
+		if(source == null)
+			throw new NullPointerException();
+		this.source = source;
+		this.fingerprint = fingerprint;
+	}
+
+	/**
+	 * Compiles the Wordnet files in the specified directory to the specified
+	 * compiled file.
+	 * 
+	 * @param dictDir
+	 *            the directory holding the Wordnet files; may not be
+	 *            <code>null</code>
+	 * @param dest
+	 *            the compiled file to be written; may not be <code>null</code>
+	 * @throws IOException
+	 *             if there is a problem reading the Wordnet files or writing
+	 *             the compiled file
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static void compile(File dictDir, File dest) throws IOException {
+		if(dest == null)
+			throw new NullPointerException();
+		IDictionary dict = new DataSourceDictionary(new FileProvider(dictDir));
+		dict.open();
+		try {
+			new DictionaryCompiler(dict, fingerprint(dictDir)).compile(dest);
+		} finally {
+			dict.close();
+		}
+	}
+
+	/**
+	 * Returns a fingerprint of the files in the specified directory, made from
+	 * their names, lengths and modification times. A compiled file records
+	 * the fingerprint of the directory from which it was made, so that a
+	 * caller may tell whether it is out of date. Subdirectories are not
+	 * included.
+	 * 
+	 * @param dictDir
+	 *            the directory holding the Wordnet files; may not be
+	 *            <code>null</code>
+	 * @return the fingerprint of the directory, which is never 0
+	 * @throws NullPointerException
+	 *             if the specified directory is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static long fingerprint(File dictDir) {
+		File[] files = dictDir.listFiles();
+		if(files == null)
+			files = new File[0];
+		Arrays.sort(files);
+		long hash = 0xCBF29CE484222325L;
+		for(File file : files){
+			if(!file.isFile())
+				continue;
+			hash = (hash ^ file.getName().hashCode()) * 0x100000001B3L;
+			hash = (hash ^ file.length()) * 0x100000001B3L;
+			hash = (hash ^ file.lastModified()) * 0x100000001B3L;
+		}
+		return (hash == 0) ? 1 : hash;
+	}
+
+	/**
+	 * Checks that the specified compiled file holds the same items as the
+	 * Wordnet files in the specified directory. See
+	 * {@link #verify(IDictionary, IDictionary)}.
+	 * 
+	 * @param dictDir
+	 *            the directory holding the Wordnet files; may not be
+	 *            <code>null</code>
+	 * @param compiledFile
+	 *            the compiled file; may not be <code>null</code>
+	 * @throws IOException
+	 *             if there is a problem reading either dictionary, or the
+	 *             compiled file differs from the Wordnet files
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static void verify(File dictDir, File compiledFile) throws IOException {
+		IDictionary source = new DataSourceDictionary(new FileProvider(dictDir));
+		IDictionary compiled = new CompiledDictionary(compiledFile);
+		source.open();
+		try {
+			compiled.open();
+			try {
+				verify(source, compiled);
+			} finally {
+				compiled.close();
+			}
+		} finally {
+			source.close();
+		}
+	}
+
+	/**
+	 * Checks that the specified compiled dictionary holds the same items as
+	 * the specified source dictionary. Every synset, word, index word, sense
+	 * entry and exception entry of the source is looked up by its id in the
+	 * compiled dictionary and compared with <code>equals</code>, or, for
+	 * exception entries, which do not define equality, by their root forms;
+	 * each word is also looked up by its sense key. The number of items of
+	 * each kind, and the versions, must also be the same. Both dictionaries
+	 * must be open.
+	 * 
+	 * @param source
+	 *            the dictionary that was compiled; may not be
+	 *            <code>null</code>
+	 * @param compiled
+	 *            the compiled dictionary; may not be <code>null</code>
+	 * @throws IOException
+	 *             if the compiled dictionary differs from the source,
+	 *             naming the first item that differs
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static void verify(IDictionary source, IDictionary compiled) throws IOException {
+		IVersion version = source.getVersion();
+		if(version == null ? compiled.getVersion() != null : !version.equals(compiled.getVersion()))
+			throw new IOException("version differs: " + version + " != " + compiled.getVersion());
+		int count;
+		for(POS pos : POS.values()){
+			count = 0;
+			for(Iterator<ISynset> i = source.getSynsetIterator(pos); i.hasNext(); count++){
+				ISynset synset = i.next();
+				check(synset.getID(), synset, compiled.getSynset(synset.getID()));
+				for(IWord word : synset.getWords()){
+					check(word.getID(), word, compiled.getWord(word.getID()));
+					check(word.getSenseKey(), word, compiled.getWord(word.getSenseKey()));
+				}
+			}
+			checkCount("synsets", pos, count, compiled.getSynsetIterator(pos));
+
+			count = 0;
+			for(Iterator<IIndexWord> i = source.getIndexWordIterator(pos); i.hasNext(); count++){
+				IIndexWord word = i.next();
+				check(word.getID(), word, compiled.getIndexWord(word.getID()));
+			}
+			checkCount("index words", pos, count, compiled.getIndexWordIterator(pos));
+
+			count = 0;
+			for(Iterator<IExceptionEntry> i = source.getExceptionEntryIterator(pos); i.hasNext(); count++){
+				IExceptionEntry entry = i.next();
+				IExceptionEntry other = compiled.getExceptionEntry(entry.getID());
+				if(other == null || !entry.getRootForms().equals(other.getRootForms()))
+					throw new IOException("exception entry differs: " + entry.getID());
+			}
+			checkCount("exception entries", pos, count, compiled.getExceptionEntryIterator(pos));
+		}
+
+		count = 0;
+		for(Iterator<ISenseEntry> i = source.getSenseEntryIterator(); i.hasNext(); count++){
+			ISenseEntry entry = i.next();
+			check(entry.getSenseKey(), entry, compiled.getSenseEntry(entry.getSenseKey()));
+		}
+		checkCount("sense entries", null, count, compiled.getSenseEntryIterator());
+	}
+
+	// throws an exception naming the key of the expected item if the actual
+	// one differs
+	private static void check(Object key, Object expected, Object actual) throws IOException {
+		if(!expected.equals(actual))
+			throw new IOException("item differs: " + key);
+	}
+
+	// throws an exception if the iterator does not give the expected number
+	// of items
+	private static void checkCount(String kind, POS pos, int expected, Iterator<?> i) throws IOException {
+		int actual = 0;
+		for(; i.hasNext(); i.next())
+			actual++;
+		if(actual != expected)
+			throw new IOException("number of " + kind + ((pos == null) ? "" : " for " + pos) + " differs: " + expected + " != " + actual);
+	}
+
+	/**
+	 * Reads the whole of the source dictionary, and writes it to the
+	 * specified compiled file. The file is first written to a temporary file
+	 * in the same directory, which is then renamed.
+	 * 
+	 * @param dest
+	 *            the compiled file to be written; may not be <code>null</code>
+	 * @throws IOException
+	 *             if there is a problem writing the file
+	 * @throws IllegalStateException
+	 *             if this compiler has already been used
+	 * @throws NullPointerException
+	 *             if the specified file is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public void compile(File dest) throws IOException {
+		if(dest == null)
+			throw new NullPointerException();
+		if(!strings.isEmpty())
+			throw new IllegalStateException("compiler has already been used");
+
+		IVersion version = source.getVersion();
+		int qualifier = (version == null || version.getQualifier() == null || version.getQualifier().length() == 0) ? -1 : intern(version.getQualifier());
+		for(POS pos : POS.values()){
+			synsets[pos.ordinal()] = addSynsets(pos);
+			indexWords[pos.ordinal()] = addIndexWords(pos);
+			exceptions[pos.ordinal()] = addExceptions(pos);
+		}
+		addSenseEntries();
+
+		File tmp = new File(dest.getPath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16));
+		try {
+			out.writeInt(CompiledDictionary.MAGIC);
+			out.writeInt(CompiledDictionary.FORMAT_VERSION);
+			out.writeLong(fingerprint);
+
+			// string pool
+			int length = 0;
+			for(byte[] str : strings)
+				length += str.length;
+			out.writeInt(strings.size());
+			out.writeInt(length);
+			length = 0;
+			out.writeInt(0);
+			for(byte[] str : strings){
+				length += str.length;
+				out.writeInt(length);
+			}
+			for(byte[] str : strings)
+				out.write(str);
+			for(; (length & 3) != 0; length++)
+				out.write(0);
+
+			// version
+			out.writeInt(version == null ? 0 : 1);
+			out.writeInt(version == null ? 0 : version.getMajorVersion());
+			out.writeInt(version == null ? 0 : version.getMinorVersion());
+			out.writeInt(version == null ? 0 : version.getBugfixVersion());
+			out.writeInt(qualifier);
+
+			// pointer types
+			out.writeInt(pointerIndex.size());
+			for(IPointer ptr : pointerIndex.keySet()){
+				out.writeInt(stringIndex.get(ptr.getSymbol()));
+				out.writeInt(stringIndex.get(ptr.getName()));
+			}
+
+			// per part of speech sections
+			for(POS pos : POS.values()){
+				writeSection(out, synsets[pos.ordinal()], CompiledDictionary.SYNSET_INTS);
+				writeSection(out, indexWords[pos.ordinal()], CompiledDictionary.INDEX_INTS);
+				writeSection(out, exceptions[pos.ordinal()], CompiledDictionary.EXCEPTION_INTS);
+			}
+
+			// shared sections
+			writeSection(out, words, CompiledDictionary.WORD_INTS);
+			out.writeInt(keys.size());
+			for(int[] record : keys.values())
+				for(int i = 0; i < record.length; i++)
+					out.writeInt(record[i]);
+			writeSection(out, pool, 1);
+		} finally {
+			out.close();
+		}
+		if(!tmp.renameTo(dest)){
+			dest.delete();
+			if(!tmp.renameTo(dest)){
+				tmp.delete();
+				throw new IOException("Unable to write " + dest);
+			}
+		}
+	}
+
+	/**
+	 * Adds the synsets and words of the specified part of speech, and records
+	 * the sense keys of the words.
+	 * 
+	 * @param pos
+	 *            the part of speech
+	 * @return the synset records, sorted by offset
+	 * @since JWI 2.4.0
+	 */
+	protected IntArray addSynsets(POS pos) {
+		List<ISynset> list = new ArrayList<ISynset>();
+		for(Iterator<ISynset> i = source.getSynsetIterator(pos); i.hasNext(); )
+			list.add(i.next());
+		Collections.sort(list, new Comparator<ISynset>() {
+			public int compare(ISynset s1, ISynset s2) {
+				int o1 = s1.getOffset(), o2 = s2.getOffset();
+				return (o1 < o2) ? -1 : (o1 == o2) ? 0 : 1;
+			}
+		});
+
+		IntArray records = new IntArray();
+		int flags, ptrStart, ptrCount;
+		for(ISynset synset : list){
+			flags = synset.getLexicalFile().getNumber() << 8;
+			if(synset.isAdjectiveSatellite())
+				flags |= CompiledDictionary.FLAG_ADJ_SAT;
+			if(synset.isAdjectiveHead())
+				flags |= CompiledDictionary.FLAG_ADJ_HEAD;
+
+			// synset pointers
+			ptrStart = pool.size();
+			ptrCount = 0;
+			for(Entry<IPointer, List<ISynsetID>> entry : synset.getRelatedMap().entrySet()){
+				for(ISynsetID target : entry.getValue()){
+					pool.add(internPointer(entry.getKey()));
+					pool.add(target.getPOS().getNumber());
+					pool.add(target.getOffset());
+					ptrCount++;
+				}
+			}
+
+			records.add(synset.getOffset());
+			records.add(flags);
+			records.add(intern(synset.getGloss()));
+			records.add(words.size() / CompiledDictionary.WORD_INTS);
+			records.add(synset.getWords().size());
+			records.add(ptrStart);
+			records.add(ptrCount);
+
+			for(IWord word : synset.getWords())
+				addWord(word);
+		}
+		return records;
+	}
+
+	/**
+	 * Adds the record for the specified word, and records its sense key.
+	 * 
+	 * @param word
+	 *            the word to be added
+	 * @since JWI 2.4.0
+	 */
+	protected void addWord(IWord word) {
+
+		// verb frames
+		int frameStart = pool.size();
+		for(IVerbFrame frame : word.getVerbFrames())
+			pool.add(frame.getNumber());
+		int frameCount = pool.size() - frameStart;
+
+		// word pointers
+		int ptrStart = pool.size();
+		int ptrCount = 0;
+		for(Entry<IPointer, List<IWordID>> entry : word.getRelatedMap().entrySet()){
+			for(IWordID target : entry.getValue()){
+				pool.add(internPointer(entry.getKey()));
+				pool.add(target.getPOS().getNumber() | (target.getWordNumber() << 8));
+				pool.add(target.getSynsetID().getOffset());
+				ptrCount++;
+			}
+		}
+
+		// sense key
+		ISenseKey key = word.getSenseKey();
+		boolean hasHead = key.isAdjectiveSatellite() && !key.needsHeadSet();
+
+		words.add(intern(word.getLemma()));
+		words.add(word.getLexicalID());
+		words.add(word.getAdjectiveMarker() == null ? 0 : word.getAdjectiveMarker().ordinal() + 1);
+		words.add(frameStart);
+		words.add(frameCount);
+		words.add(ptrStart);
+		words.add(ptrCount);
+		words.add(hasHead ? intern(key.getHeadWord()) : -1);
+		words.add(hasHead ? key.getHeadID() : -1);
+
+		if(key.needsHeadSet())
+			return;
+		String keyStr = key.toString();
+		byte[] encoded = keyStr.getBytes(CompiledDictionary.CHARSET);
+		if(!keys.containsKey(encoded))
+			keys.put(encoded, new int[]{intern(keyStr), word.getPOS().getNumber(), word.getSynset().getOffset(), word.getID().getWordNumber(), 0, 0});
+	}
+
+	/**
+	 * Adds the index words of the specified part of speech.
+	 * 
+	 * @param pos
+	 *            the part of speech
+	 * @return the index word records, sorted by lemma
+	 * @since JWI 2.4.0
+	 */
+	protected IntArray addIndexWords(POS pos) {
+		Map<byte[], IIndexWord> sorted = new TreeMap<byte[], IIndexWord>(encodedComparator);
+		IIndexWord idxWord;
+		for(Iterator<IIndexWord> i = source.getIndexWordIterator(pos); i.hasNext(); ){
+			idxWord = i.next();
+			sorted.put(idxWord.getLemma().getBytes(CompiledDictionary.CHARSET), idxWord);
+		}
+
+		IntArray records = new IntArray();
+		int ptrStart, wordStart;
+		for(IIndexWord word : sorted.values()){
+			ptrStart = pool.size();
+			for(IPointer ptr : word.getPointers())
+				pool.add(internPointer(ptr));
+			wordStart = pool.size();
+			for(IWordID id : word.getWordIDs())
+				pool.add(id.getSynsetID().getOffset());
+
+			records.add(intern(word.getLemma()));
+			records.add(word.getTagSenseCount());
+			records.add(ptrStart);
+			records.add(wordStart - ptrStart);
+			records.add(wordStart);
+			records.add(pool.size() - wordStart);
+		}
+		return records;
+	}
+
+	/**
+	 * Adds the exception entries of the specified part of speech.
+	 * 
+	 * @param pos
+	 *            the part of speech
+	 * @return the exception entry records, sorted by surface form
+	 * @since JWI 2.4.0
+	 */
+	protected IntArray addExceptions(POS pos) {
+		Map<byte[], IExceptionEntry> sorted = new TreeMap<byte[], IExceptionEntry>(encodedComparator);
+		IExceptionEntry entry;
+		for(Iterator<IExceptionEntry> i = source.getExceptionEntryIterator(pos); i.hasNext(); ){
+			entry = i.next();
+			sorted.put(entry.getSurfaceForm().getBytes(CompiledDictionary.CHARSET), entry);
+		}
+
+		IntArray records = new IntArray();
+		int rootStart;
+		for(IExceptionEntry exc : sorted.values()){
+			rootStart = pool.size();
+			for(String root : exc.getRootForms())
+				pool.add(intern(root));
+			records.add(intern(exc.getSurfaceForm()));
+			records.add(rootStart);
+			records.add(pool.size() - rootStart);
+		}
+		return records;
+	}
+
+	/**
+	 * Adds the sense entries of the source dictionary to the sense key
+	 * records made for the words.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	protected void addSenseEntries() {
+		ISenseEntry entry;
+		String keyStr;
+		byte[] encoded;
+		int[] record;
+		for(Iterator<ISenseEntry> i = source.getSenseEntryIterator(); i.hasNext(); ){
+			entry = i.next();
+			keyStr = entry.getSenseKey().toString();
+			encoded = keyStr.getBytes(CompiledDictionary.CHARSET);
+			record = keys.get(encoded);
+			if(record == null){
+				record = new int[]{intern(keyStr), entry.getPOS().getNumber(), entry.getOffset(), 0, 0, 0};
+				keys.put(encoded, record);
+			} else if(record[CompiledDictionary.KEY_OFFSET] != entry.getOffset()){
+				record[CompiledDictionary.KEY_OFFSET] = entry.getOffset();
+				record[CompiledDictionary.KEY_WORD_NUM] = 0;
+			}
+			record[CompiledDictionary.KEY_FLAGS] |= CompiledDictionary.FLAG_HAS_ENTRY;
+			record[CompiledDictionary.KEY_SENSE_NUM] = entry.getSenseNumber();
+			record[CompiledDictionary.KEY_TAG_COUNT] = entry.getTagCount();
+		}
+	}
+
+	/**
+	 * Returns the index of the specified string in the string pool, adding it
+	 * if it is not already there.
+	 * 
+	 * @param str
+	 *            the string
+	 * @return the index of the string in the pool
+	 * @since JWI 2.4.0
+	 */
+	protected int intern(String str) {
+		Integer index = stringIndex.get(str);
+		if(index == null){
+			index = strings.size();
+			strings.add(str.getBytes(CompiledDictionary.CHARSET));
+			stringIndex.put(str, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the index of the specified pointer in the pointer table, adding
+	 * it if it is not already there.
+	 * 
+	 * @param ptr
+	 *            the pointer
+	 * @return the index of the pointer in the table
+	 * @since JWI 2.4.0
+	 */
+	protected int internPointer(IPointer ptr) {
+		Integer index = pointerIndex.get(ptr);
+		if(index == null){
+			index = pointerIndex.size();
+			pointerIndex.put(ptr, index);
+			intern(ptr.getSymbol());
+			intern(ptr.getName());
+		}
+		return index;
+	}
+
+	// writes a section of fixed-width records, preceded by the record count
+	private static void writeSection(DataOutputStream out, IntArray records, int width) throws IOException {
+		out.writeInt(records.size() / width);
+		for(int i = 0; i < records.size(); i++)
+			out.writeInt(records.get(i));
+	}
+
+	// orders encoded strings in the order of the compiled file
+	private static final Comparator<byte[]> encodedComparator = new Comparator<byte[]>() {
+		public int compare(byte[] a, byte[] b) {
+			return CompiledDictionary.compareEncoded(a, b);
+		}
+	};
+
+	/**
+	 * A growable array of ints.
+	 * 
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	protected static class IntArray {
+
+		// instance fields
+		private int[] values = new int[1024];
+		private int size = 0;
+
+		/**
+		 * Appends the specified value.
+		 * 
+		 * @param value
+		 *            the value to append
+		 * @since JWI 2.4.0
+		 */
+		public void add(int value) {
+			if(size == values.length)
+				values = Arrays.copyOf(values, size*2);
+			values[size++] = value;
+		}
+
+		/**
+		 * Returns the value at the specified index.
+		 * 
+		 * @param index
+		 *            the index of the value
+		 * @return the value at the specified index
+		 * @since JWI 2.4.0
+		 */
+		public int get(int index) {
+			if(index >= size)
+				throw new ArrayIndexOutOfBoundsException(index);
+			return values[index];
+		}
+
+		/**
+		 * Returns the number of values in this array.
+		 * 
+		 * @return the number of values in this array
+		 * @since JWI 2.4.0
+		 */
+		public int size() {
+			return size;
+		}
+	}
+
+}
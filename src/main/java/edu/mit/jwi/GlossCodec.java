@@ -0,0 +1,367 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import edu.mit.jwi.item.ILexFile;
+import edu.mit.jwi.item.IPointer;
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.Synset;
+
+/**
+ * <p>
+ * Compresses glosses into small byte blocks, and inflates them again. Each
+ * gloss is deflated on its own against a preset dictionary of the words most
+ * common in glosses, which lets even short glosses compress well. The most
+ * recently inflated glosses are kept in a small cache, split into stripes
+ * that are locked separately so that concurrent readers rarely contend.
+ * </p>
+ * <p>
+ * This class is safe for concurrent use.
+ * </p>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class GlossCodec {
+
+	/**
+	 * The default number of inflated glosses kept in the cache.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 256;
+
+	/**
+	 * The largest size of a preset dictionary, in bytes, which is the size
+	 * of the deflate window.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int MAX_DICTIONARY_SIZE = 32*1024;
+
+	/**
+	 * The charset in which glosses are encoded.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final Charset CHARSET = Charset.forName("UTF-8");
+
+	// block formats, in the first byte of a block
+	private static final byte RAW = 0;
+	private static final byte DEFLATED = 1;
+
+	// the number of separately locked stripes of the cache
+	private static final int STRIPES = 16;
+
+	// immutable fields
+	private final byte[] dictionary;
+	private final Map<byte[], String>[] cache;
+
+	// the deflaters and inflaters of each thread, which are expensive to make
+	private final ThreadLocal<Deflater> deflaters = new ThreadLocal<Deflater>() {
+		protected Deflater initialValue() {
+			return new Deflater(Deflater.BEST_COMPRESSION, true);
+		}
+	};
+	private final ThreadLocal<Inflater> inflaters = new ThreadLocal<Inflater>() {
+		protected Inflater initialValue() {
+			return new Inflater(true);
+		}
+	};
+
+	/**
+	 * Constructs a new codec that uses the specified preset dictionary.
+	 * 
+	 * @param dictionary
+	 *            the preset dictionary, of at most
+	 *            {@link #MAX_DICTIONARY_SIZE} bytes; may not be
+	 *            <code>null</code>
+	 * @param cacheSize
+	 *            the number of inflated glosses kept in the cache; may be 0
+	 * @throws NullPointerException
+	 *             if the specified dictionary is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the dictionary is too large, or the cache size is
+	 *             negative
+	 * @since JWI 2.4.0
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public GlossCodec(byte[] dictionary, int cacheSize) {
+		if(dictionary.length > MAX_DICTIONARY_SIZE || cacheSize < 0)
+			throw new IllegalArgumentException();
+		this.dictionary = dictionary.clone();
+		if(cacheSize == 0){
+			this.cache = null;
+		} else {
+			final int stripeSize = (cacheSize + STRIPES - 1) / STRIPES;
+			this.cache = new Map[STRIPES];
+			for(int i = 0; i < STRIPES; i++){
+				// keyed by identity, since each synset holds its own block
+				cache[i] = new LinkedHashMap<byte[], String>(2*stripeSize, 0.75f, true) {
+					private static final long serialVersionUID = 240L;
+					protected boolean removeEldestEntry(Entry<byte[], String> eldest) {
+						return size() > stripeSize;
+					}
+				};
+			}
+		}
+	}
+
+	/**
+	 * Constructs a new codec whose preset dictionary is made from the words
+	 * of the specified glosses, with the default cache size. The words that
+	 * save the most bytes, by count times length, are chosen, and the most
+	 * valuable are placed at the end of the dictionary, where they are
+	 * cheapest to refer to.
+	 * 
+	 * @param glosses
+	 *            the glosses from which to make the dictionary; may not be
+	 *            <code>null</code>
+	 * @return a codec with a dictionary made from the glosses
+	 * @throws NullPointerException
+	 *             if the specified iterable is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static GlossCodec train(Iterable<String> glosses) {
+		final Map<String, int[]> counts = new HashMap<String, int[]>();
+		int[] count;
+		for(String gloss : glosses){
+			for(String word : gloss.split(" ")){
+				if(word.length() < 3)
+					continue;
+				count = counts.get(word);
+				if(count == null)
+					counts.put(word, count = new int[1]);
+				count[0]++;
+			}
+		}
+		List<String> words = new ArrayList<String>(counts.keySet());
+		Collections.sort(words, new Comparator<String>() {
+			public int compare(String w1, String w2) {
+				long s1 = (long)counts.get(w1)[0]*w1.length();
+				long s2 = (long)counts.get(w2)[0]*w2.length();
+				return (s1 < s2) ? 1 : (s1 > s2) ? -1 : w1.compareTo(w2);
+			}
+		});
+
+		// take the most valuable words that fit, then put them in
+		// increasing order of value
+		List<byte[]> chosen = new ArrayList<byte[]>();
+		int size = 0;
+		for(String word : words){
+			if(counts.get(word)[0] < 2)
+				break;
+			byte[] bytes = (word + " ").getBytes(CHARSET);
+			if(size + bytes.length > MAX_DICTIONARY_SIZE)
+				continue;
+			chosen.add(bytes);
+			size += bytes.length;
+		}
+		byte[] dictionary = new byte[size];
+		int pos = 0;
+		for(int i = chosen.size() - 1; i >= 0; i--){
+			System.arraycopy(chosen.get(i), 0, dictionary, pos, chosen.get(i).length);
+			pos += chosen.get(i).length;
+		}
+		return new GlossCodec(dictionary, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Returns the number of bytes in the preset dictionary of this codec.
+	 * 
+	 * @return the size of the preset dictionary, in bytes
+	 * @since JWI 2.4.0
+	 */
+	public int getDictionarySize() {
+		return dictionary.length;
+	}
+
+	/**
+	 * Compresses the specified gloss into a block that may be inflated by
+	 * this codec. Glosses that do not shrink are stored as UTF-8.
+	 * 
+	 * @param gloss
+	 *            the gloss to be compressed; may not be <code>null</code>
+	 * @return the compressed block
+	 * @throws NullPointerException
+	 *             if the specified gloss is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public byte[] encode(String gloss) {
+		byte[] utf8 = gloss.getBytes(CHARSET);
+		if(utf8.length > 0 && utf8.length <= 0xFFFF){
+			Deflater deflater = deflaters.get();
+			deflater.reset();
+			if(dictionary.length > 0)
+				deflater.setDictionary(dictionary);
+			deflater.setInput(utf8);
+			deflater.finish();
+			byte[] buf = new byte[utf8.length + 3];
+			int len = 3;
+			while(!deflater.finished() && len < buf.length)
+				len += deflater.deflate(buf, len, buf.length - len);
+			if(deflater.finished() && len < utf8.length + 1){
+				buf[0] = DEFLATED;
+				buf[1] = (byte)(utf8.length >>> 8);
+				buf[2] = (byte)utf8.length;
+				return Arrays.copyOf(buf, len);
+			}
+		}
+		byte[] block = new byte[utf8.length + 1];
+		block[0] = RAW;
+		System.arraycopy(utf8, 0, block, 1, utf8.length);
+		return block;
+	}
+
+	/**
+	 * Inflates the specified block, made by {@link #encode(String)}, back
+	 * into its gloss.
+	 * 
+	 * @param block
+	 *            the compressed block; may not be <code>null</code>
+	 * @return the gloss
+	 * @throws NullPointerException
+	 *             if the specified block is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the block was not made by this codec
+	 * @since JWI 2.4.0
+	 */
+	public String decode(byte[] block) {
+		if(block[0] == RAW)
+			return new String(block, 1, block.length - 1, CHARSET);
+		Map<byte[], String> stripe = (cache == null) ? null : cache[System.identityHashCode(block) & (STRIPES - 1)];
+		String gloss;
+		if(stripe != null){
+			synchronized(stripe){
+				gloss = stripe.get(block);
+			}
+			if(gloss != null)
+				return gloss;
+		}
+		byte[] utf8 = new byte[((block[1] & 0xFF) << 8) | (block[2] & 0xFF)];
+		Inflater inflater = inflaters.get();
+		inflater.reset();
+		try {
+			if(dictionary.length > 0)
+				inflater.setDictionary(dictionary);
+			inflater.setInput(block, 3, block.length - 3);
+			int len = 0;
+			while(len < utf8.length){
+				int n = inflater.inflate(utf8, len, utf8.length - len);
+				if(n == 0 && (inflater.finished() || inflater.needsInput()))
+					throw new IllegalArgumentException("truncated gloss block");
+				len += n;
+			}
+		} catch(DataFormatException e) {
+			throw new IllegalArgumentException(e);
+		}
+		gloss = new String(utf8, CHARSET);
+		if(stripe != null){
+			synchronized(stripe){
+				stripe.put(block, gloss);
+			}
+		}
+		return gloss;
+	}
+
+	/**
+	 * A synset whose gloss is held in a block compressed by a gloss codec,
+	 * and inflated each time it is asked for, unless it is in the codec's
+	 * cache.
+	 * 
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	public static class CompactSynset extends Synset {
+
+		// immutable fields
+		private final GlossCodec codec;
+		private final byte[] gloss;
+
+		/**
+		 * Constructs a new synset with the specified parameters, whose gloss
+		 * is compressed by the specified codec.
+		 * 
+		 * @param codec
+		 *            the codec that compresses the gloss; may not be
+		 *            <code>null</code>
+		 * @param id
+		 *            the synset id; may not be <code>null</code>
+		 * @param lexFile
+		 *            the lexical file for this synset; may not be
+		 *            <code>null</code>
+		 * @param isAdjSat
+		 *            <code>true</code> if this object represents an adjective
+		 *            satellite synset; <code>false</code> otherwise
+		 * @param isAdjHead
+		 *            <code>true</code> if this object represents an adjective
+		 *            head synset; <code>false</code> otherwise
+		 * @param gloss
+		 *            the gloss for this synset; may not be <code>null</code>
+		 * @param wordBuilders
+		 *            the list of word builders for this synset; may not be
+		 *            <code>null</code>
+		 * @param ids
+		 *            a map of related synset lists, indexed by pointer; may
+		 *            be <code>null</code>
+		 * @throws NullPointerException
+		 *             if the codec is <code>null</code>, or as for
+		 *             {@link Synset}
+		 * @throws IllegalArgumentException
+		 *             as for {@link Synset}
+		 * @since JWI 2.4.0
+		 */
+		public CompactSynset(GlossCodec codec, ISynsetID id, ILexFile lexFile, boolean isAdjSat, boolean isAdjHead, String gloss,
+				List<IWordBuilder> wordBuilders, Map<IPointer, ? extends List<ISynsetID>> ids) {
+			super(id, lexFile, isAdjSat, isAdjHead, "", wordBuilders, ids);
+			this.codec = codec;
+			this.gloss = codec.encode(gloss);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see edu.mit.jwi.item.Synset#getGloss()
+		 */
+		@Override
+		public String getGloss() {
+			return codec.decode(gloss);
+		}
+
+		/**
+		 * Returns the number of bytes in the compressed block that holds the
+		 * gloss, so that the synset can be weighed without inflating it.
+		 * 
+		 * @return the size of the compressed gloss, in bytes
+		 * @since JWI 2.4.0
+		 */
+		int getGlossBlockSize() {
+			return gloss.length;
+		}
+	}
+
+}
@@ -11,6 +11,7 @@
 package edu.mit.jwi;
 
 import java.util.Iterator;
+import java.util.List;
 
 import edu.mit.jwi.data.IHasLifecycle;
 import edu.mit.jwi.item.IExceptionEntry;
@@ -95,6 +96,87 @@ public interface IDictionary extends IHasVersion, IHasLifecycle {
 	 */
 	public Iterator<IIndexWord> getIndexWordIterator(POS pos);
 
+	/**
+	 * Returns an iterator over the index words of the specified part of
+	 * speech whose lemmas start with the specified prefix, in lemma order.
+	 * The prefix is normalized as lemmas are by
+	 * {@link edu.mit.jwi.item.IndexWordID}: it is trimmed, lower-cased, and
+	 * runs of whitespace are replaced by underscores. An empty prefix matches
+	 * every index word. The iterator stops at the first index word that does
+	 * not match, so only the matching part of the index is read.
+	 * 
+	 * @param pos
+	 *            the part of speech over which to iterate; may not be
+	 *            <code>null</code>
+	 * @param prefix
+	 *            the prefix of the lemmas to be returned; may not be
+	 *            <code>null</code>
+	 * @param limit
+	 *            the largest number of index words to return; a value less
+	 *            than 1 means there is no limit
+	 * @return an iterator over the matching index words
+	 * @throws NullPointerException
+	 *             if either object argument is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public Iterator<IIndexWord> getIndexWordIterator(POS pos, String prefix, int limit);
+
+	/**
+	 * Returns an iterator over the index words of the specified part of
+	 * speech whose lemmas lie in the specified range, in lemma order. The
+	 * range includes its lower bound and excludes its upper bound; both are
+	 * normalized as for {@link #getIndexWordIterator(POS, String, int)}. The
+	 * iterator stops at the first index word beyond the range.
+	 * 
+	 * @param pos
+	 *            the part of speech over which to iterate; may not be
+	 *            <code>null</code>
+	 * @param fromLemma
+	 *            the lowest lemma to be returned, or <code>null</code> to
+	 *            start at the first index word
+	 * @param toLemma
+	 *            the lemma at which to stop, or <code>null</code> to continue
+	 *            to the last index word
+	 * @param limit
+	 *            the largest number of index words to return; a value less
+	 *            than 1 means there is no limit
+	 * @return an iterator over the index words in the range
+	 * @throws NullPointerException
+	 *             if the part of speech is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public Iterator<IIndexWord> getIndexWordIterator(POS pos, String fromLemma, String toLemma, int limit);
+
+	/**
+	 * Returns the index words of all parts of speech whose lemmas start with
+	 * the specified prefix, ranked so that the most frequently used come
+	 * first. An index word is ranked by the sum of the tag counts of the sense
+	 * entries for its lemma and part of speech (see
+	 * {@link ISenseEntry#getTagCount()}); ties are broken by lemma, and then
+	 * by part of speech. The prefix is normalized as for
+	 * {@link #getIndexWordIterator(POS, String, int)}.
+	 * <p>
+	 * Implementations may build a table of every lemma and its tag counts
+	 * the first time this method is called, which reads the whole
+	 * dictionary once; afterwards, a search with a limit takes time that
+	 * grows with the limit rather than with the number of matching lemmas.
+	 * Without a limit, every matching index word is returned, so that a
+	 * short prefix may cost as much as reading a large part of the index
+	 * files.
+	 * 
+	 * @param prefix
+	 *            the prefix of the lemmas to be returned; may not be
+	 *            <code>null</code>
+	 * @param limit
+	 *            the largest number of index words to return; a value less
+	 *            than 1 means there is no limit
+	 * @return the ranked list of matching index words, possibly empty
+	 * @throws NullPointerException
+	 *             if the prefix is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public List<IIndexWord> getIndexWords(String prefix, int limit);
+
 	/**
 	 * Retrieves the word with the specified id from the database. If the
 	 * specified word is not found, returns {@code null}
@@ -175,6 +257,24 @@ public interface IDictionary extends IHasVersion, IHasLifecycle {
 	 */
 	public Iterator<ISenseEntry> getSenseEntryIterator();
 
+	/**
+	 * Returns an iterator over the sense entries whose sense keys start with
+	 * the specified prefix, in sense key order. As sense keys begin with
+	 * their lemma, followed by a percent sign, a lemma prefix selects the
+	 * sense entries of every lemma starting with that prefix. The prefix is
+	 * used as given. The iterator stops at the first sense entry that does
+	 * not match.
+	 * 
+	 * @param prefix
+	 *            the prefix of the sense keys to be returned; may not be
+	 *            <code>null</code>
+	 * @return an iterator over the matching sense entries
+	 * @throws NullPointerException
+	 *             if the prefix is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public Iterator<ISenseEntry> getSenseEntryIterator(String prefix);
+
 	/**
 	 * Retrieves the exception entry for the specified surface form and part of
 	 * speech from the database. If the specified surface form/ part of speech
@@ -0,0 +1,60 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi;
+
+import edu.mit.jwi.item.IExceptionEntryID;
+import edu.mit.jwi.item.IIndexWordID;
+
+/**
+ * An object that can rule out the presence of index words and exception
+ * entries without looking them up. Wrapping dictionaries check whether the
+ * dictionary they wrap implements this interface, and if so, skip lookups of
+ * items it reports certainly absent.
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public interface ILookupFiltered {
+
+	/**
+	 * Returns <code>false</code> if this dictionary certainly has no index
+	 * word with the specified id, so that looking it up may be skipped;
+	 * returns <code>true</code> if it might. A dictionary that cannot tell
+	 * always returns <code>true</code>.
+	 * 
+	 * @param id
+	 *            the id of the index word; may not be <code>null</code>
+	 * @return <code>false</code> if the index word is certainly absent;
+	 *         <code>true</code> otherwise
+	 * @throws NullPointerException
+	 *             if the specified id is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public boolean mightContainIndexWord(IIndexWordID id);
+
+	/**
+	 * Returns <code>false</code> if this dictionary certainly has no
+	 * exception entry with the specified id, so that looking it up may be
+	 * skipped; returns <code>true</code> if it might. A dictionary that cannot
+	 * tell always returns <code>true</code>.
+	 * 
+	 * @param id
+	 *            the id of the exception entry; may not be <code>null</code>
+	 * @return <code>false</code> if the exception entry is certainly absent;
+	 *         <code>true</code> otherwise
+	 * @throws NullPointerException
+	 *             if the specified id is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public boolean mightContainExceptionEntry(IExceptionEntryID id);
+
+}
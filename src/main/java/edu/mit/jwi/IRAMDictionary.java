@@ -10,6 +10,10 @@
 
 package edu.mit.jwi;
 
+import java.util.Collection;
+import java.util.Set;
+
+import edu.mit.jwi.data.IContentType;
 import edu.mit.jwi.data.ILoadPolicy;
 import edu.mit.jwi.data.ILoadable;
 
@@ -23,4 +27,31 @@ import edu.mit.jwi.data.ILoadable;
  */
 public interface IRAMDictionary extends IDictionary, ILoadPolicy, ILoadable {
 
+	/**
+	 * Returns the content types that are loaded into memory, or
+	 * <code>null</code> if all content is loaded.
+	 * 
+	 * @return an unmodifiable set of the content types loaded into memory, or
+	 *         <code>null</code> if all content is loaded
+	 * @since JWI 2.4.0
+	 */
+	public Set<IContentType<?>> getLoadedContentTypes();
+
+	/**
+	 * Sets the content types that are loaded into memory. Content that is
+	 * not loaded is looked up in the backing dictionary, which is then kept
+	 * open for as long as this dictionary is open. Words are loaded with the
+	 * synsets of their part of speech. This may only be called when the
+	 * dictionary is closed.
+	 * 
+	 * @param types
+	 *            the content types to be loaded, or <code>null</code> to load
+	 *            all content
+	 * @throws IllegalStateException
+	 *             if the dictionary is open
+	 * @see edu.mit.jwi.data.ContentType
+	 * @since JWI 2.4.0
+	 */
+	public void setLoadedContentTypes(Collection<? extends IContentType<?>> types);
+
 }
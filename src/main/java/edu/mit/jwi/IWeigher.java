@@ -0,0 +1,39 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi;
+
+/**
+ * Estimates the memory retained by a cached object, so that a cache can be
+ * bounded by bytes rather than by a number of entries.
+ * 
+ * @param <T>
+ *            the type of object weighed
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public interface IWeigher<T> {
+
+	/**
+	 * Returns the estimated number of bytes retained by the specified object
+	 * while it is cached. The estimate must be positive, and must not change
+	 * while the object is cached.
+	 * 
+	 * @param object
+	 *            the object to be weighed; may not be <code>null</code>
+	 * @return the estimated weight of the object, in bytes; at least 1
+	 * @throws NullPointerException
+	 *             if the specified object is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public int weigh(T object);
+
+}
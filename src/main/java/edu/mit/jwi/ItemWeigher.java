@@ -0,0 +1,277 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import edu.mit.jwi.item.IExceptionEntry;
+import edu.mit.jwi.item.IIndexWord;
+import edu.mit.jwi.item.IPointer;
+import edu.mit.jwi.item.ISenseEntry;
+import edu.mit.jwi.item.ISenseKey;
+import edu.mit.jwi.item.ISynset;
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.IWord;
+import edu.mit.jwi.item.IWordID;
+
+/**
+ * <p>
+ * Estimates the heap retained by the items JWI caches: synsets, words, index
+ * words, sense entries and exception entries. The estimates follow the
+ * layout of the default item implementations on a 64-bit virtual machine
+ * with compressed references: twelve bytes of object header, four bytes per
+ * reference, objects padded to eight bytes, and two bytes per string
+ * character. They are meant for sizing caches against the heap, not for
+ * exact accounting.
+ * </p>
+ * <p>
+ * A word is weighed without its synset, which is weighed when it is cached
+ * under its own id. Objects shared between cached items, such as a word held
+ * both by its synset and by the sense key cache, are counted for each item,
+ * so the estimate of a whole cache errs on the high side.
+ * </p>
+ * <p>
+ * This class follows a singleton design pattern, and is not intended to be
+ * instantiated directly; rather, call the {@link #getInstance()} method to get
+ * the singleton instance.
+ * </p>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class ItemWeigher implements IWeigher<Object> {
+
+	// layout constants
+	private static final int HEADER = 12;
+	private static final int REFERENCE = 4;
+	private static final int ARRAY_HEADER = 16;
+
+	// sizes of fixed objects
+	private static final int SYNSET_ID = align(HEADER + 2*4);
+	private static final int WORD_ID = align(HEADER + 3*4);
+	private static final int SENSE_KEY = align(HEADER + 7*4);
+	private static final int MAP_ENTRY = align(HEADER + 4*4);
+
+	// singleton instance
+	private static ItemWeigher instance;
+
+	/**
+	 * Returns the singleton instance of this class, instantiating it if
+	 * necessary. The singleton instance will not be <code>null</code>.
+	 * 
+	 * @return the non-<code>null</code> singleton instance of this class,
+	 *         instantiating it if necessary.
+	 * @since JWI 2.4.0
+	 */
+	public static ItemWeigher getInstance() {
+		if(instance == null)
+			instance = new ItemWeigher();
+		return instance;
+	}
+
+	/**
+	 * This constructor is marked protected so that the class may be
+	 * sub-classed, but not directly instantiated. Obtain instances of this
+	 * class via the static {@link #getInstance()} method.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	protected ItemWeigher() {}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.IWeigher#weigh(java.lang.Object)
+	 */
+	public int weigh(Object object) {
+		if(object == null)
+			throw new NullPointerException();
+		long weight;
+		if(object instanceof ISynset){
+			weight = weighSynset((ISynset)object);
+		} else if(object instanceof IWord){
+			weight = weighWord((IWord)object);
+		} else if(object instanceof IIndexWord){
+			weight = weighIndexWord((IIndexWord)object);
+		} else if(object instanceof ISenseEntry){
+			weight = weighSenseEntry((ISenseEntry)object);
+		} else if(object instanceof IExceptionEntry){
+			weight = weighExceptionEntry((IExceptionEntry)object);
+		} else {
+			weight = align(HEADER);
+		}
+		return (int)Math.min(weight, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the estimated weight of the specified synset, including its id,
+	 * gloss, words and pointers. The gloss of a
+	 * {@link GlossCodec.CompactSynset} is weighed by its compressed block, so
+	 * that it is not inflated.
+	 * 
+	 * @param synset
+	 *            the synset; may not be <code>null</code>
+	 * @return the estimated weight, in bytes
+	 * @throws NullPointerException
+	 *             if the specified synset is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public long weighSynset(ISynset synset) {
+		long weight = align(HEADER + 6*REFERENCE + 2) + SYNSET_ID;
+		if(synset instanceof GlossCodec.CompactSynset){
+			// the compressed block, and the codec reference, without
+			// inflating the gloss
+			weight += REFERENCE + weighBytes(((GlossCodec.CompactSynset)synset).getGlossBlockSize());
+		} else {
+			weight += weighString(synset.getGloss());
+		}
+		List<IWord> words = synset.getWords();
+		weight += weighList(words.size());
+		for(IWord word : words)
+			weight += weighWord(word);
+		int count = 0;
+		Map<IPointer, List<ISynsetID>> related = synset.getRelatedMap();
+		weight += weighMap(related.size());
+		for(List<ISynsetID> ids : related.values()){
+			weight += weighList(ids.size()) + ids.size()*SYNSET_ID;
+			count += ids.size();
+		}
+		return weight + weighList(count);
+	}
+
+	/**
+	 * Returns the estimated weight of the specified word, including its id,
+	 * lemma, sense key, verb frames and pointers, but not its synset.
+	 * 
+	 * @param word
+	 *            the word; may not be <code>null</code>
+	 * @return the estimated weight, in bytes
+	 * @throws NullPointerException
+	 *             if the specified word is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public long weighWord(IWord word) {
+		long weight = align(HEADER + 7*REFERENCE + 4) + WORD_ID;
+		weight += weighString(word.getLemma());
+		weight += weighSenseKey(word.getSenseKey());
+		weight += weighList(word.getVerbFrames().size());
+		int count = 0;
+		Map<IPointer, List<IWordID>> related = word.getRelatedMap();
+		weight += weighMap(related.size());
+		for(List<IWordID> ids : related.values()){
+			weight += weighList(ids.size()) + ids.size()*(WORD_ID + SYNSET_ID);
+			count += ids.size();
+		}
+		return weight + weighList(count);
+	}
+
+	/**
+	 * Returns the estimated weight of the specified index word, including its
+	 * id, lemma, pointer set and word ids.
+	 * 
+	 * @param word
+	 *            the index word; may not be <code>null</code>
+	 * @return the estimated weight, in bytes
+	 * @throws NullPointerException
+	 *             if the specified index word is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public long weighIndexWord(IIndexWord word) {
+		long weight = align(HEADER + 3*REFERENCE + 4) + align(HEADER + 2*REFERENCE);
+		weight += weighString(word.getLemma());
+		weight += weighSet(word.getPointers());
+		List<IWordID> ids = word.getWordIDs();
+		return weight + weighList(ids.size()) + ids.size()*(WORD_ID + SYNSET_ID);
+	}
+
+	/**
+	 * Returns the estimated weight of the specified sense entry, including its
+	 * sense key.
+	 * 
+	 * @param entry
+	 *            the sense entry; may not be <code>null</code>
+	 * @return the estimated weight, in bytes
+	 * @throws NullPointerException
+	 *             if the specified sense entry is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public long weighSenseEntry(ISenseEntry entry) {
+		return align(HEADER + 3*4 + REFERENCE) + weighSenseKey(entry.getSenseKey());
+	}
+
+	/**
+	 * Returns the estimated weight of the specified exception entry, including
+	 * its id, surface form and root forms.
+	 * 
+	 * @param entry
+	 *            the exception entry; may not be <code>null</code>
+	 * @return the estimated weight, in bytes
+	 * @throws NullPointerException
+	 *             if the specified exception entry is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public long weighExceptionEntry(IExceptionEntry entry) {
+		long weight = align(HEADER + 4*REFERENCE) + align(HEADER + 2*REFERENCE);
+		weight += weighString(entry.getSurfaceForm());
+		List<String> roots = entry.getRootForms();
+		weight += weighList(roots.size());
+		for(String root : roots)
+			weight += weighString(root);
+		return weight;
+	}
+
+	// weighs a sense key and its cached string form, which is about
+	// fourteen characters longer than the lemma
+	private static long weighSenseKey(ISenseKey key) {
+		return SENSE_KEY + weighString(key.getLemma()) + weighString(key.getLemma().length() + 14);
+	}
+
+	// weighs a string and its character array
+	private static long weighString(String str) {
+		return weighString(str.length());
+	}
+
+	// weighs a string of the specified length
+	private static long weighString(int length) {
+		return align(HEADER + REFERENCE + 2*4) + align(ARRAY_HEADER + 2*length);
+	}
+
+	// weighs a byte array of the specified length
+	private static long weighBytes(int length) {
+		return align(ARRAY_HEADER + length);
+	}
+
+	// weighs an array list, wrapped in an unmodifiable view
+	private static long weighList(int size) {
+		return align(HEADER + REFERENCE + 2*4) + align(ARRAY_HEADER + size*REFERENCE) + align(HEADER + 2*REFERENCE);
+	}
+
+	// weighs a hash map, wrapped in an unmodifiable view, not counting the
+	// keys and values
+	private static long weighMap(int size) {
+		int table = Integer.highestOneBit(Math.max(1, size*4/3)) << 1;
+		return align(HEADER + 3*REFERENCE + 4*4) + align(ARRAY_HEADER + table*REFERENCE) + size*MAP_ENTRY + align(HEADER + 4*REFERENCE);
+	}
+
+	// weighs a hash set of shared elements
+	private static long weighSet(Collection<?> set) {
+		return align(HEADER + REFERENCE) + weighMap(set.size());
+	}
+
+	// rounds the size up to the object alignment
+	private static int align(int size) {
+		return (size + 7) & ~7;
+	}
+
+}
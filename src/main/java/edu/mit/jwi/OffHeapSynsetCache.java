@@ -0,0 +1,639 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import edu.mit.jwi.item.AdjMarker;
+import edu.mit.jwi.item.ILexFile;
+import edu.mit.jwi.item.IPointer;
+import edu.mit.jwi.item.ISenseKey;
+import edu.mit.jwi.item.ISynset;
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.IVerbFrame;
+import edu.mit.jwi.item.IWord;
+import edu.mit.jwi.item.IWordID;
+import edu.mit.jwi.item.POS;
+import edu.mit.jwi.item.Synset;
+import edu.mit.jwi.item.Synset.IWordBuilder;
+import edu.mit.jwi.item.SynsetID;
+import edu.mit.jwi.item.WordID;
+
+/**
+ * <p>
+ * A second-level synset cache that keeps compactly serialized synsets in
+ * direct memory, outside the garbage-collected heap. A
+ * {@link CachingDictionary} with such a cache consults it when a synset is
+ * not in its item cache, and decodes the synset from its serialized form
+ * rather than searching for and parsing the synset's line in the data file.
+ * </p>
+ * <p>
+ * Serialized synsets are appended to a ring of fixed-size slabs. When the
+ * last slab is full, the oldest slab is reused, and the synsets in it are
+ * dropped from the cache. The index from part of speech and offset to
+ * position in the slabs is an open-addressing table of primitive longs, so
+ * that the heap used by the cache is a few bytes per synset. Pointers,
+ * lexical files and verb frames are written as indexes into small tables
+ * kept on the heap, so that any implementations of them are preserved.
+ * </p>
+ * <p>
+ * This class is safe for concurrent use.
+ * </p>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class OffHeapSynsetCache {
+
+	/**
+	 * The default size of each slab, in bytes.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int DEFAULT_SLAB_SIZE = 1 << 20;
+
+	/**
+	 * The default capacity of the cache, in bytes.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final long DEFAULT_CAPACITY = 64L << 20;
+
+	// the largest slab sequence number, which keeps locations non-negative
+	private static final long MAX_SEQUENCE = 0x7FFFFFFFL;
+
+	// synset flags
+	private static final int FLAG_ADJ_SAT = 1;
+	private static final int FLAG_ADJ_HEAD = 2;
+
+	// instance fields
+	private final int slabSize;
+	private final ByteBuffer[] slabs;
+	private final long[] slabSequences;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Table<IPointer> pointers = new Table<IPointer>();
+	private final Table<ILexFile> lexFiles = new Table<ILexFile>();
+	private final Table<IVerbFrame> frames = new Table<IVerbFrame>();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final LongTable index = new LongTable();
+	private long sequence;
+	private int writePosition;
+
+	/**
+	 * Constructs a new cache with the default capacity and slab size.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public OffHeapSynsetCache() {
+		this(DEFAULT_CAPACITY, DEFAULT_SLAB_SIZE);
+	}
+
+	/**
+	 * Constructs a new cache with the specified capacity and slab size. Slabs
+	 * are allocated as they are first needed.
+	 * 
+	 * @param capacity
+	 *            the largest number of bytes of direct memory used by the
+	 *            cache; rounded down to a whole number of slabs, and at least
+	 *            two slabs
+	 * @param slabSize
+	 *            the size of each slab, in bytes; at least 4096
+	 * @throws IllegalArgumentException
+	 *             if the slab size is less than 4096
+	 * @since JWI 2.4.0
+	 */
+	public OffHeapSynsetCache(long capacity, int slabSize) {
+		if(slabSize < 4096)
+			throw new IllegalArgumentException();
+		int count = (int)Math.min(Integer.MAX_VALUE, Math.max(2, capacity / slabSize));
+		this.slabSize = slabSize;
+		this.slabs = new ByteBuffer[count];
+		this.slabSequences = new long[count];
+		Arrays.fill(slabSequences, -1);
+		slabSequences[0] = 0;
+	}
+
+	/**
+	 * Returns the capacity of this cache: the number of bytes of direct
+	 * memory it uses when all its slabs are allocated.
+	 * 
+	 * @return the capacity of this cache, in bytes
+	 * @since JWI 2.4.0
+	 */
+	public long getCapacity() {
+		return (long)slabs.length*slabSize;
+	}
+
+	/**
+	 * Returns the number of bytes of direct memory allocated by this cache.
+	 * 
+	 * @return the allocated direct memory, in bytes
+	 * @since JWI 2.4.0
+	 */
+	public long getAllocated() {
+		lock.readLock().lock();
+		try {
+			long result = 0;
+			for(ByteBuffer slab : slabs)
+				if(slab != null)
+					result += slab.capacity();
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of lookups that found their synset in this cache.
+	 * 
+	 * @return the number of hits
+	 * @since JWI 2.4.0
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * Returns the number of lookups that did not find their synset in this
+	 * cache.
+	 * 
+	 * @return the number of misses
+	 * @since JWI 2.4.0
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * Returns the synset with the specified id, decoded from this cache, or
+	 * <code>null</code> if it is not in the cache. Each call returns a new
+	 * synset object.
+	 * 
+	 * @param id
+	 *            the id of the synset; may not be <code>null</code>
+	 * @return the synset, or <code>null</code> if it is not cached
+	 * @throws NullPointerException
+	 *             if the specified id is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public ISynset get(ISynsetID id) {
+		long key = key(id.getPOS(), id.getOffset());
+		byte[] record;
+		lock.readLock().lock();
+		try {
+			long location = index.get(key);
+			if(location < 0 || !isLive(location)){
+				misses.incrementAndGet();
+				return null;
+			}
+			ByteBuffer slab = slabs[(int)((location >>> 32) % slabs.length)].duplicate();
+			slab.position((int)location);
+			record = new byte[slab.getInt()];
+			slab.get(record);
+		} finally {
+			lock.readLock().unlock();
+		}
+		hits.incrementAndGet();
+		try {
+			return decode(id, record);
+		} catch(IOException e) {
+			// cannot happen when reading from an array
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Adds the specified synset to this cache, replacing any previous copy.
+	 * Synsets that cannot be serialized, such as those larger than a slab or
+	 * with related words identified only by lemma, are not cached.
+	 * 
+	 * @param synset
+	 *            the synset to be cached; may not be <code>null</code>
+	 * @return <code>true</code> if the synset was cached; <code>false</code>
+	 *         otherwise
+	 * @throws NullPointerException
+	 *             if the specified synset is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public boolean put(ISynset synset) {
+		byte[] record = encode(synset);
+		if(record == null || record.length + 4 > slabSize)
+			return false;
+		long key = key(synset.getPOS(), synset.getOffset());
+		lock.writeLock().lock();
+		try {
+			if(writePosition + 4 + record.length > slabSize)
+				nextSlab();
+			int slot = (int)(sequence % slabs.length);
+			if(slabs[slot] == null)
+				slabs[slot] = ByteBuffer.allocateDirect(slabSize);
+			ByteBuffer slab = slabs[slot].duplicate();
+			slab.position(writePosition);
+			slab.putInt(record.length);
+			slab.put(record);
+			index.put(key, (sequence << 32) | writePosition);
+			writePosition = slab.position();
+			if(index.needsResize())
+				index.resize(this);
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes all synsets from this cache. The slabs that have been allocated
+	 * are kept for reuse.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public void clear() {
+		lock.writeLock().lock();
+		try {
+			index.clear();
+			Arrays.fill(slabSequences, -1);
+			nextSlab();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// starts writing into the next slab of the ring, dropping its contents;
+	// when the sequence number wraps around, every slab is dropped, so that
+	// no location written before the wrap can be taken as live
+	private void nextSlab() {
+		sequence = (sequence + 1) & MAX_SEQUENCE;
+		if(sequence == 0){
+			index.clear();
+			Arrays.fill(slabSequences, -1);
+		}
+		slabSequences[(int)(sequence % slabs.length)] = sequence;
+		writePosition = 0;
+	}
+
+	// returns whether the location is in a slab that has not been reused
+	private boolean isLive(long location) {
+		long seq = location >>> 32;
+		return slabSequences[(int)(seq % slabs.length)] == seq;
+	}
+
+	// combines the part of speech and offset into an index key
+	private static long key(POS pos, int offset) {
+		return ((long)pos.ordinal() << 32) | (offset & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Serializes the specified synset. This method is marked protected for
+	 * ease of subclassing.
+	 * 
+	 * @param synset
+	 *            the synset to be serialized; may not be <code>null</code>
+	 * @return the serialized synset, or <code>null</code> if it cannot be
+	 *         serialized
+	 * @since JWI 2.4.0
+	 */
+	protected byte[] encode(ISynset synset) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			int flags = (synset.isAdjectiveSatellite() ? FLAG_ADJ_SAT : 0) | (synset.isAdjectiveHead() ? FLAG_ADJ_HEAD : 0);
+			out.writeByte(flags);
+			out.writeShort(lexFiles.indexOf(synset.getLexicalFile()));
+			out.writeUTF(synset.getGloss());
+
+			// words
+			List<IWord> words = synset.getWords();
+			out.writeShort(words.size());
+			ISenseKey key;
+			for(IWord word : words){
+				out.writeUTF(word.getLemma());
+				out.writeByte(word.getLexicalID());
+				out.writeByte((word.getAdjectiveMarker() == null) ? 0 : word.getAdjectiveMarker().ordinal() + 1);
+				out.writeShort(word.getVerbFrames().size());
+				for(IVerbFrame frame : word.getVerbFrames())
+					out.writeShort(frames.indexOf(frame));
+				out.writeShort(word.getRelatedMap().size());
+				for(Entry<IPointer, List<IWordID>> e : word.getRelatedMap().entrySet()){
+					out.writeShort(pointers.indexOf(e.getKey()));
+					out.writeShort(e.getValue().size());
+					for(IWordID id : e.getValue()){
+						if(id.getWordNumber() < 1)
+							return null;
+						out.writeByte(id.getSynsetID().getPOS().ordinal());
+						out.writeInt(id.getSynsetID().getOffset());
+						out.writeShort(id.getWordNumber());
+					}
+				}
+				key = word.getSenseKey();
+				if(key.isAdjectiveSatellite() && !key.needsHeadSet()){
+					out.writeBoolean(true);
+					out.writeUTF(key.getHeadWord());
+					out.writeByte(key.getHeadID());
+				} else {
+					out.writeBoolean(false);
+				}
+			}
+
+			// synset pointers
+			Map<IPointer, List<ISynsetID>> related = synset.getRelatedMap();
+			out.writeShort(related.size());
+			for(Entry<IPointer, List<ISynsetID>> e : related.entrySet()){
+				out.writeShort(pointers.indexOf(e.getKey()));
+				out.writeShort(e.getValue().size());
+				for(ISynsetID id : e.getValue()){
+					out.writeByte(id.getPOS().ordinal());
+					out.writeInt(id.getOffset());
+				}
+			}
+			out.close();
+		} catch(IOException e) {
+			// strings longer than the modified UTF-8 limit
+			return null;
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Decodes a synset serialized by {@link #encode(ISynset)}. This method is
+	 * marked protected for ease of subclassing.
+	 * 
+	 * @param id
+	 *            the id of the synset; may not be <code>null</code>
+	 * @param record
+	 *            the serialized synset; may not be <code>null</code>
+	 * @return the decoded synset
+	 * @throws IOException
+	 *             if the record is truncated
+	 * @since JWI 2.4.0
+	 */
+	protected ISynset decode(ISynsetID id, byte[] record) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+		POS[] parts = POS.values();
+		AdjMarker[] markers = AdjMarker.values();
+		int flags = in.readByte();
+		ILexFile lexFile = lexFiles.get(in.readShort());
+		String gloss = in.readUTF();
+
+		// words
+		int wordCount = in.readShort();
+		List<IWordBuilder> builders = new ArrayList<IWordBuilder>(wordCount);
+		String[] headLemmas = new String[wordCount];
+		int[] headIDs = new int[wordCount];
+		Synset.WordBuilder builder;
+		IPointer ptr;
+		int marker, count, targets;
+		for(int i = 0; i < wordCount; i++){
+			String lemma = in.readUTF();
+			int lexID = in.readByte();
+			marker = in.readByte();
+			builder = new Synset.WordBuilder(i + 1, lemma, lexID, (marker == 0) ? null : markers[marker - 1]);
+			count = in.readShort();
+			for(int j = 0; j < count; j++)
+				builder.addVerbFrame(frames.get(in.readShort()));
+			count = in.readShort();
+			for(int j = 0; j < count; j++){
+				ptr = pointers.get(in.readShort());
+				targets = in.readShort();
+				for(int k = 0; k < targets; k++){
+					POS pos = parts[in.readByte()];
+					int offset = in.readInt();
+					builder.addRelatedWord(ptr, new WordID(offset, pos, in.readShort()));
+				}
+			}
+			if(in.readBoolean()){
+				headLemmas[i] = in.readUTF();
+				headIDs[i] = in.readByte();
+			}
+			builders.add(builder);
+		}
+
+		// synset pointers
+		count = in.readShort();
+		Map<IPointer, List<ISynsetID>> related = new HashMap<IPointer, List<ISynsetID>>(2*count);
+		List<ISynsetID> ids;
+		for(int i = 0; i < count; i++){
+			ptr = pointers.get(in.readShort());
+			targets = in.readShort();
+			ids = new ArrayList<ISynsetID>(targets);
+			for(int k = 0; k < targets; k++){
+				POS pos = parts[in.readByte()];
+				ids.add(new SynsetID(in.readInt(), pos));
+			}
+			related.put(ptr, ids);
+		}
+
+		ISynset synset = new Synset(id, lexFile, (flags & FLAG_ADJ_SAT) != 0, (flags & FLAG_ADJ_HEAD) != 0, gloss, builders, related);
+		for(int i = 0; i < wordCount; i++){
+			if(headLemmas[i] == null)
+				continue;
+			ISenseKey key = synset.getWords().get(i).getSenseKey();
+			if(key.needsHeadSet())
+				key.setHead(headLemmas[i], headIDs[i]);
+		}
+		return synset;
+	}
+
+	/**
+	 * A table that assigns small, stable indexes to objects, so that they can
+	 * be written to the slabs by index. This class is safe for concurrent
+	 * use.
+	 * 
+	 * @param <T>
+	 *            the type of object in the table
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	protected static class Table<T> {
+
+		// instance fields
+		private final List<T> objects = new ArrayList<T>();
+		private final Map<T, Integer> indexes = new HashMap<T, Integer>();
+
+		/**
+		 * Returns the index of the specified object, adding it to the table
+		 * if necessary.
+		 * 
+		 * @param object
+		 *            the object
+		 * @return the index of the object
+		 * @throws IOException
+		 *             if the table is full
+		 * @since JWI 2.4.0
+		 */
+		public synchronized int indexOf(T object) throws IOException {
+			Integer index = indexes.get(object);
+			if(index == null){
+				if(objects.size() == Short.MAX_VALUE)
+					throw new IOException("Table full");
+				index = objects.size();
+				objects.add(object);
+				indexes.put(object, index);
+			}
+			return index;
+		}
+
+		/**
+		 * Returns the object with the specified index.
+		 * 
+		 * @param index
+		 *            the index of the object
+		 * @return the object with the index
+		 * @throws IndexOutOfBoundsException
+		 *             if there is no object with the index
+		 * @since JWI 2.4.0
+		 */
+		public synchronized T get(int index) {
+			return objects.get(index);
+		}
+	}
+
+	/**
+	 * An open-addressing hash table from non-negative long keys to long
+	 * values, used as the index of the slabs. This class is not thread-safe.
+	 * 
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	protected static class LongTable {
+
+		// the key marking an empty slot
+		private static final long EMPTY = -1;
+
+		// instance fields
+		private long[] keys;
+		private long[] values;
+		private int size;
+
+		/**
+		 * Constructs a new, empty table.
+		 * 
+		 * @since JWI 2.4.0
+		 */
+		public LongTable() {
+			clear();
+		}
+
+		/**
+		 * Returns the value for the specified key, or -1 if there is none.
+		 * 
+		 * @param key
+		 *            the key; must be non-negative
+		 * @return the value for the key, or -1
+		 * @since JWI 2.4.0
+		 */
+		public long get(long key) {
+			int mask = keys.length - 1;
+			for(int i = slot(key, mask); ; i = (i + 1) & mask){
+				if(keys[i] == key)
+					return values[i];
+				if(keys[i] == EMPTY)
+					return -1;
+			}
+		}
+
+		/**
+		 * Maps the specified key to the specified value.
+		 * 
+		 * @param key
+		 *            the key; must be non-negative
+		 * @param value
+		 *            the value
+		 * @since JWI 2.4.0
+		 */
+		public void put(long key, long value) {
+			int mask = keys.length - 1;
+			for(int i = slot(key, mask); ; i = (i + 1) & mask){
+				if(keys[i] == key){
+					values[i] = value;
+					return;
+				}
+				if(keys[i] == EMPTY){
+					keys[i] = key;
+					values[i] = value;
+					size++;
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Returns whether the table is more than half full.
+		 * 
+		 * @return <code>true</code> if the table should be resized
+		 * @since JWI 2.4.0
+		 */
+		public boolean needsResize() {
+			return 2*size > keys.length;
+		}
+
+		/**
+		 * Rebuilds the table, dropping the entries whose locations are no
+		 * longer live in the specified cache, and doubling the table if it is
+		 * still more than a quarter full.
+		 * 
+		 * @param cache
+		 *            the cache whose index this is
+		 * @since JWI 2.4.0
+		 */
+		public void resize(OffHeapSynsetCache cache) {
+			long[] oldKeys = keys, oldValues = values;
+			int live = 0;
+			for(int i = 0; i < oldKeys.length; i++)
+				if(oldKeys[i] != EMPTY && cache.isLive(oldValues[i]))
+					live++;
+			int length = (4*live > oldKeys.length) ? 2*oldKeys.length : oldKeys.length;
+			keys = new long[length];
+			values = new long[length];
+			Arrays.fill(keys, EMPTY);
+			size = 0;
+			for(int i = 0; i < oldKeys.length; i++)
+				if(oldKeys[i] != EMPTY && cache.isLive(oldValues[i]))
+					put(oldKeys[i], oldValues[i]);
+		}
+
+		/**
+		 * Removes all entries from the table.
+		 * 
+		 * @since JWI 2.4.0
+		 */
+		public void clear() {
+			keys = new long[1024];
+			values = new long[1024];
+			Arrays.fill(keys, EMPTY);
+			size = 0;
+		}
+
+		// spreads the key over the table
+		private static int slot(long key, int mask) {
+			long h = key*0x9E3779B97F4A7C15L;
+			return (int)(h ^ (h >>> 32)) & mask;
+		}
+	}
+
+}
@@ -0,0 +1,486 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
+
+import edu.mit.jwi.item.IIndexWord;
+import edu.mit.jwi.item.ISenseEntry;
+import edu.mit.jwi.item.ISenseKey;
+import edu.mit.jwi.item.POS;
+
+/**
+ * Utilities shared by the dictionaries for prefix and range searches over
+ * index words and sense entries. This class cannot be instantiated.
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public final class PrefixSearch {
+
+	// whitespace pattern, as used for index word ids
+	private static final Pattern whitespace = Pattern.compile("\\s+");
+
+	/**
+	 * This constructor is marked private so that the class cannot be
+	 * instantiated.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	private PrefixSearch() {}
+
+	/**
+	 * Normalizes a lemma prefix in the same way as lemmas are normalized by
+	 * {@link edu.mit.jwi.item.IndexWordID}: the prefix is trimmed, lower-cased,
+	 * and runs of whitespace are replaced by underscores. Unlike a lemma, the
+	 * prefix may be empty.
+	 * 
+	 * @param prefix
+	 *            the prefix to be normalized; may not be <code>null</code>
+	 * @return the normalized prefix
+	 * @throws NullPointerException
+	 *             if the specified prefix is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static String normalize(String prefix) {
+		return whitespace.matcher(prefix.toLowerCase().trim()).replaceAll("_");
+	}
+
+	/**
+	 * A table of every lemma and part of speech of a dictionary, in lemma
+	 * order, with the summed tag counts of their sense entries, from which the
+	 * best ranked index words for a prefix are found without reading the
+	 * dictionary's files. The lemmas matching a prefix lie in one run of the
+	 * table, found by binary search, and a tree over the counts gives the
+	 * best entry of any run, so that the <i>k</i> best matches are found in
+	 * time proportional to <i>k</i> log <i>n</i>, however many lemmas
+	 * match. Only the index words returned are then looked up in the
+	 * dictionary.
+	 * <p>
+	 * Building the table reads every index word and sense entry of the
+	 * dictionary once, and the table holds each distinct lemma, so it is
+	 * built when a dictionary is first asked for ranked index words, rather
+	 * than when it is opened. This class is immutable and safe for
+	 * concurrent use.
+	 * 
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	public static final class RankTable {
+
+		// the parts of speech, by ordinal
+		private static final POS[] POS_VALUES = POS.values();
+
+		// the entries, in order of lemma and then part of speech
+		private final String[] lemmas;
+		private final byte[] parts;
+		private final int[] counts;
+
+		// a tree over the entries, each node holding the best entry below
+		// it; the leaves are at size + i
+		private final int size;
+		private final int[] tree;
+
+		// constructs a table over the sorted entries
+		private RankTable(String[] lemmas, byte[] parts, int[] counts) {
+			this.lemmas = lemmas;
+			this.parts = parts;
+			this.counts = counts;
+			this.size = lemmas.length;
+			this.tree = new int[2*size];
+			for(int i = 0; i < size; i++)
+				tree[size + i] = i;
+			for(int i = size - 1; i > 0; i--)
+				tree[i] = better(tree[2*i], tree[2*i + 1]);
+		}
+
+		/**
+		 * Builds the table for the specified open dictionary, reading each of
+		 * its index words and sense entries once.
+		 * 
+		 * @param dict
+		 *            the dictionary; may not be <code>null</code>
+		 * @return the table of the dictionary
+		 * @throws NullPointerException
+		 *             if the specified dictionary is <code>null</code>
+		 * @since JWI 2.4.0
+		 */
+		public static RankTable build(IDictionary dict) {
+			// sum the tag counts of each lemma and part of speech
+			Map<String, int[]> sums = new HashMap<String, int[]>();
+			ISenseKey key;
+			int[] sum;
+			for(Iterator<ISenseEntry> i = dict.getSenseEntryIterator(); i.hasNext(); ){
+				ISenseEntry entry = i.next();
+				key = entry.getSenseKey();
+				sum = sums.get(key.getLemma());
+				if(sum == null){
+					sum = new int[POS_VALUES.length];
+					sums.put(key.getLemma(), sum);
+				}
+				sum[key.getPOS().ordinal()] += entry.getTagCount();
+			}
+
+			// gather the lemma and part of speech of each index word
+			final List<String> lemmaList = new ArrayList<String>();
+			List<POS> posList = new ArrayList<POS>();
+			Map<String, String> shared = new HashMap<String, String>();
+			String lemma, known;
+			for(POS pos : POS_VALUES){
+				for(Iterator<IIndexWord> i = dict.getIndexWordIterator(pos); i.hasNext(); ){
+					lemma = i.next().getLemma();
+					known = shared.get(lemma);
+					if(known == null)
+						shared.put(lemma, known = lemma);
+					lemmaList.add(known);
+					posList.add(pos);
+				}
+			}
+
+			// sort by lemma, keeping the parts of speech in order
+			Integer[] order = new Integer[lemmaList.size()];
+			for(int i = 0; i < order.length; i++)
+				order[i] = i;
+			Arrays.sort(order, new Comparator<Integer>() {
+				public int compare(Integer i1, Integer i2) {
+					int cmp = lemmaList.get(i1).compareTo(lemmaList.get(i2));
+					return (cmp != 0) ? cmp : i1.compareTo(i2);
+				}
+			});
+			String[] lemmas = new String[order.length];
+			byte[] parts = new byte[order.length];
+			int[] counts = new int[order.length];
+			POS pos;
+			for(int i = 0; i < order.length; i++){
+				lemmas[i] = lemmaList.get(order[i]);
+				pos = posList.get(order[i]);
+				parts[i] = (byte)pos.ordinal();
+				sum = sums.get(lemmas[i]);
+				counts[i] = (sum == null) ? 0 : sum[pos.ordinal()];
+			}
+			return new RankTable(lemmas, parts, counts);
+		}
+
+		/**
+		 * Returns the number of lemma and part of speech pairs in this table.
+		 * 
+		 * @return the number of entries in this table
+		 * @since JWI 2.4.0
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Returns the index words of all parts of speech in the specified
+		 * dictionary whose lemmas start with the specified prefix, ranked as
+		 * described for {@link IDictionary#getIndexWords(String, int)}. With a
+		 * limit of <i>k</i>, this takes time proportional to <i>k</i> log
+		 * <i>n</i>, where <i>n</i> is the size of the table, plus <i>k</i>
+		 * index word lookups. Without a limit, every matching index word is
+		 * looked up, so that a short prefix may cost as much as reading a
+		 * large part of the index files.
+		 * 
+		 * @param dict
+		 *            the dictionary from which this table was built, in which
+		 *            the ranked index words are looked up; may not be
+		 *            <code>null</code>
+		 * @param prefix
+		 *            the prefix of the lemmas to be returned; may not be
+		 *            <code>null</code>
+		 * @param limit
+		 *            the largest number of index words to return; a value
+		 *            less than 1 means there is no limit
+		 * @return the ranked list of matching index words, possibly empty
+		 * @throws NullPointerException
+		 *             if either object argument is <code>null</code>
+		 * @since JWI 2.4.0
+		 */
+		public List<IIndexWord> rank(IDictionary dict, String prefix, int limit) {
+			if(dict == null)
+				throw new NullPointerException();
+			String normalized = normalize(prefix);
+
+			// find the run of lemmas that start with the prefix
+			int lo = 0, hi = size, mid;
+			while(lo < hi){
+				mid = (lo + hi) >>> 1;
+				if(lemmas[mid].compareTo(normalized) < 0)
+					lo = mid + 1;
+				else
+					hi = mid;
+			}
+			int first = lo;
+			hi = size;
+			while(lo < hi){
+				mid = (lo + hi) >>> 1;
+				if(lemmas[mid].startsWith(normalized))
+					lo = mid + 1;
+				else
+					hi = mid;
+			}
+			int last = lo;
+			int count = last - first;
+			if(limit > 0 && limit < count)
+				count = limit;
+			List<IIndexWord> result = new ArrayList<IIndexWord>(count);
+			if(count == 0)
+				return result;
+
+			// take the best entry of a run, then search the runs on either
+			// side of it, until enough entries are found
+			PriorityQueue<int[]> runs = new PriorityQueue<int[]>(Math.min(count, 64) + 1, runComparator);
+			runs.add(new int[]{ first, last, best(first, last) });
+			int[] run;
+			IIndexWord word;
+			while(result.size() < count && !runs.isEmpty()){
+				run = runs.poll();
+				word = dict.getIndexWord(lemmas[run[2]], POS_VALUES[parts[run[2]]]);
+				if(word != null)
+					result.add(word);
+				if(run[0] < run[2])
+					runs.add(new int[]{ run[0], run[2], best(run[0], run[2]) });
+				if(run[2] + 1 < run[1])
+					runs.add(new int[]{ run[2] + 1, run[1], best(run[2] + 1, run[1]) });
+			}
+			return result;
+		}
+
+		// returns the best entry in the range from first, inclusive, to last,
+		// exclusive, which may not be empty
+		private int best(int first, int last) {
+			int result = -1;
+			for(int l = first + size, r = last + size; l < r; l >>>= 1, r >>>= 1){
+				if((l & 1) == 1)
+					result = better(result, tree[l++]);
+				if((r & 1) == 1)
+					result = better(result, tree[--r]);
+			}
+			return result;
+		}
+
+		// returns the better ranked of two entries, either of which may be -1
+		// for none; entries are in lemma and part of speech order, so the
+		// lower of two with the same count is the better
+		private int better(int e1, int e2) {
+			if(e1 < 0)
+				return e2;
+			if(e2 < 0)
+				return e1;
+			if(counts[e1] != counts[e2])
+				return (counts[e1] > counts[e2]) ? e1 : e2;
+			return Math.min(e1, e2);
+		}
+
+		// orders runs by their best entries, best first
+		private final Comparator<int[]> runComparator = new Comparator<int[]>() {
+			public int compare(int[] r1, int[] r2) {
+				if(r1[2] == r2[2])
+					return 0;
+				return (better(r1[2], r2[2]) == r1[2]) ? -1 : 1;
+			}
+		};
+	}
+
+	/**
+	 * Wraps an iterator over index words in lemma order, so that it returns
+	 * only those index words whose lemmas lie in the specified range or start
+	 * with the specified prefix. Leading index words below the lower bound are
+	 * skipped; iteration stops at the first index word beyond the range.
+	 * 
+	 * @param itr
+	 *            the iterator to be wrapped; may not be <code>null</code>
+	 * @param from
+	 *            the lowest lemma to be returned, or <code>null</code> for
+	 *            no lower bound
+	 * @param to
+	 *            the lemma at which to stop, or <code>null</code> for no upper
+	 *            bound
+	 * @param prefix
+	 *            the prefix that all returned lemmas must have, or
+	 *            <code>null</code> for none
+	 * @param limit
+	 *            the largest number of index words to return; a value less
+	 *            than 1 means there is no limit
+	 * @return the wrapped iterator
+	 * @throws NullPointerException
+	 *             if the specified iterator is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static Iterator<IIndexWord> boundIndexWords(Iterator<IIndexWord> itr, String from, String to, String prefix, int limit) {
+		return new KeyRangeIterator<IIndexWord>(itr, from, to, prefix, limit) {
+			@Override
+			protected String getKey(IIndexWord item) {
+				return item.getLemma();
+			}
+		};
+	}
+
+	/**
+	 * Wraps an iterator over sense entries in sense key order, so that it
+	 * returns only those sense entries whose sense keys start with the
+	 * specified prefix.
+	 * 
+	 * @param itr
+	 *            the iterator to be wrapped; may not be <code>null</code>
+	 * @param prefix
+	 *            the prefix that all returned sense keys must have; may not be
+	 *            <code>null</code>
+	 * @return the wrapped iterator
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static Iterator<ISenseEntry> boundSenseEntries(Iterator<ISenseEntry> itr, String prefix) {
+		if(prefix == null)
+			throw new NullPointerException();
+		return new KeyRangeIterator<ISenseEntry>(itr, prefix, null, prefix, 0) {
+			@Override
+			protected String getKey(ISenseEntry item) {
+				return item.getSenseKey().toString();
+			}
+		};
+	}
+
+	/**
+	 * A look-ahead iterator that wraps an iterator over items in key order,
+	 * returning only those items whose keys lie in a range, or start with a
+	 * prefix, up to a maximum number of items. Items before the range are
+	 * skipped, and iteration stops at the first item after it, so that the
+	 * wrapped iterator is never read further than needed.
+	 * 
+	 * @param <E>
+	 *            the element type of the iterator
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	public abstract static class KeyRangeIterator<E> implements Iterator<E> {
+
+		// instance fields
+		private final Iterator<E> itr;
+		private final String from;
+		private final String to;
+		private final String prefix;
+		private int remaining;
+		private E next;
+
+		/**
+		 * Constructs a new iterator over the specified range of the wrapped
+		 * iterator.
+		 * 
+		 * @param itr
+		 *            the iterator to be wrapped; may not be <code>null</code>
+		 * @param from
+		 *            the lowest key to be returned, or <code>null</code> for no
+		 *            lower bound
+		 * @param to
+		 *            the key at which to stop, or <code>null</code> for no
+		 *            upper bound
+		 * @param prefix
+		 *            the prefix that all returned keys must have, or
+		 *            <code>null</code> for none
+		 * @param limit
+		 *            the largest number of items to return; a value less than 1
+		 *            means there is no limit
+		 * @throws NullPointerException
+		 *             if the specified iterator is <code>null</code>
+		 * @since JWI 2.4.0
+		 */
+		public KeyRangeIterator(Iterator<E> itr, String from, String to, String prefix, int limit) {
+			if(itr == null)
+				throw new NullPointerException();
+			this.itr = itr;
+			this.from = from;
+			this.to = to;
+			this.prefix = prefix;
+			this.remaining = (limit < 1) ? Integer.MAX_VALUE : limit;
+			advance();
+		}
+
+		/**
+		 * Returns the key of the specified item, by which the wrapped iterator
+		 * is ordered.
+		 * 
+		 * @param item
+		 *            the item
+		 * @return the key of the item
+		 * @since JWI 2.4.0
+		 */
+		protected abstract String getKey(E item);
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.Iterator#hasNext()
+		 */
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.Iterator#next()
+		 */
+		public E next() {
+			if(next == null)
+				throw new NoSuchElementException();
+			E result = next;
+			advance();
+			return result;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.Iterator#remove()
+		 */
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		// moves to the next item in range, if there is one
+		private void advance() {
+			next = null;
+			if(remaining == 0)
+				return;
+			E item;
+			String key;
+			while(itr.hasNext()){
+				item = itr.next();
+				key = getKey(item);
+				if(from != null && key.compareTo(from) < 0)
+					continue;
+				if(to != null && key.compareTo(to) >= 0)
+					break;
+				if(prefix != null && !key.startsWith(prefix))
+					break;
+				next = item;
+				remaining--;
+				return;
+			}
+			remaining = 0;
+		}
+	}
+
+}
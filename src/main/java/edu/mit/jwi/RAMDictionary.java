@@ -14,17 +14,36 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import edu.mit.jwi.data.ContentType;
+import edu.mit.jwi.data.DataType;
 import edu.mit.jwi.data.FileProvider;
+import edu.mit.jwi.data.IContentType;
+import edu.mit.jwi.data.IDataProvider;
 import edu.mit.jwi.data.ILoadPolicy;
 import edu.mit.jwi.item.ExceptionEntryID;
 import edu.mit.jwi.item.IExceptionEntry;
@@ -47,6 +66,11 @@ import edu.mit.jwi.item.SenseEntry;
 import edu.mit.jwi.item.Synset;
 import edu.mit.jwi.item.Synset.IWordBuilder;
 import edu.mit.jwi.item.Word;
+import edu.mit.jwi.item.WordID;
+import edu.mit.jwi.metrics.IMetered;
+import edu.mit.jwi.metrics.IMetricsListener;
+import edu.mit.jwi.metrics.Lookup;
+import edu.mit.jwi.metrics.MetricsAdapter;
 
 /**
  * Default implementation of the <code>IRAMDictionary</code> interface. This
@@ -62,7 +86,7 @@ import edu.mit.jwi.item.Word;
  * @version 2.3.3
  * @since JWI 2.2.0
  */
-public class RAMDictionary implements IRAMDictionary {
+public class RAMDictionary implements IRAMDictionary, IMetered {
 	
 	// immutable fields
 	protected final IDictionary backing;
@@ -74,6 +98,10 @@ public class RAMDictionary implements IRAMDictionary {
 	protected int loadPolicy;
 	protected IVersion version;
 	protected DictionaryData data;
+	private volatile IMetricsListener listener;
+	private volatile File snapshot;
+	private volatile boolean compressGlosses;
+	private volatile Set<IContentType<?>> contentTypes;
 
 	/**
 	 * Constructs a new wrapper RAM dictionary that will load the contents of
@@ -143,6 +171,156 @@ public class RAMDictionary implements IRAMDictionary {
 		return backing;
 	}
 
+	/**
+	 * Returns the snapshot file of this dictionary, or <code>null</code> if
+	 * there is none.
+	 * 
+	 * @return the snapshot file of this dictionary, or <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public File getSnapshotFile(){
+		return snapshot;
+	}
+
+	/**
+	 * Sets the snapshot file of this dictionary. When the dictionary loads
+	 * its data, it first tries to restore the data from the snapshot file,
+	 * which is a compiled dictionary file as written by
+	 * {@link #exportSnapshot(File)}. The snapshot is used only if it was made
+	 * from Wordnet files of the same version, names, lengths and modification
+	 * times as those of the backing dictionary; otherwise the data is loaded
+	 * from the Wordnet files, and then written to the snapshot file for the
+	 * next load. The snapshot file should not be in the Wordnet directory,
+	 * since it would then change the fingerprint of that directory.
+	 * 
+	 * @param file
+	 *            the snapshot file, or <code>null</code> for none
+	 * @since JWI 2.4.0
+	 */
+	public void setSnapshotFile(File file){
+		this.snapshot = file;
+	}
+
+	/**
+	 * Returns whether the glosses of the loaded synsets are held compressed.
+	 * 
+	 * @return <code>true</code> if glosses are held compressed;
+	 *         <code>false</code> otherwise
+	 * @since JWI 2.4.0
+	 */
+	public boolean isCompressGlosses(){
+		return compressGlosses;
+	}
+
+	/**
+	 * Sets whether the glosses of the loaded synsets are held compressed.
+	 * If so, each gloss is held as a block deflated against a dictionary of
+	 * the words common in glosses, and inflated each time it is asked for,
+	 * unless it is among the few most recently inflated, which trades time
+	 * in {@link ISynset#getGloss()} for heap. This must be
+	 * set before the data is loaded. The default is <code>false</code>.
+	 * 
+	 * @param compress
+	 *            <code>true</code> if glosses should be held compressed;
+	 *            <code>false</code> otherwise
+	 * @see GlossCodec
+	 * @since JWI 2.4.0
+	 */
+	public void setCompressGlosses(boolean compress){
+		this.compressGlosses = compress;
+	}
+
+	/**
+	 * Writes the loaded data of this dictionary to the specified file, in the
+	 * format read by {@link CompiledDictionary}, together with the version
+	 * and fingerprint of the Wordnet files from which it was loaded.
+	 * 
+	 * @param file
+	 *            the snapshot file to be written; may not be
+	 *            <code>null</code>
+	 * @throws IOException
+	 *             if there is a problem writing the file
+	 * @throws IllegalStateException
+	 *             if the dictionary data is not loaded
+	 * @throws NullPointerException
+	 *             if the specified file is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public void exportSnapshot(File file) throws IOException {
+		if(file == null)
+			throw new NullPointerException();
+		if(!isLoaded())
+			throw new IllegalStateException("dictionary is not loaded");
+		new DictionaryCompiler(this, getSourceFingerprint()).compile(file);
+	}
+
+	/**
+	 * Restores dictionary data from the specified snapshot file, if the
+	 * snapshot was made from the same Wordnet files as back this dictionary.
+	 * The items are decoded from the snapshot rather than parsed from lines
+	 * of text, and compacted as usual. This method is marked protected for
+	 * ease of subclassing.
+	 * 
+	 * @param file
+	 *            the snapshot file; may not be <code>null</code>
+	 * @return the restored data, or <code>null</code> if the snapshot is
+	 *         missing, unreadable or stale, or the restore was interrupted
+	 * @throws Exception
+	 *             if there is a problem decoding the snapshot
+	 * @throws NullPointerException
+	 *             if the specified file is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	protected DictionaryData restoreSnapshot(File file) throws Exception {
+		if(!file.isFile())
+			return null;
+		long fingerprint = getSourceFingerprint();
+		if(fingerprint == 0)
+			return null;
+		CompiledDictionary compiled = new CompiledDictionary(file);
+		try {
+			compiled.open();
+		} catch(IOException e) {
+			return null;
+		}
+		try {
+			if(compiled.getSourceFingerprint() != fingerprint)
+				return null;
+			IVersion snapshotVersion = compiled.getVersion();
+			if(version == null ? snapshotVersion != null : !version.equals(snapshotVersion))
+				return null;
+			DataLoader loader = new DataLoader(compiled);
+			loader.setCompressGlosses(compressGlosses);
+			loader.setContentTypes(contentTypes);
+			return loader.call();
+		} finally {
+			compiled.close();
+		}
+	}
+
+	/**
+	 * Returns the fingerprint of the Wordnet files that back this
+	 * dictionary, or 0 if they are not in a local directory. This method is
+	 * marked protected for ease of subclassing.
+	 * 
+	 * @return the fingerprint of the Wordnet files, or 0
+	 * @see DictionaryCompiler#fingerprint(File)
+	 * @since JWI 2.4.0
+	 */
+	protected long getSourceFingerprint(){
+		if(!(backing instanceof IDataSourceDictionary))
+			return 0;
+		IDataProvider provider = ((IDataSourceDictionary)backing).getDataProvider();
+		if(!(provider instanceof FileProvider))
+			return 0;
+		try {
+			File dir = FileProvider.toFile(provider.getSource());
+			return dir.isDirectory() ? DictionaryCompiler.fingerprint(dir) : 0;
+		} catch(IOException e) {
+			return 0;
+		}
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -162,6 +340,25 @@ public class RAMDictionary implements IRAMDictionary {
 		this.loadPolicy = policy;
 	}
 
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.IRAMDictionary#getLoadedContentTypes()
+	 */
+	public Set<IContentType<?>> getLoadedContentTypes() {
+		return contentTypes;
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.IRAMDictionary#setLoadedContentTypes(java.util.Collection)
+	 */
+	public void setLoadedContentTypes(Collection<? extends IContentType<?>> types) {
+		if(isOpen()) throw new IllegalStateException("dictionary is currently open");
+		this.contentTypes = (types == null) ? null : Collections.unmodifiableSet(new LinkedHashSet<IContentType<?>>(types));
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -281,6 +478,30 @@ public class RAMDictionary implements IRAMDictionary {
 		return version;
 	}
 
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.metrics.IMetered#getMetricsListener()
+	 */
+	public IMetricsListener getMetricsListener() {
+		return listener;
+	}
+
+	/**
+	 * Sets the listener that receives the metrics of this dictionary. Lookups
+	 * are timed by this dictionary; the backing dictionary, if it is metered,
+	 * is given the listener for parse events only.
+	 * 
+	 * @param listener
+	 *            the listener, or <code>null</code> to stop recording
+	 * @since JWI 2.4.0
+	 */
+	public void setMetricsListener(IMetricsListener listener) {
+		this.listener = listener;
+		if(backing instanceof IMetered)
+			((IMetered)backing).setMetricsListener(MetricsAdapter.parseEventsOnly(listener));
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -296,6 +517,18 @@ public class RAMDictionary implements IRAMDictionary {
 	 * @see edu.mit.jwi.IDictionary#getIndexWord(edu.mit.jwi.item.IIndexWordID)
 	 */
 	public IIndexWord getIndexWord(IIndexWordID id) {
+		IMetricsListener l = listener;
+		if(l == null)
+			return findIndexWord(id);
+		long start = System.nanoTime();
+		IIndexWord result = findIndexWord(id);
+		l.lookupCompleted(Lookup.INDEX_WORD, System.nanoTime() - start, result != null);
+		return result;
+	}
+
+	// looks up the index word in memory, or in the backing dictionary if not loaded
+	private IIndexWord findIndexWord(IIndexWordID id) {
+		DictionaryData data = getData(ContentType.getIndexContentType(id.getPOS()));
 		if(data != null){
 			return data.idxWords.get(id.getPOS()).get(id);
 		} else {
@@ -312,12 +545,56 @@ public class RAMDictionary implements IRAMDictionary {
 		return new HotSwappableIndexWordIterator(pos);
 	}
 
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.IDictionary#getIndexWordIterator(edu.mit.jwi.item.POS, java.lang.String, int)
+	 */
+	public Iterator<IIndexWord> getIndexWordIterator(POS pos, String prefix, int limit) {
+		String key = PrefixSearch.normalize(prefix);
+		DictionaryData data = getData(ContentType.getIndexContentType(pos));
+		Iterator<IIndexWord> itr = (data == null) ? 
+				backing.getIndexWordIterator(pos, key, 0) : 
+					data.getIndexWordIterator(pos, key);
+		return PrefixSearch.boundIndexWords(new HotSwappableIndexWordRangeIterator(itr, pos, key), key, null, key, limit);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.IDictionary#getIndexWordIterator(edu.mit.jwi.item.POS, java.lang.String, java.lang.String, int)
+	 */
+	public Iterator<IIndexWord> getIndexWordIterator(POS pos, String fromLemma, String toLemma, int limit) {
+		if(pos == null)
+			throw new NullPointerException();
+		String from = (fromLemma == null) ? "" : PrefixSearch.normalize(fromLemma);
+		String to = (toLemma == null) ? null : PrefixSearch.normalize(toLemma);
+		DictionaryData data = getData(ContentType.getIndexContentType(pos));
+		Iterator<IIndexWord> itr = (data == null) ? 
+				backing.getIndexWordIterator(pos, from, null, 0) : 
+					data.getIndexWordIterator(pos, from);
+		return PrefixSearch.boundIndexWords(new HotSwappableIndexWordRangeIterator(itr, pos, from), from, to, null, limit);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.IDictionary#getIndexWords(java.lang.String, int)
+	 */
+	public List<IIndexWord> getIndexWords(String prefix, int limit) {
+		DictionaryData data = this.data;
+		if(data == null)
+			return backing.getIndexWords(prefix, limit);
+		return data.getRankTable(this).rank(this, prefix, limit);
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
 	 * @see edu.mit.jwi.IDictionary#getWord(edu.mit.jwi.item.IWordID)
 	 */
 	public IWord getWord(IWordID id) {
+		DictionaryData data = getData(ContentType.getDataContentType(id.getPOS()));
 		if(data != null){
 			ISynset synset = data.synsets.get(id.getPOS()).get(id.getSynsetID());
 			
@@ -350,6 +627,7 @@ public class RAMDictionary implements IRAMDictionary {
 	 * @see edu.mit.jwi.IDictionary#getWord(edu.mit.jwi.item.ISenseKey)
 	 */
 	public IWord getWord(ISenseKey key) {
+		DictionaryData data = getData(ContentType.getDataContentType(key.getPOS()));
 		if(data != null){
 			return data.words.get(key);
 		} else {
@@ -363,6 +641,18 @@ public class RAMDictionary implements IRAMDictionary {
 	 * @see edu.mit.jwi.IDictionary#getSynset(edu.mit.jwi.item.ISynsetID)
 	 */
 	public ISynset getSynset(ISynsetID id) {
+		IMetricsListener l = listener;
+		if(l == null)
+			return findSynset(id);
+		long start = System.nanoTime();
+		ISynset result = findSynset(id);
+		l.lookupCompleted(Lookup.SYNSET, System.nanoTime() - start, result != null);
+		return result;
+	}
+
+	// looks up the synset in memory, or in the backing dictionary if not loaded
+	private ISynset findSynset(ISynsetID id) {
+		DictionaryData data = getData(ContentType.getDataContentType(id.getPOS()));
 		if(data != null){
 			return data.synsets.get(id.getPOS()).get(id);
 		} else {
@@ -385,6 +675,18 @@ public class RAMDictionary implements IRAMDictionary {
 	 * @see edu.mit.jwi.IDictionary#getSenseEntry(edu.mit.jwi.item.ISenseKey)
 	 */
 	public ISenseEntry getSenseEntry(ISenseKey key) {
+		IMetricsListener l = listener;
+		if(l == null)
+			return findSenseEntry(key);
+		long start = System.nanoTime();
+		ISenseEntry result = findSenseEntry(key);
+		l.lookupCompleted(Lookup.SENSE_ENTRY, System.nanoTime() - start, result != null);
+		return result;
+	}
+
+	// looks up the sense entry in memory, or in the backing dictionary if not loaded
+	private ISenseEntry findSenseEntry(ISenseKey key) {
+		DictionaryData data = getData(ContentType.SENSE);
 		if(data != null){
 			return data.senses.get(key);
 		} else {
@@ -401,6 +703,19 @@ public class RAMDictionary implements IRAMDictionary {
 		return new HotSwappableSenseEntryIterator();
 	}
 
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.IDictionary#getSenseEntryIterator(java.lang.String)
+	 */
+	public Iterator<ISenseEntry> getSenseEntryIterator(String prefix) {
+		DictionaryData data = getData(ContentType.SENSE);
+		Iterator<ISenseEntry> itr = (data == null) ? 
+				backing.getSenseEntryIterator(prefix) : 
+					data.getSenseEntryIterator(prefix);
+		return PrefixSearch.boundSenseEntries(new HotSwappableSenseEntryRangeIterator(itr, prefix), prefix);
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -416,6 +731,18 @@ public class RAMDictionary implements IRAMDictionary {
 	 * @see edu.mit.jwi.IDictionary#getExceptionEntry(edu.mit.jwi.item.IExceptionEntryID)
 	 */
 	public IExceptionEntry getExceptionEntry(IExceptionEntryID id) {
+		IMetricsListener l = listener;
+		if(l == null)
+			return findExceptionEntry(id);
+		long start = System.nanoTime();
+		IExceptionEntry result = findExceptionEntry(id);
+		l.lookupCompleted(Lookup.EXCEPTION_ENTRY, System.nanoTime() - start, result != null);
+		return result;
+	}
+
+	// looks up the exception entry in memory, or in the backing dictionary if not loaded
+	private IExceptionEntry findExceptionEntry(IExceptionEntryID id) {
+		DictionaryData data = getData(ContentType.getExceptionContentType(id.getPOS()));
 		if(data != null){
 			return data.exceptions.get(id.getPOS()).get(id);
 		} else {
@@ -432,6 +759,21 @@ public class RAMDictionary implements IRAMDictionary {
 		return new HotSwappableExceptionEntryIterator(pos);
 	}
 
+	/**
+	 * Returns the loaded dictionary data if it holds the specified content,
+	 * or <code>null</code> if the data is not loaded or the content is looked
+	 * up in the backing dictionary.
+	 * 
+	 * @param type
+	 *            the content type; may not be <code>null</code>
+	 * @return the loaded data holding the content type, or <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	protected DictionaryData getData(IContentType<?> type) {
+		DictionaryData data = this.data;
+		return (data == null || !data.isLoaded(type)) ? null : data;
+	}
+
 	/**
 	 * An iterator that allows the dictionary to be loaded into memory while it
 	 * is iterating.
@@ -503,7 +845,10 @@ public class RAMDictionary implements IRAMDictionary {
 			if(data == null)
 				return;
 			checkForLoad = false;
-			itr = makeIterator();
+			Iterator<E> loaded = makeIterator();
+			if(loaded == null)
+				return;
+			itr = loaded;
 			if(last != null){
 				E consume;
 				while(itr.hasNext()){
@@ -516,9 +861,13 @@ public class RAMDictionary implements IRAMDictionary {
 		}
 		
 		/**
-		 * Constructs the iterator that will iterate over the loaded data.
+		 * Constructs the iterator that will iterate over the loaded data. As
+		 * of JWI 2.4.0, returns <code>null</code> if the content of the
+		 * iterator was not loaded, in which case the original iterator is
+		 * kept.
 		 * 
-		 * @return the new iterator to be swapped in when loading is done
+		 * @return the new iterator to be swapped in when loading is done, or
+		 *         <code>null</code>
 		 * @since JWI 2.2.0
 		 */
 		protected abstract Iterator<E> makeIterator();
@@ -552,6 +901,11 @@ public class RAMDictionary implements IRAMDictionary {
 		 * @since JWI 2.2.0
 		 */
 		public HotSwappableIndexWordIterator(POS pos){
+			this(pos, getData(ContentType.getIndexContentType(pos)));
+		}
+		
+		// chooses the starting iterator from the loaded data
+		private HotSwappableIndexWordIterator(POS pos, DictionaryData data){
 			super((data == null) ? 
 					backing.getIndexWordIterator(pos) : 
 						data.idxWords.get(pos).values().iterator(), data == null);
@@ -564,7 +918,55 @@ public class RAMDictionary implements IRAMDictionary {
 		 */
 		@Override
 		protected Iterator<IIndexWord> makeIterator() {
-			return data.idxWords.get(pos).values().iterator();
+			DictionaryData data = getData(ContentType.getIndexContentType(pos));
+			return (data == null) ? null : data.idxWords.get(pos).values().iterator();
+		}
+		
+	}
+	
+	/** 
+	 * A hot swappable iterator for index words in lemma order, starting at a
+	 * specified lemma. When the data is loaded, the iterator continues over
+	 * the sorted index words of the dictionary data.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	protected class HotSwappableIndexWordRangeIterator extends HotSwappableIterator<IIndexWord> {
+
+		// the part of speech and lower bound for this iterator
+		private final POS pos;
+		private final String from;
+		
+		/**
+		 * Constructs a new hot swappable iterator for index words, starting
+		 * with the specified iterator.
+		 * 
+		 * @param itr
+		 *            the iterator with which to start; may not be
+		 *            <code>null</code>
+		 * @param pos
+		 *            the part of speech for the iterator
+		 * @param from
+		 *            the lowest lemma to be returned by the iterator
+		 * @since JWI 2.4.0
+		 */
+		public HotSwappableIndexWordRangeIterator(Iterator<IIndexWord> itr, POS pos, String from){
+			super(itr, data == null);
+			this.pos = pos;
+			this.from = from;
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see edu.mit.jwi.RAMDictionary.HotSwappableIterator#makeIterator()
+		 */
+		@Override
+		protected Iterator<IIndexWord> makeIterator() {
+			DictionaryData data = getData(ContentType.getIndexContentType(pos));
+			return (data == null) ? null : data.getIndexWordIterator(pos, from);
 		}
 		
 	}
@@ -588,6 +990,11 @@ public class RAMDictionary implements IRAMDictionary {
 		 * @since JWI 2.2.0
 		 */
 		public HotSwappableSynsetIterator(POS pos){
+			this(pos, getData(ContentType.getDataContentType(pos)));
+		}
+		
+		// chooses the starting iterator from the loaded data
+		private HotSwappableSynsetIterator(POS pos, DictionaryData data){
 			super((data == null) ? 
 					backing.getSynsetIterator(pos) : 
 						data.synsets.get(pos).values().iterator(), data == null);
@@ -601,7 +1008,8 @@ public class RAMDictionary implements IRAMDictionary {
 		 */
 		@Override
 		protected Iterator<ISynset> makeIterator() {
-			return data.synsets.get(pos).values().iterator();
+			DictionaryData data = getData(ContentType.getDataContentType(pos));
+			return (data == null) ? null : data.synsets.get(pos).values().iterator();
 		}
 		
 	}
@@ -630,6 +1038,11 @@ public class RAMDictionary implements IRAMDictionary {
 		 * @since JWI 2.2.0
 		 */
 		public HotSwappableExceptionEntryIterator(POS pos){
+			this(pos, getData(ContentType.getExceptionContentType(pos)));
+		}
+		
+		// chooses the starting iterator from the loaded data
+		private HotSwappableExceptionEntryIterator(POS pos, DictionaryData data){
 			super((data == null) ? backing.getExceptionEntryIterator(pos) : data.exceptions.get(pos).values().iterator(), data == null);
 			this.pos = pos;
 		}
@@ -640,7 +1053,8 @@ public class RAMDictionary implements IRAMDictionary {
 		 */
 		@Override
 		protected Iterator<IExceptionEntry> makeIterator() {
-			return data.exceptions.get(pos).values().iterator();
+			DictionaryData data = getData(ContentType.getExceptionContentType(pos));
+			return (data == null) ? null : data.exceptions.get(pos).values().iterator();
 		}
 		
 	}
@@ -662,6 +1076,11 @@ public class RAMDictionary implements IRAMDictionary {
 		 * @since JWI 2.2.0
 		 */
 		public HotSwappableSenseEntryIterator(){
+			this(getData(ContentType.SENSE));
+		}
+		
+		// chooses the starting iterator from the loaded data
+		private HotSwappableSenseEntryIterator(DictionaryData data){
 			super((data == null) ? backing.getSenseEntryIterator() : data.senses.values().iterator(), data == null);
 		}
 		/* 
@@ -671,7 +1090,51 @@ public class RAMDictionary implements IRAMDictionary {
 		 */
 		@Override
 		protected Iterator<ISenseEntry> makeIterator() {
-			return data.senses.values().iterator();
+			DictionaryData data = getData(ContentType.SENSE);
+			return (data == null) ? null : data.senses.values().iterator();
+		}
+		
+	}
+
+	/** 
+	 * A hot swappable iterator for sense entries in sense key order, starting
+	 * at a specified key. When the data is loaded, the iterator continues over
+	 * the sorted sense entries of the dictionary data.
+	 *
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	protected class HotSwappableSenseEntryRangeIterator extends HotSwappableIterator<ISenseEntry> {
+
+		// the lower bound for this iterator
+		private final String from;
+
+		/**
+		 * Constructs a new hot swappable iterator for sense entries, starting
+		 * with the specified iterator.
+		 * 
+		 * @param itr
+		 *            the iterator with which to start; may not be
+		 *            <code>null</code>
+		 * @param from
+		 *            the lowest sense key to be returned by the iterator
+		 * @since JWI 2.4.0
+		 */
+		public HotSwappableSenseEntryRangeIterator(Iterator<ISenseEntry> itr, String from){
+			super(itr, data == null);
+			this.from = from;
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see edu.mit.jwi.RAMDictionary.HotSwappableIterator#makeIterator()
+		 */
+		@Override
+		protected Iterator<ISenseEntry> makeIterator() {
+			DictionaryData data = getData(ContentType.SENSE);
+			return (data == null) ? null : data.getSenseEntryIterator(from);
 		}
 		
 	}
@@ -692,9 +1155,34 @@ public class RAMDictionary implements IRAMDictionary {
 		 */
 		public void run() {
 			try {
+				File file = snapshot;
+				DictionaryData result = null;
+				if(file != null){
+					try {
+						result = restoreSnapshot(file);
+					} catch(Exception e) {
+						// a damaged snapshot; load from the Wordnet files
+						result = null;
+					}
+				}
+				if(result != null || Thread.currentThread().isInterrupted()){
+					RAMDictionary.this.data = result;
+					closeBackingIfUnused();
+					return;
+				}
 				DataLoader loader = new DataLoader(backing);
+				loader.setCompressGlosses(compressGlosses);
+				loader.setContentTypes(contentTypes);
 				RAMDictionary.this.data = loader.call();
-				backing.close();
+				if(file != null && isLoaded()){
+					try {
+						exportSnapshot(file);
+					} catch(IOException e) {
+						e.printStackTrace();
+						System.err.println("Unable to write dictionary snapshot");
+					}
+				}
+				closeBackingIfUnused();
 			} catch(Throwable t) {
 				if(!Thread.currentThread().isInterrupted()){
 					t.printStackTrace();
@@ -702,6 +1190,17 @@ public class RAMDictionary implements IRAMDictionary {
 				}
 			}
 		}
+		
+		// closes the backing dictionary, unless some content is still
+		// looked up in it
+		private void closeBackingIfUnused() {
+			DictionaryData data = RAMDictionary.this.data;
+			if(data != null)
+				for(IContentType<?> type : ContentType.values())
+					if(!data.isLoaded(type))
+						return;
+			backing.close();
+		}
 	}
 
 	/**
@@ -710,6 +1209,15 @@ public class RAMDictionary implements IRAMDictionary {
 	 * dictionary; the dictionary for the loader must be open for the loader to
 	 * function without throwing an exception. The loader may be called multiple
 	 * times (in a thread-safe manner) as long as the dictionary is open.
+	 * <p>
+	 * As of JWI 2.4.0, the loader runs in a fork/join pool of its own. The
+	 * files of every part of speech are parsed at once, and when the source
+	 * is a {@link DataSourceDictionary}, large files are split at line
+	 * boundaries and their pieces parsed in parallel. The parsed items are
+	 * then merged into the dictionary data, one map per task, and the maps
+	 * are compacted in parallel. The loaded data is the same, in the same
+	 * iteration order, as that of a sequential load.
+	 * </p>
 	 * 
 	 * @author Mark A. Finlayson
 	 * @since JWI 2.2.0
@@ -718,18 +1226,109 @@ public class RAMDictionary implements IRAMDictionary {
 		
 		// the source of the dictionary data
 		private final IDictionary source;
+		
+		// the number of threads used to load the data
+		private final int parallelism;
+		
+		// whether the loaded glosses are compressed
+		private volatile boolean compressGlosses;
+		
+		// the content to be loaded, or null for all
+		private volatile Set<IContentType<?>> contentTypes;
 	
 		/**
 		 * Constructs a new data loader object, that uses the specified
-		 * dictionary to load its data.
+		 * dictionary to load its data, with one thread per available
+		 * processor.
 		 * 
 		 * @throws NullPointerException
 		 *             if the specified dictionary is <code>null</code>
 		 * @since JWI 2.2.0
 		 */
 		public DataLoader(IDictionary source){
+			this(source, Runtime.getRuntime().availableProcessors());
+		}
+	
+		/**
+		 * Constructs a new data loader object, that uses the specified
+		 * dictionary to load its data, with the specified number of threads.
+		 * 
+		 * @param source
+		 *            the dictionary from which to load; may not be
+		 *            <code>null</code>
+		 * @param parallelism
+		 *            the number of threads used to load the data; must be
+		 *            positive
+		 * @throws NullPointerException
+		 *             if the specified dictionary is <code>null</code>
+		 * @throws IllegalArgumentException
+		 *             if the parallelism is not positive
+		 * @since JWI 2.4.0
+		 */
+		public DataLoader(IDictionary source, int parallelism){
 			if(source == null) throw new NullPointerException();
+			if(parallelism < 1) throw new IllegalArgumentException();
 			this.source = source;
+			this.parallelism = parallelism;
+		}
+		
+		/**
+		 * Returns the number of threads this loader uses to load the data.
+		 * 
+		 * @return the number of threads used by this loader
+		 * @since JWI 2.4.0
+		 */
+		public int getParallelism(){
+			return parallelism;
+		}
+		
+		/**
+		 * Returns whether the glosses of the loaded synsets are compressed.
+		 * 
+		 * @return <code>true</code> if glosses are compressed;
+		 *         <code>false</code> otherwise
+		 * @since JWI 2.4.0
+		 */
+		public boolean isCompressGlosses(){
+			return compressGlosses;
+		}
+		
+		/**
+		 * Sets whether the glosses of the loaded synsets are compressed.
+		 * 
+		 * @param compress
+		 *            <code>true</code> if glosses should be compressed;
+		 *            <code>false</code> otherwise
+		 * @see DictionaryData#setCompressGlosses(boolean)
+		 * @since JWI 2.4.0
+		 */
+		public void setCompressGlosses(boolean compress){
+			this.compressGlosses = compress;
+		}
+		
+		/**
+		 * Returns the content types this loader loads, or <code>null</code>
+		 * if it loads all content.
+		 * 
+		 * @return the content types loaded, or <code>null</code> for all
+		 * @since JWI 2.4.0
+		 */
+		public Set<IContentType<?>> getContentTypes(){
+			return contentTypes;
+		}
+		
+		/**
+		 * Sets the content types this loader loads. Words are loaded with the
+		 * synsets of their part of speech.
+		 * 
+		 * @param types
+		 *            the content types to be loaded, or <code>null</code> to
+		 *            load all content
+		 * @see DictionaryData#setContentTypes(Collection)
+		 * @since JWI 2.4.0
+		 */
+		public void setContentTypes(Collection<? extends IContentType<?>> types){
+			this.contentTypes = (types == null) ? null : Collections.unmodifiableSet(new LinkedHashSet<IContentType<?>>(types));
 		}
 	
 		/* 
@@ -738,73 +1337,273 @@ public class RAMDictionary implements IRAMDictionary {
 		 * @see java.util.concurrent.Callable#call()
 		 */
 		public DictionaryData call() throws Exception {
+			final AtomicBoolean cancelled = new AtomicBoolean();
+			ForkJoinPool pool = new ForkJoinPool(parallelism);
+			try {
+				return pool.submit(new Callable<DictionaryData>() {
+					public DictionaryData call() {
+						return load(cancelled);
+					}
+				}).get();
+			} catch(InterruptedException e) {
+				cancelled.set(true);
+				Thread.currentThread().interrupt();
+				return null;
+			} catch(ExecutionException e) {
+				Throwable cause = e.getCause();
+				if(cause instanceof Exception)
+					throw (Exception)cause;
+				throw (Error)cause;
+			} finally {
+				pool.shutdownNow();
+			}
+		}
+		
+		// loads the data; runs in the fork/join pool
+		private DictionaryData load(AtomicBoolean cancelled) {
+			final DictionaryData result = new DictionaryData();
+			result.setContentTypes(contentTypes);
+			POS[] parts = POS.values();
 			
-			DictionaryData result = new DictionaryData();
-			
-			Map<IIndexWordID, IIndexWord> idxWords;
-			Map<ISynsetID, ISynset> synsets;
-			Map<IExceptionEntryID, IExceptionEntry> exceptions;
+			// parse every file, or piece of a file, at once
+			final List<Drain<IIndexWord>> idxWordTasks = new ArrayList<Drain<IIndexWord>>();
+			final List<Drain<ISynset>> synsetTasks = new ArrayList<Drain<ISynset>>();
+			final List<Drain<IExceptionEntry>> exceptionTasks = new ArrayList<Drain<IExceptionEntry>>();
+			final List<Drain<ISenseEntry>> senseTasks = new ArrayList<Drain<ISenseEntry>>();
+			int[] idxWordSplits = new int[parts.length + 1];
+			int[] synsetSplits = new int[parts.length + 1];
+			for(POS pos : parts){
+				if(result.isLoaded(ContentType.getIndexContentType(pos)))
+					for(Iterator<IIndexWord> i : getIndexWordIterators(pos))
+						idxWordTasks.add(new Drain<IIndexWord>(i, cancelled));
+				idxWordSplits[pos.ordinal() + 1] = idxWordTasks.size();
+				if(result.isLoaded(ContentType.getDataContentType(pos)))
+					for(Iterator<ISynset> i : getSynsetIterators(pos))
+						synsetTasks.add(new Drain<ISynset>(i, cancelled));
+				synsetSplits[pos.ordinal() + 1] = synsetTasks.size();
+				exceptionTasks.add(new Drain<IExceptionEntry>(result.isLoaded(ContentType.getExceptionContentType(pos)) ? 
+						source.getExceptionEntryIterator(pos) : 
+							Collections.<IExceptionEntry>emptyIterator(), cancelled));
+			}
+			if(result.isLoaded(ContentType.SENSE))
+				for(Iterator<ISenseEntry> i : getSenseEntryIterators())
+					senseTasks.add(new Drain<ISenseEntry>(i, cancelled));
+			List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>();
+			tasks.addAll(idxWordTasks);
+			tasks.addAll(synsetTasks);
+			tasks.addAll(exceptionTasks);
+			tasks.addAll(senseTasks);
+			ForkJoinTask.invokeAll(tasks);
 			
-			IIndexWord idxWord;
-			ISynset synset;
-			IExceptionEntry exception;
+			// merge the pieces, one map per task
+			tasks.clear();
+			for(final POS pos : parts){
+				final List<Drain<IIndexWord>> idxWordPieces = idxWordTasks.subList(idxWordSplits[pos.ordinal()], idxWordSplits[pos.ordinal() + 1]);
+				final List<Drain<ISynset>> synsetPieces = synsetTasks.subList(synsetSplits[pos.ordinal()], synsetSplits[pos.ordinal() + 1]);
+				final Drain<IExceptionEntry> exceptionPiece = exceptionTasks.get(pos.ordinal());
+				tasks.add(new RecursiveAction() {
+					protected void compute() {
+						Map<IIndexWordID, IIndexWord> idxWords = result.idxWords.get(pos);
+						for(Drain<IIndexWord> piece : idxWordPieces)
+							for(IIndexWord idxWord : piece.getRawResult())
+								idxWords.put(idxWord.getID(), idxWord);
+					}
+				});
+				tasks.add(new RecursiveAction() {
+					protected void compute() {
+						Map<ISynsetID, ISynset> synsets = result.synsets.get(pos);
+						for(Drain<ISynset> piece : synsetPieces)
+							for(ISynset synset : piece.getRawResult())
+								synsets.put(synset.getID(), synset);
+					}
+				});
+				tasks.add(new RecursiveAction() {
+					protected void compute() {
+						Map<IExceptionEntryID, IExceptionEntry> exceptions = result.exceptions.get(pos);
+						for(IExceptionEntry exception : exceptionPiece.getRawResult())
+							exceptions.put(exception.getID(), exception);
+					}
+				});
+			}
+			invokeAll(tasks, cancelled);
 			
-			Thread t = Thread.currentThread();
+			// words by sense key; the sense key map may resolve words through
+			// the synset maps, so these are added once the synsets are in place
+			for(Drain<ISynset> piece : synsetTasks)
+				for(ISynset synset : piece.getRawResult())
+					for(IWord each : synset.getWords())
+						result.words.put(each.getSenseKey(), each);
 			
-			for(POS pos : POS.values()){
-				
-				// index words
-				idxWords = result.idxWords.get(pos);
-				for(Iterator<IIndexWord> i = source.getIndexWordIterator(pos); i.hasNext(); ){
-					idxWord = i.next();
-					idxWords.put(idxWord.getID(), idxWord);
+			// sense entries, for the same reason; entries whose synsets are
+			// not loaded keep their own keys
+			IWord word;
+			for(Drain<ISenseEntry> piece : senseTasks){
+				for(ISenseEntry entry : piece.getRawResult()){
+					word = result.words.get(entry.getSenseKey());
+					if(word != null)
+						result.senses.put(word.getSenseKey(), makeSenseEntry(word.getSenseKey(), entry));
+					else if(result.isLoaded(ContentType.getDataContentType(entry.getPOS())))
+						throw new IllegalStateException("no loaded synset has a word for sense entry " + entry.getSenseKey() + " (" + entry.getPOS() + " synset " + Synset.zeroFillOffset(entry.getOffset()) + ")");
+					else
+						result.senses.put(entry.getSenseKey(), entry);
 				}
-				if(t.isInterrupted())
-					return null;
-				
-				// synsets and words
-				synsets = result.synsets.get(pos);
-				for(Iterator<ISynset> i = source.getSynsetIterator(pos); i.hasNext(); ){
-					synset = i.next();
-					synsets.put(synset.getID(), synset);
-					for(IWord word : synset.getWords())
-						result.words.put(word.getSenseKey(), word);
+			}
+			
+			// resize the maps, one map per task
+			tasks.clear();
+			addCompactSizeTasks(result, result.idxWords, tasks);
+			addCompactSizeTasks(result, result.synsets, tasks);
+			addCompactSizeTasks(result, result.exceptions, tasks);
+			tasks.add(new RecursiveAction() {
+				protected void compute() {
+					result.words = result.compactMap(result.words);
 				}
-				if(t.isInterrupted())
-					return null;
-				
-				// exceptions
-				exceptions = result.exceptions.get(pos);
-				for(Iterator<IExceptionEntry> i = source.getExceptionEntryIterator(pos); i.hasNext(); ){
-					exception = i.next();
-					exceptions.put(exception.getID(), exception);
+			});
+			tasks.add(new RecursiveAction() {
+				protected void compute() {
+					result.senses = result.compactMap(result.senses);
 				}
-				if(t.isInterrupted())
-					return null;
+			});
+			invokeAll(tasks, cancelled);
+			
+			// replace redundant objects; index words refer to the new
+			// synsets, so are replaced after them
+			result.setCompressGlosses(compressGlosses);
+			result.startCompaction();
+			tasks.clear();
+			for(POS pos : parts)
+				addReplaceTasks(result, result.synsets.get(pos), true, tasks);
+			invokeAll(tasks, cancelled);
+			tasks.clear();
+			for(POS pos : parts)
+				addReplaceTasks(result, result.idxWords.get(pos), false, tasks);
+			invokeAll(tasks, cancelled);
+			result.compactSenseKeys();
+			result.finishCompaction();
+			
+			return result;
+		}
+		
+		// returns iterators that together cover the index words of the part
+		// of speech
+		private List<Iterator<IIndexWord>> getIndexWordIterators(POS pos) {
+			if(source instanceof DataSourceDictionary)
+				return ((DataSourceDictionary)source).getIndexWordIterators(pos, parallelism);
+			return Collections.singletonList(source.getIndexWordIterator(pos));
+		}
+		
+		// returns iterators that together cover the synsets of the part of
+		// speech
+		private List<Iterator<ISynset>> getSynsetIterators(POS pos) {
+			if(source instanceof DataSourceDictionary)
+				return ((DataSourceDictionary)source).getSynsetIterators(pos, parallelism);
+			return Collections.singletonList(source.getSynsetIterator(pos));
+		}
+		
+		// returns iterators that together cover the sense entries
+		private List<Iterator<ISenseEntry>> getSenseEntryIterators() {
+			if(source instanceof DataSourceDictionary)
+				return ((DataSourceDictionary)source).getSenseEntryIterators(parallelism);
+			return Collections.singletonList(source.getSenseEntryIterator());
+		}
+		
+		// adds a task per part of speech that resizes its map
+		private static <K,V> void addCompactSizeTasks(final DictionaryData data, Map<POS, Map<K,V>> map, List<ForkJoinTask<?>> tasks) {
+			for(final Entry<POS, Map<K,V>> entry : map.entrySet()){
+				tasks.add(new RecursiveAction() {
+					protected void compute() {
+						entry.setValue(data.compactMap(entry.getValue()));
+					}
+				});
+			}
+		}
+		
+		// adds tasks that each replace a slice of the synsets or index
+		// words in the map with compacted copies
+		private <K,V> void addReplaceTasks(final DictionaryData data, Map<K,V> map, final boolean synsets, List<ForkJoinTask<?>> tasks) {
+			final List<Entry<K,V>> entries = new ArrayList<Entry<K,V>>(map.entrySet());
+			int slice = Math.max(MIN_SLICE_SIZE, entries.size() / (4*parallelism) + 1);
+			for(int lo = 0; lo < entries.size(); lo += slice){
+				final int from = lo, to = Math.min(lo + slice, entries.size());
+				tasks.add(new RecursiveAction() {
+					@SuppressWarnings("unchecked")
+					protected void compute() {
+						Entry<K,V> entry;
+						for(int i = from; i < to; i++){
+							entry = entries.get(i);
+							if(synsets)
+								entry.setValue((V)data.makeSynset((ISynset)entry.getValue()));
+							else
+								entry.setValue((V)data.makeIndexWord((IIndexWord)entry.getValue()));
+						}
+					}
+				});
 			}
+		}
+		
+		// runs the tasks, then stops if the load has been cancelled
+		private static void invokeAll(List<ForkJoinTask<?>> tasks, AtomicBoolean cancelled) {
+			ForkJoinTask.invokeAll(tasks);
+			if(cancelled.get())
+				throw new CancellationException();
+		}
+		
+		// the smallest number of items replaced by one task
+		private static final int MIN_SLICE_SIZE = 1024;
+		
+		/**
+		 * A task that collects the items returned by an iterator into a list.
+		 * 
+		 * @param <T>
+		 *            the type of item collected
+		 * @author Mark A. Finlayson
+		 * @version 2.3.3
+		 * @since JWI 2.4.0
+		 */
+		protected static class Drain<T> extends RecursiveTask<List<T>> {
 			
-			// sense entries
-			ISenseEntry entry;
-			IWord word;
-			for(Iterator<ISenseEntry> i = source.getSenseEntryIterator(); i.hasNext(); ){
-				entry = i.next();
-				word = result.words.get(entry.getSenseKey());
-				if(word == null)
+			// serial version id
+			private static final long serialVersionUID = 240L;
+			
+			// fields set on construction
+			private final Iterator<T> iterator;
+			private final AtomicBoolean cancelled;
+			
+			/**
+			 * Constructs a new task that collects the items of the specified
+			 * iterator, stopping early if the specified flag is set.
+			 * 
+			 * @param iterator
+			 *            the iterator whose items are collected; may not be
+			 *            <code>null</code>
+			 * @param cancelled
+			 *            the flag that is set when the load is cancelled;
+			 *            may not be <code>null</code>
+			 * @throws NullPointerException
+			 *             if either argument is <code>null</code>
+			 * @since JWI 2.4.0
+			 */
+			public Drain(Iterator<T> iterator, AtomicBoolean cancelled) {
+				if(iterator == null || cancelled == null)
 					throw new NullPointerException();
-				result.senses.put(word.getSenseKey(), makeSenseEntry(word.getSenseKey(), entry));
+				this.iterator = iterator;
+				this.cancelled = cancelled;
 			}
-			if(t.isInterrupted())
-				return null;
-			
-			result.compactSize();
-			if(t.isInterrupted())
-				return null;
-	
-			result.compactObjects();
-			if(t.isInterrupted())
-				return null;
 			
-			return result;
+			/* 
+			 * (non-Javadoc) 
+			 *
+			 * @see java.util.concurrent.RecursiveTask#compute()
+			 */
+			protected List<T> compute() {
+				List<T> result = new ArrayList<T>();
+				while(iterator.hasNext()){
+					if(cancelled.get())
+						throw new CancellationException();
+					result.add(iterator.next());
+				}
+				return result;
+			}
 		}
 	
 		/**
@@ -841,19 +1640,152 @@ public class RAMDictionary implements IRAMDictionary {
 		protected Map<ISenseKey, IWord> words;
 		protected Map<ISenseKey, ISenseEntry> senses;
 		
+		// sorted arrays for prefix and range searches, made when first needed
+		private IIndexWord[][] sortedIdxWords;
+		private ISenseEntry[] sortedSenses;
+		private String[] sortedSenseKeys;
+		private PrefixSearch.RankTable rankTable;
+		
+		// the content held, by part of speech; null for all
+		private Set<IContentType<?>> contentTypes;
+		private boolean[] idxWordsLoaded;
+		private boolean[] synsetsLoaded;
+		private boolean[] exceptionsLoaded;
+		private boolean sensesLoaded;
+		
+		// gloss compression
+		private boolean compressGlosses;
+		private GlossCodec glossCodec;
+		
+		// pools of shared lemmas and word ids, while objects are replaced
+		private ConcurrentMap<String, String> lemmas;
+		private ConcurrentMap<IWordID, IWordID> wordIDs;
+		
 		/** 
 		 * Constructs an empty dictionary data object.
 		 *
 		 * @since JWI 2.2.0
 		 */
 		public DictionaryData(){
+			setContentTypes(null);
 			idxWords = makePOSMap();
-			synsets = makePOSMap();
+			synsets = makeSynsetMaps();
 			exceptions = makePOSMap();
-			words = makeMap(208000, null);
+			words = makeWordMap();
 			senses = makeMap(208000, null);
 		}
 	
+		/**
+		 * Returns the content types held by this object, or
+		 * <code>null</code> if it holds all content.
+		 * 
+		 * @return an unmodifiable set of the content types held, or
+		 *         <code>null</code> for all
+		 * @since JWI 2.4.0
+		 */
+		public Set<IContentType<?>> getContentTypes(){
+			return contentTypes;
+		}
+		
+		/**
+		 * Sets the content types held by this object. This should be called
+		 * before the object is filled; the maps of content that is not held
+		 * stay empty. Words are held with the synsets of their part of
+		 * speech.
+		 * 
+		 * @param types
+		 *            the content types to be held, or <code>null</code> to
+		 *            hold all content
+		 * @since JWI 2.4.0
+		 */
+		public void setContentTypes(Collection<? extends IContentType<?>> types){
+			int count = POS.values().length;
+			boolean[] idxWords = new boolean[count];
+			boolean[] synsets = new boolean[count];
+			boolean[] exceptions = new boolean[count];
+			boolean senses = (types == null);
+			if(types == null){
+				Arrays.fill(idxWords, true);
+				Arrays.fill(synsets, true);
+				Arrays.fill(exceptions, true);
+			} else {
+				for(IContentType<?> type : types){
+					POS pos = type.getPOS();
+					if(type.getDataType() == DataType.SENSE)
+						senses = true;
+					else if(pos == null)
+						continue;
+					else if(type.getDataType() == DataType.INDEX)
+						idxWords[pos.ordinal()] = true;
+					else if(type.getDataType() == DataType.DATA)
+						synsets[pos.ordinal()] = true;
+					else if(type.getDataType() == DataType.EXCEPTION)
+						exceptions[pos.ordinal()] = true;
+				}
+			}
+			this.contentTypes = (types == null) ? null : Collections.unmodifiableSet(new LinkedHashSet<IContentType<?>>(types));
+			this.idxWordsLoaded = idxWords;
+			this.synsetsLoaded = synsets;
+			this.exceptionsLoaded = exceptions;
+			this.sensesLoaded = senses;
+		}
+		
+		/**
+		 * Returns whether this object holds the specified content. Content
+		 * types are matched by data type and part of speech.
+		 * 
+		 * @param type
+		 *            the content type; may not be <code>null</code>
+		 * @return <code>true</code> if the content is held;
+		 *         <code>false</code> otherwise
+		 * @throws NullPointerException
+		 *             if the specified type is <code>null</code>
+		 * @since JWI 2.4.0
+		 */
+		public boolean isLoaded(IContentType<?> type){
+			POS pos = type.getPOS();
+			if(type.getDataType() == DataType.SENSE)
+				return sensesLoaded;
+			if(pos == null)
+				return false;
+			if(type.getDataType() == DataType.INDEX)
+				return idxWordsLoaded[pos.ordinal()];
+			if(type.getDataType() == DataType.DATA)
+				return synsetsLoaded[pos.ordinal()];
+			if(type.getDataType() == DataType.EXCEPTION)
+				return exceptionsLoaded[pos.ordinal()];
+			return false;
+		}
+	
+		/**
+		 * This method is used when constructing the dictionary data object.
+		 * Constructs a map with an empty {@link SynsetMap} for every part of
+		 * speech, so that synsets are keyed by their int offsets. Subclasses
+		 * may override to change map character.
+		 * 
+		 * @return a map with an empty synset map for every part of speech
+		 * @since JWI 2.4.0
+		 */
+		protected Map<POS, Map<ISynsetID, ISynset>> makeSynsetMaps(){
+			Map<POS, Map<ISynsetID, ISynset>> result = new HashMap<POS, Map<ISynsetID, ISynset>>(POS.values().length);
+			for(POS pos : POS.values()) result.put(pos, new SynsetMap(pos, 4096));
+			return result;
+		}
+	
+		/**
+		 * This method is used when constructing the dictionary data object,
+		 * after the synset maps have been made. Constructs a
+		 * {@link SenseKeyMap} that finds words in the synset maps, so that
+		 * each sense key maps to a packed location rather than to a word
+		 * object. Subclasses may override to change map character.
+		 * 
+		 * @return an empty map from sense keys to words
+		 * @since JWI 2.4.0
+		 */
+		protected Map<ISenseKey, IWord> makeWordMap(){
+			return new SenseKeyMap(synsets, 208000);
+		}
+	
 		/**
 		 * This method is used when constructing the dictionary data object.
 		 * Constructs an map with an empty sub-map for every part of speech.
@@ -948,21 +1880,301 @@ public class RAMDictionary implements IRAMDictionary {
 		 */
 		protected <K,V> Map<K,V> compactMap(Map<K,V> map){
 			if(map == null) throw new NullPointerException();
+			if(map instanceof SynsetMap){
+				((SynsetMap)map).trimToSize();
+				return map;
+			}
+			if(map instanceof SenseKeyMap){
+				((SenseKeyMap)map).trimToSize();
+				return map;
+			}
 			return makeMap(-1, map);
 		}
 		
 		/** 
-		 * Replaces redundant objects where possible
+		 * Replaces redundant objects where possible. As of JWI 2.4.0, the
+		 * lemmas of words and index words are shared, as are word ids, and
+		 * glosses are compressed if so set.
 		 *
+		 * @see #setCompressGlosses(boolean)
 		 * @since JWI 2.2.0
 		 */
 		public void compactObjects(){
-			for(POS pos : POS.values()){
+			startCompaction();
+			for(POS pos : POS.values())
 				for(Entry<ISynsetID, ISynset> entry : synsets.get(pos).entrySet())
 					entry.setValue(makeSynset(entry.getValue()));
+			for(POS pos : POS.values())
 				for(Entry<IIndexWordID, IIndexWord> entry : idxWords.get(pos).entrySet())
 					entry.setValue(makeIndexWord(entry.getValue()));
+			compactSenseKeys();
+			finishCompaction();
+		}
+		
+		/**
+		 * Returns whether the glosses of synsets made by this object are
+		 * compressed.
+		 * 
+		 * @return <code>true</code> if glosses are compressed;
+		 *         <code>false</code> otherwise
+		 * @since JWI 2.4.0
+		 */
+		public boolean isCompressGlosses(){
+			return compressGlosses;
+		}
+		
+		/**
+		 * Sets whether the glosses of synsets made by
+		 * {@link #makeSynset(ISynset)} are compressed. If so, a
+		 * {@link GlossCodec} is trained on the glosses of this data when
+		 * objects are next replaced, and each synset holds its gloss as a
+		 * block compressed by that codec.
+		 * 
+		 * @param compress
+		 *            <code>true</code> if glosses should be compressed;
+		 *            <code>false</code> otherwise
+		 * @since JWI 2.4.0
+		 */
+		public void setCompressGlosses(boolean compress){
+			this.compressGlosses = compress;
+			if(!compress)
+				glossCodec = null;
+		}
+		
+		/**
+		 * Prepares this object for its objects to be replaced. Drops the
+		 * sorted arrays, starts the pools of shared lemmas and word ids,
+		 * seeding the lemma pool with the lemmas of the index words, and
+		 * trains the gloss codec if glosses are to be compressed. This
+		 * method is marked protected for ease of subclassing.
+		 * 
+		 * @see #compactObjects()
+		 * @since JWI 2.4.0
+		 */
+		protected void startCompaction(){
+			clearSorted();
+			int count = 0;
+			for(Map<IIndexWordID, IIndexWord> map : idxWords.values())
+				count += map.size();
+			lemmas = new ConcurrentHashMap<String, String>(count*4/3 + 1);
+			wordIDs = new ConcurrentHashMap<IWordID, IWordID>(words.size()*4/3 + 1);
+			for(Map<IIndexWordID, IIndexWord> map : idxWords.values())
+				for(IIndexWordID id : map.keySet())
+					intern(id.getLemma());
+			if(compressGlosses && glossCodec == null){
+				List<String> glosses = new ArrayList<String>();
+				for(Map<ISynsetID, ISynset> map : synsets.values())
+					for(ISynset synset : map.values())
+						glosses.add(synset.getGloss());
+				glossCodec = GlossCodec.train(glosses);
+			}
+		}
+		
+		/**
+		 * Drops the pools of shared lemmas and word ids once objects have
+		 * been replaced. This method is marked protected for ease of
+		 * subclassing.
+		 * 
+		 * @see #compactObjects()
+		 * @since JWI 2.4.0
+		 */
+		protected void finishCompaction(){
+			lemmas = null;
+			wordIDs = null;
+		}
+		
+		/**
+		 * Returns the shared copy of the specified string, if objects are
+		 * being replaced; otherwise returns the string itself.
+		 * 
+		 * @param str
+		 *            the string to be shared; may be <code>null</code>
+		 * @return the shared copy of the string
+		 * @since JWI 2.4.0
+		 */
+		protected String intern(String str){
+			ConcurrentMap<String, String> pool = lemmas;
+			if(pool == null || str == null)
+				return str;
+			String result = pool.putIfAbsent(str, str);
+			return (result == null) ? str : result;
+		}
+		
+		/**
+		 * Returns the shared word id equal to the specified word id, made
+		 * with the shared lemma and the id of the synset in the synset map,
+		 * if objects are being replaced; otherwise returns the id itself. The
+		 * specified id must have both a word number and a lemma.
+		 * 
+		 * @param old
+		 *            the word id to be replaced; may not be <code>null</code>
+		 * @return the shared word id
+		 * @throws NullPointerException
+		 *             if the specified id is <code>null</code>
+		 * @since JWI 2.4.0
+		 */
+		protected IWordID makeWordID(IWordID old){
+			ConcurrentMap<IWordID, IWordID> pool = wordIDs;
+			if(pool == null)
+				return old;
+			IWordID result = pool.get(old);
+			if(result != null)
+				return result;
+			ISynset synset = synsets.get(old.getPOS()).get(old.getSynsetID());
+			if(synset == null)
+				return old;
+			result = new WordID(synset.getID(), old.getWordNumber(), intern(old.getLemma()));
+			IWordID prior = pool.putIfAbsent(result, result);
+			return (prior == null) ? result : prior;
+		}
+		
+		/**
+		 * Re-keys the word and sense entry maps by the sense keys of the
+		 * current words, so that the keys of replaced words, and the lemmas
+		 * they hold, may be collected. The sense entries are replaced with
+		 * entries that hold the new keys.
+		 * 
+		 * @since JWI 2.4.0
+		 */
+		protected void compactSenseKeys(){
+			Map<ISenseKey, IWord> newWords = makeWordMap();
+			IWord word;
+			for(IWord each : words.values()){
+				// a null word maps to nothing, so there is nothing to keep
+				if(each != null)
+					newWords.put(each.getSenseKey(), each);
+			}
+			Map<ISenseKey, ISenseEntry> newSenses = makeMap(senses.size()*4/3 + 1, null);
+			ISenseKey key;
+			ISenseEntry old;
+			for(Entry<ISenseKey, ISenseEntry> entry : senses.entrySet()){
+				word = newWords.get(entry.getKey());
+				old = entry.getValue();
+				if(word == null){
+					newSenses.put(entry.getKey(), old);
+					continue;
+				}
+				key = word.getSenseKey();
+				newSenses.put(key, new SenseEntry(key, old.getOffset(), old.getSenseNumber(), old.getTagCount()));
+			}
+			words = compactMap(newWords);
+			senses = newSenses;
+		}
+	
+		/**
+		 * Returns an iterator over the index words of the specified part of
+		 * speech, in lemma order, starting at the first index word whose lemma
+		 * is not less than the specified lemma. The index words are sorted
+		 * into an array the first time this method is called for the part of
+		 * speech.
+		 * 
+		 * @param pos
+		 *            the part of speech; may not be <code>null</code>
+		 * @param from
+		 *            the lemma at which to start; may not be <code>null</code>
+		 * @return an iterator over the index words from the specified lemma
+		 * @throws NullPointerException
+		 *             if either argument is <code>null</code>
+		 * @since JWI 2.4.0
+		 */
+		public Iterator<IIndexWord> getIndexWordIterator(POS pos, String from){
+			IIndexWord[] words = getSortedIndexWords(pos);
+			int lo = 0, hi = words.length, mid;
+			while(lo < hi){
+				mid = (lo + hi) >>> 1;
+				if(words[mid].getLemma().compareTo(from) < 0)
+					lo = mid + 1;
+				else
+					hi = mid;
+			}
+			return Arrays.asList(words).subList(lo, words.length).iterator();
+		}
+		
+		/**
+		 * Returns an iterator over the sense entries, in sense key order,
+		 * starting at the first sense entry whose sense key is not less than
+		 * the specified key. The sense entries are sorted into an array the
+		 * first time this method is called.
+		 * 
+		 * @param from
+		 *            the sense key at which to start; may not be
+		 *            <code>null</code>
+		 * @return an iterator over the sense entries from the specified key
+		 * @throws NullPointerException
+		 *             if the specified key is <code>null</code>
+		 * @since JWI 2.4.0
+		 */
+		public Iterator<ISenseEntry> getSenseEntryIterator(String from){
+			if(from == null)
+				throw new NullPointerException();
+			ISenseEntry[] entries = getSortedSenseEntries();
+			int idx = Arrays.binarySearch(sortedSenseKeys, from);
+			if(idx < 0)
+				idx = -(idx + 1);
+			return Arrays.asList(entries).subList(idx, entries.length).iterator();
+		}
+		
+		// sorts the index words of the part of speech by lemma
+		private synchronized IIndexWord[] getSortedIndexWords(POS pos){
+			if(sortedIdxWords == null)
+				sortedIdxWords = new IIndexWord[POS.values().length][];
+			IIndexWord[] result = sortedIdxWords[pos.ordinal()];
+			if(result == null){
+				result = idxWords.get(pos).values().toArray(new IIndexWord[0]);
+				Arrays.sort(result, new Comparator<IIndexWord>() {
+					public int compare(IIndexWord w1, IIndexWord w2) {
+						return w1.getLemma().compareTo(w2.getLemma());
+					}
+				});
+				sortedIdxWords[pos.ordinal()] = result;
 			}
+			return result;
+		}
+		
+		// sorts the sense entries by sense key, keeping the key strings
+		private synchronized ISenseEntry[] getSortedSenseEntries(){
+			if(sortedSenses == null){
+				ISenseEntry[] entries = senses.values().toArray(new ISenseEntry[0]);
+				Arrays.sort(entries, new Comparator<ISenseEntry>() {
+					public int compare(ISenseEntry e1, ISenseEntry e2) {
+						return e1.getSenseKey().toString().compareTo(e2.getSenseKey().toString());
+					}
+				});
+				String[] keys = new String[entries.length];
+				for(int i = 0; i < entries.length; i++)
+					keys[i] = entries[i].getSenseKey().toString();
+				sortedSenseKeys = keys;
+				sortedSenses = entries;
+			}
+			return sortedSenses;
+		}
+		
+		/**
+		 * Returns the table from which ranked prefix searches are answered,
+		 * building it from the specified dictionary the first time this
+		 * method is called. The dictionary should be the one that holds this
+		 * data, so that content types that are not loaded are read from its
+		 * backing dictionary.
+		 * 
+		 * @param dict
+		 *            the dictionary from which to build the table; may not be
+		 *            <code>null</code>
+		 * @return the rank table for this data
+		 * @throws NullPointerException
+		 *             if the specified dictionary is <code>null</code>
+		 * @since JWI 2.4.0
+		 */
+		public synchronized PrefixSearch.RankTable getRankTable(IDictionary dict){
+			if(rankTable == null)
+				rankTable = PrefixSearch.RankTable.build(dict);
+			return rankTable;
+		}
+
+		// drops the sorted arrays, when the objects they hold are replaced
+		private synchronized void clearSorted(){
+			sortedIdxWords = null;
+			sortedSenses = null;
+			sortedSenseKeys = null;
 		}
 	
 		/**
@@ -988,7 +2200,7 @@ public class RAMDictionary implements IRAMDictionary {
 				newList = new ArrayList<ISynsetID>(entry.getValue().size());
 				for(ISynsetID otherID : entry.getValue()){
 					otherSynset = synsets.get(otherID.getPOS()).get(otherID);
-					newList.add(otherSynset.getID());
+					newList.add((otherSynset == null) ? otherID : otherSynset.getID());
 				}
 				newIDs.put(entry.getKey(), newList);
 			}
@@ -999,6 +2211,9 @@ public class RAMDictionary implements IRAMDictionary {
 			for(IWord oldWord : old.getWords()) 
 				newWords.add(new WordBuilder(old, oldWord));
 			
+			GlossCodec codec = glossCodec;
+			if(codec != null)
+				return new GlossCodec.CompactSynset(codec, old.getID(), old.getLexicalFile(), old.isAdjectiveSatellite(), old.isAdjectiveHead(), old.getGloss(), newWords, newIDs);
 			return new Synset(old.getID(), old.getLexicalFile(), old.isAdjectiveSatellite(), old.isAdjectiveHead(), old.getGloss(), newWords, newIDs);
 		}
 	
@@ -1028,16 +2243,16 @@ public class RAMDictionary implements IRAMDictionary {
 				newList = new ArrayList<IWordID>(entry.getValue().size());
 				for(IWordID otherID : entry.getValue()){
 					otherSynset = synsets.get(otherID.getPOS()).get(otherID.getSynsetID());
-					newList.add(otherSynset.getWord(otherID.getWordNumber()).getID());
+					newList.add((otherSynset == null) ? otherID : makeWordID(otherSynset.getWord(otherID.getWordNumber()).getID()));
 				}
 				newPtrs.put(entry.getKey(), newList);
 			}
 			
-			IWord word = new Word(newSynset, old.getID(), old.getLexicalID(), old.getAdjectiveMarker(), old.getVerbFrames(), newPtrs);
+			IWord word = new Word(newSynset, makeWordID(old.getID()), old.getLexicalID(), old.getAdjectiveMarker(), old.getVerbFrames(), newPtrs);
 			ISenseKey key = word.getSenseKey();
 			if(key.needsHeadSet()){
 				ISenseKey oldKey = old.getSenseKey();
-				key.setHead(oldKey.getHeadWord(), oldKey.getHeadID());
+				key.setHead(intern(oldKey.getHeadWord()), oldKey.getHeadID());
 			}
 			return word;
 		}
@@ -1062,9 +2277,13 @@ public class RAMDictionary implements IRAMDictionary {
 			for(int i = 0; i < oldIDs.size(); i++){
 				oldID = oldIDs.get(i);
 				synset = synsets.get(oldID.getPOS()).get(oldID.getSynsetID());
+				if(synset == null){
+					newIDs[i] = oldID;
+					continue;
+				}
 				for(IWord newWord : synset.getWords()){
 					if(!newWord.getID().equals(oldID)) continue;
-					newIDs[i] = newWord.getID();
+					newIDs[i] = makeWordID(newWord.getID());
 					break;
 				}
 				if(newIDs[i] == null) throw new IllegalStateException();
@@ -0,0 +1,295 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import edu.mit.jwi.item.ISenseKey;
+import edu.mit.jwi.item.ISynset;
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.IWord;
+import edu.mit.jwi.item.POS;
+import edu.mit.jwi.item.SynsetID;
+
+/**
+ * <p>
+ * A map from sense keys to words that stores, for each key, only the part of
+ * speech, synset offset and word number of its word, packed into a long. A
+ * word is found by looking up its synset in a map of synsets by part of
+ * speech, which is typically filled with {@link SynsetMap}s, so that the
+ * value returned for a key is always the word of the synset currently in
+ * that map. The keys are held in an array in insertion order, with their
+ * hash codes, and found through an open-addressing table of ints, so that
+ * the map holds no entry objects.
+ * </p>
+ * <p>
+ * Entries may be added, but not removed. This class is not thread-safe for
+ * writes; concurrent reads are safe once the map has been filled and safely
+ * published.
+ * </p>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class SenseKeyMap extends AbstractMap<ISenseKey, IWord> {
+
+	// the parts of speech, by ordinal; POS.values() copies the array
+	private static final POS[] POS_VALUES = POS.values();
+
+	// immutable fields
+	private final Map<POS, ? extends Map<ISynsetID, ISynset>> synsets;
+
+	// instance fields
+	private ISenseKey[] keys;
+	private int[] hashes;
+	private long[] locations;
+	private int[] table;
+	private int size;
+	private Set<Entry<ISenseKey, IWord>> entrySet;
+
+	/**
+	 * Constructs a new, empty map whose words are found in the specified
+	 * synsets, with room for the specified number of keys before it must
+	 * grow.
+	 * 
+	 * @param synsets
+	 *            the synsets in which the words are found, by part of speech;
+	 *            may not be <code>null</code>
+	 * @param initialSize
+	 *            the expected number of keys
+	 * @throws NullPointerException
+	 *             if the specified map is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public SenseKeyMap(Map<POS, ? extends Map<ISynsetID, ISynset>> synsets, int initialSize) {
+		if(synsets == null)
+			throw new NullPointerException();
+		this.synsets = synsets;
+		int capacity = Math.max(4, initialSize);
+		this.keys = new ISenseKey[capacity];
+		this.hashes = new int[capacity];
+		this.locations = new long[capacity];
+		this.table = new int[tableSize(capacity)];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#get(java.lang.Object)
+	 */
+	@Override
+	public IWord get(Object key) {
+		int index = indexOf(key);
+		return (index < 0) ? null : resolve(locations[index]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#containsKey(java.lang.Object)
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) >= 0;
+	}
+
+	/**
+	 * Maps the specified key to the specified word. Only the location of the
+	 * word is stored: the part of speech and offset of its synset, and its
+	 * word number.
+	 * 
+	 * @param key
+	 *            the sense key; may not be <code>null</code>
+	 * @param word
+	 *            the word; may not be <code>null</code>
+	 * @return the word previously mapped to the key, or <code>null</code>
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	@Override
+	public IWord put(ISenseKey key, IWord word) {
+		ISynsetID id = word.getSynset().getID();
+		long location = ((long)id.getPOS().ordinal() << 48) | ((id.getOffset() & 0xFFFFFFFFL) << 16) | (word.getID().getWordNumber() & 0xFFFF);
+		int index = indexOf(key);
+		if(index >= 0){
+			IWord old = resolve(locations[index]);
+			locations[index] = location;
+			return old;
+		}
+		if(size == keys.length){
+			int capacity = size + (size >> 1) + 1;
+			keys = Arrays.copyOf(keys, capacity);
+			hashes = Arrays.copyOf(hashes, capacity);
+			locations = Arrays.copyOf(locations, capacity);
+		}
+		keys[size] = key;
+		hashes[size] = key.hashCode();
+		locations[size] = location;
+		size++;
+		if(table.length < tableSize(size))
+			rehash(tableSize(keys.length));
+		else
+			insert(size - 1);
+		return null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#size()
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Shrinks the internal arrays of this map to fit its entries.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public void trimToSize() {
+		if(keys.length == size)
+			return;
+		keys = Arrays.copyOf(keys, size);
+		hashes = Arrays.copyOf(hashes, size);
+		locations = Arrays.copyOf(locations, size);
+		rehash(tableSize(size));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#entrySet()
+	 */
+	@Override
+	public Set<Entry<ISenseKey, IWord>> entrySet() {
+		if(entrySet == null){
+			entrySet = new AbstractSet<Entry<ISenseKey, IWord>>() {
+				public int size() {
+					return size;
+				}
+				public Iterator<Entry<ISenseKey, IWord>> iterator() {
+					return new EntryIterator();
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	// returns the word at the packed location, or null if its synset is
+	// not in the map of synsets
+	private IWord resolve(long location) {
+		POS pos = POS_VALUES[(int)(location >>> 48)];
+		int offset = (int)(location >>> 16);
+		int num = (int)(location & 0xFFFF);
+		Map<ISynsetID, ISynset> map = synsets.get(pos);
+		if(map == null)
+			return null;
+		ISynset synset = (map instanceof SynsetMap) ? ((SynsetMap)map).getSynset(offset) : map.get(new SynsetID(offset, pos));
+		return (synset == null) ? null : synset.getWord(num);
+	}
+
+	// returns the index of the key, or -1
+	private int indexOf(Object key) {
+		if(!(key instanceof ISenseKey))
+			return -1;
+		int hash = key.hashCode();
+		int mask = table.length - 1;
+		int slot;
+		for(int i = spread(hash) & mask; ; i = (i + 1) & mask){
+			slot = table[i];
+			if(slot == 0)
+				return -1;
+			if(hashes[slot - 1] == hash && keys[slot - 1].equals(key))
+				return slot - 1;
+		}
+	}
+
+	// adds the key at the index to the table
+	private void insert(int index) {
+		int mask = table.length - 1;
+		int i = spread(hashes[index]) & mask;
+		while(table[i] != 0)
+			i = (i + 1) & mask;
+		table[i] = index + 1;
+	}
+
+	// rebuilds the table with the specified size
+	private void rehash(int length) {
+		table = new int[length];
+		for(int i = 0; i < size; i++)
+			insert(i);
+	}
+
+	// returns a power of two at least 4/3 of the capacity
+	private static int tableSize(int capacity) {
+		return Integer.highestOneBit(Math.max(4, capacity + capacity/3)) << 1;
+	}
+
+	// spreads the hash code over the low bits
+	private static int spread(int hash) {
+		int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Iterates over the entries of the map in insertion order.
+	 * 
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	protected class EntryIterator implements Iterator<Entry<ISenseKey, IWord>> {
+
+		// the index of the next entry
+		private int next;
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.Iterator#hasNext()
+		 */
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.Iterator#next()
+		 */
+		public Entry<ISenseKey, IWord> next() {
+			if(next >= size)
+				throw new NoSuchElementException();
+			int index = next++;
+			return new SimpleImmutableEntry<ISenseKey, IWord>(keys[index], resolve(locations[index]));
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.Iterator#remove()
+		 */
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+}
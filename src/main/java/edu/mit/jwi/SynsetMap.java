@@ -0,0 +1,334 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import edu.mit.jwi.item.ISynset;
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.POS;
+
+/**
+ * <p>
+ * A map from synset ids to the synsets of a single part of speech, keyed by
+ * the synsets' int offsets. The synsets are held in an array in insertion
+ * order, and found through an open-addressing table of ints, so that the map
+ * holds no entry objects or boxed keys, and a lookup hashes a single int.
+ * The synset ids returned as keys are the ids of the synsets themselves.
+ * </p>
+ * <p>
+ * Entries may be added and their values replaced, but not removed. This
+ * class is not thread-safe for writes; concurrent reads are safe once the
+ * map has been filled and safely published.
+ * </p>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class SynsetMap extends AbstractMap<ISynsetID, ISynset> {
+
+	// immutable fields
+	private final POS pos;
+
+	// instance fields
+	private int[] offsets;
+	private ISynset[] synsets;
+	private int[] table;
+	private int size;
+	private Set<Entry<ISynsetID, ISynset>> entrySet;
+
+	/**
+	 * Constructs a new, empty map for synsets of the specified part of speech,
+	 * with room for the specified number of synsets before it must grow.
+	 * 
+	 * @param pos
+	 *            the part of speech of the synsets; may not be
+	 *            <code>null</code>
+	 * @param initialSize
+	 *            the expected number of synsets
+	 * @throws NullPointerException
+	 *             if the specified part of speech is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public SynsetMap(POS pos, int initialSize) {
+		if(pos == null)
+			throw new NullPointerException();
+		this.pos = pos;
+		int capacity = Math.max(4, initialSize);
+		this.offsets = new int[capacity];
+		this.synsets = new ISynset[capacity];
+		this.table = new int[tableSize(capacity)];
+	}
+
+	/**
+	 * Constructs a new map for synsets of the specified part of speech that
+	 * holds the entries of the specified map, sized to fit them.
+	 * 
+	 * @param pos
+	 *            the part of speech of the synsets; may not be
+	 *            <code>null</code>
+	 * @param contents
+	 *            the entries to be added; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if a key is not of the specified part of speech
+	 * @since JWI 2.4.0
+	 */
+	public SynsetMap(POS pos, Map<? extends ISynsetID, ? extends ISynset> contents) {
+		this(pos, contents.size());
+		putAll(contents);
+	}
+
+	/**
+	 * Returns the part of speech of the synsets in this map.
+	 * 
+	 * @return the part of speech of the synsets in this map
+	 * @since JWI 2.4.0
+	 */
+	public POS getPOS() {
+		return pos;
+	}
+
+	/**
+	 * Returns the synset with the specified offset, or <code>null</code> if
+	 * there is none.
+	 * 
+	 * @param offset
+	 *            the offset of the synset
+	 * @return the synset with the offset, or <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public ISynset getSynset(int offset) {
+		int index = indexOf(offset);
+		return (index < 0) ? null : synsets[index];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#get(java.lang.Object)
+	 */
+	@Override
+	public ISynset get(Object key) {
+		if(!(key instanceof ISynsetID))
+			return null;
+		ISynsetID id = (ISynsetID)key;
+		return (id.getPOS() == pos) ? getSynset(id.getOffset()) : null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#containsKey(java.lang.Object)
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#put(java.lang.Object, java.lang.Object)
+	 */
+	@Override
+	public ISynset put(ISynsetID key, ISynset value) {
+		if(value == null)
+			throw new NullPointerException();
+		if(key.getPOS() != pos)
+			throw new IllegalArgumentException("synset id is not of part of speech " + pos);
+		int offset = key.getOffset();
+		int index = indexOf(offset);
+		if(index >= 0){
+			ISynset old = synsets[index];
+			synsets[index] = value;
+			return old;
+		}
+		if(size == synsets.length){
+			int capacity = size + (size >> 1) + 1;
+			offsets = Arrays.copyOf(offsets, capacity);
+			synsets = Arrays.copyOf(synsets, capacity);
+		}
+		offsets[size] = offset;
+		synsets[size] = value;
+		size++;
+		if(table.length < tableSize(size))
+			rehash(tableSize(synsets.length));
+		else
+			insert(size - 1);
+		return null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#size()
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Shrinks the internal arrays of this map to fit its entries.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public void trimToSize() {
+		if(synsets.length == size)
+			return;
+		offsets = Arrays.copyOf(offsets, size);
+		synsets = Arrays.copyOf(synsets, size);
+		rehash(tableSize(size));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.AbstractMap#entrySet()
+	 */
+	@Override
+	public Set<Entry<ISynsetID, ISynset>> entrySet() {
+		if(entrySet == null){
+			entrySet = new AbstractSet<Entry<ISynsetID, ISynset>>() {
+				public int size() {
+					return size;
+				}
+				public Iterator<Entry<ISynsetID, ISynset>> iterator() {
+					return new EntryIterator();
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	// returns the index of the synset with the offset, or -1
+	private int indexOf(int offset) {
+		int mask = table.length - 1;
+		int slot;
+		for(int i = hash(offset) & mask; ; i = (i + 1) & mask){
+			slot = table[i];
+			if(slot == 0)
+				return -1;
+			if(offsets[slot - 1] == offset)
+				return slot - 1;
+		}
+	}
+
+	// adds the synset at the index to the table
+	private void insert(int index) {
+		int mask = table.length - 1;
+		int i = hash(offsets[index]) & mask;
+		while(table[i] != 0)
+			i = (i + 1) & mask;
+		table[i] = index + 1;
+	}
+
+	// rebuilds the table with the specified size
+	private void rehash(int length) {
+		table = new int[length];
+		for(int i = 0; i < size; i++)
+			insert(i);
+	}
+
+	// returns a power of two at least 4/3 of the capacity
+	private static int tableSize(int capacity) {
+		return Integer.highestOneBit(Math.max(4, capacity + capacity/3)) << 1;
+	}
+
+	// spreads the offset, whose low bits are not evenly distributed
+	private static int hash(int offset) {
+		int h = offset * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Iterates over the entries of the map in insertion order. Entries
+	 * support {@link java.util.Map.Entry#setValue(Object)}.
+	 * 
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	protected class EntryIterator implements Iterator<Entry<ISynsetID, ISynset>> {
+
+		// the index of the next entry
+		private int next;
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.Iterator#hasNext()
+		 */
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.Iterator#next()
+		 */
+		public Entry<ISynsetID, ISynset> next() {
+			if(next >= size)
+				throw new NoSuchElementException();
+			final int index = next++;
+			return new Entry<ISynsetID, ISynset>() {
+				public ISynsetID getKey() {
+					return synsets[index].getID();
+				}
+				public ISynset getValue() {
+					return synsets[index];
+				}
+				public ISynset setValue(ISynset value) {
+					if(value.getOffset() != offsets[index])
+						throw new IllegalArgumentException();
+					ISynset old = synsets[index];
+					synsets[index] = value;
+					return old;
+				}
+				@Override
+				public int hashCode() {
+					return getKey().hashCode() ^ getValue().hashCode();
+				}
+				@Override
+				public boolean equals(Object obj) {
+					if(!(obj instanceof Entry))
+						return false;
+					Entry<?, ?> other = (Entry<?, ?>)obj;
+					return getKey().equals(other.getKey()) && getValue().equals(other.getValue());
+				}
+				@Override
+				public String toString() {
+					return getKey() + "=" + getValue();
+				}
+			};
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.Iterator#remove()
+		 */
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+}
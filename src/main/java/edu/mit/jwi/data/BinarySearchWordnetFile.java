@@ -12,13 +12,19 @@ package edu.mit.jwi.data;
 
 import java.io.File;
 import java.nio.ByteBuffer;
-import java.util.Comparator;
+
+import edu.mit.jwi.data.compare.ILineComparator;
 
 /**
  * Concrete implementation of a wordnet file data source. This particular
  * implementation is for files on disk, and uses a binary search algorithm to
  * find requested lines. It is appropriate for alphabetically-ordered Wordnet
- * files.
+ * files. Each lookup searches a private view of the backing buffer, so
+ * concurrent lookups may proceed without locking. Lines are compared with the
+ * search key directly in the buffer, and only the matching line is read into
+ * a string. If a {@link LineOffsetTable} has been supplied for the file, the
+ * search bisects over line numbers rather than byte positions; if a
+ * {@link LineHashTable} has been supplied, exact lookups do not search at all.
  * 
  * @param <T>
  *            the type of object represented in this data resource
@@ -29,7 +35,13 @@ import java.util.Comparator;
 public class BinarySearchWordnetFile<T> extends WordnetFile<T> {
 	
 	// the comparator
-	protected final Comparator<String> fComparator;
+	protected final ILineComparator fComparator;
+	
+	// the line offset table, if any
+	private volatile LineOffsetTable lineOffsets;
+	
+	// the line hash table, if any
+	private volatile LineHashTable lineHash;
 
 	/**
 	 * Constructs a new binary search wordnet file, on the specified file with
@@ -49,6 +61,146 @@ public class BinarySearchWordnetFile<T> extends WordnetFile<T> {
 		fComparator = getContentType().getLineComparator();
 	}
 	
+	/**
+	 * Returns the line offset table used by this file, or <code>null</code>
+	 * if there is none.
+	 * 
+	 * @return the line offset table used by this file, or <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public LineOffsetTable getLineOffsets() {
+		return lineOffsets;
+	}
+
+	/**
+	 * Sets the line offset table to be used by this file. The table must have
+	 * been built from the same file contents as this object is reading; a
+	 * table whose source length does not match the length of the buffer is
+	 * ignored during searches. Passing <code>null</code> removes any table, so
+	 * that searches bisect over byte positions.
+	 * 
+	 * @param table
+	 *            the table to be used, or <code>null</code> for none
+	 * @since JWI 2.4.0
+	 */
+	public void setLineOffsets(LineOffsetTable table) {
+		this.lineOffsets = table;
+	}
+
+	/**
+	 * Returns the line hash table used by this file, or <code>null</code> if
+	 * there is none.
+	 * 
+	 * @return the line hash table used by this file, or <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public LineHashTable getLineHash() {
+		return lineHash;
+	}
+
+	/**
+	 * Sets the line hash table to be used by this file for exact lookups by
+	 * {@link #getLine(String)}. The table must have been built from the same
+	 * file contents as this object is reading, and must hash keys in the same
+	 * manner as this file's line comparator compares them; a table whose
+	 * source length does not match the length of the buffer is ignored.
+	 * Passing <code>null</code> removes any table.
+	 * 
+	 * @param table
+	 *            the table to be used, or <code>null</code> for none
+	 * @since JWI 2.4.0
+	 */
+	public void setLineHash(LineHashTable table) {
+		this.lineHash = table;
+	}
+
+	/**
+	 * Returns the line offset table if there is one and it matches the
+	 * specified buffer, otherwise <code>null</code>.
+	 * 
+	 * @param buffer
+	 *            the buffer to be searched
+	 * @return the line offset table to be used for the buffer, or
+	 *         <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	protected LineOffsetTable getLineOffsets(ByteBuffer buffer) {
+		LineOffsetTable table = lineOffsets;
+		return (table != null && table.getSourceLength() == buffer.limit()) ? table : null;
+	}
+
+	/**
+	 * Returns the index in the specified table of the first line that is not
+	 * less than the key, or the size of the table if there is no such line.
+	 * 
+	 * @param table
+	 *            the line offset table for the buffer
+	 * @param buffer
+	 *            the buffer to be searched
+	 * @param key
+	 *            the key being sought
+	 * @return the index of the first line in the table that is not less than
+	 *         the key
+	 * @since JWI 2.4.0
+	 */
+	protected int findLowerBound(LineOffsetTable table, ByteBuffer buffer, String key) {
+		int lo = 0;
+		int hi = table.size();
+		int mid;
+		while(lo < hi){
+			mid = (lo + hi) >>> 1;
+			if(compareLine(fComparator, buffer, table.getOffset(mid), key) < 0){
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Returns the absolute index in the buffer of the start of the first line
+	 * that is not less than the specified key, or the limit of the buffer if
+	 * every line is less than the key. Unlike {@link #iterator(String)}, the
+	 * key need not start any line. The line offset table is searched if there
+	 * is one; otherwise the buffer is bisected.
+	 * 
+	 * @param key
+	 *            the key being sought; may not be <code>null</code>
+	 * @return the index of the start of the first line not less than the key,
+	 *         or the limit of the buffer
+	 * @throws ObjectClosedException
+	 *             if the object is closed
+	 * @throws NullPointerException
+	 *             if the specified key is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public int findLineAtOrAfter(String key) {
+		if(key == null)
+			throw new NullPointerException();
+		ByteBuffer buffer = getBufferView();
+		LineOffsetTable table = getLineOffsets(buffer);
+		if(table != null){
+			int idx = findLowerBound(table, buffer, key);
+			return (idx < table.size()) ? table.getOffset(idx) : buffer.limit();
+		}
+		
+		// every byte of a line compares as the line does, so find the
+		// first byte whose line is not less than the key
+		int lo = 0;
+		int hi = buffer.limit();
+		int mid;
+		while(lo < hi){
+			mid = (lo + hi) >>> 1;
+			if(compareLine(fComparator, buffer, getLineStart(buffer, mid), key) < 0){
+				lo = getNextLineStart(buffer, mid);
+			} else {
+				hi = getLineStart(buffer, mid);
+			}
+		}
+		return lo;
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -56,38 +208,54 @@ public class BinarySearchWordnetFile<T> extends WordnetFile<T> {
 	 */
 	public String getLine(String key) {
 		
-		ByteBuffer buffer = getBuffer();
+		// search on a private view of the buffer, so that concurrent
+		// lookups neither block each other nor disturb each other's position
+		ByteBuffer buffer = getBufferView();
 		
-		synchronized(buffer) {
-			int start = 0;
-			int midpoint = -1;
-			int stop = buffer.limit();
-			int cmp;
-			String line;
-			while(stop - start > 1) {
-
-				// find the middle of the buffer
-				midpoint = (start + stop) / 2;
-				buffer.position(midpoint);
-				
-				// back up to the beginning of the line
-				rewindToLineStart(buffer);
-				line = getLine(buffer);
-				
-				// if we get a null, we've reached the end of the file
-				cmp = (line == null) ? 1 : fComparator.compare(line, key);
-				
-				// found our line
-				if(cmp == 0)
-					return line;
-				
-				if(cmp > 0){
-					// too far forward
-					stop = midpoint;
-				} else {
-					// too far back
-					start = midpoint;
-				}
+		// with a hash table, there is nothing to search
+		LineHashTable hash = lineHash;
+		if(hash != null && hash.getSourceLength() == buffer.limit()){
+			int offset = hash.find(buffer, key, fComparator);
+			return (offset < 0) ? null : getLine(buffer, offset);
+		}
+		
+		// bisect over whole lines when we have their offsets
+		LineOffsetTable table = getLineOffsets(buffer);
+		if(table != null){
+			int idx = findLowerBound(table, buffer, key);
+			if(idx < table.size()){
+				int offset = table.getOffset(idx);
+				if(compareLine(fComparator, buffer, offset, key) == 0)
+					return getLine(buffer, offset);
+			}
+			return null;
+		}
+		
+		int start = 0;
+		int midpoint = -1;
+		int stop = buffer.limit();
+		int lineStart, cmp;
+		while(stop - start > 1) {
+
+			// find the middle of the buffer
+			midpoint = (start + stop) / 2;
+			
+			// back up to the beginning of the line
+			lineStart = getLineStart(buffer, midpoint);
+			
+			// if we are at the limit, we've reached the end of the file
+			cmp = (lineStart >= buffer.limit()) ? 1 : compareLine(fComparator, buffer, lineStart, key);
+			
+			// found our line
+			if(cmp == 0)
+				return getLine(buffer, lineStart);
+			
+			if(cmp > 0){
+				// too far forward
+				stop = midpoint;
+			} else {
+				// too far back
+				start = midpoint;
 			}
 		}
 		return null;
@@ -138,31 +306,46 @@ public class BinarySearchWordnetFile<T> extends WordnetFile<T> {
 		 */
 		protected void findFirstLine(String key) {
 			synchronized (itrBuffer) {
+				
+				// with a line offset table, go straight to the first
+				// line that is not less than the key
+				LineOffsetTable table = getLineOffsets(itrBuffer);
+				if(table != null){
+					int idx = findLowerBound(table, itrBuffer, key);
+					if(idx < table.size()){
+						int offset = table.getOffset(idx);
+						if(compareLine(fComparator, itrBuffer, offset, key) == 0 || startsWith(itrBuffer, offset, key)){
+							itrBuffer.position(offset);
+							next = getLine(itrBuffer);
+							return;
+						}
+					}
+					itrBuffer.position(itrBuffer.limit());
+					return;
+				}
+				
 				int lastOffset = -1;
 				int start = 0;
 				int stop = itrBuffer.limit();
 				int offset, midpoint = -1;
 				int compare;
-				String line;
 				while (start + 1 < stop) {
 					midpoint = (start + stop) / 2;
-					itrBuffer.position(midpoint);
-					line = getLine(itrBuffer);
-					offset = itrBuffer.position();
-					line = getLine(itrBuffer);
+					offset = getNextLineStart(itrBuffer, midpoint);
 					
-					// Fix for Bug009: If the line is null, we've reached
+					// Fix for Bug009: If there is no next line, we've reached
 					// the end of the file, so just advance to the first line
-					if(line == null){
+					if(offset >= itrBuffer.limit()){
 						itrBuffer.position(itrBuffer.limit());
 						return;
 					}
 					
-					compare = fComparator.compare(line, key);
+					compare = compareLine(fComparator, itrBuffer, offset, key);
 					// if the key matches exactly, we know we have found
 					// the start of this pattern in the file
 					if (compare == 0) {
-						next = line;
+						itrBuffer.position(offset);
+						next = getLine(itrBuffer);
 						return;
 					}
 					else if (compare > 0) {
@@ -173,7 +356,7 @@ public class BinarySearchWordnetFile<T> extends WordnetFile<T> {
 					}
 					// if the key starts a line, remember it, because
 					// it may be the first occurrence
-					if (line.startsWith(key))
+					if (startsWith(itrBuffer, offset, key))
 						lastOffset = offset;
 				}
 
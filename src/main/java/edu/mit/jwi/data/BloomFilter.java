@@ -0,0 +1,201 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * <p>
+ * A Bloom filter over the keys at the head of the lines of a data source (that
+ * is, the first space-delimited token of each line). For index files the key
+ * is the lemma; for exception files it is the surface form. The filter answers
+ * whether a key <em>might</em> begin a line: a <code>false</code> answer is
+ * certain, so a lookup for that key can be skipped, while a <code>true</code>
+ * answer is wrong for about one key in a hundred.
+ * </p>
+ * <p>
+ * Keys are hashed without regard to case. A filter is immutable once built,
+ * and so may be shared freely between threads.
+ * </p>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class BloomFilter {
+
+	/**
+	 * The number of bits allotted to each key, which gives a false positive
+	 * rate of about one percent.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int BITS_PER_KEY = 10;
+
+	/**
+	 * The number of bits set for each key.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int HASH_COUNT = 7;
+
+	// instance fields
+	private final long[] bits;
+	private final long bitCount;
+	private final int keyCount;
+
+	/**
+	 * Constructs a new filter over the keys with the specified hashes, as
+	 * returned by {@link #hash(CharSequence)}.
+	 * 
+	 * @param hashes
+	 *            the array that holds the hashes; may not be <code>null</code>
+	 * @param count
+	 *            the number of hashes in the array to be used
+	 * @throws NullPointerException
+	 *             if the array is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the count is negative or greater than the length of the
+	 *             array
+	 * @since JWI 2.4.0
+	 */
+	public BloomFilter(long[] hashes, int count) {
+		if(count < 0 || count > hashes.length)
+			throw new IllegalArgumentException();
+		long size = Math.max(64L, (long)count*BITS_PER_KEY);
+		this.bits = new long[(int)Math.min((size + 63) >>> 6, Integer.MAX_VALUE - 8)];
+		this.bitCount = (long)bits.length << 6;
+		this.keyCount = count;
+		for(int i = 0; i < count; i++)
+			add(hashes[i]);
+	}
+
+	/**
+	 * Returns the number of keys that were added to this filter.
+	 * 
+	 * @return the number of keys in this filter
+	 * @since JWI 2.4.0
+	 */
+	public int getKeyCount() {
+		return keyCount;
+	}
+
+	/**
+	 * Returns the size of this filter, in bits.
+	 * 
+	 * @return the number of bits in this filter
+	 * @since JWI 2.4.0
+	 */
+	public long getBitCount() {
+		return bitCount;
+	}
+
+	/**
+	 * Returns <code>false</code> if no line of the data source begins with
+	 * the first token of the specified key; <code>true</code> if one might.
+	 * 
+	 * @param key
+	 *            the key to be tested; may not be <code>null</code>
+	 * @return <code>false</code> if the key is certainly absent;
+	 *         <code>true</code> otherwise
+	 * @throws NullPointerException
+	 *             if the key is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public boolean mightContain(CharSequence key) {
+		long hash = hash(key);
+		long h1 = hash, h2 = (hash >>> 32) | 1;
+		long bit;
+		for(int i = 0; i < HASH_COUNT; i++){
+			bit = (h1 + i*h2) & Long.MAX_VALUE;
+			bit %= bitCount;
+			if((bits[(int)(bit >>> 6)] & (1L << bit)) == 0)
+				return false;
+		}
+		return true;
+	}
+
+	// sets the bits for the key with the specified hash
+	private void add(long hash) {
+		long h1 = hash, h2 = (hash >>> 32) | 1;
+		long bit;
+		for(int i = 0; i < HASH_COUNT; i++){
+			bit = (h1 + i*h2) & Long.MAX_VALUE;
+			bit %= bitCount;
+			bits[(int)(bit >>> 6)] |= 1L << bit;
+		}
+	}
+
+	/**
+	 * Returns the 64-bit hash of the first space-delimited token of the
+	 * specified sequence, ignoring case. Only the part of the token before
+	 * its first non-ASCII character is hashed, so that a line gives the same
+	 * hash whether its bytes are read as characters or decoded.
+	 * 
+	 * @param key
+	 *            the sequence to be hashed; may not be <code>null</code>
+	 * @return the hash of the sequence's first token
+	 * @throws NullPointerException
+	 *             if the sequence is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static long hash(CharSequence key) {
+		long h = 0xCBF29CE484222325L;
+		char c;
+		for(int i = 0, len = key.length(); i < len; i++){
+			c = key.charAt(i);
+			if(c == ' ')
+				break;
+			// a line read as bytes and the same line read as decoded
+			// characters differ after the first non-ASCII character, so
+			// the rest of the token is left out of the hash
+			if(c > 0x7F){
+				h = (h ^ 0x80) * 0x100000001B3L;
+				break;
+			}
+			h = (h ^ Character.toLowerCase(c)) * 0x100000001B3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * Builds a filter over the keys of all lines of the specified data
+	 * source. Lines are read as views if the source is a {@link WordnetFile},
+	 * so that no string is made for each line.
+	 * 
+	 * @param source
+	 *            the data source to be read; may not be <code>null</code>
+	 * @return the filter over the keys of the source's lines
+	 * @throws NullPointerException
+	 *             if the source is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static BloomFilter build(IDataSource<?> source) {
+		Iterator<? extends CharSequence> itr = (source instanceof WordnetFile) ?
+				((WordnetFile<?>)source).viewIterator() :
+					source.iterator();
+		long[] hashes = new long[1024];
+		int count = 0;
+		while(itr.hasNext()){
+			if(count == hashes.length)
+				hashes = Arrays.copyOf(hashes, count*2);
+			hashes[count++] = hash(itr.next());
+		}
+		return new BloomFilter(hashes, count);
+	}
+
+}
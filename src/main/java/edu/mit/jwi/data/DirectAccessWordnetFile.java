@@ -17,7 +17,8 @@ import java.nio.ByteBuffer;
  * Concrete implementation of a wordnet file data source. This particular
  * implementation is for files on disk, and directly accesses the appropriate
  * byte offset in the file to find requested lines. It is appropriate for
- * Wordnet data files.
+ * Wordnet data files. Each lookup reads from a private view of the backing
+ * buffer, so concurrent lookups may proceed without locking.
  * 
  * @param <T>
  *            the type of object represented in this data resource
@@ -50,18 +51,18 @@ public class DirectAccessWordnetFile<T> extends WordnetFile<T> {
 	 * @see edu.mit.jwi.data.IDataSource#getLine(java.lang.String)
 	 */
 	public String getLine(String key) {
-		ByteBuffer buffer = getBuffer();
-		synchronized(buffer){
-			try{
-				int byteOffset = Integer.parseInt(key);
-				if(buffer.limit() <= byteOffset) 
-					return null; 
-				buffer.position(byteOffset);
-				String line = getLine(buffer);
-				return line.startsWith(key) ? line : null;
-			} catch(NumberFormatException e){
-				return null;
-			}
+		// read from a private view of the buffer, so that concurrent
+		// lookups neither block each other nor disturb each other's position
+		ByteBuffer buffer = getBufferView();
+		try{
+			int byteOffset = Integer.parseInt(key);
+			if(buffer.limit() <= byteOffset) 
+				return null; 
+			buffer.position(byteOffset);
+			String line = getLine(buffer);
+			return line.startsWith(key) ? line : null;
+		} catch(NumberFormatException e){
+			return null;
 		}
 	}
 	
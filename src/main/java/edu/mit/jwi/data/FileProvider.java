@@ -13,6 +13,7 @@ package edu.mit.jwi.data;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -25,17 +26,23 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import edu.mit.jwi.RAMDictionary;
-import edu.mit.jwi.data.parse.ILineParser;
-import edu.mit.jwi.item.ISynset;
 import edu.mit.jwi.item.IVersion;
-import edu.mit.jwi.item.Synset;
 
 /**
  * <p>
@@ -57,6 +64,25 @@ import edu.mit.jwi.item.Synset;
  * similar, which pre-processes the Wordnet data into objects before caching
  * them.
  * </p>
+ * <p>
+ * Files that are searched by binary search are given a
+ * {@link LineOffsetTable} when they are opened. If a cache directory has
+ * been set with {@link #setCacheDirectory(File)}, these tables are stored
+ * there in sidecar files so that later opens need not rebuild them; by
+ * default there is none, and nothing is written beside the Wordnet files.
+ * If the cache directory cannot be written, the tables are simply kept in
+ * memory. Index files may optionally also be given a
+ * {@link LineHashTable} (see {@link #setLemmaHashing(boolean)}), which is
+ * stored in the same way.
+ * </p>
+ * <p>
+ * The data sources are created concurrently when the provider is opened,
+ * and are loaded concurrently when the load policy calls for it, using up to
+ * {@link #getParallelism()} threads. If the load policy includes
+ * {@link ILoadPolicy#OFF_HEAP}, loaded files are held in direct buffers
+ * outside the Java heap, and the progress of a load may be followed with
+ * {@link #getLoadProgress()}.
+ * </p>
  * 
  * @author Mark A. Finlayson
  * @version 2.3.3
@@ -72,9 +98,21 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy {
 	// instance fields 
 	private URL url = null;
 	private IVersion version = null;
-	private Map<IContentType<?>, ILoadableDataSource<?>> fileMap = null;
+	private volatile Map<IContentType<?>, ILoadableDataSource<?>> fileMap = null;
 	private int loadPolicy = NO_LOAD;
 	private transient JWIBackgroundLoader loader = null;
+	private File cacheDir = null;
+	private boolean lemmaHashing = false;
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	
+	/**
+	 * A conventional name for a cache directory, for callers that wish to
+	 * place one inside a writable dictionary directory. No cache directory
+	 * is used unless one is set with {@link #setCacheDirectory(File)}.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final String DEFAULT_CACHE_DIRECTORY = ".jwi";
 	
 	/**
 	 * Constructs the file provider pointing to the resource indicated by the
@@ -100,7 +138,8 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy {
 	 *            <code>null</code>
 	 * @param loadPolicy
 	 *            the load policy for this provider; this provider supports the
-	 *            three values defined in <code>ILoadPolicy</code>.
+	 *            three values defined in <code>ILoadPolicy</code>, each of
+	 *            which may be combined with {@link ILoadPolicy#OFF_HEAP}.
 	 * @throws NullPointerException
 	 *             if the specified file is <code>null</code>
 	 * @since JWI 2.2.0
@@ -119,7 +158,8 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy {
 	 *            <code>null</code>
 	 * @param loadPolicy
 	 *            the load policy for this provider; this provider supports the
-	 *            three values defined in <code>ILoadPolicy</code>.
+	 *            three values defined in <code>ILoadPolicy</code>, each of
+	 *            which may be combined with {@link ILoadPolicy#OFF_HEAP}.
 	 * @param types
 	 *            the content types this provider will look for when it loads
 	 *            its data; may not be <code>null</code> or empty
@@ -157,7 +197,8 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy {
 	 *            <code>null</code>
 	 * @param loadPolicy
 	 *            the load policy for this provider; this provider supports the
-	 *            three values defined in <code>ILoadPolicy</code>.
+	 *            three values defined in <code>ILoadPolicy</code>, each of
+	 *            which may be combined with {@link ILoadPolicy#OFF_HEAP}.
 	 * @throws NullPointerException
 	 *             if the specified URL is <code>null</code>
 	 * @since JWI 2.2.0
@@ -176,7 +217,8 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy {
 	 *            <code>null</code>
 	 * @param loadPolicy
 	 *            the load policy for this provider; this provider supports the
-	 *            three values defined in <code>ILoadPolicy</code>.
+	 *            three values defined in <code>ILoadPolicy</code>, each of
+	 *            which may be combined with {@link ILoadPolicy#OFF_HEAP}.
 	 * @param types
 	 *            the content types this provider will look for when it loads
 	 *            its data; may not be <code>null</code> or empty
@@ -241,6 +283,96 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy {
 		}
 	}
 
+	/**
+	 * Returns the directory in which this provider stores its sidecar files,
+	 * or <code>null</code> if sidecar files are not stored. This is
+	 * <code>null</code> unless a directory has been set with
+	 * {@link #setCacheDirectory(File)}.
+	 * 
+	 * @return the cache directory for this provider, or <code>null</code> if
+	 *         there is none
+	 * @since JWI 2.4.0
+	 */
+	public File getCacheDirectory() {
+		return cacheDir;
+	}
+
+	/**
+	 * Sets the directory in which this provider stores its sidecar files.
+	 * Passing <code>null</code> means that sidecar files are neither read nor
+	 * written, and any tables are built afresh on each open. The directory
+	 * is created when it is first needed.
+	 * 
+	 * @param dir
+	 *            the cache directory, or <code>null</code> for none
+	 * @throws IllegalStateException
+	 *             if the provider is currently open
+	 * @since JWI 2.4.0
+	 */
+	public void setCacheDirectory(File dir) {
+		if(isOpen()) 
+			throw new IllegalStateException("provider currently open");
+		this.cacheDir = dir;
+	}
+
+	/**
+	 * Returns <code>true</code> if this provider builds a lemma hash table for
+	 * each index file it opens.
+	 * 
+	 * @return <code>true</code> if index files are given hash tables;
+	 *         <code>false</code> otherwise
+	 * @since JWI 2.4.0
+	 */
+	public boolean isLemmaHashing() {
+		return lemmaHashing;
+	}
+
+	/**
+	 * Sets whether this provider builds a {@link LineHashTable} for each
+	 * index file it opens, so that index words can be found by lemma without
+	 * a binary search. The tables take some memory and, on first use, some
+	 * time to build, so they are not built by default. The setting takes
+	 * effect the next time the provider is opened.
+	 * 
+	 * @param hashing
+	 *            <code>true</code> if index files should be given hash
+	 *            tables; <code>false</code> otherwise
+	 * @since JWI 2.4.0
+	 */
+	public void setLemmaHashing(boolean hashing) {
+		this.lemmaHashing = hashing;
+	}
+
+	/**
+	 * Returns the largest number of threads this provider uses to create or
+	 * load its data sources. By default, this is the number of processors
+	 * available to the virtual machine.
+	 * 
+	 * @return the number of threads used to create or load data sources
+	 * @since JWI 2.4.0
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the largest number of threads this provider uses to create or load
+	 * its data sources. A value of 1 means that data sources are created on
+	 * the thread that opens the provider, and loaded one after another. The
+	 * setting takes effect the next time the provider is opened or loaded.
+	 * 
+	 * @param threads
+	 *            the number of threads to use; must be positive
+	 * @throws IllegalArgumentException
+	 *             if the number of threads is less than 1
+	 * @since JWI 2.4.0
+	 */
+	public void setParallelism(int threads) {
+		if(threads < 1)
+			throw new IllegalArgumentException("parallelism must be positive: " + threads);
+		this.parallelism = threads;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -327,7 +459,7 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy {
 			
 			// do load
 			try {
-				switch(loadPolicy){
+				switch(policy & ~OFF_HEAP){
 				case BACKGROUND_LOAD:
 					load(false);
 					break;
@@ -379,7 +511,7 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy {
 			if(block) 
 				loader.join();
 		} finally {
-			loadingLock.lock();
+			loadingLock.unlock();
 		}
 
 	}
@@ -403,6 +535,36 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy {
 		}
 	}
 
+	/**
+	 * Returns the fraction of this provider's data that has been loaded into
+	 * memory, as a number between 0 and 1, weighting each file by its length.
+	 * This may be called from any thread while the provider is loading.
+	 * 
+	 * @return the fraction of the data that has been loaded
+	 * @throws ObjectClosedException
+	 *             if the provider is not open
+	 * @since JWI 2.4.0
+	 */
+	public float getLoadProgress() {
+		Map<IContentType<?>, ILoadableDataSource<?>> map = fileMap;
+		if(map == null)
+			throw new ObjectClosedException();
+		double total = 0, loaded = 0;
+		long len;
+		for(ILoadableDataSource<?> source : map.values()){
+			if(source instanceof WordnetFile){
+				WordnetFile<?> wf = (WordnetFile<?>)source;
+				len = wf.getFile().length();
+				total += len;
+				loaded += len * (double)wf.getLoadProgress();
+			} else {
+				total += 1;
+				loaded += source.isLoaded() ? 1 : 0;
+			}
+		}
+		return (total == 0) ? 1 : (float)(loaded / total);
+	}
+
 	/**
 	 * Creates the map that contains the content types mapped to the data
 	 * sources. The method should return a non-null result, but it may be empty
@@ -421,16 +583,98 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy {
 	 *             if there is a problem creating the data source
 	 * @since JWI 2.2.0
 	 */
-	protected Map<IContentType<?>, ILoadableDataSource<?>> createSourceMap(List<File> files, int policy) throws IOException {
-		Map<IContentType<?>, ILoadableDataSource<?>> result = new HashMap<IContentType<?>, ILoadableDataSource<?>>();
+	protected Map<IContentType<?>, ILoadableDataSource<?>> createSourceMap(List<File> files, final int policy) throws IOException {
+		
+		// match files to content types
+		Map<IContentType<?>, File> matched = new LinkedHashMap<IContentType<?>, File>();
 		File file;
 		for (IContentType<?> type : types) {
 			file = DataType.find(type.getDataType(), type.getPOS(), files);
 			if(file == null) continue;
 			files.remove(file);
-			result.put(type, createDataSource(file, type, policy));
+			matched.put(type, file);
+		}
+		
+		Map<IContentType<?>, ILoadableDataSource<?>> result = new HashMap<IContentType<?>, ILoadableDataSource<?>>();
+		int threads = Math.min(parallelism, matched.size());
+		if(threads <= 1){
+			for(Entry<IContentType<?>, File> entry : matched.entrySet())
+				result.put(entry.getKey(), createDataSource(entry.getValue(), entry.getKey(), policy));
+			return result;
+		}
+		
+		// create the data sources concurrently
+		ExecutorService executor = newExecutor(threads, "JWIDataSourceOpener");
+		Map<IContentType<?>, Future<ILoadableDataSource<?>>> futures = new LinkedHashMap<IContentType<?>, Future<ILoadableDataSource<?>>>();
+		boolean success = false;
+		try {
+			for(Entry<IContentType<?>, File> entry : matched.entrySet()){
+				final IContentType<?> type = entry.getKey();
+				final File typeFile = entry.getValue();
+				futures.put(type, executor.submit(new Callable<ILoadableDataSource<?>>() {
+					public ILoadableDataSource<?> call() throws IOException {
+						return createDataSource(typeFile, type, policy);
+					}
+				}));
+			}
+			for(Entry<IContentType<?>, Future<ILoadableDataSource<?>>> entry : futures.entrySet())
+				result.put(entry.getKey(), getResult(entry.getValue()));
+			success = true;
+			return result;
+		} finally {
+			executor.shutdown();
+			if(!success){
+				// close whatever was opened
+				for(Future<ILoadableDataSource<?>> future : futures.values()){
+					try {
+						future.get().close();
+					} catch(Exception e) {
+						// already reported, or never opened
+					}
+				}
+			}
+		}
+	}
+
+	// waits for a data source to be created, rethrowing any exception from its creation
+	private ILoadableDataSource<?> getResult(Future<ILoadableDataSource<?>> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while opening data sources");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof IOException)
+				throw (IOException)cause;
+			if(cause instanceof RuntimeException)
+				throw (RuntimeException)cause;
+			if(cause instanceof Error)
+				throw (Error)cause;
+			throw new IOException(cause);
 		}
-		return result;
+	}
+
+	/**
+	 * Creates a fixed-size pool of daemon threads, which is used to create
+	 * and load data sources.
+	 * 
+	 * @param threads
+	 *            the number of threads in the pool
+	 * @param name
+	 *            the name prefix of the threads
+	 * @return a new executor
+	 * @since JWI 2.4.0
+	 */
+	protected ExecutorService newExecutor(int threads, final String name) {
+		return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			}
+		});
 	}
 
 	/**
@@ -458,39 +702,38 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy {
 		if(type.getDataType() == DataType.DATA){
 			
 			src = createDirectAccess(file, type);
+			setLoadOffHeap(src, policy);
 			src.open();
-			if(policy == IMMEDIATE_LOAD) {
-				try {
-					src.load(true);
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
-			}
 			
 			// check to see if direct access works with the file
 			// often people will extract the files incorrectly on windows machines
 			// and the binary files will be corrupted with extra CRs
-			
-			// get first line
-			Iterator<String> itr = src.iterator();
-			String firstLine = itr.next();
-			if(firstLine == null) return src;
-			
-			// extract key
-			ILineParser<T> parser = type.getDataType().getParser();
-			ISynset s = (ISynset)parser.parseLine(firstLine);
-			String key = Synset.zeroFillOffset(s.getOffset());
-			
-			// try to find line by direct access
-			String soughtLine = src.getLine(key);
-			if(soughtLine != null) return src;
+			if(checkDirectAccess(src)){
+				if((policy & ~OFF_HEAP) == IMMEDIATE_LOAD) {
+					try {
+						src.load(true);
+					} catch (InterruptedException e) {
+						e.printStackTrace();
+					}
+				}
+				return src;
+			}
+			src.close();
 			
 			System.err.println(System.currentTimeMillis() + " - Error on direct access in " + type.getPOS().toString() + " data file: check CR/LF endings");
 		}
 		
 		src = createBinarySearch(file, type);
+		setLoadOffHeap(src, policy);
 		src.open();
-		if(policy == IMMEDIATE_LOAD){
+		if(src instanceof BinarySearchWordnetFile){
+			BinarySearchWordnetFile<T> bsf = (BinarySearchWordnetFile<T>)src;
+			LineOffsetTable lines = createLineOffsets(bsf);
+			bsf.setLineOffsets(lines);
+			if(lemmaHashing && type.getDataType() == DataType.INDEX)
+				bsf.setLineHash(createLineHash(bsf, lines));
+		}
+		if((policy & ~OFF_HEAP) == IMMEDIATE_LOAD){
 			try {
 				src.load(true);
 			} catch (InterruptedException e) {
@@ -500,6 +743,131 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy {
 		return src;
 	}
 
+	// passes the off-heap modifier of the load policy on to a wordnet file
+	private void setLoadOffHeap(IDataSource<?> src, int policy){
+		if(src instanceof WordnetFile)
+			((WordnetFile<?>)src).setLoadOffHeap((policy & OFF_HEAP) != 0);
+	}
+
+	/**
+	 * Returns <code>true</code> if the specified open data file can be read
+	 * by direct access, that is, if the first synset in the file can be found
+	 * at the byte offset given at the start of its line. Only the offset is
+	 * read from the line; the synset is not parsed.
+	 * 
+	 * @param src
+	 *            the open data file to be checked; may not be
+	 *            <code>null</code>
+	 * @return <code>true</code> if the file can be read by direct access;
+	 *         <code>false</code> otherwise
+	 * @throws NullPointerException
+	 *             if the specified data source is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	protected boolean checkDirectAccess(IDataSource<?> src) {
+		Iterator<String> itr = src.iterator();
+		if(!itr.hasNext())
+			return true;
+		String firstLine = itr.next();
+		if(firstLine == null)
+			return true;
+		int end = firstLine.indexOf(' ');
+		String key = (end < 0) ? firstLine : firstLine.substring(0, end);
+		try {
+			return src.getLine(key) != null;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Creates the line offset table for the specified open file. The table is
+	 * read from the sidecar file in the cache directory if there is a current
+	 * one; otherwise it is built by scanning the file, and then stored in the
+	 * cache directory if possible.
+	 * 
+	 * @param src
+	 *            the open file for which the table should be created; may not
+	 *            be <code>null</code>
+	 * @return the line offset table for the file
+	 * @throws NullPointerException
+	 *             if the specified file is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	protected LineOffsetTable createLineOffsets(WordnetFile<?> src) {
+		File file = src.getFile();
+		File dir = getCacheDirectory();
+		File sidecar = (dir == null) ? null : new File(dir, file.getName() + LineOffsetTable.EXTENSION);
+		
+		// try for a stored table
+		if(sidecar != null){
+			try {
+				LineOffsetTable table = LineOffsetTable.load(sidecar, file);
+				if(table != null)
+					return table;
+			} catch (IOException e) {
+				// fall through and rebuild
+			}
+		}
+		
+		// build and store a new one
+		LineOffsetTable table = LineOffsetTable.build(src.getBuffer(), src.getContentType().getLineComparator().getCommentDetector(), file);
+		if(sidecar != null && (dir.isDirectory() || dir.mkdirs()) && dir.canWrite()){
+			try {
+				table.store(sidecar);
+			} catch (IOException e) {
+				System.err.println(System.currentTimeMillis() + " - Unable to store line offsets for " + file + ": " + e.getMessage());
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Creates the lemma hash table for the specified open index file. The
+	 * table is read from the sidecar file in the cache directory if there is a
+	 * current one; otherwise it is built from the line offset table, and then
+	 * stored in the cache directory if possible. Keys are hashed without regard
+	 * to case, as index file lemmas are compared.
+	 * 
+	 * @param src
+	 *            the open file for which the table should be created; may not
+	 *            be <code>null</code>
+	 * @param lines
+	 *            the line offset table for the file; may not be
+	 *            <code>null</code>
+	 * @return the lemma hash table for the file
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	protected LineHashTable createLineHash(WordnetFile<?> src, LineOffsetTable lines) {
+		File file = src.getFile();
+		File dir = getCacheDirectory();
+		File sidecar = (dir == null) ? null : new File(dir, file.getName() + LineHashTable.EXTENSION);
+		
+		// try for a stored table
+		if(sidecar != null){
+			try {
+				LineHashTable table = LineHashTable.load(sidecar, file, true);
+				if(table != null)
+					return table;
+			} catch (IOException e) {
+				// fall through and rebuild
+			}
+		}
+		
+		// build and store a new one
+		LineHashTable table = LineHashTable.build(src.getBuffer(), lines, true, file);
+		if(sidecar != null && (dir.isDirectory() || dir.mkdirs()) && dir.canWrite()){
+			try {
+				table.store(sidecar);
+			} catch (IOException e) {
+				System.err.println(System.currentTimeMillis() + " - Unable to store lemma hash for " + file + ": " + e.getMessage());
+			}
+		}
+		return table;
+	}
+
 	/**
 	 * Creates a direct access data source for the specified type, using the
 	 * specified file.
@@ -554,12 +922,9 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy {
 	 * @see edu.mit.jwi.data.IHasLifecycle#isOpen()
 	 */
 	public boolean isOpen() {
-		try {
-			lifecycleLock.lock();
-			return fileMap != null;
-		} finally {
-			lifecycleLock.unlock();
-		}
+		// the file map is volatile, so no locking is needed here; this
+		// keeps the check off the lock on the lookup path
+		return fileMap != null;
 	}
 
 	/* 
@@ -602,8 +967,10 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy {
 	// no way to safely cast; must rely on registerSource method to assure compliance
 	@SuppressWarnings("unchecked") 
 	public <T> ILoadableDataSource<T> getSource(IContentType<T> type) {
-		checkOpen();
-		return (ILoadableDataSource<T>)fileMap.get(type);
+		Map<IContentType<?>, ILoadableDataSource<?>> map = fileMap;
+		if(map == null)
+			throw new ObjectClosedException();
+		return (ILoadableDataSource<T>)map.get(type);
 	}
 
 	/* 
@@ -625,7 +992,7 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy {
 	protected class JWIBackgroundLoader extends Thread {
 		
 		// cancel flag
-		private transient boolean cancel = false;
+		private transient volatile boolean cancel = false;
 		
 		/** 
 		 * Constructs a new background loader that operates
@@ -646,19 +1013,59 @@ public class FileProvider implements IDataProvider, ILoadable, ILoadPolicy {
 		@Override
 		public void run() {
 			try {
-				for(ILoadableDataSource<?> source : fileMap.values()){
-					if(!cancel && !source.isLoaded()){
+				List<ILoadableDataSource<?>> sources = new ArrayList<ILoadableDataSource<?>>(fileMap.values());
+				int threads = Math.min(parallelism, sources.size());
+				if(threads <= 1){
+					for(ILoadableDataSource<?> source : sources)
+						loadSource(source);
+					return;
+				}
+				
+				// load the data sources concurrently
+				ExecutorService executor = newExecutor(threads, JWIBackgroundLoader.class.getSimpleName());
+				try {
+					List<Future<?>> futures = new ArrayList<Future<?>>(sources.size());
+					for(final ILoadableDataSource<?> source : sources){
+						futures.add(executor.submit(new Runnable() {
+							public void run() {
+								loadSource(source);
+							}
+						}));
+					}
+					for(Future<?> future : futures){
 						try {
-							source.load(true);
-						} catch (InterruptedException e) {
-							e.printStackTrace();
+							future.get();
+						} catch (ExecutionException e) {
+							e.getCause().printStackTrace();
 						}
 					}
+				} catch (InterruptedException e) {
+					e.printStackTrace();
+				} finally {
+					executor.shutdown();
 				}
 			} finally {
 				loader = null;
 			}
 		}
+		
+		/**
+		 * Loads the specified data source, unless this loader has been
+		 * cancelled or the source is already loaded.
+		 * 
+		 * @param source
+		 *            the data source to be loaded
+		 * @since JWI 2.4.0
+		 */
+		protected void loadSource(ILoadableDataSource<?> source) {
+			if(!cancel && !source.isLoaded()){
+				try {
+					source.load(true);
+				} catch (InterruptedException e) {
+					e.printStackTrace();
+				}
+			}
+		}
 
 		/** 
 		 * Sets the cancel flag for this loader. 
@@ -47,6 +47,17 @@ public interface ILoadPolicy {
 	 */
 	public static final int IMMEDIATE_LOAD = 1 << 3;
 
+	/**
+	 * Modifier that may be combined, by bitwise or, with any of the other load
+	 * policies, to ask that data loaded into memory be kept outside the Java
+	 * heap. Off-heap data is not scanned or copied by the garbage collector.
+	 * Objects that do not support off-heap loading ignore this modifier. Value
+	 * is 1 << 4.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int OFF_HEAP = 1 << 4;
+
 	/**
 	 * Sets the load policy for this object. If the object is currently loaded,
 	 * or in the process of loading, the load policy will not take effect until
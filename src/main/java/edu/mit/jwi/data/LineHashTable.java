@@ -0,0 +1,446 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import edu.mit.jwi.data.compare.ILineComparator;
+import edu.mit.jwi.data.compare.LineBytes;
+
+/**
+ * <p>
+ * An open-addressing hash table from the key at the head of each line of a
+ * Wordnet file (that is, the first space-delimited token) to the byte offset
+ * of that line. For index files the key is the lemma, and the table allows a
+ * lemma to be found with a single hash probe sequence and a single
+ * verification comparison, rather than a full binary search.
+ * </p>
+ * <p>
+ * Keys may be hashed without regard to case, to match files whose line
+ * comparator ignores case. The table stores only hashes and offsets; every
+ * candidate is verified against the file with the file's line comparator, so
+ * a hash collision never produces a wrong line. Like a
+ * {@link LineOffsetTable}, a hash table may be stored in a sidecar file that
+ * records the length and modification time of the file it describes.
+ * </p>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class LineHashTable {
+
+	/**
+	 * The magic number that begins every sidecar file.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int MAGIC = 0x4A574C48; // 'JWLH'
+
+	/**
+	 * The version of the sidecar format written by this class. Sidecars with a
+	 * different version are ignored.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int FORMAT_VERSION = 1;
+
+	/**
+	 * The extension appended to the name of a Wordnet file to form the name of
+	 * its hash table sidecar file.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final String EXTENSION = ".hash";
+
+	// length of the fixed sidecar header, in bytes
+	private static final int HEADER_LENGTH = 4 + 4 + 8 + 8 + 4 + 4 + 4;
+
+	// marks an empty slot
+	private static final int EMPTY = -1;
+
+	// instance fields
+	private final int[] offsets;
+	private final int[] hashes;
+	private final int mask;
+	private final int size;
+	private final boolean ignoreCase;
+	private final long sourceLength;
+	private final long sourceModified;
+
+	/**
+	 * Constructs a new hash table over the specified slot arrays. This
+	 * constructor is used when reading a table from a sidecar; to create a
+	 * table for a file, use {@link #build(ByteBuffer, LineOffsetTable, boolean, File)}.
+	 * 
+	 * @param offsets
+	 *            the line offset in each slot, or -1 for an empty slot; may
+	 *            not be <code>null</code>, and its length must be a power of
+	 *            two. The array is not copied.
+	 * @param hashes
+	 *            the key hash in each slot; must be the same length as the
+	 *            offset array. The array is not copied.
+	 * @param size
+	 *            the number of occupied slots
+	 * @param ignoreCase
+	 *            whether keys are hashed without regard to case
+	 * @param sourceLength
+	 *            the length, in bytes, of the file the table describes
+	 * @param sourceModified
+	 *            the modification time of the file the table describes
+	 * @throws NullPointerException
+	 *             if either array is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the arrays differ in length, or their length is not a
+	 *             power of two
+	 * @since JWI 2.4.0
+	 */
+	public LineHashTable(int[] offsets, int[] hashes, int size, boolean ignoreCase, long sourceLength, long sourceModified) {
+		if(offsets.length != hashes.length)
+			throw new IllegalArgumentException("slot arrays differ in length");
+		if(offsets.length == 0 || Integer.bitCount(offsets.length) != 1)
+			throw new IllegalArgumentException("capacity must be a power of two");
+		this.offsets = offsets;
+		this.hashes = hashes;
+		this.mask = offsets.length - 1;
+		this.size = size;
+		this.ignoreCase = ignoreCase;
+		this.sourceLength = sourceLength;
+		this.sourceModified = sourceModified;
+	}
+
+	/**
+	 * Returns the number of keys in this table.
+	 * 
+	 * @return the number of keys in this table
+	 * @since JWI 2.4.0
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns <code>true</code> if keys in this table are hashed without
+	 * regard to case.
+	 * 
+	 * @return <code>true</code> if this table ignores case; <code>false</code>
+	 *         otherwise
+	 * @since JWI 2.4.0
+	 */
+	public boolean isIgnoreCase() {
+		return ignoreCase;
+	}
+
+	/**
+	 * Returns the length, in bytes, of the file from which this table was
+	 * built.
+	 * 
+	 * @return the length of the source file
+	 * @since JWI 2.4.0
+	 */
+	public long getSourceLength() {
+		return sourceLength;
+	}
+
+	/**
+	 * Returns the modification time of the file from which this table was
+	 * built.
+	 * 
+	 * @return the modification time of the source file
+	 * @since JWI 2.4.0
+	 */
+	public long getSourceModified() {
+		return sourceModified;
+	}
+
+	/**
+	 * Returns the offset of the line in the buffer whose key matches the
+	 * specified key, or -1 if there is no such line. Each candidate line is
+	 * verified with the comparator, so the result is exact.
+	 * 
+	 * @param buffer
+	 *            the contents of the file this table describes; may not be
+	 *            <code>null</code>
+	 * @param key
+	 *            the key being sought; may not be <code>null</code>
+	 * @param comparator
+	 *            the line comparator for the file; may not be
+	 *            <code>null</code>
+	 * @return the absolute offset of the matching line, or -1 if there is
+	 *         none
+	 * @throws NullPointerException
+	 *             if any argument is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public int find(ByteBuffer buffer, String key, ILineComparator comparator) {
+		int hash = hash(key, ignoreCase);
+		int offset;
+		for(int slot = hash & mask; ; slot = (slot + 1) & mask){
+			offset = offsets[slot];
+			if(offset == EMPTY)
+				return -1;
+			if(hashes[slot] == hash && WordnetFile.compareLine(comparator, buffer, offset, key) == 0)
+				return offset;
+		}
+	}
+
+	/**
+	 * Writes this table to the specified sidecar file. The table is first
+	 * written to a temporary file in the same directory, which is then renamed,
+	 * so that a concurrent reader never sees a partial sidecar.
+	 * 
+	 * @param sidecar
+	 *            the file to which the table should be written; may not be
+	 *            <code>null</code>
+	 * @throws IOException
+	 *             if there is a problem writing the file
+	 * @throws NullPointerException
+	 *             if the specified file is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public void store(File sidecar) throws IOException {
+		File tmp = new File(sidecar.getPath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeLong(sourceLength);
+			out.writeLong(sourceModified);
+			out.writeInt(ignoreCase ? 1 : 0);
+			out.writeInt(size);
+			out.writeInt(offsets.length);
+			for(int i = 0; i < offsets.length; i++)
+				out.writeInt(offsets[i]);
+			for(int i = 0; i < hashes.length; i++)
+				out.writeInt(hashes[i]);
+		} finally {
+			out.close();
+		}
+		if(!tmp.renameTo(sidecar)){
+			sidecar.delete();
+			if(!tmp.renameTo(sidecar)){
+				tmp.delete();
+				throw new IOException("Unable to write " + sidecar);
+			}
+		}
+	}
+
+	/**
+	 * Reads a table from the specified sidecar file, returning
+	 * <code>null</code> if the sidecar does not exist, is of a different
+	 * format version, is damaged, or does not match the length and
+	 * modification time of the specified source file, or the specified case
+	 * sensitivity.
+	 * 
+	 * @param sidecar
+	 *            the sidecar file to be read; may not be <code>null</code>
+	 * @param source
+	 *            the Wordnet file the table should describe; may not be
+	 *            <code>null</code>
+	 * @param ignoreCase
+	 *            whether the table should hash keys without regard to case
+	 * @return the table read from the sidecar, or <code>null</code> if there
+	 *         is no usable table
+	 * @throws IOException
+	 *             if there is a problem reading the file
+	 * @throws NullPointerException
+	 *             if either file is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static LineHashTable load(File sidecar, File source, boolean ignoreCase) throws IOException {
+		if(!sidecar.isFile() || sidecar.length() < HEADER_LENGTH)
+			return null;
+
+		RandomAccessFile raFile = new RandomAccessFile(sidecar, "r");
+		try {
+			FileChannel channel = raFile.getChannel();
+			ByteBuffer buf = ByteBuffer.allocate((int)channel.size());
+			while(buf.hasRemaining())
+				if(channel.read(buf) < 0)
+					return null;
+			buf.flip();
+
+			// check header
+			if(buf.getInt() != MAGIC)
+				return null;
+			if(buf.getInt() != FORMAT_VERSION)
+				return null;
+			long length = buf.getLong();
+			long modified = buf.getLong();
+			boolean ic = buf.getInt() != 0;
+			int size = buf.getInt();
+			int capacity = buf.getInt();
+			if(length != source.length() || modified != source.lastModified() || ic != ignoreCase)
+				return null;
+			if(capacity <= 0 || Integer.bitCount(capacity) != 1 || size < 0 || size >= capacity)
+				return null;
+			if(buf.remaining() != 8L*capacity)
+				return null;
+
+			// read slots
+			int[] offsets = new int[capacity];
+			int[] hashes = new int[capacity];
+			IntBuffer ints = buf.asIntBuffer();
+			ints.get(offsets);
+			ints.get(hashes);
+			return new LineHashTable(offsets, hashes, size, ic, length, modified);
+		} finally {
+			raFile.close();
+		}
+	}
+
+	/**
+	 * Builds a hash table over the lines listed in the specified line offset
+	 * table. If two lines have the same key, the first is kept. The buffer's
+	 * position is not changed.
+	 * 
+	 * @param buf
+	 *            the buffer containing the contents of the Wordnet file; may
+	 *            not be <code>null</code>
+	 * @param lines
+	 *            the line offset table for the file; may not be
+	 *            <code>null</code>
+	 * @param ignoreCase
+	 *            whether keys should be hashed without regard to case
+	 * @param source
+	 *            the Wordnet file from which the buffer was read; may not be
+	 *            <code>null</code>
+	 * @return the hash table for the file
+	 * @throws NullPointerException
+	 *             if the buffer, line table, or source file is
+	 *             <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static LineHashTable build(ByteBuffer buf, LineOffsetTable lines, boolean ignoreCase, File source) {
+		int count = lines.size();
+		int capacity = Math.max(2, Integer.highestOneBit(Math.max(1, count)) << 2);
+		if(capacity / 2 < count) // overflow guard for very large files
+			throw new IllegalArgumentException("too many lines: " + count);
+
+		int[] offsets = new int[capacity];
+		int[] hashes = new int[capacity];
+		Arrays.fill(offsets, EMPTY);
+		int mask = capacity - 1;
+		int size = 0;
+
+		int offset, hash, slot;
+		outer:
+		for(int i = 0; i < count; i++){
+			offset = lines.getOffset(i);
+			hash = hash(buf, offset, ignoreCase);
+			for(slot = hash & mask; offsets[slot] != EMPTY; slot = (slot + 1) & mask){
+				if(hashes[slot] == hash && sameKey(buf, offsets[slot], offset, ignoreCase))
+					continue outer;
+			}
+			offsets[slot] = offset;
+			hashes[slot] = hash;
+			size++;
+		}
+		return new LineHashTable(offsets, hashes, size, ignoreCase, source.length(), source.lastModified());
+	}
+
+	/**
+	 * Returns the hash of the first space-delimited token of the specified
+	 * key. This is the same value as returned by
+	 * {@link #hash(ByteBuffer, int, boolean)} for a line that begins with the
+	 * same token.
+	 * 
+	 * @param key
+	 *            the key to be hashed; may not be <code>null</code>
+	 * @param ignoreCase
+	 *            whether the hash should ignore case
+	 * @return the hash of the key
+	 * @throws NullPointerException
+	 *             if the key is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static int hash(String key, boolean ignoreCase) {
+		int h = 0x811C9DC5;
+		char c;
+		for(int i = 0, len = key.length(); i < len; i++){
+			c = key.charAt(i);
+			if(c == ' ')
+				break;
+			if(ignoreCase)
+				c = Character.toLowerCase(c);
+			h = (h ^ c) * 0x01000193;
+		}
+		return mix(h);
+	}
+
+	/**
+	 * Returns the hash of the first space-delimited token of the line
+	 * starting at the specified index, with each byte taken as a single
+	 * character. The buffer's position is not changed.
+	 * 
+	 * @param buf
+	 *            the buffer that contains the line; may not be
+	 *            <code>null</code>
+	 * @param index
+	 *            the absolute index of the first byte of the line
+	 * @param ignoreCase
+	 *            whether the hash should ignore case
+	 * @return the hash of the line's key
+	 * @throws NullPointerException
+	 *             if the buffer is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static int hash(ByteBuffer buf, int index, boolean ignoreCase) {
+		int h = 0x811C9DC5;
+		int end = LineBytes.getTokenEnd(buf, index);
+		char c;
+		for(int i = index; i < end; i++){
+			c = (char)buf.get(i);
+			if(ignoreCase)
+				c = Character.toLowerCase(c);
+			h = (h ^ c) * 0x01000193;
+		}
+		return mix(h);
+	}
+
+	// spreads the bits of the hash, since the table is indexed by the low bits
+	private static int mix(int h) {
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		return h;
+	}
+
+	// returns true if the lines at the two offsets begin with the same key
+	private static boolean sameKey(ByteBuffer buf, int i1, int i2, boolean ignoreCase) {
+		int e1 = LineBytes.getTokenEnd(buf, i1);
+		int e2 = LineBytes.getTokenEnd(buf, i2);
+		if(e1 - i1 != e2 - i2)
+			return false;
+		char c1, c2;
+		for(; i1 < e1; i1++, i2++){
+			c1 = (char)buf.get(i1);
+			c2 = (char)buf.get(i2);
+			if(ignoreCase){
+				c1 = Character.toLowerCase(c1);
+				c2 = Character.toLowerCase(c2);
+			}
+			if(c1 != c2)
+				return false;
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,316 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+import edu.mit.jwi.data.compare.CommentComparator;
+import edu.mit.jwi.data.compare.ICommentDetector;
+
+/**
+ * <p>
+ * A table of the byte offsets at which the lines of a Wordnet file begin.
+ * Comment lines and empty lines are not included, so that the lines in the
+ * table are exactly those that are ordered by the file's line comparator.
+ * With such a table, a binary search may bisect over line numbers instead of
+ * over byte positions, so that each probe lands directly on the start of a
+ * line.
+ * </p>
+ * <p>
+ * Building a table requires a pass over the whole file, so tables may be
+ * stored in a small sidecar file and read back on a later open. The sidecar
+ * records the length and modification time of the file from which the table
+ * was built, and is ignored if either no longer matches.
+ * </p>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class LineOffsetTable {
+
+	/**
+	 * The magic number that begins every sidecar file.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int MAGIC = 0x4A574C4F; // 'JWLO'
+
+	/**
+	 * The version of the sidecar format written by this class. Sidecars with a
+	 * different version are ignored.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int FORMAT_VERSION = 1;
+
+	/**
+	 * The extension appended to the name of a Wordnet file to form the name of
+	 * its sidecar file.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final String EXTENSION = ".offsets";
+
+	// length of the fixed sidecar header, in bytes
+	private static final int HEADER_LENGTH = 4 + 4 + 8 + 8 + 4;
+
+	// instance fields
+	private final int[] offsets;
+	private final long sourceLength;
+	private final long sourceModified;
+
+	/**
+	 * Constructs a new table over the specified offsets.
+	 * 
+	 * @param offsets
+	 *            the offsets of the lines, in file order; may not be
+	 *            <code>null</code>. The array is not copied.
+	 * @param sourceLength
+	 *            the length, in bytes, of the file from which the offsets
+	 *            were taken
+	 * @param sourceModified
+	 *            the modification time of the file from which the offsets
+	 *            were taken
+	 * @throws NullPointerException
+	 *             if the offset array is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public LineOffsetTable(int[] offsets, long sourceLength, long sourceModified) {
+		if(offsets == null)
+			throw new NullPointerException();
+		this.offsets = offsets;
+		this.sourceLength = sourceLength;
+		this.sourceModified = sourceModified;
+	}
+
+	/**
+	 * Returns the number of lines in this table.
+	 * 
+	 * @return the number of lines in this table
+	 * @since JWI 2.4.0
+	 */
+	public int size() {
+		return offsets.length;
+	}
+
+	/**
+	 * Returns the byte offset of the start of the line with the specified
+	 * index.
+	 * 
+	 * @param index
+	 *            the index of the line, counting only the lines in this table
+	 * @return the absolute byte offset of the start of the line
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the index is negative, or not less than
+	 *             {@link #size()}
+	 * @since JWI 2.4.0
+	 */
+	public int getOffset(int index) {
+		return offsets[index];
+	}
+
+	/**
+	 * Returns the length, in bytes, of the file from which this table was
+	 * built.
+	 * 
+	 * @return the length of the source file
+	 * @since JWI 2.4.0
+	 */
+	public long getSourceLength() {
+		return sourceLength;
+	}
+
+	/**
+	 * Returns the modification time of the file from which this table was
+	 * built.
+	 * 
+	 * @return the modification time of the source file
+	 * @since JWI 2.4.0
+	 */
+	public long getSourceModified() {
+		return sourceModified;
+	}
+
+	/**
+	 * Returns <code>true</code> if this table was built from a file with the
+	 * same length and modification time as the specified file.
+	 * 
+	 * @param file
+	 *            the file to be checked; may not be <code>null</code>
+	 * @return <code>true</code> if the table appears to describe the file;
+	 *         <code>false</code> otherwise
+	 * @throws NullPointerException
+	 *             if the specified file is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public boolean matches(File file) {
+		return file.length() == sourceLength && file.lastModified() == sourceModified;
+	}
+
+	/**
+	 * Writes this table to the specified sidecar file. The table is first
+	 * written to a temporary file in the same directory, which is then renamed,
+	 * so that a concurrent reader never sees a partial sidecar.
+	 * 
+	 * @param sidecar
+	 *            the file to which the table should be written; may not be
+	 *            <code>null</code>
+	 * @throws IOException
+	 *             if there is a problem writing the file
+	 * @throws NullPointerException
+	 *             if the specified file is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public void store(File sidecar) throws IOException {
+		File tmp = new File(sidecar.getPath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeLong(sourceLength);
+			out.writeLong(sourceModified);
+			out.writeInt(offsets.length);
+			for(int i = 0; i < offsets.length; i++)
+				out.writeInt(offsets[i]);
+		} finally {
+			out.close();
+		}
+		if(!tmp.renameTo(sidecar)){
+			sidecar.delete();
+			if(!tmp.renameTo(sidecar)){
+				tmp.delete();
+				throw new IOException("Unable to write " + sidecar);
+			}
+		}
+	}
+
+	/**
+	 * Reads a table from the specified sidecar file, returning
+	 * <code>null</code> if the sidecar does not exist, is of a different
+	 * format version, is damaged, or does not match the length and
+	 * modification time of the specified source file.
+	 * 
+	 * @param sidecar
+	 *            the sidecar file to be read; may not be <code>null</code>
+	 * @param source
+	 *            the Wordnet file the table should describe; may not be
+	 *            <code>null</code>
+	 * @return the table read from the sidecar, or <code>null</code> if there
+	 *         is no usable table
+	 * @throws IOException
+	 *             if there is a problem reading the file
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static LineOffsetTable load(File sidecar, File source) throws IOException {
+		if(!sidecar.isFile() || sidecar.length() < HEADER_LENGTH)
+			return null;
+
+		RandomAccessFile raFile = new RandomAccessFile(sidecar, "r");
+		try {
+			FileChannel channel = raFile.getChannel();
+			ByteBuffer buf = ByteBuffer.allocate((int)channel.size());
+			while(buf.hasRemaining())
+				if(channel.read(buf) < 0)
+					return null;
+			buf.flip();
+
+			// check header
+			if(buf.getInt() != MAGIC)
+				return null;
+			if(buf.getInt() != FORMAT_VERSION)
+				return null;
+			long length = buf.getLong();
+			long modified = buf.getLong();
+			int count = buf.getInt();
+			if(length != source.length() || modified != source.lastModified())
+				return null;
+			if(count < 0 || buf.remaining() != 4L*count)
+				return null;
+
+			// read offsets
+			int[] offsets = new int[count];
+			IntBuffer ints = buf.asIntBuffer();
+			ints.get(offsets);
+			return new LineOffsetTable(offsets, length, modified);
+		} finally {
+			raFile.close();
+		}
+	}
+
+	/**
+	 * Builds a table by scanning the whole of the specified buffer, skipping
+	 * comment lines and empty lines. The buffer's position is not changed.
+	 * 
+	 * @param buf
+	 *            the buffer containing the contents of the Wordnet file; may
+	 *            not be <code>null</code>
+	 * @param detector
+	 *            the comment detector for the file, or <code>null</code> if
+	 *            the file has no comments
+	 * @param source
+	 *            the Wordnet file from which the buffer was read; may not be
+	 *            <code>null</code>
+	 * @return the table of line offsets for the file
+	 * @throws NullPointerException
+	 *             if the buffer or source file is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static LineOffsetTable build(ByteBuffer buf, ICommentDetector detector, File source) {
+		CommentComparator comments = (detector instanceof CommentComparator) ? (CommentComparator)detector : null;
+
+		int limit = buf.limit();
+		int[] offsets = new int[1024];
+		int count = 0;
+		byte b;
+		for(int start = 0, next; start < limit; start = next){
+			next = WordnetFile.getNextLineStart(buf, start);
+
+			// skip empty lines
+			b = buf.get(start);
+			if(b == '\n' || b == '\r')
+				continue;
+
+			// skip comments
+			if(comments != null){
+				if(comments.isCommentLine(buf, start))
+					continue;
+			} else if(detector != null && detector.isCommentLine(WordnetFile.getLine(buf, start))){
+				continue;
+			}
+
+			if(count == offsets.length){
+				int[] grown = new int[count*2];
+				System.arraycopy(offsets, 0, grown, 0, count);
+				offsets = grown;
+			}
+			offsets[count++] = start;
+		}
+
+		if(count < offsets.length){
+			int[] trimmed = new int[count];
+			System.arraycopy(offsets, 0, trimmed, 0, count);
+			offsets = trimmed;
+		}
+		return new LineOffsetTable(offsets, source.length(), source.lastModified());
+	}
+
+}
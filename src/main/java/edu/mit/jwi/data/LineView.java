@@ -0,0 +1,174 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>
+ * A character sequence that is a view onto a line of a Wordnet file, as it
+ * sits in the file's buffer. As elsewhere in JWI, each byte is taken as a
+ * single character. No characters are copied when a view is created or
+ * moved; they are read from the buffer as they are requested.
+ * </p>
+ * <p>
+ * A view may be pointed at a new line with
+ * {@link #set(ByteBuffer, int, int)}, so that a single view can be reused for
+ * every line of a file. Consequently, a view is only valid until it is next
+ * moved; callers that need to keep the contents of a line should copy them
+ * out with {@link #toString()} or {@link #subSequence(int, int)}, both of
+ * which return strings. This class is not thread-safe.
+ * </p>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class LineView implements CharSequence {
+
+	// instance fields
+	private ByteBuffer buffer;
+	private int start;
+	private int end;
+
+	/**
+	 * Constructs a new, empty line view. The view must be pointed at a line
+	 * with {@link #set(ByteBuffer, int, int)} before it is used.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public LineView() {}
+
+	/**
+	 * Constructs a new line view over the specified range of the buffer.
+	 * 
+	 * @param buffer
+	 *            the buffer that contains the line; may not be
+	 *            <code>null</code>
+	 * @param start
+	 *            the absolute index of the first byte of the line
+	 * @param end
+	 *            the absolute index just past the last byte of the line
+	 * @throws NullPointerException
+	 *             if the buffer is <code>null</code>
+	 * @throws IndexOutOfBoundsException
+	 *             if the range does not lie within the buffer's limit
+	 * @since JWI 2.4.0
+	 */
+	public LineView(ByteBuffer buffer, int start, int end) {
+		set(buffer, start, end);
+	}
+
+	/**
+	 * Points this view at the specified range of the buffer.
+	 * 
+	 * @param buffer
+	 *            the buffer that contains the line; may not be
+	 *            <code>null</code>
+	 * @param start
+	 *            the absolute index of the first byte of the line
+	 * @param end
+	 *            the absolute index just past the last byte of the line
+	 * @throws NullPointerException
+	 *             if the buffer is <code>null</code>
+	 * @throws IndexOutOfBoundsException
+	 *             if the range does not lie within the buffer's limit
+	 * @since JWI 2.4.0
+	 */
+	public void set(ByteBuffer buffer, int start, int end) {
+		if(buffer == null)
+			throw new NullPointerException();
+		if(start < 0 || end < start || end > buffer.limit())
+			throw new IndexOutOfBoundsException();
+		this.buffer = buffer;
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Returns the buffer this view is looking at, or <code>null</code> if the
+	 * view has not been set.
+	 * 
+	 * @return the buffer this view is looking at
+	 * @since JWI 2.4.0
+	 */
+	public ByteBuffer getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * Returns the absolute index in the buffer of the first byte of this view.
+	 * 
+	 * @return the absolute index of the start of this view
+	 * @since JWI 2.4.0
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * Returns the absolute index in the buffer just past the last byte of
+	 * this view.
+	 * 
+	 * @return the absolute index of the end of this view
+	 * @since JWI 2.4.0
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.CharSequence#length()
+	 */
+	public int length() {
+		return end - start;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.CharSequence#charAt(int)
+	 */
+	public char charAt(int index) {
+		if(index < 0 || index >= end - start)
+			throw new IndexOutOfBoundsException(Integer.toString(index));
+		return (char)buffer.get(start + index);
+	}
+
+	/**
+	 * Returns a copy of the specified range of this view, as a string. Unlike
+	 * this view, the result is not affected when the view is moved.
+	 * 
+	 * @see java.lang.CharSequence#subSequence(int, int)
+	 * @since JWI 2.4.0
+	 */
+	public String subSequence(int from, int to) {
+		if(from < 0 || to < from || to > end - start)
+			throw new IndexOutOfBoundsException();
+		char[] chars = new char[to - from];
+		for(int i = 0; i < chars.length; i++)
+			chars[i] = (char)buffer.get(start + from + i);
+		return new String(chars);
+	}
+
+	/**
+	 * Returns a copy of this view, as a string.
+	 * 
+	 * @see java.lang.Object#toString()
+	 * @since JWI 2.4.0
+	 */
+	public String toString() {
+		return subSequence(0, end - start);
+	}
+
+}
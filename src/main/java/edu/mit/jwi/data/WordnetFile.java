@@ -15,12 +15,16 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import edu.mit.jwi.data.compare.CommentComparator;
+import edu.mit.jwi.data.compare.IBufferLineComparator;
 import edu.mit.jwi.data.compare.ICommentDetector;
+import edu.mit.jwi.data.compare.ILineComparator;
 import edu.mit.jwi.item.IVersion;
 import edu.mit.jwi.item.Version;
 
@@ -38,6 +42,13 @@ import edu.mit.jwi.item.Version;
  * time to parsing a line of data into a data object dominates the time required
  * to read the data from disk (for a reasonable modern harddrive).
  * </p>
+ * <p>
+ * Loaded data is by default held in a byte array on the Java heap. If
+ * {@link #setLoadOffHeap(boolean)} is set, it is instead copied into a direct
+ * buffer, outside the heap. In both cases the data is copied in chunks, and
+ * the progress of a load in another thread may be followed with
+ * {@link #getLoadProgress()}.
+ * </p>
  * 
  * @param <T>
  *            the type of the objects represented in this file
@@ -47,6 +58,21 @@ import edu.mit.jwi.item.Version;
  */
 public abstract class WordnetFile<T> implements ILoadableDataSource<T> {
 	
+	/**
+	 * The number of bytes copied at a time when a file is loaded into memory.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int LOAD_CHUNK_SIZE = 1 << 20;
+
+	/**
+	 * The smallest range, in bytes, into which {@link #split(int)} divides a
+	 * file.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int MIN_SPLIT_SIZE = 1 << 16;
+	
 	// fields set on construction
 	private final String name;
 	private final IContentType<T> type;
@@ -55,13 +81,16 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T> {
 
 	// loading locks and status flag
 	// the flag is marked transient to avoid different values in different threads 
-	private transient boolean isLoaded = false;
+	private transient volatile boolean isLoaded = false;
+	private volatile boolean loadOffHeap = false;
+	private volatile long loadedBytes = 0;
 	private final Lock lifecycleLock = new ReentrantLock();
 	private final Lock loadingLock = new ReentrantLock();
 	
 	// fields generated dynamically on demand
+	// the buffer is volatile so that lookups may read it without locking
 	private FileChannel channel;
-	private ByteBuffer buffer;
+	private volatile ByteBuffer buffer;
 	private IVersion version;
 
 	/**
@@ -111,7 +140,11 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T> {
 	}
 
 	/**
-	 * Returns the buffer which backs this object.
+	 * Returns the buffer which backs this object. The position of the returned
+	 * buffer should not be relied upon, as it is shared between all users of
+	 * this object; callers that need to move through the buffer should do so
+	 * on a private view, obtained via {@link ByteBuffer#asReadOnlyBuffer()},
+	 * or by using absolute get methods.
 	 * 
 	 * @return the buffer which backs this object
 	 * @throws ObjectClosedException
@@ -119,9 +152,27 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T> {
 	 * @since JWI 2.2.0
 	 */
 	public ByteBuffer getBuffer(){
-		if(!isOpen()) 
+		ByteBuffer buf = buffer;
+		if(buf == null) 
 			throw new ObjectClosedException();
-		return buffer;
+		return buf;
+	}
+
+	/**
+	 * Returns a private view of the buffer which backs this object, positioned
+	 * at the beginning of the buffer. The view shares content with the backing
+	 * buffer, but has its own position and limit, so it may be freely used by
+	 * a single thread without synchronizing with other users of this object.
+	 * 
+	 * @return a private, read-only view of the buffer which backs this object
+	 * @throws ObjectClosedException
+	 *             if the object is closed
+	 * @since JWI 2.4.0
+	 */
+	protected ByteBuffer getBufferView(){
+		ByteBuffer view = getBuffer().asReadOnlyBuffer();
+		view.clear();
+		return view;
 	}
 
 	/* 
@@ -159,12 +210,7 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T> {
 	 * @see edu.mit.jwi.data.IHasLifecycle#isOpen()
 	 */
 	public boolean isOpen(){
-		try{
-			lifecycleLock.lock();
-			return buffer != null;
-		} finally {
-			lifecycleLock.unlock();
-		}
+		return buffer != null;
 	}
 	
 	/* 
@@ -178,6 +224,7 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T> {
 			version = null;
 			buffer = null;
 			isLoaded = false;
+			loadedBytes = 0;
 			if(channel != null){
 				try {
 					channel.close();
@@ -217,11 +264,24 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T> {
 	public void load(boolean block) {
 		try {
 			loadingLock.lock();
-			int len = (int)file.length();
-			ByteBuffer buf = buffer.asReadOnlyBuffer();
-			buf.clear();
-			byte[] data = new byte[len];
-			buf.get(data, 0, len);
+			ByteBuffer source = buffer;
+			if(isLoaded || source == null)
+				return;
+			
+			// copy the file contents a chunk at a time, so that progress
+			// can be followed from other threads
+			int len = source.limit();
+			ByteBuffer data = loadOffHeap ? ByteBuffer.allocateDirect(len) : ByteBuffer.allocate(len);
+			ByteBuffer chunk = source.asReadOnlyBuffer();
+			loadedBytes = 0;
+			for(int start = 0, end; start < len; start = end){
+				end = Math.min(start + LOAD_CHUNK_SIZE, len);
+				chunk.limit(end);
+				chunk.position(start);
+				data.put(chunk);
+				loadedBytes = end;
+			}
+			data.clear();
 			
 			try{
 				lifecycleLock.lock();
@@ -234,7 +294,7 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T> {
 					channel = null;
 				}
 				if(buffer != null){
-					buffer = ByteBuffer.wrap(data);
+					buffer = data;
 					isLoaded = true;
 				}
 			} finally {
@@ -246,6 +306,47 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T> {
 		}
 	}
 
+	/**
+	 * Returns <code>true</code> if this file is loaded into a direct buffer,
+	 * outside the Java heap, rather than into a byte array on the heap.
+	 * 
+	 * @return <code>true</code> if loaded data is kept off the heap;
+	 *         <code>false</code> otherwise
+	 * @since JWI 2.4.0
+	 */
+	public boolean isLoadOffHeap() {
+		return loadOffHeap;
+	}
+
+	/**
+	 * Sets whether this file is loaded into a direct buffer, outside the Java
+	 * heap, rather than into a byte array on the heap. The setting takes
+	 * effect the next time the file is loaded.
+	 * 
+	 * @param offHeap
+	 *            <code>true</code> if loaded data should be kept off the
+	 *            heap; <code>false</code> otherwise
+	 * @since JWI 2.4.0
+	 */
+	public void setLoadOffHeap(boolean offHeap) {
+		this.loadOffHeap = offHeap;
+	}
+
+	/**
+	 * Returns the fraction of this file that has been loaded into memory, as
+	 * a number between 0 and 1. This may be called from any thread while
+	 * another thread is loading the file.
+	 * 
+	 * @return the fraction of the file that has been loaded
+	 * @since JWI 2.4.0
+	 */
+	public float getLoadProgress() {
+		if(isLoaded)
+			return 1;
+		long len = file.length();
+		return (len <= 0) ? 0 : Math.min(1, (float)loadedBytes / len);
+	}
+
 	/**
 	 * Returns the wordnet version associated with this object, or null if the
 	 * version cannot be determined.
@@ -289,6 +390,102 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T> {
 		return makeIterator(getBuffer(), key);
 	}
 
+	/**
+	 * Returns an iterator over the lines of this file, in which each line is
+	 * presented as a {@link LineView} onto the file's buffer rather than
+	 * being copied into a string. The iterator returns the same single view
+	 * from every call to <code>next()</code>, moved to the new line, so each
+	 * line must be consumed before the iterator is advanced.
+	 * 
+	 * @return an iterator over views of the lines of this file
+	 * @throws ObjectClosedException
+	 *             if the object is closed
+	 * @since JWI 2.4.0
+	 */
+	public LineViewIterator viewIterator() {
+		if(!isOpen())
+			throw new ObjectClosedException();
+		return new LineViewIterator(getBuffer());
+	}
+
+	/**
+	 * Returns an iterator over views of the lines of this file that start
+	 * within the specified range of the buffer, in the manner of
+	 * {@link #viewIterator()}. Ranges produced by {@link #split(int)} cover
+	 * every line of the file exactly once, and so may be iterated in
+	 * separate threads.
+	 * 
+	 * @param start
+	 *            the absolute index of the first byte of the range; must be
+	 *            the start of a line
+	 * @param end
+	 *            the absolute index just past the last byte of the range
+	 * @return an iterator over views of the lines that start in the range
+	 * @throws ObjectClosedException
+	 *             if the object is closed
+	 * @since JWI 2.4.0
+	 */
+	public LineViewIterator viewIterator(int start, int end) {
+		if(!isOpen())
+			throw new ObjectClosedException();
+		return new LineViewIterator(getBuffer(), start, end);
+	}
+
+	/**
+	 * Divides this file into at most the specified number of ranges of
+	 * about equal size, each beginning at the start of a line. The returned
+	 * array holds the boundaries of the ranges: range <code>i</code> runs
+	 * from element <code>i</code> up to element <code>i+1</code>. Small
+	 * files are divided into fewer ranges.
+	 * 
+	 * @param count
+	 *            the largest number of ranges; must be positive
+	 * @return the boundaries of the ranges, starting with 0 and ending with
+	 *         the buffer's limit
+	 * @throws IllegalArgumentException
+	 *             if the count is not positive
+	 * @throws ObjectClosedException
+	 *             if the object is closed
+	 * @since JWI 2.4.0
+	 */
+	public int[] split(int count) {
+		if(count < 1)
+			throw new IllegalArgumentException();
+		ByteBuffer buf = getBuffer();
+		int limit = buf.limit();
+		count = Math.max(1, Math.min(count, limit / MIN_SPLIT_SIZE));
+		int[] bounds = new int[count + 1];
+		int size = 1;
+		for(int i = 1; i < count; i++){
+			int bound = getNextLineStart(buf, (int)((long)limit*i/count));
+			if(bound > bounds[size-1] && bound < limit)
+				bounds[size++] = bound;
+		}
+		bounds[size++] = limit;
+		return (size == bounds.length) ? bounds : Arrays.copyOf(bounds, size);
+	}
+
+	/**
+	 * Returns <code>true</code> if the line starting at the specified index
+	 * of the buffer is a comment, according to this file's comment detector.
+	 * 
+	 * @param buf
+	 *            the buffer that contains the line; may not be
+	 *            <code>null</code>
+	 * @param index
+	 *            the absolute index of the first byte of the line
+	 * @return <code>true</code> if the line is a comment; <code>false</code>
+	 *         otherwise
+	 * @since JWI 2.4.0
+	 */
+	protected boolean isComment(ByteBuffer buf, int index){
+		if(detector == null)
+			return false;
+		if(detector instanceof CommentComparator)
+			return ((CommentComparator)detector).isCommentLine(buf, index);
+		return detector.isCommentLine(getLine(buf, index));
+	}
+
 	/**
 	 * Constructs an iterator that can be used to iterate over the specified
 	 * {@link ByteBuffer}, starting from the specified key.
@@ -396,15 +593,33 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T> {
 	 * @since JWI 2.2.0
 	 */
 	public static void rewindToLineStart(ByteBuffer buf){
-		int i = buf.position();
+		buf.position(getLineStart(buf, buf.position()));
+	}
+
+	/**
+	 * Returns the absolute index of the beginning of the line that contains
+	 * the specified index. The buffer's position is not changed.
+	 * 
+	 * @param buf
+	 *            the buffer to be examined; may not be <code>null</code>
+	 * @param index
+	 *            the absolute index of a byte in the buffer
+	 * @return the absolute index of the first byte of the line that contains
+	 *         the specified index
+	 * @throws NullPointerException
+	 *             if the specified buffer is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static int getLineStart(ByteBuffer buf, int index){
+		int i = index;
 		
-		// check if the buffer is set in the middle of two-char
+		// check if the index is in the middle of two-char
 		// newline marker; if so, back up before it begins
-		if(buf.get(i-1) == '\r' && buf.get(i) == '\n')
+		if(i > 0 && i < buf.limit() && buf.get(i-1) == '\r' && buf.get(i) == '\n')
 			i--;
 		
 		// start looking at the character just before
-		// the one at which the buffer is set
+		// the one at the specified index
 		if(i > 0)
 			i--;
 		
@@ -420,9 +635,156 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T> {
 				break;
 			}
 		}
+		return i;
+	}
+
+	/**
+	 * Returns the absolute index of the beginning of the line that follows the
+	 * line containing the specified index, or the buffer's limit if there is
+	 * no such line. This is the position at which the buffer would be left if
+	 * {@link #getLine(ByteBuffer)} were called with the buffer positioned at
+	 * the specified index. The buffer's position is not changed.
+	 * 
+	 * @param buf
+	 *            the buffer to be examined; may not be <code>null</code>
+	 * @param index
+	 *            the absolute index at which to start looking
+	 * @return the absolute index of the first byte after the next newline
+	 *         marker, or the buffer's limit
+	 * @throws NullPointerException
+	 *             if the specified buffer is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static int getNextLineStart(ByteBuffer buf, int index){
+		int limit = buf.limit();
+		char c;
+		for(int i = index; i < limit; i++){
+			c = (char)buf.get(i);
+			if(c == '\n')
+				return i+1;
+			if(c == '\r')
+				return (i+1 < limit && buf.get(i+1) == '\n') ? i+2 : i+1;
+		}
+		return limit;
+	}
+
+	/**
+	 * Returns the String from the specified index up to, but not including,
+	 * the next newline, or <code>null</code> if the index is at or beyond the
+	 * buffer's limit. Unlike {@link #getLine(ByteBuffer)}, the buffer's
+	 * position is not changed, so this method may be used on a buffer that is
+	 * shared between threads.
+	 * 
+	 * @param buf
+	 *            the buffer from which the line should be extracted; may not
+	 *            be <code>null</code>
+	 * @param index
+	 *            the absolute index of the first byte of the line
+	 * @return the line starting at the specified index, or <code>null</code>
+	 *         if the index is at the end of the buffer
+	 * @throws NullPointerException
+	 *             if the specified buffer is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static String getLine(ByteBuffer buf, int index){
+		if(index >= buf.limit())
+			return null;
 		
-		// set the buffer to the beginning of the line
-		buf.position(i);
+		int end = getLineEnd(buf, index);
+		char[] chars = new char[end - index];
+		for(int i = 0; i < chars.length; i++)
+			chars[i] = (char)buf.get(index + i);
+		return new String(chars);
+	}
+
+	/**
+	 * Compares the line that starts at the specified index of the buffer with
+	 * the specified key, using the specified comparator. If the comparator is
+	 * an {@link IBufferLineComparator}, the line is compared in place;
+	 * otherwise the line is read into a string and passed to the comparator's
+	 * <code>compare</code> method. The buffer's position is not changed.
+	 * 
+	 * @param comparator
+	 *            the comparator to be used; may not be <code>null</code>
+	 * @param buf
+	 *            the buffer that contains the line; may not be
+	 *            <code>null</code>
+	 * @param index
+	 *            the absolute index of the first byte of the line, which must
+	 *            be less than the buffer's limit
+	 * @param key
+	 *            the key against which the line should be compared; may not
+	 *            be <code>null</code>
+	 * @return a negative integer, zero, or a positive integer as the line is
+	 *         less than, equal to, or greater than the key
+	 * @throws NullPointerException
+	 *             if any object argument is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static int compareLine(ILineComparator comparator, ByteBuffer buf, int index, String key){
+		if(comparator instanceof IBufferLineComparator)
+			return ((IBufferLineComparator)comparator).compareLine(buf, index, key);
+		if(key == null)
+			throw new NullPointerException();
+		return comparator.compare(getLine(buf, index), key);
+	}
+
+	/**
+	 * Returns the absolute index of the newline marker that ends the line
+	 * containing the specified index, or the buffer's limit if the line is
+	 * not terminated. The buffer's position is not changed.
+	 * 
+	 * @param buf
+	 *            the buffer to be examined; may not be <code>null</code>
+	 * @param index
+	 *            the absolute index at which to start looking
+	 * @return the absolute index just past the last character of the line
+	 * @throws NullPointerException
+	 *             if the specified buffer is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static int getLineEnd(ByteBuffer buf, int index){
+		int limit = buf.limit();
+		int end = index;
+		byte b;
+		while(end < limit){
+			b = buf.get(end);
+			if(b == '\n' || b == '\r')
+				break;
+			end++;
+		}
+		return end;
+	}
+
+	/**
+	 * Returns <code>true</code> if the line starting at the specified index
+	 * begins with the specified prefix, with each byte taken as a single
+	 * character in the manner of {@link #getLine(ByteBuffer)}. The buffer's
+	 * position is not changed.
+	 * 
+	 * @param buf
+	 *            the buffer to be examined; may not be <code>null</code>
+	 * @param index
+	 *            the absolute index of the first byte of the line
+	 * @param prefix
+	 *            the prefix to be checked; may not be <code>null</code>
+	 * @return <code>true</code> if the line starts with the prefix;
+	 *         <code>false</code> otherwise
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static boolean startsWith(ByteBuffer buf, int index, String prefix){
+		int len = prefix.length();
+		if(index + len > buf.limit())
+			return false;
+		char c;
+		for(int i = 0; i < len; i++){
+			c = (char)buf.get(index + i);
+			if(c == '\n' || c == '\r' || c != prefix.charAt(i))
+				return false;
+		}
+		return true;
 	}
 
 	/**
@@ -563,4 +925,109 @@ public abstract class WordnetFile<T> implements ILoadableDataSource<T> {
 		}
 	}
 
+
+	/**
+	 * Iterates over the lines of a file, presenting each as a {@link LineView}
+	 * onto the buffer. Comment lines are skipped. A single view is reused for
+	 * every line, and is moved when {@link #next()} is called. Does not support
+	 * the {@link #remove()} method; if that method is called, it will throw an
+	 * {@link UnsupportedOperationException}.
+	 * 
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	public class LineViewIterator implements Iterator<LineView> {
+		
+		// fields set on construction
+		private final ByteBuffer itrBuffer;
+		private final int end;
+		private final LineView view = new LineView();
+		
+		// the start of the next line, or -1 if there is none
+		private int nextStart;
+		
+		/**
+		 * Constructs a new view iterator over the specified buffer, starting
+		 * at its first line.
+		 * 
+		 * @param buffer
+		 *            the buffer over which to iterate; may not be
+		 *            <code>null</code>
+		 * @throws NullPointerException
+		 *             if the specified buffer is <code>null</code>
+		 * @since JWI 2.4.0
+		 */
+		public LineViewIterator(ByteBuffer buffer) {
+			this(buffer, 0, buffer.limit());
+		}
+
+		/**
+		 * Constructs a new view iterator over the lines of the specified
+		 * buffer that start within the specified range.
+		 * 
+		 * @param buffer
+		 *            the buffer over which to iterate; may not be
+		 *            <code>null</code>
+		 * @param start
+		 *            the absolute index of the first byte of the range; must
+		 *            be the start of a line
+		 * @param end
+		 *            the absolute index just past the last byte of the range
+		 * @throws NullPointerException
+		 *             if the specified buffer is <code>null</code>
+		 * @since JWI 2.4.0
+		 */
+		public LineViewIterator(ByteBuffer buffer, int start, int end) {
+			if(buffer == null)
+				throw new NullPointerException();
+			this.itrBuffer = buffer;
+			this.end = Math.min(end, buffer.limit());
+			this.nextStart = findLine(start);
+		}
+		
+		// returns the start of the first non-comment line at or after the
+		// specified line start, or -1 if there is none
+		private int findLine(int start){
+			while(start < end){
+				if(!isComment(itrBuffer, start))
+					return start;
+				start = getNextLineStart(itrBuffer, start);
+			}
+			return -1;
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see java.util.Iterator#hasNext()
+		 */
+		public boolean hasNext() {
+			return nextStart >= 0;
+		}
+
+		/* 
+		 * (non-Javadoc) 
+		 *
+		 * @see java.util.Iterator#next()
+		 */
+		public LineView next() {
+			if(nextStart < 0)
+				throw new NoSuchElementException();
+			int start = nextStart;
+			view.set(itrBuffer, start, getLineEnd(itrBuffer, start));
+			nextStart = findLine(getNextLineStart(itrBuffer, start));
+			return view;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.Iterator#remove()
+		 */
+		public final void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
 }
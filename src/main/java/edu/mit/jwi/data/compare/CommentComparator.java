@@ -10,6 +10,7 @@
 
 package edu.mit.jwi.data.compare;
 
+import java.nio.ByteBuffer;
 import java.util.Comparator;
 
 /**
@@ -93,4 +94,26 @@ public class CommentComparator implements Comparator<String>, ICommentDetector {
 		       line.charAt(0) == ' ' && 
 		       line.charAt(1) == ' ';
 	}
+
+	/**
+	 * Returns <code>true</code> if the line starting at the specified index of
+	 * the buffer is a comment line, by the same test as
+	 * {@link #isCommentLine(String)}. The buffer's position is not changed.
+	 * 
+	 * @param buf
+	 *            the buffer that contains the line; may not be
+	 *            <code>null</code>
+	 * @param index
+	 *            the absolute index of the first byte of the line
+	 * @return <code>true</code> if the line is a comment; <code>false</code>
+	 *         otherwise
+	 * @throws NullPointerException
+	 *             if the buffer is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public boolean isCommentLine(ByteBuffer buf, int index) {
+		return index + 1 < buf.limit() && 
+		       buf.get(index) == ' ' && 
+		       buf.get(index + 1) == ' ';
+	}
 }
\ No newline at end of file
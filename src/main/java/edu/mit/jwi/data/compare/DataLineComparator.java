@@ -10,6 +10,10 @@
 
 package edu.mit.jwi.data.compare;
 
+import java.nio.ByteBuffer;
+
+import edu.mit.jwi.data.WordnetFile;
+
 /**
  * <p>
  * A line comparator that captures the ordering of lines in Wordnet data files
@@ -27,7 +31,7 @@ package edu.mit.jwi.data.compare;
  * @version 2.3.3
  * @since JWI 1.0
  */
-public class DataLineComparator implements ILineComparator {
+public class DataLineComparator implements IBufferLineComparator {
 
 	// singleton instance
 	private static DataLineComparator instance;
@@ -113,6 +117,40 @@ public class DataLineComparator implements ILineComparator {
 		return 0;
 	}
 
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.data.compare.IBufferLineComparator#compareLine(java.nio.ByteBuffer, int, java.lang.String)
+	 */
+	public int compareLine(ByteBuffer buf, int index, String key) {
+		// check for comments
+		boolean c1 = detector.isCommentLine(buf, index), c2 = detector.isCommentLine(key);
+
+		if (c1 & c2) {
+			// both lines are comments, defer to comment comparator
+			return detector.compare(WordnetFile.getLine(buf, index), key);
+		}
+		else if (c1 & !c2) {
+			// line is a comment, should come before the key
+			return -1;
+		}
+		else if (!c1 & c2) {
+			// key is a comment, should come before the line
+			return 1;
+		}
+
+		// neither is a comment, so compare the offsets as two ints
+		int i2 = key.indexOf(' ');
+		int l1 = LineBytes.parseFirstInt(buf, index);
+		int l2 = Integer.parseInt((i2 == -1) ? key : key.substring(0, i2));
+
+		if (l1 < l2) 
+			return -1;
+		else if (l1 > l2) 
+			return 1;
+		return 0;
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -10,6 +10,7 @@
 
 package edu.mit.jwi.data.compare;
 
+import java.nio.ByteBuffer;
 import java.util.regex.Pattern;
 
 import edu.mit.jwi.data.parse.ILineParser.MisformattedLineException;
@@ -30,7 +31,7 @@ import edu.mit.jwi.data.parse.ILineParser.MisformattedLineException;
  * @version 2.3.3
  * @since JWI 1.0
  */
-public class ExceptionLineComparator implements ILineComparator {
+public class ExceptionLineComparator implements IBufferLineComparator {
 
 	// singleton instance
 	private static ExceptionLineComparator instance;
@@ -79,6 +80,15 @@ public class ExceptionLineComparator implements ILineComparator {
 		return words1[0].compareTo(words2[0]);
 	}
 
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.data.compare.IBufferLineComparator#compareLine(java.nio.ByteBuffer, int, java.lang.String)
+	 */
+	public int compareLine(ByteBuffer buf, int index, String key) {
+		return LineBytes.compareFirstToken(buf, index, key, false);
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -0,0 +1,55 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data.compare;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A line comparator that can compare a line in place in a byte buffer with a
+ * key, without first reading the line into a string. Binary searches use
+ * this method when the comparator of a file implements this interface, and
+ * otherwise read each probed line into a string and call
+ * {@link #compare(Object, Object)}.
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public interface IBufferLineComparator extends ILineComparator {
+
+	/**
+	 * Compares the line that starts at the specified index of the buffer with
+	 * the specified key. The result has the same sign as would be returned by
+	 * {@link #compare(Object, Object)} if the line were first read into a
+	 * string, with each byte taken as a single character, but the comparison
+	 * is made directly against the bytes of the buffer, so that a binary
+	 * search need not build a string for every line it probes. The buffer's
+	 * position is not changed.
+	 * 
+	 * @param buffer
+	 *            the buffer that contains the line; may not be
+	 *            <code>null</code>
+	 * @param index
+	 *            the absolute index of the first byte of the line
+	 * @param key
+	 *            the key against which the line should be compared; may not
+	 *            be <code>null</code>
+	 * @return a negative integer, zero, or a positive integer as the line is
+	 *         less than, equal to, or greater than the key
+	 * @throws NullPointerException
+	 *             if the buffer or key is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the line or key is ill-formed
+	 * @since JWI 2.4.0
+	 */
+	public int compareLine(ByteBuffer buffer, int index, String key);
+
+}
\ No newline at end of file
@@ -10,6 +10,10 @@
 
 package edu.mit.jwi.data.compare;
 
+import java.nio.ByteBuffer;
+
+import edu.mit.jwi.data.WordnetFile;
+
 /**
  * <p>
  * A comparator that captures the ordering of lines in Wordnet index files
@@ -26,7 +30,7 @@ package edu.mit.jwi.data.compare;
  * @version 2.3.3
  * @since JWI 1.0
  */
-public class IndexLineComparator implements ILineComparator {
+public class IndexLineComparator implements IBufferLineComparator {
 
 	// singleton instance
 	private static IndexLineComparator instance;
@@ -103,6 +107,32 @@ public class IndexLineComparator implements ILineComparator {
 		return sub1.compareTo(sub2);
 	}
 
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.data.compare.IBufferLineComparator#compareLine(java.nio.ByteBuffer, int, java.lang.String)
+	 */
+	public int compareLine(ByteBuffer buf, int index, String key) {
+		// check for comments
+		boolean c1 = detector.isCommentLine(buf, index), c2 = detector.isCommentLine(key);
+
+		if (c1 & c2) {
+			// both lines are comments, defer to comment comparator
+			return detector.compare(WordnetFile.getLine(buf, index), key);
+		}
+		else if (c1 & !c2) {
+			// line is a comment, should come before the key
+			return -1;
+		}
+		else if (!c1 & c2) {
+			// key is a comment, should come before the line
+			return 1;
+		}
+
+		// neither is a comment, so compare the lemmas without regard to case
+		return LineBytes.compareFirstToken(buf, index, key, true);
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
@@ -0,0 +1,153 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data.compare;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Static helpers for examining lines of a Wordnet file directly in a byte
+ * buffer, without first reading them into strings. As elsewhere in JWI, each
+ * byte is taken as a single character. None of these methods change the
+ * position of the buffer they are given.
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public final class LineBytes {
+	
+	/**
+	 * This class is not intended to be instantiated.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	private LineBytes() {}
+
+	/**
+	 * Returns <code>true</code> if the specified byte ends a line or a
+	 * space-delimited token.
+	 * 
+	 * @param b
+	 *            the byte to be checked
+	 * @return <code>true</code> if the byte is a space, carriage return or
+	 *         line feed; <code>false</code> otherwise
+	 * @since JWI 2.4.0
+	 */
+	public static boolean isTokenEnd(byte b){
+		return b == ' ' || b == '\n' || b == '\r';
+	}
+
+	/**
+	 * Returns the absolute index just past the end of the first
+	 * space-delimited token of the line starting at the specified index.
+	 * 
+	 * @param buf
+	 *            the buffer that contains the line; may not be
+	 *            <code>null</code>
+	 * @param index
+	 *            the absolute index of the first byte of the line
+	 * @return the absolute index of the first space or newline byte following
+	 *         the index, or the buffer's limit
+	 * @throws NullPointerException
+	 *             if the buffer is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static int getTokenEnd(ByteBuffer buf, int index){
+		int limit = buf.limit();
+		int i = index;
+		while(i < limit && !isTokenEnd(buf.get(i)))
+			i++;
+		return i;
+	}
+
+	/**
+	 * Compares the first space-delimited token of the line starting at the
+	 * specified index with the first space-delimited token of the key, in the
+	 * manner of {@link String#compareTo(String)}. If the
+	 * <code>ignoreCase</code> flag is set, each character is passed through
+	 * {@link Character#toLowerCase(char)} before being compared.
+	 * 
+	 * @param buf
+	 *            the buffer that contains the line; may not be
+	 *            <code>null</code>
+	 * @param index
+	 *            the absolute index of the first byte of the line
+	 * @param key
+	 *            the key; may not be <code>null</code>
+	 * @param ignoreCase
+	 *            whether the comparison should ignore case
+	 * @return a negative integer, zero, or a positive integer as the line's
+	 *         token is less than, equal to, or greater than the key's token
+	 * @throws NullPointerException
+	 *             if the buffer or key is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static int compareFirstToken(ByteBuffer buf, int index, String key, boolean ignoreCase){
+		int limit = buf.limit();
+		int keyEnd = key.indexOf(' ');
+		if(keyEnd == -1)
+			keyEnd = key.length();
+		
+		byte b;
+		char c1, c2;
+		for(int i = index, k = 0; ; i++, k++){
+			if(i == limit || isTokenEnd(b = buf.get(i)))
+				return k - keyEnd;
+			if(k == keyEnd)
+				return 1;
+			c1 = (char)b;
+			c2 = key.charAt(k);
+			if(ignoreCase){
+				c1 = Character.toLowerCase(c1);
+				c2 = Character.toLowerCase(c2);
+			}
+			if(c1 != c2)
+				return c1 - c2;
+		}
+	}
+
+	/**
+	 * Parses the first space-delimited token of the line starting at the
+	 * specified index as a non-negative decimal integer, in the manner of
+	 * {@link Integer#parseInt(String)}.
+	 * 
+	 * @param buf
+	 *            the buffer that contains the line; may not be
+	 *            <code>null</code>
+	 * @param index
+	 *            the absolute index of the first byte of the line
+	 * @return the value of the first token
+	 * @throws NullPointerException
+	 *             if the buffer is <code>null</code>
+	 * @throws NumberFormatException
+	 *             if the token is empty, contains a character that is not a
+	 *             decimal digit, or does not fit in an <code>int</code>
+	 * @since JWI 2.4.0
+	 */
+	public static int parseFirstInt(ByteBuffer buf, int index){
+		int end = getTokenEnd(buf, index);
+		if(end == index)
+			throw new NumberFormatException("empty token");
+		
+		long result = 0;
+		byte b;
+		for(int i = index; i < end; i++){
+			b = buf.get(i);
+			if(b < '0' || b > '9')
+				throw new NumberFormatException("for input byte '" + (char)b + "'");
+			result = result*10 + (b - '0');
+			if(result > Integer.MAX_VALUE)
+				throw new NumberFormatException("value too large");
+		}
+		return (int)result;
+	}
+
+}
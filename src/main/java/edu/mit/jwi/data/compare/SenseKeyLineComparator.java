@@ -10,6 +10,8 @@
 
 package edu.mit.jwi.data.compare;
 
+import java.nio.ByteBuffer;
+
 /**
  * <p>
  * A comparator that captures the ordering of lines in sense index files (e.g.,
@@ -26,7 +28,7 @@ package edu.mit.jwi.data.compare;
  * @version 2.3.3
  * @since JWI 2.1.0
  */
-public class SenseKeyLineComparator implements ILineComparator {
+public class SenseKeyLineComparator implements IBufferLineComparator {
 	
 	// singleton instance
 	private static SenseKeyLineComparator instance;
@@ -68,6 +70,15 @@ public class SenseKeyLineComparator implements ILineComparator {
 		return line1.compareTo(line2);
 	}
 
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.data.compare.IBufferLineComparator#compareLine(java.nio.ByteBuffer, int, java.lang.String)
+	 */
+	public int compareLine(ByteBuffer buf, int index, String key) {
+		return LineBytes.compareFirstToken(buf, index, key, false);
+	}
+
 	/* 
 	 * (non-Javadoc) 
 	 *
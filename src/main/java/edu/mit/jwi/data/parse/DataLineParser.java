@@ -13,10 +13,11 @@ package edu.mit.jwi.data.parse;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.StringTokenizer;
+import java.util.Set;
 
 import edu.mit.jwi.item.AdjMarker;
 import edu.mit.jwi.item.ILexFile;
@@ -40,6 +41,9 @@ import edu.mit.jwi.item.WordID;
  * <p>
  * Parser for Wordnet data files (e.g., <code>data.adv</code> or
  * <code>adv.dat</code>). This parser produces an <code>ISynset</code> object.
+ * Lines may be given either as strings or as other character sequences; in
+ * either case the line is read in place, and only the lemmas and gloss are
+ * copied out of it.
  * </p>
  * <p>
  * This class follows a singleton design pattern, and is not intended to be
@@ -51,10 +55,14 @@ import edu.mit.jwi.item.WordID;
  * @version 2.3.3
  * @since JWI 1.0
  */
-public class DataLineParser implements ILineParser<ISynset> {
+public class DataLineParser implements ICharSequenceLineParser<ISynset> {
 
 	// singleton instance
 	private static DataLineParser instance;
+	
+	// the pointer symbols, so that the parser need not make a new
+	// string for every pointer it reads
+	private static final String[] pointerSymbols = makePointerSymbols();
 
 	/**
 	 * Returns the singleton instance of this class, instantiating it if
@@ -85,22 +93,33 @@ public class DataLineParser implements ILineParser<ISynset> {
 	 * @see edu.mit.jwi.data.parse.ILineParser#parseLine(java.lang.String)
 	 */
 	public ISynset parseLine(String line) {
+		if(line == null) 
+			throw new NullPointerException();
+		return parseLine((CharSequence)line);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.data.parse.ICharSequenceLineParser#parseLine(java.lang.CharSequence)
+	 */
+	public ISynset parseLine(CharSequence line) {
 		if(line == null) 
 			throw new NullPointerException();
 
 		try {
-			StringTokenizer tokenizer = new StringTokenizer(line, " ");
+			LineCursor cursor = new LineCursor(line);
 
 			// Get offset
-			int offset = Integer.parseInt(tokenizer.nextToken());
+			int offset = cursor.nextInt();
 
 			// Consume lex_filenum
-			int lex_filenum = Integer.parseInt(tokenizer.nextToken());
+			int lex_filenum = cursor.nextInt();
 			ILexFile lexFile = resolveLexicalFile(lex_filenum);
 			
 			// Get part of speech
 			POS synset_pos;
-			char synset_tag = tokenizer.nextToken().charAt(0);
+			char synset_tag = cursor.nextChar();
 			synset_pos = POS.getPartOfSpeech(synset_tag);
 
 			ISynsetID synsetID = new SynsetID(offset, synset_pos);
@@ -118,35 +137,37 @@ public class DataLineParser implements ILineParser<ISynset> {
 			boolean isAdjHead = !isAdjSat && lex_filenum == 0;
 
 			// Get word count
-			int wordCount = Integer.parseInt(tokenizer.nextToken(), 16);
+			int wordCount = cursor.nextInt(16);
 
 			// Get words
 			String lemma;
 			AdjMarker marker;
-			int lexID;
+			int lexID, lemmaStart, lemmaEnd;
 			IWordBuilder[] wordProxies = new IWordBuilder[wordCount];
 			for (int i = 0; i < wordCount; i++) {
 				// consume next word
-				lemma = tokenizer.nextToken();
+				lemmaStart = cursor.skipToken();
+				lemmaEnd = cursor.getPosition();
 
 				// if it is an adjective, it may be followed by a marker
 				marker = null;
 				if (synset_pos == POS.ADJECTIVE)
 					for(AdjMarker adjMarker : AdjMarker.values()){
-						if(lemma.endsWith(adjMarker.getSymbol())){
+						if(cursor.regionEndsWith(lemmaStart, lemmaEnd, adjMarker.getSymbol())){
 							marker = adjMarker;
-							lemma = lemma.substring(0, lemma.length()-adjMarker.getSymbol().length());
+							lemmaEnd -= adjMarker.getSymbol().length();
 						}
 					}
+				lemma = cursor.copy(lemmaStart, lemmaEnd);
 
 				// parse lex_id
-				lexID = Integer.parseInt(tokenizer.nextToken(), 16);
+				lexID = cursor.nextInt(16);
 
 				wordProxies[i] = new WordBuilder(i + 1, lemma, lexID, marker);
 			}
 
 			// Get pointer count
-			int pointerCount = Integer.parseInt(tokenizer.nextToken());
+			int pointerCount = cursor.nextInt();
 
 			Map<IPointer, ArrayList<ISynsetID>> synsetPointerMap = null;
 
@@ -160,18 +181,18 @@ public class DataLineParser implements ILineParser<ISynset> {
 			ISynsetID target_synset_id;
 			for (int i = 0; i < pointerCount; i++) {
 				// get pointer symbol
-				pointer_type = resolvePointer(tokenizer.nextToken(), synset_pos);
+				pointer_type = resolvePointer(cursor.nextToken(pointerSymbols), synset_pos);
 
 				// get synset target offset
-				target_offset = Integer.parseInt(tokenizer.nextToken());
+				target_offset = cursor.nextInt();
 
 				// get target synset part of speech
-				target_pos = POS.getPartOfSpeech(tokenizer.nextToken().charAt(0));
+				target_pos = POS.getPartOfSpeech(cursor.nextChar());
 
 				target_synset_id = new SynsetID(target_offset, target_pos);
 
 				// get source/target numbers
-				source_target_num = Integer.parseInt(tokenizer.nextToken(), 16);
+				source_target_num = cursor.nextInt(16);
 
 				// this is a semantic pointer if the source/target numbers are
 				// zero
@@ -201,16 +222,16 @@ public class DataLineParser implements ILineParser<ISynset> {
 			// parse verb frames
 			if (synset_pos == POS.VERB) {
 				int frame_num, word_num;
-				int verbFrameCount = Integer.parseInt(tokenizer.nextToken());
+				int verbFrameCount = cursor.nextInt();
 				IVerbFrame frame;
 				for (int i = 0; i < verbFrameCount; i++) {
 					// Consume '+'
-					tokenizer.nextToken();
+					cursor.skipToken();
 					// Get frame number
-					frame_num = Integer.parseInt(tokenizer.nextToken());
+					frame_num = cursor.nextInt();
 					frame = resolveVerbFrame(frame_num);
 					// Get word number
-					word_num = Integer.parseInt(tokenizer.nextToken(), 16);
+					word_num = cursor.nextInt(16);
 					if (word_num > 0)
 						wordProxies[word_num - 1].addVerbFrame(frame);
 					else {
@@ -222,18 +243,18 @@ public class DataLineParser implements ILineParser<ISynset> {
 
 			// Get gloss
 			String gloss = "";
-			int index = line.indexOf('|');
+			int index = cursor.indexOf('|', 0);
 			if (index > 0)
-				gloss = line.substring(index + 2).trim();
+				gloss = cursor.copyTrimmed(Math.min(index + 2, line.length()), line.length());
 			
 			// create synset and words
 			List<IWordBuilder> words = Arrays.asList(wordProxies);
 			return new Synset(synsetID, lexFile, isAdjSat, isAdjHead, gloss, words, synsetPointerMap);
 		
 		} catch (NumberFormatException e) {
-			throw new MisformattedLineException(line, e);
+			throw new MisformattedLineException(line.toString(), e);
 		} catch (NoSuchElementException e) {
-			throw new MisformattedLineException(line, e);
+			throw new MisformattedLineException(line.toString(), e);
 		}
 	}
 
@@ -304,5 +325,18 @@ public class DataLineParser implements ILineParser<ISynset> {
 		return Pointer.getPointerType(symbol, pos);
 	}
 
+	/**
+	 * Returns the symbols of all the pointers declared in {@link Pointer}.
+	 * 
+	 * @return an array of the distinct pointer symbols
+	 * @since JWI 2.4.0
+	 */
+	static String[] makePointerSymbols(){
+		Set<String> symbols = new LinkedHashSet<String>();
+		for(Pointer ptr : Pointer.values())
+			symbols.add(ptr.getSymbol());
+		return symbols.toArray(new String[symbols.size()]);
+	}
+
 
 }
\ No newline at end of file
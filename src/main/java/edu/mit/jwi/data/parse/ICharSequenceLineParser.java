@@ -0,0 +1,45 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data.parse;
+
+/**
+ * A line parser that can also parse lines presented as arbitrary character
+ * sequences, such as an {@link edu.mit.jwi.data.LineView} over a file's
+ * buffer. Implementations should read the sequence in place, and copy out
+ * only those characters that are kept in the resulting object. The sequence
+ * passed to {@link #parseLine(CharSequence)} may be reused by the caller once
+ * that method returns, so implementations must not hold on to it.
+ * 
+ * @param <T>
+ *            the type of the object into which this parser transforms lines
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public interface ICharSequenceLineParser<T> extends ILineParser<T> {
+
+	/**
+	 * Given the line of data, this method produces an object of class
+	 * <code>T</code>. The result must be the same as would be produced by
+	 * {@link #parseLine(String)} for a string with the same characters.
+	 * 
+	 * @param line
+	 *            the line to be parsed
+	 * @return the object resulting from the parse
+	 * @throws NullPointerException
+	 *             if the specified line is <code>null</code>
+	 * @throws MisformattedLineException
+	 *             if the line is malformed in some way
+	 * @since JWI 2.4.0
+	 */
+	public T parseLine(CharSequence line);
+
+}
@@ -10,8 +10,6 @@
 
 package edu.mit.jwi.data.parse;
 
-import java.util.StringTokenizer;
-
 import edu.mit.jwi.item.IIndexWord;
 import edu.mit.jwi.item.IPointer;
 import edu.mit.jwi.item.IWordID;
@@ -24,7 +22,9 @@ import edu.mit.jwi.item.WordID;
 /**
  * <p>
  * Parser parser for Wordnet index files (e.g., <code>idx.adv</code> or
- * <code>adv.idx</code>). It produces an {@code IIndexWord} object.
+ * <code>adv.idx</code>). It produces an {@code IIndexWord} object. Lines
+ * may be given either as strings or as other character sequences; in either
+ * case the line is read in place, and only the lemma is copied out of it.
  * </p>
  * <p>
  * This class follows a singleton design pattern, and is not intended to be
@@ -35,10 +35,14 @@ import edu.mit.jwi.item.WordID;
  * @version 2.3.3
  * @since JWI 1.0
  */
-public class IndexLineParser implements ILineParser<IIndexWord> {
+public class IndexLineParser implements ICharSequenceLineParser<IIndexWord> {
 
 	// singleton instance
 	private static IndexLineParser instance;
+	
+	// the pointer symbols, so that the parser need not make a new
+	// string for every pointer it reads
+	private static final String[] pointerSymbols = DataLineParser.makePointerSymbols();
 
 	/**
 	 * Returns the singleton instance of this class, instantiating it if
@@ -69,48 +73,55 @@ public class IndexLineParser implements ILineParser<IIndexWord> {
 	 * @see edu.mit.jwi.data.parse.ILineParser#parseLine(java.lang.String)
 	 */
 	public IIndexWord parseLine(String line) {
+		if (line == null) 
+			throw new NullPointerException();
+		return parseLine((CharSequence)line);
+	}
+
+	/* 
+	 * (non-Javadoc) 
+	 *
+	 * @see edu.mit.jwi.data.parse.ICharSequenceLineParser#parseLine(java.lang.CharSequence)
+	 */
+	public IIndexWord parseLine(CharSequence line) {
 		if (line == null) 
 			throw new NullPointerException();
 
 		try {
-			StringTokenizer tokenizer = new StringTokenizer(line, " ");
+			LineCursor cursor = new LineCursor(line);
 
 			// get lemma
-			String lemma = tokenizer.nextToken();
+			String lemma = cursor.nextToken();
 
 			// get pos
-			String posSym = tokenizer.nextToken();
-			POS pos = POS.getPartOfSpeech(posSym.charAt(0));
+			POS pos = POS.getPartOfSpeech(cursor.nextChar());
 			
 			// consume synset_cnt
-			tokenizer.nextToken();
+			cursor.skipToken();
 
 			// consume ptr_symbols
-			int p_cnt = Integer.parseInt(tokenizer.nextToken());
+			int p_cnt = cursor.nextInt();
 			IPointer[] ptrs = new IPointer[p_cnt];
-			String tok;
-			for(int i = 0; i < p_cnt; ++i){
-				tok = tokenizer.nextToken();
-				ptrs[i] = resolvePointer(tok, pos);
-			}
+			for(int i = 0; i < p_cnt; ++i)
+				ptrs[i] = resolvePointer(cursor.nextToken(pointerSymbols), pos);
 
 			// get sense_cnt
-			int senseCount = Integer.parseInt(tokenizer.nextToken());
+			int senseCount = cursor.nextInt();
 
 			// get tagged sense count
-			int tagSenseCnt = Integer.parseInt(tokenizer.nextToken());
+			int tagSenseCnt = cursor.nextInt();
 
 			// get words
 			IWordID[] words = new IWordID[senseCount];
 			int offset;
 			for (int i = 0; i < senseCount; i++) {
-				offset = Integer.parseInt(tokenizer.nextToken());
+				offset = cursor.nextInt();
 				words[i] = new WordID(new SynsetID(offset, pos), lemma);
 			}
 
 			return new IndexWord(lemma, pos, tagSenseCnt, ptrs, words);
 		} catch (Exception e) {
-			throw new MisformattedLineException(line, e);
+			throw new MisformattedLineException(line.toString(), e);
 		} 
 	}
 	
@@ -0,0 +1,312 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.data.parse;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * A cursor that reads space-delimited tokens from a line, in the manner of a
+ * {@link java.util.StringTokenizer} with a single space as delimiter, but
+ * without creating a string for each token. Numbers are parsed directly from
+ * the line, and characters are only copied out of the line when a token or
+ * range is explicitly requested as a string.
+ * </p>
+ * <p>
+ * As with <code>StringTokenizer</code>, requesting a token when none remain
+ * throws a {@link NoSuchElementException}; a token that cannot be parsed as a
+ * number throws a {@link NumberFormatException}. This class is not
+ * thread-safe.
+ * </p>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class LineCursor {
+
+	// instance fields
+	private final CharSequence line;
+	private final int length;
+	private int pos = 0;
+
+	/**
+	 * Constructs a new cursor positioned at the start of the specified line.
+	 * 
+	 * @param line
+	 *            the line to be read; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if the specified line is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public LineCursor(CharSequence line) {
+		if(line == null)
+			throw new NullPointerException();
+		this.line = line;
+		this.length = line.length();
+	}
+
+	/**
+	 * Returns the line this cursor is reading.
+	 * 
+	 * @return the line this cursor is reading
+	 * @since JWI 2.4.0
+	 */
+	public CharSequence getLine() {
+		return line;
+	}
+
+	/**
+	 * Returns the index in the line of the next character to be read.
+	 * 
+	 * @return the position of the cursor in the line
+	 * @since JWI 2.4.0
+	 */
+	public int getPosition() {
+		return pos;
+	}
+
+	/**
+	 * Returns <code>true</code> if there are more tokens to be read.
+	 * 
+	 * @return <code>true</code> if there are more tokens; <code>false</code>
+	 *         otherwise
+	 * @since JWI 2.4.0
+	 */
+	public boolean hasMoreTokens() {
+		skipDelimiters();
+		return pos < length;
+	}
+
+	/**
+	 * Skips over the next token, and returns the index in the line at which
+	 * it began. After this call, {@link #getPosition()} returns the index just
+	 * past the end of the token.
+	 * 
+	 * @return the index in the line of the first character of the token
+	 * @throws NoSuchElementException
+	 *             if there are no more tokens
+	 * @since JWI 2.4.0
+	 */
+	public int skipToken() {
+		skipDelimiters();
+		if(pos >= length)
+			throw new NoSuchElementException();
+		int start = pos;
+		while(pos < length && line.charAt(pos) != ' ')
+			pos++;
+		return start;
+	}
+
+	/**
+	 * Returns the next token as a string.
+	 * 
+	 * @return the next token
+	 * @throws NoSuchElementException
+	 *             if there are no more tokens
+	 * @since JWI 2.4.0
+	 */
+	public String nextToken() {
+		int start = skipToken();
+		return copy(start, pos);
+	}
+
+	/**
+	 * Returns the next token as a string, using an instance from the
+	 * specified array of known tokens if the token is equal to one of them,
+	 * so that no new string is made for commonly occurring tokens.
+	 * 
+	 * @param known
+	 *            the known tokens; may not be <code>null</code>
+	 * @return the next token
+	 * @throws NoSuchElementException
+	 *             if there are no more tokens
+	 * @throws NullPointerException
+	 *             if the array of known tokens is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public String nextToken(String[] known) {
+		int start = skipToken();
+		for(int i = 0; i < known.length; i++)
+			if(regionEquals(start, pos, known[i]))
+				return known[i];
+		return copy(start, pos);
+	}
+
+	/**
+	 * Returns the first character of the next token, and skips over the rest
+	 * of the token.
+	 * 
+	 * @return the first character of the next token
+	 * @throws NoSuchElementException
+	 *             if there are no more tokens
+	 * @since JWI 2.4.0
+	 */
+	public char nextChar() {
+		return line.charAt(skipToken());
+	}
+
+	/**
+	 * Parses the next token as a decimal integer.
+	 * 
+	 * @return the integer value of the next token
+	 * @throws NoSuchElementException
+	 *             if there are no more tokens
+	 * @throws NumberFormatException
+	 *             if the token is not a decimal integer
+	 * @since JWI 2.4.0
+	 */
+	public int nextInt() {
+		return nextInt(10);
+	}
+
+	/**
+	 * Parses the next token as an integer in the specified radix, in the
+	 * manner of {@link Integer#parseInt(String, int)}.
+	 * 
+	 * @param radix
+	 *            the radix in which the token is written
+	 * @return the integer value of the next token
+	 * @throws NoSuchElementException
+	 *             if there are no more tokens
+	 * @throws NumberFormatException
+	 *             if the token is not an integer in the specified radix
+	 * @since JWI 2.4.0
+	 */
+	public int nextInt(int radix) {
+		int start = skipToken();
+		int i = start;
+		boolean negative = false;
+		char c = line.charAt(i);
+		if(c == '-' || c == '+'){
+			negative = (c == '-');
+			i++;
+			if(i == pos)
+				throw numberFormat(start);
+		}
+
+		long result = 0;
+		int digit;
+		for(; i < pos; i++){
+			digit = Character.digit(line.charAt(i), radix);
+			if(digit < 0)
+				throw numberFormat(start);
+			result = result*radix + digit;
+			if(result > (long)Integer.MAX_VALUE + 1)
+				throw numberFormat(start);
+		}
+		if(negative)
+			result = -result;
+		if(result > Integer.MAX_VALUE)
+			throw numberFormat(start);
+		return (int)result;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the specified character in
+	 * the line, starting at the specified index, or -1 if it does not occur.
+	 * The position of the cursor is not changed.
+	 * 
+	 * @param c
+	 *            the character to look for
+	 * @param from
+	 *            the index at which to start looking
+	 * @return the index of the character, or -1 if it does not occur
+	 * @since JWI 2.4.0
+	 */
+	public int indexOf(char c, int from) {
+		for(int i = Math.max(from, 0); i < length; i++)
+			if(line.charAt(i) == c)
+				return i;
+		return -1;
+	}
+
+	/**
+	 * Returns <code>true</code> if the characters of the line in the
+	 * specified range end with the specified suffix.
+	 * 
+	 * @param start
+	 *            the index of the first character of the range
+	 * @param end
+	 *            the index just past the last character of the range
+	 * @param suffix
+	 *            the suffix to check for; may not be <code>null</code>
+	 * @return <code>true</code> if the range ends with the suffix;
+	 *         <code>false</code> otherwise
+	 * @throws NullPointerException
+	 *             if the suffix is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public boolean regionEndsWith(int start, int end, String suffix) {
+		int len = suffix.length();
+		return end - start >= len && regionEquals(end - len, end, suffix);
+	}
+
+	/**
+	 * Returns the characters of the line in the specified range as a string.
+	 * 
+	 * @param start
+	 *            the index of the first character to copy
+	 * @param end
+	 *            the index just past the last character to copy
+	 * @return a string containing the specified characters
+	 * @throws IndexOutOfBoundsException
+	 *             if the range does not lie within the line
+	 * @since JWI 2.4.0
+	 */
+	public String copy(int start, int end) {
+		return line.subSequence(start, end).toString();
+	}
+
+	/**
+	 * Returns the characters of the line in the specified range as a string,
+	 * with leading and trailing whitespace removed in the manner of
+	 * {@link String#trim()}.
+	 * 
+	 * @param start
+	 *            the index of the first character to copy
+	 * @param end
+	 *            the index just past the last character to copy
+	 * @return a string containing the specified characters, trimmed
+	 * @throws IndexOutOfBoundsException
+	 *             if the range does not lie within the line
+	 * @since JWI 2.4.0
+	 */
+	public String copyTrimmed(int start, int end) {
+		while(start < end && line.charAt(start) <= ' ')
+			start++;
+		while(end > start && line.charAt(end - 1) <= ' ')
+			end--;
+		return copy(start, end);
+	}
+
+	// moves the cursor past any delimiters
+	private void skipDelimiters() {
+		while(pos < length && line.charAt(pos) == ' ')
+			pos++;
+	}
+
+	// returns true if the range is equal to the string
+	private boolean regionEquals(int start, int end, String str) {
+		if(end - start != str.length())
+			return false;
+		for(int i = start; i < end; i++)
+			if(line.charAt(i) != str.charAt(i - start))
+				return false;
+		return true;
+	}
+
+	// makes the exception for a token that is not a number
+	private NumberFormatException numberFormat(int start) {
+		return new NumberFormatException("For input string: \"" + copy(start, pos) + "\"");
+	}
+
+}
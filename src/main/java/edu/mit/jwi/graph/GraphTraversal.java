@@ -0,0 +1,277 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.graph;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Breadth-first and depth-first traversals of a {@link SynsetGraph}, along
+ * the edges of a set of pointer types, outbound or inbound, to a limited
+ * depth. Each node is reached at most once per traversal. The state of a
+ * traversal is held in arrays sized to the graph when this object is made,
+ * so that no traversal allocates; the nodes reached by the last traversal,
+ * and their depths, may be read afterwards.
+ * </p>
+ * <p>
+ * This class is not thread-safe; each thread should use its own traversal
+ * over a shared graph.
+ * </p>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class GraphTraversal {
+
+	// immutable fields
+	private final SynsetGraph graph;
+
+	// the nodes in the order reached, and the depth at which each was reached
+	private final int[] reached;
+	private final int[] depths;
+
+	// the traversal in which each node was last reached
+	private final int[] marks;
+
+	// the path to the current node, and the next edge to be followed from
+	// each node on it, for depth-first traversals
+	private final int[] path;
+	private final int[] cursors;
+
+	// instance fields
+	private int reachedCount;
+	private int mark;
+
+	/**
+	 * Constructs a new traversal of the specified graph.
+	 * 
+	 * @param graph
+	 *            the graph to be traversed; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if the specified graph is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public GraphTraversal(SynsetGraph graph) {
+		if(graph == null)
+			throw new NullPointerException();
+		this.graph = graph;
+		int count = graph.getNodeCount();
+		this.reached = new int[count];
+		this.depths = new int[count];
+		this.marks = new int[count];
+		this.path = new int[count];
+		this.cursors = new int[count];
+	}
+
+	/**
+	 * Returns the graph traversed by this object.
+	 * 
+	 * @return the graph traversed by this object
+	 * @since JWI 2.4.0
+	 */
+	public SynsetGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Visits the nodes reachable from the specified node in breadth-first
+	 * order, following edges whose pointer types are in the mask, out to the
+	 * specified depth.
+	 * 
+	 * @param start
+	 *            the node at which to start
+	 * @param mask
+	 *            the mask of the pointer types to follow, as made by
+	 *            {@link SynsetGraph#getMask(edu.mit.jwi.item.IPointer...)}
+	 * @param maxDepth
+	 *            the greatest depth to which to go, or a negative number for
+	 *            no limit
+	 * @param inbound
+	 *            <code>true</code> if edges should be followed backwards, from
+	 *            target to source; <code>false</code> otherwise
+	 * @param visitor
+	 *            the visitor to be called on each node reached; may be
+	 *            <code>null</code>
+	 * @return the number of nodes reached
+	 * @throws IndexOutOfBoundsException
+	 *             if the start node is not in the graph
+	 * @since JWI 2.4.0
+	 */
+	public int breadthFirst(int start, int mask, int maxDepth, boolean inbound, INodeVisitor visitor) {
+		begin(start);
+		int head = 0;
+		int node, depth, end, next;
+		while(head < reachedCount){
+			node = reached[head++];
+			depth = depths[node];
+			if(visitor != null && !visitor.visit(node, depth))
+				continue;
+			if(depth == maxDepth)
+				continue;
+			end = inbound ? graph.getInEnd(node) : graph.getOutEnd(node);
+			for(int e = inbound ? graph.getInStart(node) : graph.getOutStart(node); e < end; e++){
+				if(!follows(e, mask, inbound))
+					continue;
+				next = inbound ? graph.getInSource(e) : graph.getOutTarget(e);
+				if(marks[next] != mark)
+					reach(next, depth + 1);
+			}
+		}
+		return reachedCount;
+	}
+
+	/**
+	 * Visits the nodes reachable from the specified node in depth-first
+	 * order, each before the nodes reached from it, following edges whose
+	 * pointer types are in the mask, out to the specified depth. A node is
+	 * visited on the first path by which it is reached, so its depth is not
+	 * always that of its shortest path, and with a depth limit, nodes that a
+	 * breadth-first traversal would reach may be missed.
+	 * 
+	 * @param start
+	 *            the node at which to start
+	 * @param mask
+	 *            the mask of the pointer types to follow, as made by
+	 *            {@link SynsetGraph#getMask(edu.mit.jwi.item.IPointer...)}
+	 * @param maxDepth
+	 *            the greatest depth to which to go, or a negative number for
+	 *            no limit
+	 * @param inbound
+	 *            <code>true</code> if edges should be followed backwards, from
+	 *            target to source; <code>false</code> otherwise
+	 * @param visitor
+	 *            the visitor to be called on each node reached; may be
+	 *            <code>null</code>
+	 * @return the number of nodes reached
+	 * @throws IndexOutOfBoundsException
+	 *             if the start node is not in the graph
+	 * @since JWI 2.4.0
+	 */
+	public int depthFirst(int start, int mask, int maxDepth, boolean inbound, INodeVisitor visitor) {
+		begin(start);
+		if(visitor != null && !visitor.visit(start, 0))
+			return reachedCount;
+		if(maxDepth == 0)
+			return reachedCount;
+		int top = 0;
+		path[0] = start;
+		cursors[0] = inbound ? graph.getInStart(start) : graph.getOutStart(start);
+		int node, e, end, next;
+		while(top >= 0){
+			node = path[top];
+			end = inbound ? graph.getInEnd(node) : graph.getOutEnd(node);
+			for(e = cursors[top]; e < end; e++)
+				if(follows(e, mask, inbound) && marks[inbound ? graph.getInSource(e) : graph.getOutTarget(e)] != mark)
+					break;
+			if(e == end){
+				top--;
+				continue;
+			}
+			cursors[top] = e + 1;
+			next = inbound ? graph.getInSource(e) : graph.getOutTarget(e);
+			reach(next, top + 1);
+			if(visitor != null && !visitor.visit(next, top + 1))
+				continue;
+			if(top + 1 == maxDepth)
+				continue;
+			top++;
+			path[top] = next;
+			cursors[top] = inbound ? graph.getInStart(next) : graph.getOutStart(next);
+		}
+		return reachedCount;
+	}
+
+	/**
+	 * Returns the number of nodes reached by the last traversal.
+	 * 
+	 * @return the number of nodes reached by the last traversal
+	 * @since JWI 2.4.0
+	 */
+	public int getReachedCount() {
+		return reachedCount;
+	}
+
+	/**
+	 * Returns the node reached at the specified position by the last
+	 * traversal, where the start node is at position 0.
+	 * 
+	 * @param index
+	 *            the position of the node, less than
+	 *            {@link #getReachedCount()}
+	 * @return the node reached at the position
+	 * @throws IndexOutOfBoundsException
+	 *             if the position is out of range
+	 * @since JWI 2.4.0
+	 */
+	public int getReached(int index) {
+		if(index < 0 || index >= reachedCount)
+			throw new IndexOutOfBoundsException();
+		return reached[index];
+	}
+
+	/**
+	 * Returns whether the specified node was reached by the last traversal.
+	 * 
+	 * @param node
+	 *            the node
+	 * @return <code>true</code> if the node was reached; <code>false</code>
+	 *         otherwise
+	 * @throws IndexOutOfBoundsException
+	 *             if the node is not in the graph
+	 * @since JWI 2.4.0
+	 */
+	public boolean isReached(int node) {
+		return mark != 0 && marks[node] == mark;
+	}
+
+	/**
+	 * Returns the depth at which the specified node was reached by the last
+	 * traversal, or -1 if it was not reached.
+	 * 
+	 * @param node
+	 *            the node
+	 * @return the depth of the node, or -1
+	 * @throws IndexOutOfBoundsException
+	 *             if the node is not in the graph
+	 * @since JWI 2.4.0
+	 */
+	public int getDepth(int node) {
+		return isReached(node) ? depths[node] : -1;
+	}
+
+	// starts a new traversal at the node
+	private void begin(int start) {
+		if(start < 0 || start >= marks.length)
+			throw new IndexOutOfBoundsException("no node " + start);
+		if(++mark == 0){
+			// the marks have wrapped; clear them
+			Arrays.fill(marks, 0);
+			mark = 1;
+		}
+		reachedCount = 0;
+		reach(start, 0);
+	}
+
+	// records that the node has been reached at the depth
+	private void reach(int node, int depth) {
+		marks[node] = mark;
+		depths[node] = depth;
+		reached[reachedCount++] = node;
+	}
+
+	// returns whether the edge is of a pointer type in the mask
+	private boolean follows(int edge, int mask, boolean inbound) {
+		int type = inbound ? graph.getInType(edge) : graph.getOutType(edge);
+		return (mask & (1 << type)) != 0;
+	}
+
+}
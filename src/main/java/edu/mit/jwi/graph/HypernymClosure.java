@@ -0,0 +1,587 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.Pointer;
+
+/**
+ * <p>
+ * An index of the transitive closure of the hypernym and instance hypernym
+ * pointers of a {@link SynsetGraph}, which answers whether one synset is a
+ * kind of another, and lists the ancestors of a synset, without walking the
+ * pointers.
+ * </p>
+ * <p>
+ * Each synset is given one of its hypernyms as its parent, which makes a
+ * spanning forest of the hypernym graph, and the forest is numbered in
+ * depth-first order, so that the descendants of a synset in the forest are
+ * those numbered in an interval from its own number. An ancestor on the
+ * forest is then found by comparing the interval, in constant time. The
+ * ancestors a synset reaches only through its other hypernyms are few, and
+ * are kept in a sorted list per synset, which is searched after the
+ * interval. The minimum and maximum depths of each synset below a root are
+ * also kept.
+ * </p>
+ * <p>
+ * Hypernym pointers that would close a cycle are ignored. The index may be
+ * written to a file with {@link #save(File)} and read back, for the same
+ * graph, with {@link #load(File, SynsetGraph)}. This class is thread-safe.
+ * </p>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class HypernymClosure {
+
+	// the file header
+	private static final int MAGIC = 0x4A574843;
+	private static final int FORMAT_VERSION = 1;
+
+	// immutable fields
+	private final SynsetGraph graph;
+
+	// the spanning forest: parents, depth-first numbers, and the last number
+	// in the subtree of each node
+	private final int[] parents;
+	private final int[] numbers;
+	private final int[] lasts;
+
+	// the ancestors not on the forest path of each node, sorted
+	private final int[] extraRows;
+	private final int[] extras;
+
+	// the shortest and longest distances to a root
+	private final int[] minDepths;
+	private final int[] maxDepths;
+
+	/**
+	 * Constructs a new closure of the hypernyms of the synsets of the
+	 * specified dictionary, which must be open.
+	 * 
+	 * @param dict
+	 *            the dictionary; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if the specified dictionary is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public HypernymClosure(IDictionary dict) {
+		this(new SynsetGraph(dict));
+	}
+
+	/**
+	 * Constructs a new closure of the hypernym and instance hypernym
+	 * pointers of the specified graph.
+	 * 
+	 * @param graph
+	 *            the graph; may not be <code>null</code>
+	 * @throws NullPointerException
+	 *             if the specified graph is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public HypernymClosure(SynsetGraph graph) {
+		if(graph == null)
+			throw new NullPointerException();
+		this.graph = graph;
+		int count = graph.getNodeCount();
+		int mask = graph.getMask(Pointer.HYPERNYM, Pointer.HYPERNYM_INSTANCE);
+
+		// order the nodes so that hypernyms come before their hyponyms; the
+		// nodes left in cycles follow, in node order
+		int[] order = new int[count];
+		int[] position = new int[count];
+		int[] pending = new int[count];
+		int size = 0;
+		for(int node = 0; node < count; node++){
+			for(int e = graph.getOutStart(node); e < graph.getOutEnd(node); e++)
+				if(follows(graph.getOutType(e), mask))
+					pending[node]++;
+			if(pending[node] == 0)
+				order[size++] = node;
+		}
+		int child;
+		for(int head = 0; head < size; head++){
+			for(int e = graph.getInStart(order[head]); e < graph.getInEnd(order[head]); e++){
+				if(!follows(graph.getInType(e), mask))
+					continue;
+				child = graph.getInSource(e);
+				if(--pending[child] == 0)
+					order[size++] = child;
+			}
+		}
+		if(size < count)
+			for(int node = 0; node < count; node++)
+				if(pending[node] > 0)
+					order[size++] = node;
+		for(int i = 0; i < count; i++)
+			position[order[i]] = i;
+
+		// choose parents, and the depths, in that order
+		this.parents = new int[count];
+		this.minDepths = new int[count];
+		this.maxDepths = new int[count];
+		int node, parent;
+		for(int i = 0; i < count; i++){
+			node = order[i];
+			parents[node] = -1;
+			for(int e = graph.getOutStart(node); e < graph.getOutEnd(node); e++){
+				parent = graph.getOutTarget(e);
+				if(!follows(graph.getOutType(e), mask) || position[parent] >= i)
+					continue;
+				if(parents[node] < 0){
+					parents[node] = parent;
+					minDepths[node] = minDepths[parent] + 1;
+					maxDepths[node] = maxDepths[parent] + 1;
+				} else {
+					minDepths[node] = Math.min(minDepths[node], minDepths[parent] + 1);
+					maxDepths[node] = Math.max(maxDepths[node], maxDepths[parent] + 1);
+				}
+			}
+		}
+
+		// number the forest in depth-first order
+		this.numbers = new int[count];
+		this.lasts = new int[count];
+		int[] childRows = new int[count + 1];
+		for(node = 0; node < count; node++)
+			if(parents[node] >= 0)
+				childRows[parents[node] + 1]++;
+		for(int i = 0; i < count; i++)
+			childRows[i + 1] += childRows[i];
+		int[] children = new int[childRows[count]];
+		int[] next = Arrays.copyOf(childRows, count);
+		for(node = 0; node < count; node++)
+			if(parents[node] >= 0)
+				children[next[parents[node]]++] = node;
+		int[] stack = new int[count];
+		int[] cursors = new int[count];
+		int number = 0, top;
+		for(int root = 0; root < count; root++){
+			if(parents[root] >= 0)
+				continue;
+			top = 0;
+			stack[0] = root;
+			cursors[0] = childRows[root];
+			numbers[root] = number++;
+			while(top >= 0){
+				node = stack[top];
+				if(cursors[top] == childRows[node + 1]){
+					lasts[node] = number - 1;
+					top--;
+					continue;
+				}
+				child = children[cursors[top]++];
+				numbers[child] = number++;
+				stack[++top] = child;
+				cursors[top] = childRows[child];
+			}
+		}
+
+		// collect the ancestors of each node, in order, keeping those off
+		// its forest path
+		int[][] ancestors = new int[count][];
+		IntSet set = new IntSet();
+		List<int[]> extraLists = new ArrayList<int[]>(count);
+		for(int i = 0; i < count; i++)
+			extraLists.add(null);
+		int total = 0;
+		for(int i = 0; i < count; i++){
+			node = order[i];
+			set.clear();
+			for(int e = graph.getOutStart(node); e < graph.getOutEnd(node); e++){
+				parent = graph.getOutTarget(e);
+				if(!follows(graph.getOutType(e), mask) || position[parent] >= i)
+					continue;
+				set.add(parent);
+				for(int a : ancestors[parent])
+					set.add(a);
+			}
+			ancestors[node] = set.toArray();
+			int[] extra = new int[ancestors[node].length];
+			int n = 0;
+			for(int a : ancestors[node])
+				if(!onPath(node, a))
+					extra[n++] = a;
+			extra = Arrays.copyOf(extra, n);
+			Arrays.sort(extra);
+			extraLists.set(node, extra);
+			total += n;
+		}
+		this.extraRows = new int[count + 1];
+		this.extras = new int[total];
+		for(node = 0; node < count; node++){
+			int[] extra = extraLists.get(node);
+			System.arraycopy(extra, 0, extras, extraRows[node], extra.length);
+			extraRows[node + 1] = extraRows[node] + extra.length;
+		}
+	}
+
+	// constructs a closure from read arrays
+	private HypernymClosure(SynsetGraph graph, int[] parents, int[] numbers, int[] lasts, int[] extraRows, int[] extras, int[] minDepths, int[] maxDepths) {
+		this.graph = graph;
+		this.parents = parents;
+		this.numbers = numbers;
+		this.lasts = lasts;
+		this.extraRows = extraRows;
+		this.extras = extras;
+		this.minDepths = minDepths;
+		this.maxDepths = maxDepths;
+	}
+
+	/**
+	 * Returns the graph of this closure.
+	 * 
+	 * @return the graph of this closure
+	 * @since JWI 2.4.0
+	 */
+	public SynsetGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns whether the synset of the first node is a kind of the synset
+	 * of the second, that is, whether the second node is the first, or one
+	 * of its hypernyms, direct or not.
+	 * 
+	 * @param node
+	 *            the node of the hyponym
+	 * @param ancestor
+	 *            the node of the possible hypernym
+	 * @return <code>true</code> if the second node is the first or one of its
+	 *         ancestors; <code>false</code> otherwise
+	 * @throws IndexOutOfBoundsException
+	 *             if either node is not in the graph
+	 * @since JWI 2.4.0
+	 */
+	public boolean isA(int node, int ancestor) {
+		if(onPath(node, ancestor))
+			return true;
+		return Arrays.binarySearch(extras, extraRows[node], extraRows[node + 1], ancestor) >= 0;
+	}
+
+	/**
+	 * Returns whether the first synset is a kind of the second, that is,
+	 * whether the second synset is the first, or one of its hypernyms,
+	 * direct or not. Synsets not in the graph are a kind of nothing.
+	 * 
+	 * @param id
+	 *            the id of the hyponym; may not be <code>null</code>
+	 * @param ancestor
+	 *            the id of the possible hypernym; may not be
+	 *            <code>null</code>
+	 * @return <code>true</code> if the second synset is the first or one of
+	 *         its ancestors; <code>false</code> otherwise
+	 * @throws NullPointerException
+	 *             if either id is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public boolean isA(ISynsetID id, ISynsetID ancestor) {
+		int node = graph.getNode(id);
+		int other = graph.getNode(ancestor);
+		return node >= 0 && other >= 0 && isA(node, other);
+	}
+
+	/**
+	 * Returns the nodes of the hypernyms, direct or not, of the specified
+	 * node: first those on its path in the spanning forest, nearest first,
+	 * then the others, in node order.
+	 * 
+	 * @param node
+	 *            the node
+	 * @return a new array of the ancestors of the node
+	 * @throws IndexOutOfBoundsException
+	 *             if the node is not in the graph
+	 * @since JWI 2.4.0
+	 */
+	public int[] getAncestors(int node) {
+		int count = 0;
+		for(int a = parents[node]; a >= 0; a = parents[a])
+			count++;
+		int[] result = new int[count + extraRows[node + 1] - extraRows[node]];
+		count = 0;
+		for(int a = parents[node]; a >= 0; a = parents[a])
+			result[count++] = a;
+		System.arraycopy(extras, extraRows[node], result, count, result.length - count);
+		return result;
+	}
+
+	/**
+	 * Returns the ids of the hypernyms, direct or not, of the specified
+	 * synset, or an empty list if it is not in the graph.
+	 * 
+	 * @param id
+	 *            the synset id; may not be <code>null</code>
+	 * @return a list of the ids of the ancestors of the synset
+	 * @throws NullPointerException
+	 *             if the specified id is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public List<ISynsetID> getAncestors(ISynsetID id) {
+		int node = graph.getNode(id);
+		if(node < 0)
+			return new ArrayList<ISynsetID>(0);
+		int[] ancestors = getAncestors(node);
+		List<ISynsetID> result = new ArrayList<ISynsetID>(ancestors.length);
+		for(int a : ancestors)
+			result.add(graph.getSynsetID(a));
+		return result;
+	}
+
+	/**
+	 * Returns the number of hypernyms, direct or not, of the specified node.
+	 * 
+	 * @param node
+	 *            the node
+	 * @return the number of ancestors of the node
+	 * @throws IndexOutOfBoundsException
+	 *             if the node is not in the graph
+	 * @since JWI 2.4.0
+	 */
+	public int getAncestorCount(int node) {
+		int count = extraRows[node + 1] - extraRows[node];
+		for(int a = parents[node]; a >= 0; a = parents[a])
+			count++;
+		return count;
+	}
+
+	/**
+	 * Returns the hypernym chosen as the parent of the specified node in
+	 * the spanning forest, or -1 if it has no hypernyms.
+	 * 
+	 * @param node
+	 *            the node
+	 * @return the parent of the node, or -1
+	 * @throws IndexOutOfBoundsException
+	 *             if the node is not in the graph
+	 * @since JWI 2.4.0
+	 */
+	public int getParent(int node) {
+		return parents[node];
+	}
+
+	/**
+	 * Returns the number of hypernym pointers on the shortest path from the
+	 * specified node to a synset with no hypernyms.
+	 * 
+	 * @param node
+	 *            the node
+	 * @return the least depth of the node; 0 for a root
+	 * @throws IndexOutOfBoundsException
+	 *             if the node is not in the graph
+	 * @since JWI 2.4.0
+	 */
+	public int getDepth(int node) {
+		return minDepths[node];
+	}
+
+	/**
+	 * Returns the number of hypernym pointers on the shortest path from the
+	 * specified synset to a synset with no hypernyms, or -1 if it is not in
+	 * the graph.
+	 * 
+	 * @param id
+	 *            the synset id; may not be <code>null</code>
+	 * @return the least depth of the synset, or -1
+	 * @throws NullPointerException
+	 *             if the specified id is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public int getDepth(ISynsetID id) {
+		int node = graph.getNode(id);
+		return (node < 0) ? -1 : minDepths[node];
+	}
+
+	/**
+	 * Returns the number of hypernym pointers on the longest path from the
+	 * specified node to a synset with no hypernyms.
+	 * 
+	 * @param node
+	 *            the node
+	 * @return the greatest depth of the node; 0 for a root
+	 * @throws IndexOutOfBoundsException
+	 *             if the node is not in the graph
+	 * @since JWI 2.4.0
+	 */
+	public int getMaxDepth(int node) {
+		return maxDepths[node];
+	}
+
+	/**
+	 * Writes this closure to the specified file, from which it may be read
+	 * back with {@link #load(File, SynsetGraph)}.
+	 * 
+	 * @param file
+	 *            the file to be written; may not be <code>null</code>
+	 * @throws IOException
+	 *             if there is a problem writing the file
+	 * @throws NullPointerException
+	 *             if the specified file is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public void save(File file) throws IOException {
+		File tmp = new File(file.getPath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), 1 << 16));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeLong(fingerprint(graph));
+			writeInts(out, parents);
+			writeInts(out, numbers);
+			writeInts(out, lasts);
+			writeInts(out, extraRows);
+			writeInts(out, extras);
+			writeInts(out, minDepths);
+			writeInts(out, maxDepths);
+		} finally {
+			out.close();
+		}
+		if(!tmp.renameTo(file)){
+			file.delete();
+			if(!tmp.renameTo(file)){
+				tmp.delete();
+				throw new IOException("Unable to write " + file);
+			}
+		}
+	}
+
+	/**
+	 * Reads a closure written by {@link #save(File)} for the specified graph,
+	 * or a graph of the same synsets and pointers.
+	 * 
+	 * @param file
+	 *            the file to be read; may not be <code>null</code>
+	 * @param graph
+	 *            the graph of the closure; may not be <code>null</code>
+	 * @return the closure read from the file
+	 * @throws IOException
+	 *             if there is a problem reading the file, or it was not
+	 *             written for the same graph
+	 * @throws NullPointerException
+	 *             if either argument is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static HypernymClosure load(File file, SynsetGraph graph) throws IOException {
+		if(graph == null)
+			throw new NullPointerException();
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+		try {
+			if(in.readInt() != MAGIC)
+				throw new IOException("Not a hypernym closure file");
+			int version = in.readInt();
+			if(version != FORMAT_VERSION)
+				throw new IOException("Unsupported hypernym closure format: " + version);
+			if(in.readLong() != fingerprint(graph))
+				throw new IOException("Hypernym closure file was written for a different graph");
+			int count = graph.getNodeCount();
+			int[] parents = readInts(in, count);
+			int[] numbers = readInts(in, count);
+			int[] lasts = readInts(in, count);
+			int[] extraRows = readInts(in, count + 1);
+			int[] extras = readInts(in, extraRows[count]);
+			int[] minDepths = readInts(in, count);
+			int[] maxDepths = readInts(in, count);
+			return new HypernymClosure(graph, parents, numbers, lasts, extraRows, extras, minDepths, maxDepths);
+		} finally {
+			in.close();
+		}
+	}
+
+	// returns whether the ancestor is the node or above it in the forest
+	private boolean onPath(int node, int ancestor) {
+		int n = numbers[node];
+		return numbers[ancestor] <= n && n <= lasts[ancestor];
+	}
+
+	// returns whether the pointer type is in the mask
+	private static boolean follows(int type, int mask) {
+		return (mask & (1 << type)) != 0;
+	}
+
+	// returns a checksum of the nodes and hypernym edges of the graph
+	private static long fingerprint(SynsetGraph graph) {
+		int mask = graph.getMask(Pointer.HYPERNYM, Pointer.HYPERNYM_INSTANCE);
+		long hash = graph.getNodeCount();
+		for(int node = 0; node < graph.getNodeCount(); node++){
+			hash = 31*hash + graph.getOffset(node);
+			for(int e = graph.getOutStart(node); e < graph.getOutEnd(node); e++)
+				if(follows(graph.getOutType(e), mask))
+					hash = 31*hash + graph.getOutTarget(e);
+		}
+		return hash;
+	}
+
+	// writes the length and values of the array
+	private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+		out.writeInt(values.length);
+		for(int value : values)
+			out.writeInt(value);
+	}
+
+	// reads an array of the expected length
+	private static int[] readInts(DataInputStream in, int length) throws IOException {
+		if(in.readInt() != length)
+			throw new IOException("Hypernym closure file is damaged");
+		int[] values = new int[length];
+		for(int i = 0; i < length; i++)
+			values[i] = in.readInt();
+		return values;
+	}
+
+	/**
+	 * A set of ints that keeps the order in which they were added, used
+	 * while building the closure.
+	 * 
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	private static class IntSet {
+
+		// instance fields
+		private int[] values = new int[64];
+		private int size;
+
+		// removes every value
+		public void clear() {
+			size = 0;
+		}
+
+		// adds the value, if not already present
+		public void add(int value) {
+			for(int i = 0; i < size; i++)
+				if(values[i] == value)
+					return;
+			if(size == values.length)
+				values = Arrays.copyOf(values, size << 1);
+			values[size++] = value;
+		}
+
+		// returns the values as a new array
+		public int[] toArray() {
+			return Arrays.copyOf(values, size);
+		}
+	}
+
+}
@@ -0,0 +1,38 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.graph;
+
+/**
+ * A visitor of the nodes reached by a {@link GraphTraversal}.
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public interface INodeVisitor {
+
+	/**
+	 * Called once for each node reached by a traversal, including the node
+	 * at which it starts.
+	 * 
+	 * @param node
+	 *            the node reached
+	 * @param depth
+	 *            the number of edges between the start node and this node on
+	 *            the path by which it was reached; 0 for the start node
+	 * @return <code>true</code> if the traversal should go on from this
+	 *         node; <code>false</code> if the edges of this node should not
+	 *         be followed
+	 * @since JWI 2.4.0
+	 */
+	public boolean visit(int node, int depth);
+
+}
@@ -0,0 +1,577 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.item.IPointer;
+import edu.mit.jwi.item.ISynset;
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.POS;
+import edu.mit.jwi.item.Pointer;
+import edu.mit.jwi.item.SynsetID;
+
+/**
+ * <p>
+ * An immutable graph of the semantic pointers between synsets, held in
+ * compressed sparse row form. Every synset of every part of speech is given
+ * a dense int node number: the nodes of each part of speech are contiguous,
+ * in the order of {@link POS#values()}, and in order of offset within a part
+ * of speech. The outbound edges of node <code>n</code> are the edge numbers
+ * from {@link #getOutStart(int)} up to {@link #getOutEnd(int)}, grouped by
+ * pointer type; each edge has a target node and a pointer type number. The
+ * inbound edges are held in the same way, so that a relation may be walked
+ * backwards without its inverse pointer.
+ * </p>
+ * <p>
+ * Pointer types are numbered by their order in {@link Pointer#values()},
+ * followed by any other pointer types found in the dictionary, up to
+ * {@link #MAX_POINTER_TYPES}; sets of pointer types are given as int masks,
+ * as made by {@link #getMask(IPointer...)}. Only the pointers between
+ * synsets, those returned by {@link ISynset#getRelatedMap()}, are held;
+ * pointers between words are not. Pointers to synsets not in the dictionary
+ * are dropped.
+ * </p>
+ * <p>
+ * The graph holds no objects per node or edge, and none of its accessors of
+ * node or edge numbers allocate. Traversals are made with a
+ * {@link GraphTraversal}. This class is thread-safe.
+ * </p>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class SynsetGraph {
+
+	/**
+	 * The largest number of distinct pointer types a graph may hold, which
+	 * is the number of bits in a pointer type mask.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int MAX_POINTER_TYPES = 32;
+
+	/**
+	 * The mask that selects every pointer type.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int ALL_POINTERS = -1;
+
+	// the parts of speech, by ordinal
+	private static final POS[] parts = POS.values();
+
+	// pointer types
+	private final IPointer[] pointers;
+
+	// nodes
+	private final int[] posStarts;
+	private final int[] offsets;
+
+	// outbound and inbound edges
+	private final int[] outRows;
+	private final int[] outTargets;
+	private final byte[] outTypes;
+	private final int[] inRows;
+	private final int[] inTargets;
+	private final byte[] inTypes;
+
+	/**
+	 * Constructs a new graph of the synsets of the specified dictionary,
+	 * which must be open. Every synset is read once, through
+	 * {@link IDictionary#getSynsetIterator(POS)}.
+	 * 
+	 * @param dict
+	 *            the dictionary from which to build the graph; may not be
+	 *            <code>null</code>
+	 * @throws NullPointerException
+	 *             if the specified dictionary is <code>null</code>
+	 * @throws IllegalArgumentException
+	 *             if the dictionary uses more than
+	 *             {@link #MAX_POINTER_TYPES} pointer types
+	 * @since JWI 2.4.0
+	 */
+	public SynsetGraph(IDictionary dict) {
+		if(dict == null)
+			throw new NullPointerException();
+
+		List<IPointer> types = new ArrayList<IPointer>(Pointer.values());
+		IntList nodePOS = new IntList();
+		IntList nodeOffsets = new IntList();
+		IntList edgeSources = new IntList();
+		IntList edgeTypes = new IntList();
+		IntList edgePOS = new IntList();
+		IntList edgeOffsets = new IntList();
+
+		// read the synsets, recording edges by target offset
+		ISynset synset;
+		int type;
+		for(POS pos : parts){
+			for(Iterator<ISynset> i = dict.getSynsetIterator(pos); i.hasNext(); ){
+				synset = i.next();
+				for(Entry<IPointer, List<ISynsetID>> entry : synset.getRelatedMap().entrySet()){
+					type = types.indexOf(entry.getKey());
+					if(type < 0){
+						type = types.size();
+						types.add(entry.getKey());
+						if(types.size() > MAX_POINTER_TYPES)
+							throw new IllegalArgumentException("too many pointer types");
+					}
+					for(ISynsetID target : entry.getValue()){
+						edgeSources.add(nodeOffsets.size());
+						edgeTypes.add(type);
+						edgePOS.add(target.getPOS().ordinal());
+						edgeOffsets.add(target.getOffset());
+					}
+				}
+				nodePOS.add(pos.ordinal());
+				nodeOffsets.add(synset.getOffset());
+			}
+		}
+		this.pointers = types.toArray(new IPointer[types.size()]);
+
+		// number the nodes by part of speech and offset
+		int count = nodeOffsets.size();
+		long[] keys = new long[count];
+		for(int i = 0; i < count; i++)
+			keys[i] = ((long)nodePOS.get(i) << 59) | ((long)nodeOffsets.get(i) << 27) | i;
+		Arrays.sort(keys);
+		int[] renumber = new int[count];
+		this.offsets = new int[count];
+		this.posStarts = new int[parts.length + 1];
+		for(int node = 0; node < count; node++){
+			int old = (int)(keys[node] & ((1 << 27) - 1));
+			renumber[old] = node;
+			offsets[node] = nodeOffsets.get(old);
+			posStarts[nodePOS.get(old) + 1] = node + 1;
+		}
+		for(int p = 1; p < posStarts.length; p++)
+			posStarts[p] = Math.max(posStarts[p], posStarts[p - 1]);
+
+		// resolve the targets, dropping dangling pointers
+		int edges = 0;
+		int[] sources = new int[edgeSources.size()];
+		int[] targets = new int[edgeSources.size()];
+		byte[] typeNums = new byte[edgeSources.size()];
+		int target;
+		for(int i = 0; i < sources.length; i++){
+			target = getNode(parts[edgePOS.get(i)], edgeOffsets.get(i));
+			if(target < 0)
+				continue;
+			sources[edges] = renumber[edgeSources.get(i)];
+			targets[edges] = target;
+			typeNums[edges] = (byte)edgeTypes.get(i);
+			edges++;
+		}
+
+		// group the edges by type, then by source or target
+		int[] byType = sortBy(typeNums, edges, pointers.length, null);
+		int[] rows = new int[count + 1];
+		int[] order = sortBy(sources, edges, count, byType, rows);
+		this.outRows = rows;
+		this.outTargets = new int[edges];
+		this.outTypes = new byte[edges];
+		for(int e = 0; e < edges; e++){
+			outTargets[e] = targets[order[e]];
+			outTypes[e] = typeNums[order[e]];
+		}
+		rows = new int[count + 1];
+		order = sortBy(targets, edges, count, byType, rows);
+		this.inRows = rows;
+		this.inTargets = new int[edges];
+		this.inTypes = new byte[edges];
+		for(int e = 0; e < edges; e++){
+			inTargets[e] = sources[order[e]];
+			inTypes[e] = typeNums[order[e]];
+		}
+	}
+
+	// returns the edge indices in order of the byte keys, stably; the
+	// order in which to take the edges may be given
+	private static int[] sortBy(byte[] keys, int length, int range, int[] within) {
+		int[] ints = new int[length];
+		for(int i = 0; i < length; i++)
+			ints[i] = keys[i];
+		return sortBy(ints, length, range, within, new int[range + 1]);
+	}
+
+	// returns the edge indices in order of the keys, stably, filling in the
+	// row starts of each key; the order in which to take the edges may be
+	// given
+	private static int[] sortBy(int[] keys, int length, int range, int[] within, int[] rows) {
+		for(int i = 0; i < length; i++)
+			rows[keys[i] + 1]++;
+		for(int k = 0; k < range; k++)
+			rows[k + 1] += rows[k];
+		int[] next = Arrays.copyOf(rows, range);
+		int[] result = new int[length];
+		int edge;
+		for(int i = 0; i < length; i++){
+			edge = (within == null) ? i : within[i];
+			result[next[keys[edge]]++] = edge;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of nodes, which is the number of synsets, in this
+	 * graph.
+	 * 
+	 * @return the number of nodes in this graph
+	 * @since JWI 2.4.0
+	 */
+	public int getNodeCount() {
+		return offsets.length;
+	}
+
+	/**
+	 * Returns the number of edges in this graph. Each pointer is one edge,
+	 * held both as an outbound edge of its source and an inbound edge of its
+	 * target.
+	 * 
+	 * @return the number of edges in this graph
+	 * @since JWI 2.4.0
+	 */
+	public int getEdgeCount() {
+		return outTargets.length;
+	}
+
+	/**
+	 * Returns the node of the synset with the specified id, or -1 if there is
+	 * no such synset.
+	 * 
+	 * @param id
+	 *            the synset id; may not be <code>null</code>
+	 * @return the node of the synset, or -1
+	 * @throws NullPointerException
+	 *             if the specified id is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public int getNode(ISynsetID id) {
+		return getNode(id.getPOS(), id.getOffset());
+	}
+
+	/**
+	 * Returns the node of the synset with the specified part of speech and
+	 * offset, or -1 if there is no such synset.
+	 * 
+	 * @param pos
+	 *            the part of speech; may not be <code>null</code>
+	 * @param offset
+	 *            the offset of the synset
+	 * @return the node of the synset, or -1
+	 * @throws NullPointerException
+	 *             if the specified part of speech is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public int getNode(POS pos, int offset) {
+		int from = posStarts[pos.ordinal()];
+		int to = posStarts[pos.ordinal() + 1];
+		int idx = Arrays.binarySearch(offsets, from, to, offset);
+		return (idx < 0) ? -1 : idx;
+	}
+
+	/**
+	 * Returns the part of speech of the specified node.
+	 * 
+	 * @param node
+	 *            the node
+	 * @return the part of speech of the node
+	 * @throws IndexOutOfBoundsException
+	 *             if the node is not in this graph
+	 * @since JWI 2.4.0
+	 */
+	public POS getPOS(int node) {
+		checkNode(node);
+		int p = 0;
+		while(node >= posStarts[p + 1])
+			p++;
+		return parts[p];
+	}
+
+	/**
+	 * Returns the synset offset of the specified node.
+	 * 
+	 * @param node
+	 *            the node
+	 * @return the offset of the synset of the node
+	 * @throws IndexOutOfBoundsException
+	 *             if the node is not in this graph
+	 * @since JWI 2.4.0
+	 */
+	public int getOffset(int node) {
+		return offsets[node];
+	}
+
+	/**
+	 * Returns a new synset id for the specified node.
+	 * 
+	 * @param node
+	 *            the node
+	 * @return the id of the synset of the node
+	 * @throws IndexOutOfBoundsException
+	 *             if the node is not in this graph
+	 * @since JWI 2.4.0
+	 */
+	public ISynsetID getSynsetID(int node) {
+		return new SynsetID(offsets[node], getPOS(node));
+	}
+
+	/**
+	 * Returns the first node of the specified part of speech. The nodes of
+	 * the part of speech run up to, but not including,
+	 * {@link #getLastNode(POS)}.
+	 * 
+	 * @param pos
+	 *            the part of speech; may not be <code>null</code>
+	 * @return the first node of the part of speech
+	 * @throws NullPointerException
+	 *             if the specified part of speech is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public int getFirstNode(POS pos) {
+		return posStarts[pos.ordinal()];
+	}
+
+	/**
+	 * Returns one more than the last node of the specified part of speech.
+	 * 
+	 * @param pos
+	 *            the part of speech; may not be <code>null</code>
+	 * @return the end of the nodes of the part of speech
+	 * @throws NullPointerException
+	 *             if the specified part of speech is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public int getLastNode(POS pos) {
+		return posStarts[pos.ordinal() + 1];
+	}
+
+	/**
+	 * Returns the first outbound edge of the specified node.
+	 * 
+	 * @param node
+	 *            the node
+	 * @return the first outbound edge of the node
+	 * @throws IndexOutOfBoundsException
+	 *             if the node is not in this graph
+	 * @since JWI 2.4.0
+	 */
+	public int getOutStart(int node) {
+		checkNode(node);
+		return outRows[node];
+	}
+
+	/**
+	 * Returns one more than the last outbound edge of the specified node.
+	 * 
+	 * @param node
+	 *            the node
+	 * @return the end of the outbound edges of the node
+	 * @throws IndexOutOfBoundsException
+	 *             if the node is not in this graph
+	 * @since JWI 2.4.0
+	 */
+	public int getOutEnd(int node) {
+		checkNode(node);
+		return outRows[node + 1];
+	}
+
+	/**
+	 * Returns the target node of the specified outbound edge.
+	 * 
+	 * @param edge
+	 *            the outbound edge
+	 * @return the node to which the edge points
+	 * @throws IndexOutOfBoundsException
+	 *             if the edge is not in this graph
+	 * @since JWI 2.4.0
+	 */
+	public int getOutTarget(int edge) {
+		return outTargets[edge];
+	}
+
+	/**
+	 * Returns the pointer type number of the specified outbound edge.
+	 * 
+	 * @param edge
+	 *            the outbound edge
+	 * @return the pointer type number of the edge
+	 * @throws IndexOutOfBoundsException
+	 *             if the edge is not in this graph
+	 * @since JWI 2.4.0
+	 */
+	public int getOutType(int edge) {
+		return outTypes[edge];
+	}
+
+	/**
+	 * Returns the first inbound edge of the specified node.
+	 * 
+	 * @param node
+	 *            the node
+	 * @return the first inbound edge of the node
+	 * @throws IndexOutOfBoundsException
+	 *             if the node is not in this graph
+	 * @since JWI 2.4.0
+	 */
+	public int getInStart(int node) {
+		checkNode(node);
+		return inRows[node];
+	}
+
+	/**
+	 * Returns one more than the last inbound edge of the specified node.
+	 * 
+	 * @param node
+	 *            the node
+	 * @return the end of the inbound edges of the node
+	 * @throws IndexOutOfBoundsException
+	 *             if the node is not in this graph
+	 * @since JWI 2.4.0
+	 */
+	public int getInEnd(int node) {
+		checkNode(node);
+		return inRows[node + 1];
+	}
+
+	/**
+	 * Returns the source node of the specified inbound edge.
+	 * 
+	 * @param edge
+	 *            the inbound edge
+	 * @return the node from which the edge points
+	 * @throws IndexOutOfBoundsException
+	 *             if the edge is not in this graph
+	 * @since JWI 2.4.0
+	 */
+	public int getInSource(int edge) {
+		return inTargets[edge];
+	}
+
+	/**
+	 * Returns the pointer type number of the specified inbound edge.
+	 * 
+	 * @param edge
+	 *            the inbound edge
+	 * @return the pointer type number of the edge
+	 * @throws IndexOutOfBoundsException
+	 *             if the edge is not in this graph
+	 * @since JWI 2.4.0
+	 */
+	public int getInType(int edge) {
+		return inTypes[edge];
+	}
+
+	/**
+	 * Returns the number of pointer types known to this graph.
+	 * 
+	 * @return the number of pointer types
+	 * @since JWI 2.4.0
+	 */
+	public int getPointerTypeCount() {
+		return pointers.length;
+	}
+
+	/**
+	 * Returns the pointer type with the specified number.
+	 * 
+	 * @param type
+	 *            the pointer type number
+	 * @return the pointer type
+	 * @throws IndexOutOfBoundsException
+	 *             if there is no pointer type with the number
+	 * @since JWI 2.4.0
+	 */
+	public IPointer getPointer(int type) {
+		return pointers[type];
+	}
+
+	/**
+	 * Returns the number of the specified pointer type, or -1 if it is not
+	 * known to this graph.
+	 * 
+	 * @param ptr
+	 *            the pointer type; may be <code>null</code>
+	 * @return the number of the pointer type, or -1
+	 * @since JWI 2.4.0
+	 */
+	public int getPointerType(IPointer ptr) {
+		for(int i = 0; i < pointers.length; i++)
+			if(pointers[i].equals(ptr))
+				return i;
+		return -1;
+	}
+
+	/**
+	 * Returns the mask that selects the specified pointer types. Pointer
+	 * types not known to this graph are ignored.
+	 * 
+	 * @param ptrs
+	 *            the pointer types
+	 * @return the mask of the pointer types
+	 * @since JWI 2.4.0
+	 */
+	public int getMask(IPointer... ptrs) {
+		int mask = 0;
+		int type;
+		for(IPointer ptr : ptrs){
+			type = getPointerType(ptr);
+			if(type >= 0)
+				mask |= 1 << type;
+		}
+		return mask;
+	}
+
+	// checks that the node is in the graph
+	private void checkNode(int node) {
+		if(node < 0 || node >= offsets.length)
+			throw new IndexOutOfBoundsException("no node " + node);
+	}
+
+	/**
+	 * A growable list of primitive ints, used while building the graph.
+	 * 
+	 * @author Mark A. Finlayson
+	 * @version 2.3.3
+	 * @since JWI 2.4.0
+	 */
+	private static class IntList {
+
+		// instance fields
+		private int[] values = new int[1024];
+		private int size;
+
+		// adds the value to the end of the list
+		public void add(int value) {
+			if(size == values.length)
+				values = Arrays.copyOf(values, size + (size >> 1));
+			values[size++] = value;
+		}
+
+		// returns the value at the index
+		public int get(int index) {
+			return values[index];
+		}
+
+		// returns the number of values in the list
+		public int size() {
+			return size;
+		}
+	}
+
+}
@@ -242,7 +242,7 @@ public class Synset implements ISynset {
     public int hashCode() {
         final int PRIME = 31;
         int result = 1;
-        result = PRIME * result + gloss.hashCode();
+        result = PRIME * result + getGloss().hashCode();
         result = PRIME * result + (isAdjSat ? 1231 : 1237);
         result = PRIME * result + id.hashCode();
         result = PRIME * result + words.hashCode();
@@ -267,7 +267,7 @@ public class Synset implements ISynset {
         	return false;
         if (!words.equals(other.getWords()))
         	return false;
-        if (!gloss.equals(other.getGloss()))
+        if (!getGloss().equals(other.getGloss()))
         	return false;
         if (isAdjSat != other.isAdjectiveSatellite())
         	return false;
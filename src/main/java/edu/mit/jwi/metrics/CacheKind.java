@@ -0,0 +1,102 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.metrics;
+
+import edu.mit.jwi.item.IExceptionEntryID;
+import edu.mit.jwi.item.IIndexWordID;
+import edu.mit.jwi.item.IItemID;
+import edu.mit.jwi.item.ISynsetID;
+import edu.mit.jwi.item.IWordID;
+
+/**
+ * The kinds of entry held by an item cache, by which cache events are
+ * counted.
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public enum CacheKind {
+
+	/**
+	 * Synsets, cached by synset id.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	SYNSET,
+
+	/**
+	 * Index words, cached by index word id.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	INDEX_WORD,
+
+	/**
+	 * Words, cached by word id.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	WORD,
+
+	/**
+	 * Exception entries, cached by exception entry id.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	EXCEPTION_ENTRY,
+
+	/**
+	 * Items of any other kind, cached by id.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	OTHER_ITEM,
+
+	/**
+	 * Words, cached by sense key.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	WORD_BY_SENSE_KEY,
+
+	/**
+	 * Sense entries, cached by sense key.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	SENSE_ENTRY;
+
+	/**
+	 * Returns the kind of entry cached under the specified item id.
+	 * 
+	 * @param id
+	 *            the item id; may not be <code>null</code>
+	 * @return the kind of entry for the id
+	 * @throws NullPointerException
+	 *             if the specified id is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static CacheKind forID(IItemID<?> id) {
+		if(id == null)
+			throw new NullPointerException();
+		if(id instanceof ISynsetID)
+			return SYNSET;
+		if(id instanceof IIndexWordID)
+			return INDEX_WORD;
+		if(id instanceof IWordID)
+			return WORD;
+		if(id instanceof IExceptionEntryID)
+			return EXCEPTION_ENTRY;
+		return OTHER_ITEM;
+	}
+
+}
@@ -0,0 +1,391 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * <p>
+ * A metrics listener that keeps counts of cache events per kind of entry,
+ * latency histograms per kind of lookup, and counts of the lines and bytes
+ * parsed. All counts are kept in {@link StripedCounter}s and
+ * {@link LatencyHistogram}s, so recording is cheap enough to leave on under
+ * full load.
+ * </p>
+ * <p>
+ * The metrics can be read directly, or through JMX once registered with
+ * {@link #register(String)}. For example:
+ * </p>
+ * 
+ * <pre>
+ * DictionaryMetrics metrics = new DictionaryMetrics();
+ * dict.setMetricsListener(metrics);
+ * metrics.register(&quot;wordnet&quot;);
+ * </pre>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class DictionaryMetrics implements IMetricsListener, IDictionaryMetricsMXBean {
+
+	/**
+	 * The JMX domain under which metrics are registered.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final String DOMAIN = "edu.mit.jwi";
+
+	// cache counts, indexed by kind ordinal
+	private final StripedCounter[] hits = makeCounters(CacheKind.values().length);
+	private final StripedCounter[] misses = makeCounters(CacheKind.values().length);
+	private final StripedCounter[] evictions = makeCounters(CacheKind.values().length);
+
+	// lookup latencies and misses, indexed by lookup ordinal
+	private final LatencyHistogram[] latencies = new LatencyHistogram[Lookup.values().length];
+	private final StripedCounter[] lookupMisses = makeCounters(Lookup.values().length);
+
+	// parse counts
+	private final StripedCounter lines = new StripedCounter();
+	private final StripedCounter bytes = new StripedCounter();
+
+	// the name under which this object is registered, if it is
+	private volatile ObjectName name;
+
+	/**
+	 * Constructs a new metrics object with all counts at zero.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public DictionaryMetrics() {
+		for(int i = 0; i < latencies.length; i++)
+			latencies[i] = new LatencyHistogram();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IMetricsListener#cacheHit(edu.mit.jwi.metrics.CacheKind)
+	 */
+	public void cacheHit(CacheKind kind) {
+		hits[kind.ordinal()].increment();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IMetricsListener#cacheMiss(edu.mit.jwi.metrics.CacheKind)
+	 */
+	public void cacheMiss(CacheKind kind) {
+		misses[kind.ordinal()].increment();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IMetricsListener#cacheEviction(edu.mit.jwi.metrics.CacheKind)
+	 */
+	public void cacheEviction(CacheKind kind) {
+		evictions[kind.ordinal()].increment();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IMetricsListener#lookupCompleted(edu.mit.jwi.metrics.Lookup, long, boolean)
+	 */
+	public void lookupCompleted(Lookup lookup, long nanos, boolean found) {
+		latencies[lookup.ordinal()].record(nanos);
+		if(!found)
+			lookupMisses[lookup.ordinal()].increment();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IMetricsListener#lineParsed(int)
+	 */
+	public void lineParsed(int length) {
+		lines.increment();
+		bytes.add(length);
+	}
+
+	/**
+	 * Returns the latency histogram for the specified kind of lookup.
+	 * 
+	 * @param lookup
+	 *            the kind of lookup; may not be <code>null</code>
+	 * @return the histogram for the lookup
+	 * @throws NullPointerException
+	 *             if the specified lookup is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public LatencyHistogram getLatencies(Lookup lookup) {
+		return latencies[lookup.ordinal()];
+	}
+
+	/**
+	 * Returns the number of cache hits for the specified kind of entry.
+	 * 
+	 * @param kind
+	 *            the kind of entry; may not be <code>null</code>
+	 * @return the number of hits
+	 * @throws NullPointerException
+	 *             if the specified kind is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public long getCacheHits(CacheKind kind) {
+		return hits[kind.ordinal()].sum();
+	}
+
+	/**
+	 * Returns the number of cache misses for the specified kind of entry.
+	 * 
+	 * @param kind
+	 *            the kind of entry; may not be <code>null</code>
+	 * @return the number of misses
+	 * @throws NullPointerException
+	 *             if the specified kind is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public long getCacheMisses(CacheKind kind) {
+		return misses[kind.ordinal()].sum();
+	}
+
+	/**
+	 * Returns the number of cache evictions for the specified kind of entry.
+	 * 
+	 * @param kind
+	 *            the kind of entry; may not be <code>null</code>
+	 * @return the number of evictions
+	 * @throws NullPointerException
+	 *             if the specified kind is <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public long getCacheEvictions(CacheKind kind) {
+		return evictions[kind.ordinal()].sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IDictionaryMetricsMXBean#getCacheHits()
+	 */
+	public Map<String, Long> getCacheHits() {
+		return sums(CacheKind.values(), hits);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IDictionaryMetricsMXBean#getCacheMisses()
+	 */
+	public Map<String, Long> getCacheMisses() {
+		return sums(CacheKind.values(), misses);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IDictionaryMetricsMXBean#getCacheEvictions()
+	 */
+	public Map<String, Long> getCacheEvictions() {
+		return sums(CacheKind.values(), evictions);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IDictionaryMetricsMXBean#getCacheHitRatio()
+	 */
+	public double getCacheHitRatio() {
+		long hit = 0, miss = 0;
+		for(int i = 0; i < hits.length; i++){
+			hit += hits[i].sum();
+			miss += misses[i].sum();
+		}
+		return (hit + miss == 0) ? 0 : (double)hit/(hit + miss);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IDictionaryMetricsMXBean#getLookupCounts()
+	 */
+	public Map<String, Long> getLookupCounts() {
+		Map<String, Long> result = new LinkedHashMap<String, Long>();
+		for(Lookup lookup : Lookup.values())
+			result.put(lookup.name(), latencies[lookup.ordinal()].getCount());
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IDictionaryMetricsMXBean#getLookupMisses()
+	 */
+	public Map<String, Long> getLookupMisses() {
+		return sums(Lookup.values(), lookupMisses);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IDictionaryMetricsMXBean#getLookupMeanMicros()
+	 */
+	public Map<String, Double> getLookupMeanMicros() {
+		Map<String, Double> result = new LinkedHashMap<String, Double>();
+		for(Lookup lookup : Lookup.values())
+			result.put(lookup.name(), latencies[lookup.ordinal()].getMean()/1000);
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IDictionaryMetricsMXBean#getLookupP50Micros()
+	 */
+	public Map<String, Double> getLookupP50Micros() {
+		return percentiles(50);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IDictionaryMetricsMXBean#getLookupP99Micros()
+	 */
+	public Map<String, Double> getLookupP99Micros() {
+		return percentiles(99);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IDictionaryMetricsMXBean#getLookupMaxMicros()
+	 */
+	public Map<String, Double> getLookupMaxMicros() {
+		Map<String, Double> result = new LinkedHashMap<String, Double>();
+		for(Lookup lookup : Lookup.values())
+			result.put(lookup.name(), latencies[lookup.ordinal()].getMax()/1000.0);
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IDictionaryMetricsMXBean#getLinesParsed()
+	 */
+	public long getLinesParsed() {
+		return lines.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IDictionaryMetricsMXBean#getBytesParsed()
+	 */
+	public long getBytesParsed() {
+		return bytes.sum();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IDictionaryMetricsMXBean#reset()
+	 */
+	public void reset() {
+		for(int i = 0; i < hits.length; i++){
+			hits[i].reset();
+			misses[i].reset();
+			evictions[i].reset();
+		}
+		for(int i = 0; i < latencies.length; i++){
+			latencies[i].reset();
+			lookupMisses[i].reset();
+		}
+		lines.reset();
+		bytes.reset();
+	}
+
+	/**
+	 * Registers this object with the platform MBean server, under the name
+	 * <code>edu.mit.jwi:type=DictionaryMetrics,name=</code><i>name</i>. If
+	 * this object is already registered, it is first unregistered.
+	 * 
+	 * @param name
+	 *            the value of the name key of the object name; may not be
+	 *            <code>null</code>
+	 * @return the object name under which this object was registered
+	 * @throws NullPointerException
+	 *             if the specified name is <code>null</code>
+	 * @throws JMException
+	 *             if the name is not valid, or registration fails
+	 * @since JWI 2.4.0
+	 */
+	public synchronized ObjectName register(String name) throws JMException {
+		if(name == null)
+			throw new NullPointerException();
+		unregister();
+		ObjectName objectName = new ObjectName(DOMAIN + ":type=DictionaryMetrics,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+		this.name = objectName;
+		return objectName;
+	}
+
+	/**
+	 * Unregisters this object from the platform MBean server, if it is
+	 * registered.
+	 * 
+	 * @throws JMException
+	 *             if unregistration fails
+	 * @since JWI 2.4.0
+	 */
+	public synchronized void unregister() throws JMException {
+		ObjectName objectName = name;
+		if(objectName == null)
+			return;
+		name = null;
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		if(server.isRegistered(objectName))
+			server.unregisterMBean(objectName);
+	}
+
+	// returns the latency percentile of each lookup, in microseconds
+	private Map<String, Double> percentiles(double percentile) {
+		Map<String, Double> result = new LinkedHashMap<String, Double>();
+		for(Lookup lookup : Lookup.values())
+			result.put(lookup.name(), latencies[lookup.ordinal()].getPercentile(percentile)/1000.0);
+		return result;
+	}
+
+	// returns the sums of the counters, keyed by constant name
+	private static Map<String, Long> sums(Enum<?>[] keys, StripedCounter[] counters) {
+		Map<String, Long> result = new LinkedHashMap<String, Long>();
+		for(int i = 0; i < keys.length; i++)
+			result.put(keys[i].name(), counters[i].sum());
+		return result;
+	}
+
+	// makes the specified number of counters
+	private static StripedCounter[] makeCounters(int count) {
+		StripedCounter[] result = new StripedCounter[count];
+		for(int i = 0; i < count; i++)
+			result[i] = new StripedCounter();
+		return result;
+	}
+
+}
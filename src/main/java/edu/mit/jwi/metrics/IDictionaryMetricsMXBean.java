@@ -0,0 +1,131 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.metrics;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link DictionaryMetrics}, through which its
+ * counts and latencies can be read with JMX. Maps are keyed by the names of
+ * the {@link CacheKind} or {@link Lookup} constants; latencies are given in
+ * microseconds.
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public interface IDictionaryMetricsMXBean {
+
+	/**
+	 * Returns the number of cache hits for each kind of cache entry.
+	 * 
+	 * @return the cache hits, by kind
+	 * @since JWI 2.4.0
+	 */
+	public Map<String, Long> getCacheHits();
+
+	/**
+	 * Returns the number of cache misses for each kind of cache entry.
+	 * 
+	 * @return the cache misses, by kind
+	 * @since JWI 2.4.0
+	 */
+	public Map<String, Long> getCacheMisses();
+
+	/**
+	 * Returns the number of cache evictions for each kind of cache entry.
+	 * 
+	 * @return the cache evictions, by kind
+	 * @since JWI 2.4.0
+	 */
+	public Map<String, Long> getCacheEvictions();
+
+	/**
+	 * Returns the fraction of all cache requests that were hits, or zero if
+	 * there have been none.
+	 * 
+	 * @return the cache hit ratio, from 0 to 1
+	 * @since JWI 2.4.0
+	 */
+	public double getCacheHitRatio();
+
+	/**
+	 * Returns the number of completed lookups of each kind.
+	 * 
+	 * @return the lookup counts, by kind
+	 * @since JWI 2.4.0
+	 */
+	public Map<String, Long> getLookupCounts();
+
+	/**
+	 * Returns the number of lookups of each kind that found nothing.
+	 * 
+	 * @return the lookup misses, by kind
+	 * @since JWI 2.4.0
+	 */
+	public Map<String, Long> getLookupMisses();
+
+	/**
+	 * Returns the mean latency of each kind of lookup.
+	 * 
+	 * @return the mean latencies in microseconds, by kind
+	 * @since JWI 2.4.0
+	 */
+	public Map<String, Double> getLookupMeanMicros();
+
+	/**
+	 * Returns the median latency of each kind of lookup.
+	 * 
+	 * @return the median latencies in microseconds, by kind
+	 * @since JWI 2.4.0
+	 */
+	public Map<String, Double> getLookupP50Micros();
+
+	/**
+	 * Returns the 99th percentile latency of each kind of lookup.
+	 * 
+	 * @return the 99th percentile latencies in microseconds, by kind
+	 * @since JWI 2.4.0
+	 */
+	public Map<String, Double> getLookupP99Micros();
+
+	/**
+	 * Returns the largest latency of each kind of lookup.
+	 * 
+	 * @return the largest latencies in microseconds, by kind
+	 * @since JWI 2.4.0
+	 */
+	public Map<String, Double> getLookupMaxMicros();
+
+	/**
+	 * Returns the number of lines that have been parsed.
+	 * 
+	 * @return the number of lines parsed
+	 * @since JWI 2.4.0
+	 */
+	public long getLinesParsed();
+
+	/**
+	 * Returns the total length of the lines that have been parsed.
+	 * 
+	 * @return the number of bytes parsed
+	 * @since JWI 2.4.0
+	 */
+	public long getBytesParsed();
+
+	/**
+	 * Sets all counts to zero and empties all histograms.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public void reset();
+
+}
@@ -0,0 +1,43 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.metrics;
+
+/**
+ * An object that reports events to a metrics listener. When no listener is
+ * set, which is the default, no events are recorded and no timings are taken.
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public interface IMetered {
+
+	/**
+	 * Returns the listener to which this object reports events, or
+	 * <code>null</code> if there is none.
+	 * 
+	 * @return the listener for this object, possibly <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public IMetricsListener getMetricsListener();
+
+	/**
+	 * Sets the listener to which this object reports events. Objects that
+	 * wrap other metered objects may pass the listener, or a listener derived
+	 * from it, on to them.
+	 * 
+	 * @param listener
+	 *            the listener; may be <code>null</code> to stop reporting
+	 * @since JWI 2.4.0
+	 */
+	public void setMetricsListener(IMetricsListener listener);
+
+}
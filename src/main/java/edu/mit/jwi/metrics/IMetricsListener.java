@@ -0,0 +1,79 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.metrics;
+
+/**
+ * Receives events from the dictionaries and caches that it is attached to.
+ * The methods of a listener are called on the threads doing the lookups,
+ * sometimes while a lock is held, and so must be thread-safe and fast; a
+ * listener that needs to do more work should hand the event off to another
+ * thread.
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public interface IMetricsListener {
+
+	/**
+	 * Called when an entry of the specified kind is found in a cache.
+	 * 
+	 * @param kind
+	 *            the kind of entry; will not be <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public void cacheHit(CacheKind kind);
+
+	/**
+	 * Called when an entry of the specified kind is not found in a cache.
+	 * 
+	 * @param kind
+	 *            the kind of entry; will not be <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public void cacheMiss(CacheKind kind);
+
+	/**
+	 * Called when an entry of the specified kind is evicted from a cache to
+	 * make room for another.
+	 * 
+	 * @param kind
+	 *            the kind of entry; will not be <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public void cacheEviction(CacheKind kind);
+
+	/**
+	 * Called when a dictionary lookup completes.
+	 * 
+	 * @param lookup
+	 *            the kind of lookup; will not be <code>null</code>
+	 * @param nanos
+	 *            the time the lookup took, in nanoseconds
+	 * @param found
+	 *            <code>true</code> if the lookup found an object;
+	 *            <code>false</code> if it returned <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public void lookupCompleted(Lookup lookup, long nanos, boolean found);
+
+	/**
+	 * Called when a line of a data source has been read and is about to be
+	 * parsed.
+	 * 
+	 * @param length
+	 *            the length of the line, in characters; for the ASCII Wordnet
+	 *            files this is also the number of bytes
+	 * @since JWI 2.4.0
+	 */
+	public void lineParsed(int length);
+
+}
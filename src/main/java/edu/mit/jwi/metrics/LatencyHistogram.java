@@ -0,0 +1,222 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * A histogram of latencies, in nanoseconds, that many threads can record
+ * into at once. Values are counted in logarithmic buckets, four to each power
+ * of two, so that any percentile is reported to within 25% of its true value.
+ * As with a {@link StripedCounter}, each thread records into its own stripe of
+ * buckets, and the stripes are summed when the histogram is read.
+ * </p>
+ * <p>
+ * Reads taken while values are being recorded may miss some of them.
+ * </p>
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class LatencyHistogram {
+
+	/**
+	 * The number of buckets in each stripe, enough for any non-negative
+	 * <code>long</code> value.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int BUCKETS = 248;
+
+	// instance fields
+	private final AtomicLongArray counts;
+	private final int mask;
+	private final StripedCounter total = new StripedCounter();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Constructs a new empty histogram with the default number of stripes.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public LatencyHistogram() {
+		this(StripedCounter.defaultStripes());
+	}
+
+	/**
+	 * Constructs a new empty histogram with the specified number of stripes,
+	 * rounded up to a power of two.
+	 * 
+	 * @param stripes
+	 *            the number of stripes
+	 * @throws IllegalArgumentException
+	 *             if the number of stripes is less than one or greater than
+	 *             2<sup>16</sup>
+	 * @since JWI 2.4.0
+	 */
+	public LatencyHistogram(int stripes) {
+		if(stripes < 1 || stripes > (1 << 16))
+			throw new IllegalArgumentException();
+		int n = Integer.highestOneBit(stripes - 1) << 1;
+		if(n == 0)
+			n = 1;
+		this.counts = new AtomicLongArray(n*BUCKETS);
+		this.mask = n - 1;
+	}
+
+	/**
+	 * Records a value. Negative values are recorded as zero.
+	 * 
+	 * @param nanos
+	 *            the value to be recorded, in nanoseconds
+	 * @since JWI 2.4.0
+	 */
+	public void record(long nanos) {
+		if(nanos < 0)
+			nanos = 0;
+		counts.getAndIncrement(StripedCounter.stripe(mask)*BUCKETS + bucket(nanos));
+		total.add(nanos);
+		long m;
+		while(nanos > (m = max.get()))
+			if(max.compareAndSet(m, nanos))
+				break;
+	}
+
+	/**
+	 * Returns the number of values recorded.
+	 * 
+	 * @return the number of values recorded
+	 * @since JWI 2.4.0
+	 */
+	public long getCount() {
+		long count = 0;
+		for(int i = 0; i < counts.length(); i++)
+			count += counts.get(i);
+		return count;
+	}
+
+	/**
+	 * Returns the sum of the values recorded.
+	 * 
+	 * @return the sum of the values recorded, in nanoseconds
+	 * @since JWI 2.4.0
+	 */
+	public long getTotal() {
+		return total.sum();
+	}
+
+	/**
+	 * Returns the mean of the values recorded, or zero if there are none.
+	 * 
+	 * @return the mean value, in nanoseconds
+	 * @since JWI 2.4.0
+	 */
+	public double getMean() {
+		long count = getCount();
+		return (count == 0) ? 0 : (double)getTotal()/count;
+	}
+
+	/**
+	 * Returns the largest value recorded, or zero if there are none.
+	 * 
+	 * @return the largest value, in nanoseconds
+	 * @since JWI 2.4.0
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Returns an estimate of the specified percentile of the values recorded:
+	 * the midpoint of the bucket that holds it, but no more than the largest
+	 * value recorded. Returns zero if no values have been recorded.
+	 * 
+	 * @param percentile
+	 *            the percentile, from 0 to 100
+	 * @return the estimated percentile, in nanoseconds
+	 * @throws IllegalArgumentException
+	 *             if the percentile is not between 0 and 100
+	 * @since JWI 2.4.0
+	 */
+	public long getPercentile(double percentile) {
+		if(percentile < 0 || percentile > 100 || Double.isNaN(percentile))
+			throw new IllegalArgumentException();
+		long[] sums = new long[BUCKETS];
+		long count = 0;
+		for(int i = 0; i < counts.length(); i++){
+			sums[i % BUCKETS] += counts.get(i);
+			count += counts.get(i);
+		}
+		if(count == 0)
+			return 0;
+		long rank = Math.max(1, (long)Math.ceil(percentile/100*count));
+		long seen = 0;
+		for(int b = 0; b < BUCKETS; b++){
+			seen += sums[b];
+			if(seen >= rank){
+				long low = lowerBound(b);
+				long high = (b + 1 < BUCKETS) ? lowerBound(b + 1) - 1 : Long.MAX_VALUE;
+				return Math.min(low + (high - low)/2, getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Removes all recorded values. Values recorded while the histogram is
+	 * being reset may be lost.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public void reset() {
+		for(int i = 0; i < counts.length(); i++)
+			counts.set(i, 0);
+		total.reset();
+		max.set(0);
+	}
+
+	/**
+	 * Returns the bucket for the specified non-negative value. Values below 4
+	 * have a bucket each; above that, each power of two is split into four
+	 * buckets.
+	 * 
+	 * @param value
+	 *            the value
+	 * @return the bucket for the value
+	 * @since JWI 2.4.0
+	 */
+	public static int bucket(long value) {
+		if(value < 4)
+			return (int)value;
+		int exp = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int)(value >>> (exp - 2)) & 3;
+		return 4*(exp - 1) + sub;
+	}
+
+	/**
+	 * Returns the smallest value counted in the specified bucket.
+	 * 
+	 * @param bucket
+	 *            the bucket
+	 * @return the smallest value in the bucket
+	 * @since JWI 2.4.0
+	 */
+	public static long lowerBound(int bucket) {
+		if(bucket < 4)
+			return bucket;
+		int exp = bucket/4 + 1;
+		return (long)(4 + bucket % 4) << (exp - 2);
+	}
+
+}
@@ -0,0 +1,50 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.metrics;
+
+/**
+ * The dictionary lookups whose latencies are recorded.
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public enum Lookup {
+
+	/**
+	 * A call to {@link edu.mit.jwi.IDictionary#getIndexWord(edu.mit.jwi.item.IIndexWordID)}.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	INDEX_WORD,
+
+	/**
+	 * A call to {@link edu.mit.jwi.IDictionary#getSynset(edu.mit.jwi.item.ISynsetID)}.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	SYNSET,
+
+	/**
+	 * A call to {@link edu.mit.jwi.IDictionary#getSenseEntry(edu.mit.jwi.item.ISenseKey)}.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	SENSE_ENTRY,
+
+	/**
+	 * A call to {@link edu.mit.jwi.IDictionary#getExceptionEntry(edu.mit.jwi.item.IExceptionEntryID)}.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	EXCEPTION_ENTRY;
+
+}
@@ -0,0 +1,82 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.metrics;
+
+/**
+ * A metrics listener whose methods do nothing, for listeners that are only
+ * interested in some events to extend.
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class MetricsAdapter implements IMetricsListener {
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IMetricsListener#cacheHit(edu.mit.jwi.metrics.CacheKind)
+	 */
+	public void cacheHit(CacheKind kind) {}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IMetricsListener#cacheMiss(edu.mit.jwi.metrics.CacheKind)
+	 */
+	public void cacheMiss(CacheKind kind) {}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IMetricsListener#cacheEviction(edu.mit.jwi.metrics.CacheKind)
+	 */
+	public void cacheEviction(CacheKind kind) {}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IMetricsListener#lookupCompleted(edu.mit.jwi.metrics.Lookup, long, boolean)
+	 */
+	public void lookupCompleted(Lookup lookup, long nanos, boolean found) {}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see edu.mit.jwi.metrics.IMetricsListener#lineParsed(int)
+	 */
+	public void lineParsed(int length) {}
+
+	/**
+	 * Returns a listener that passes only line parse events on to the
+	 * specified listener. A dictionary that wraps another gives this to the
+	 * wrapped dictionary, so that each lookup is timed once, by the outer
+	 * dictionary, while the lines parsed by the inner one are still counted.
+	 * 
+	 * @param listener
+	 *            the listener to receive the events, or <code>null</code>
+	 * @return a listener that forwards only line parse events, or
+	 *         <code>null</code> if the specified listener is
+	 *         <code>null</code>
+	 * @since JWI 2.4.0
+	 */
+	public static IMetricsListener parseEventsOnly(final IMetricsListener listener) {
+		if(listener == null)
+			return null;
+		return new MetricsAdapter() {
+			@Override
+			public void lineParsed(int length) {
+				listener.lineParsed(length);
+			}
+		};
+	}
+
+}
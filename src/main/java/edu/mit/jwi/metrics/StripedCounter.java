@@ -0,0 +1,156 @@
+/********************************************************************************
+ * MIT Java Wordnet Interface Library (JWI) v2.3.3
+ * Copyright (c) 2007-2014 Massachusetts Institute of Technology
+ *
+ * JWI is distributed under the terms of the Creative Commons Attribution 3.0 
+ * Unported License, which means it may be freely used for all purposes, as long 
+ * as proper acknowledgment is made.  See the license file included with this
+ * distribution for more details.
+ *******************************************************************************/
+
+package edu.mit.jwi.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that many threads can update at once with little contention.
+ * The count is spread over several cells, each on its own cache line, and a
+ * thread always updates the cell chosen by its id. Reading the count sums the
+ * cells, and so is slower than updating it; a sum taken while updates are in
+ * progress may miss some of them.
+ * 
+ * @author Mark A. Finlayson
+ * @version 2.3.3
+ * @since JWI 2.4.0
+ */
+public class StripedCounter {
+
+	/**
+	 * The number of array elements between adjacent cells, so that each cell
+	 * lies on its own 64-byte cache line.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public static final int PADDING = 8;
+
+	// instance fields
+	private final AtomicLongArray cells;
+	private final int mask;
+
+	/**
+	 * Constructs a new counter with the default number of stripes.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public StripedCounter() {
+		this(defaultStripes());
+	}
+
+	/**
+	 * Constructs a new counter with the specified number of stripes, rounded
+	 * up to a power of two.
+	 * 
+	 * @param stripes
+	 *            the number of stripes
+	 * @throws IllegalArgumentException
+	 *             if the number of stripes is less than one or greater than
+	 *             2<sup>16</sup>
+	 * @since JWI 2.4.0
+	 */
+	public StripedCounter(int stripes) {
+		if(stripes < 1 || stripes > (1 << 16))
+			throw new IllegalArgumentException();
+		int n = Integer.highestOneBit(stripes - 1) << 1;
+		if(n == 0)
+			n = 1;
+		this.cells = new AtomicLongArray(n*PADDING);
+		this.mask = n - 1;
+	}
+
+	/**
+	 * Adds one to the count.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public void increment() {
+		cells.getAndIncrement(cell());
+	}
+
+	/**
+	 * Adds the specified value to the count.
+	 * 
+	 * @param x
+	 *            the value to be added
+	 * @since JWI 2.4.0
+	 */
+	public void add(long x) {
+		cells.getAndAdd(cell(), x);
+	}
+
+	/**
+	 * Returns the count.
+	 * 
+	 * @return the sum of the cells
+	 * @since JWI 2.4.0
+	 */
+	public long sum() {
+		long sum = 0;
+		for(int i = 0; i < cells.length(); i += PADDING)
+			sum += cells.get(i);
+		return sum;
+	}
+
+	/**
+	 * Sets the count to zero. Updates made while the counter is being reset
+	 * may be lost.
+	 * 
+	 * @since JWI 2.4.0
+	 */
+	public void reset() {
+		for(int i = 0; i < cells.length(); i += PADDING)
+			cells.set(i, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return Long.toString(sum());
+	}
+
+	// the index of the current thread's cell
+	private int cell() {
+		return (stripe(mask)) * PADDING;
+	}
+
+	/**
+	 * Returns the stripe of the current thread, for a striped structure with
+	 * the specified mask (the number of stripes less one, for a power of two
+	 * number of stripes).
+	 * 
+	 * @param mask
+	 *            the mask
+	 * @return the stripe of the current thread, between 0 and the mask
+	 * @since JWI 2.4.0
+	 */
+	public static int stripe(int mask) {
+		long id = Thread.currentThread().getId();
+		int h = (int)(id ^ (id >>> 32)) * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	/**
+	 * Returns the default number of stripes: twice the number of available
+	 * processors, up to 64.
+	 * 
+	 * @return the default number of stripes
+	 * @since JWI 2.4.0
+	 */
+	public static int defaultStripes() {
+		return Math.min(64, 2*Runtime.getRuntime().availableProcessors());
+	}
+
+}